@@ -180,12 +180,12 @@ aliasClause
 
 // ---- Show Devices
 showDevices
-    : SHOW DEVICES prefixPath? (WITH (STORAGE GROUP | DATABASE))? devicesWhereClause? rowPaginationClause?
+    : SHOW DEVICES prefixPath? (WITH (STORAGE GROUP | DATABASE))? devicesWhereClause? startAfterClause? rowPaginationClause?
     ;
 
 // ---- Show Timeseries
 showTimeseries
-    : SHOW LATEST? TIMESERIES prefixPath? timeseriesWhereClause? rowPaginationClause?
+    : SHOW LATEST? TIMESERIES prefixPath? timeseriesWhereClause? startAfterClause? rowPaginationClause?
     ;
 
 // ---- Show Child Paths
@@ -802,6 +802,10 @@ rowPaginationClause
     | limitClause offsetClause
     ;
 
+startAfterClause
+    : AFTER fullPath
+    ;
+
 seriesPaginationClause
     : slimitClause
     | soffsetClause
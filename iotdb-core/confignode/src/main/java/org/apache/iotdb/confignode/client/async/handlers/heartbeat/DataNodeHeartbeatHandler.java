@@ -87,36 +87,49 @@ public class DataNodeHeartbeatHandler implements AsyncMethodCallback<TDataNodeHe
         .getLoadCache()
         .cacheDataNodeHeartbeatSample(nodeId, new NodeHeartbeatSample(heartbeatResp));
 
-    heartbeatResp
-        .getJudgedLeaders()
-        .forEach(
-            (regionGroupId, isLeader) -> {
-              // Update RegionGroupCache
-              loadManager
-                  .getLoadCache()
-                  .cacheRegionHeartbeatSample(
-                      regionGroupId,
-                      nodeId,
-                      new RegionHeartbeatSample(
-                          heartbeatResp.getHeartbeatTimestamp(),
-                          // Region will inherit DataNode's status
-                          RegionStatus.valueOf(heartbeatResp.getStatus())),
-                      false);
-
-              if (((TConsensusGroupType.SchemaRegion.equals(regionGroupId.getType())
-                          && SCHEMA_REGION_SHOULD_CACHE_CONSENSUS_SAMPLE)
-                      || (TConsensusGroupType.DataRegion.equals(regionGroupId.getType())
-                          && DATA_REGION_SHOULD_CACHE_CONSENSUS_SAMPLE))
-                  && Boolean.TRUE.equals(isLeader)) {
-                // Update ConsensusGroupCache when necessary
+    // The Region states are completed with the held ones if only the changes are reported
+    if (loadManager.getLoadCache().mergeRegionStates(nodeId, heartbeatResp)) {
+      heartbeatResp
+          .getJudgedLeaders()
+          .forEach(
+              (regionGroupId, isLeader) -> {
+                // Update RegionGroupCache
                 loadManager
                     .getLoadCache()
-                    .cacheConsensusSample(
+                    .cacheRegionHeartbeatSample(
                         regionGroupId,
-                        new ConsensusGroupHeartbeatSample(
-                            heartbeatResp.getConsensusLogicalTimeMap().get(regionGroupId), nodeId));
-              }
-            });
+                        nodeId,
+                        new RegionHeartbeatSample(
+                            heartbeatResp.getHeartbeatTimestamp(),
+                            // Region will inherit DataNode's status
+                            RegionStatus.valueOf(heartbeatResp.getStatus())),
+                        false);
+
+                if (((TConsensusGroupType.SchemaRegion.equals(regionGroupId.getType())
+                            && SCHEMA_REGION_SHOULD_CACHE_CONSENSUS_SAMPLE)
+                        || (TConsensusGroupType.DataRegion.equals(regionGroupId.getType())
+                            && DATA_REGION_SHOULD_CACHE_CONSENSUS_SAMPLE))
+                    && Boolean.TRUE.equals(isLeader)) {
+                  // Update ConsensusGroupCache when necessary
+                  loadManager
+                      .getLoadCache()
+                      .cacheConsensusSample(
+                          regionGroupId,
+                          new ConsensusGroupHeartbeatSample(
+                              heartbeatResp.getConsensusLogicalTimeMap().get(regionGroupId),
+                              nodeId));
+                }
+              });
+    }
+
+    if (heartbeatResp.isSetRegionWrittenPointsMap()) {
+      loadManager
+          .getLoadCache()
+          .cacheRegionWrittenPoints(
+              nodeId,
+              heartbeatResp.getHeartbeatTimestamp(),
+              heartbeatResp.getRegionWrittenPointsMap());
+    }
 
     if (heartbeatResp.getRegionDeviceUsageMap() != null) {
       deviceNum.putAll(heartbeatResp.getRegionDeviceUsageMap());
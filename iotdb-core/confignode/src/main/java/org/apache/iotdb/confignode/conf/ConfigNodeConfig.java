@@ -106,6 +106,12 @@ public class ConfigNodeConfig {
   /** The maximum number of DataRegions expected to be managed by each DataNode. */
   private double dataRegionPerDataNode = 5.0;
 
+  /**
+   * How long before the next time partition begins that its DataPartitions are created in advance
+   * for the SeriesPartitionSlots written in the current time partition. 0 means disabled.
+   */
+  private long dataPartitionPreCreateAheadTimeInMs = 600_000L;
+
   /** RegionGroup allocate policy. */
   private RegionBalancer.RegionGroupAllocatePolicy regionGroupAllocatePolicy =
       RegionBalancer.RegionGroupAllocatePolicy.GCR;
@@ -195,6 +201,18 @@ public class ConfigNodeConfig {
   /** Whether to enable auto leader balance for IoTConsensus protocol. */
   private boolean enableAutoLeaderBalanceForIoTConsensus = true;
 
+  /**
+   * The maximum number of leader transfers in each leader balance, when leaderDistributionPolicy
+   * is LOAD.
+   */
+  private int loadBalanceMaxLeaderTransferNum = 8;
+
+  /**
+   * The maximum number of Region migrations proposed to even out the write load of DataNodes, when
+   * leaderDistributionPolicy is LOAD.
+   */
+  private int loadBalanceMaxRegionMigrationNum = 2;
+
   /** The route priority policy of cluster read/write requests. */
   private String routePriorityPolicy = IPriorityBalancer.LEADER_POLICY;
 
@@ -542,6 +560,14 @@ public class ConfigNodeConfig {
     this.dataRegionPerDataNode = dataRegionPerDataNode;
   }
 
+  public long getDataPartitionPreCreateAheadTimeInMs() {
+    return dataPartitionPreCreateAheadTimeInMs;
+  }
+
+  public void setDataPartitionPreCreateAheadTimeInMs(long dataPartitionPreCreateAheadTimeInMs) {
+    this.dataPartitionPreCreateAheadTimeInMs = dataPartitionPreCreateAheadTimeInMs;
+  }
+
   public RegionBalancer.RegionGroupAllocatePolicy getRegionGroupAllocatePolicy() {
     return regionGroupAllocatePolicy;
   }
@@ -716,6 +742,22 @@ public class ConfigNodeConfig {
     this.enableAutoLeaderBalanceForIoTConsensus = enableAutoLeaderBalanceForIoTConsensus;
   }
 
+  public int getLoadBalanceMaxLeaderTransferNum() {
+    return loadBalanceMaxLeaderTransferNum;
+  }
+
+  public void setLoadBalanceMaxLeaderTransferNum(int loadBalanceMaxLeaderTransferNum) {
+    this.loadBalanceMaxLeaderTransferNum = loadBalanceMaxLeaderTransferNum;
+  }
+
+  public int getLoadBalanceMaxRegionMigrationNum() {
+    return loadBalanceMaxRegionMigrationNum;
+  }
+
+  public void setLoadBalanceMaxRegionMigrationNum(int loadBalanceMaxRegionMigrationNum) {
+    this.loadBalanceMaxRegionMigrationNum = loadBalanceMaxRegionMigrationNum;
+  }
+
   public String getRoutePriorityPolicy() {
     return routePriorityPolicy;
   }
@@ -277,6 +277,14 @@ public class ConfigNodeDescriptor {
                     "data_region_per_data_node", String.valueOf(conf.getDataRegionPerDataNode()))
                 .trim()));
 
+    conf.setDataPartitionPreCreateAheadTimeInMs(
+        Long.parseLong(
+            properties
+                .getProperty(
+                    "data_partition_pre_create_ahead_time_in_ms",
+                    String.valueOf(conf.getDataPartitionPreCreateAheadTimeInMs()))
+                .trim()));
+
     try {
       conf.setRegionAllocateStrategy(
           RegionBalancer.RegionGroupAllocatePolicy.valueOf(
@@ -356,15 +364,33 @@ public class ConfigNodeDescriptor {
             .getProperty("leader_distribution_policy", conf.getLeaderDistributionPolicy())
             .trim();
     if (AbstractLeaderBalancer.GREEDY_POLICY.equals(leaderDistributionPolicy)
-        || AbstractLeaderBalancer.CFD_POLICY.equals(leaderDistributionPolicy)) {
+        || AbstractLeaderBalancer.CFD_POLICY.equals(leaderDistributionPolicy)
+        || AbstractLeaderBalancer.LOAD_POLICY.equals(leaderDistributionPolicy)) {
       conf.setLeaderDistributionPolicy(leaderDistributionPolicy);
     } else {
       throw new IOException(
           String.format(
-              "Unknown leader_distribution_policy: %s, " + "please set to \"GREEDY\" or \"CFD\"",
+              "Unknown leader_distribution_policy: %s, "
+                  + "please set to \"GREEDY\", \"CFD\" or \"LOAD\"",
               leaderDistributionPolicy));
     }
 
+    conf.setLoadBalanceMaxLeaderTransferNum(
+        Integer.parseInt(
+            properties
+                .getProperty(
+                    "load_balance_max_leader_transfer_num",
+                    String.valueOf(conf.getLoadBalanceMaxLeaderTransferNum()))
+                .trim()));
+
+    conf.setLoadBalanceMaxRegionMigrationNum(
+        Integer.parseInt(
+            properties
+                .getProperty(
+                    "load_balance_max_region_migration_num",
+                    String.valueOf(conf.getLoadBalanceMaxRegionMigrationNum()))
+                .trim()));
+
     conf.setEnableAutoLeaderBalanceForRatisConsensus(
         Boolean.parseBoolean(
             properties
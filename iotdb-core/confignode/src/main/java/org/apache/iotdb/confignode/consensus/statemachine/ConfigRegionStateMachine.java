@@ -257,6 +257,7 @@ public class ConfigRegionStateMachine implements IStateMachine, IStateMachine.Ev
       configManager.getProcedureManager().stopExecutor();
       configManager.getRetryFailedTasksThread().stopRetryFailedTasksService();
       configManager.getPartitionManager().stopRegionCleaner();
+      configManager.getPartitionManager().stopDataPartitionPreCreator();
       configManager.getCQManager().stopCQScheduler();
       configManager.getClusterSchemaManager().clearSchemaQuotaCache();
       // Remove Metric after leader change
@@ -292,6 +293,7 @@ public class ConfigRegionStateMachine implements IStateMachine, IStateMachine.Ev
         () -> configManager.getProcedureManager().getStore().getProcedureInfo().upgrade());
     configManager.getRetryFailedTasksThread().startRetryFailedTasksService();
     configManager.getPartitionManager().startRegionCleaner();
+    configManager.getPartitionManager().startDataPartitionPreCreator();
     configManager.checkUserPathPrivilege();
     // Add Metric after leader ready
     configManager.addMetrics();
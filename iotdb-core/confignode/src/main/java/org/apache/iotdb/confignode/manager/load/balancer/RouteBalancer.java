@@ -33,8 +33,10 @@ import org.apache.iotdb.confignode.conf.ConfigNodeDescriptor;
 import org.apache.iotdb.confignode.manager.IManager;
 import org.apache.iotdb.confignode.manager.ProcedureManager;
 import org.apache.iotdb.confignode.manager.load.LoadManager;
+import org.apache.iotdb.confignode.manager.load.balancer.region.RegionMigrationPlanner;
 import org.apache.iotdb.confignode.manager.load.balancer.router.leader.AbstractLeaderBalancer;
 import org.apache.iotdb.confignode.manager.load.balancer.router.leader.GreedyLeaderBalancer;
+import org.apache.iotdb.confignode.manager.load.balancer.router.leader.LoadAwareLeaderBalancer;
 import org.apache.iotdb.confignode.manager.load.balancer.router.leader.MinCostFlowLeaderBalancer;
 import org.apache.iotdb.confignode.manager.load.balancer.router.priority.GreedyPriorityBalancer;
 import org.apache.iotdb.confignode.manager.load.balancer.router.priority.IPriorityBalancer;
@@ -46,6 +48,7 @@ import org.apache.iotdb.confignode.manager.load.subscriber.NodeStatisticsChangeE
 import org.apache.iotdb.confignode.manager.load.subscriber.RegionGroupStatisticsChangeEvent;
 import org.apache.iotdb.confignode.manager.node.NodeManager;
 import org.apache.iotdb.confignode.manager.partition.PartitionManager;
+import org.apache.iotdb.confignode.rpc.thrift.TMigrateRegionReq;
 import org.apache.iotdb.consensus.ConsensusFactory;
 import org.apache.iotdb.mpp.rpc.thrift.TRegionLeaderChangeReq;
 import org.apache.iotdb.mpp.rpc.thrift.TRegionLeaderChangeResp;
@@ -56,6 +59,8 @@ import org.apache.tsfile.utils.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -111,6 +116,9 @@ public class RouteBalancer implements IClusterStatusSubscriber {
   private static final long BALANCE_RATIS_LEADER_FAILED_INTERVAL_IN_NS = 20 * 1000L * 1000L * 1000L;
   private final Map<TConsensusGroupId, Long> lastFailedTimeForLeaderBalance;
 
+  // The Region migrations last proposed to even out the write load of DataNodes
+  private List<TMigrateRegionReq> lastRegionMigrationProposals = Collections.emptyList();
+
   public RouteBalancer(IManager configManager) {
     this.configManager = configManager;
     this.priorityMapLock = new ReentrantReadWriteLock();
@@ -121,6 +129,12 @@ public class RouteBalancer implements IClusterStatusSubscriber {
       case AbstractLeaderBalancer.GREEDY_POLICY:
         this.leaderBalancer = new GreedyLeaderBalancer();
         break;
+      case AbstractLeaderBalancer.LOAD_POLICY:
+        this.leaderBalancer =
+            new LoadAwareLeaderBalancer(
+                () -> getLoadManager().getLoadCache().getRegionGroupWriteLoadMap(),
+                CONF.getLoadBalanceMaxLeaderTransferNum());
+        break;
       case AbstractLeaderBalancer.CFD_POLICY:
       default:
         this.leaderBalancer = new MinCostFlowLeaderBalancer();
@@ -146,6 +160,37 @@ public class RouteBalancer implements IClusterStatusSubscriber {
     if (IS_ENABLE_AUTO_LEADER_BALANCE_FOR_DATA_REGION) {
       balanceRegionLeader(TConsensusGroupType.DataRegion, DATA_REGION_CONSENSUS_PROTOCOL_CLASS);
     }
+    if (AbstractLeaderBalancer.LOAD_POLICY.equals(CONF.getLeaderDistributionPolicy())) {
+      proposeRegionMigrations();
+    }
+  }
+
+  /**
+   * Propose the DataRegion migrations that even out the write load of DataNodes. The migrations
+   * are only logged for the administrator to carry out, since moving the data of a Region costs
+   * far more than transferring its leader.
+   */
+  private void proposeRegionMigrations() {
+    List<TMigrateRegionReq> proposals =
+        RegionMigrationPlanner.planMigrations(
+            getLoadManager()
+                .getLoadCache()
+                .getCurrentRegionLocationMap(TConsensusGroupType.DataRegion),
+            getLoadManager().getLoadCache().getRegionGroupWriteLoadMap(),
+            new HashSet<>(
+                getLoadManager().getLoadCache().filterDataNodeThroughStatus(NodeStatus.Running)),
+            CONF.getLoadBalanceMaxRegionMigrationNum());
+    if (!proposals.equals(lastRegionMigrationProposals)) {
+      lastRegionMigrationProposals = proposals;
+      proposals.forEach(
+          proposal ->
+              LOGGER.info(
+                  "[LoadBalancer] The write load of DataNodes is unbalanced, "
+                      + "consider: migrate region {} from {} to {}",
+                  proposal.getRegionId(),
+                  proposal.getFromId(),
+                  proposal.getToId()));
+    }
   }
 
   private void balanceRegionLeader(
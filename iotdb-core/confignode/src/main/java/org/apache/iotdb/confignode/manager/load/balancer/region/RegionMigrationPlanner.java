@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.confignode.manager.load.balancer.region;
+
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
+import org.apache.iotdb.confignode.rpc.thrift.TMigrateRegionReq;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Plan the Region migrations that even out the write load among DataNodes. Since every Region of a
+ * RegionGroup applies all the points written to the RegionGroup, the load of a DataNode is the sum
+ * of the loads of all the RegionGroups it holds a Region of.
+ */
+public class RegionMigrationPlanner {
+
+  // A DataNode is relieved only when its load exceeds the average by this ratio
+  private static final double LOAD_IMBALANCE_TOLERANCE = 0.2;
+
+  private RegionMigrationPlanner() {
+    // Empty constructor
+  }
+
+  /**
+   * Plan the Region migrations, moving the Regions of the heaviest RegionGroups away from the most
+   * loaded DataNodes one at a time, until no migration can lower the load or the budget runs out.
+   *
+   * @param regionLocationMap Map<RegionGroupId, the DataNodes where its Regions reside>
+   * @param regionGroupLoadMap Map<RegionGroupId, load>
+   * @param availableDataNodeIds the DataNodes that can accept Regions
+   * @param maxMigrationNum the maximum number of migrations
+   * @return the planned migrations in order
+   */
+  public static List<TMigrateRegionReq> planMigrations(
+      Map<TConsensusGroupId, Set<Integer>> regionLocationMap,
+      Map<TConsensusGroupId, Double> regionGroupLoadMap,
+      Set<Integer> availableDataNodeIds,
+      int maxMigrationNum) {
+    List<TMigrateRegionReq> migrations = new ArrayList<>();
+    if (availableDataNodeIds.size() < 2) {
+      return migrations;
+    }
+
+    Map<Integer, Double> dataNodeLoadMap = new TreeMap<>();
+    availableDataNodeIds.forEach(dataNodeId -> dataNodeLoadMap.put(dataNodeId, 0d));
+    Map<TConsensusGroupId, Set<Integer>> locationMap = new TreeMap<>();
+    regionLocationMap.forEach(
+        (regionGroupId, dataNodeIds) -> {
+          locationMap.put(regionGroupId, new HashSet<>(dataNodeIds));
+          double load = regionGroupLoadMap.getOrDefault(regionGroupId, 0d);
+          dataNodeIds.forEach(
+              dataNodeId -> dataNodeLoadMap.computeIfPresent(dataNodeId, (id, sum) -> sum + load));
+        });
+    double averageLoad =
+        dataNodeLoadMap.values().stream().mapToDouble(Double::doubleValue).sum()
+            / dataNodeLoadMap.size();
+
+    while (migrations.size() < maxMigrationNum) {
+      int sourceId =
+          dataNodeLoadMap.entrySet().stream()
+              .max(Map.Entry.comparingByValue())
+              .map(Map.Entry::getKey)
+              .orElse(-1);
+      double sourceLoad = dataNodeLoadMap.get(sourceId);
+      if (sourceLoad <= averageLoad * (1 + LOAD_IMBALANCE_TOLERANCE)) {
+        break;
+      }
+
+      TMigrateRegionReq migration = null;
+      List<TConsensusGroupId> sourceRegionGroups = new ArrayList<>();
+      locationMap.forEach(
+          (regionGroupId, dataNodeIds) -> {
+            if (dataNodeIds.contains(sourceId)) {
+              sourceRegionGroups.add(regionGroupId);
+            }
+          });
+      sourceRegionGroups.sort(
+          Comparator.comparingDouble(
+                  (TConsensusGroupId id) -> regionGroupLoadMap.getOrDefault(id, 0d))
+              .reversed());
+      for (TConsensusGroupId regionGroupId : sourceRegionGroups) {
+        double load = regionGroupLoadMap.getOrDefault(regionGroupId, 0d);
+        Set<Integer> dataNodeIds = locationMap.get(regionGroupId);
+        int destinationId =
+            dataNodeLoadMap.entrySet().stream()
+                .filter(entry -> !dataNodeIds.contains(entry.getKey()))
+                .min(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .orElse(-1);
+        // The migration is worthwhile only if it lowers the higher load of the two DataNodes
+        if (load > 0
+            && destinationId != -1
+            && dataNodeLoadMap.get(destinationId) + load < sourceLoad) {
+          dataNodeIds.remove(sourceId);
+          dataNodeIds.add(destinationId);
+          dataNodeLoadMap.merge(sourceId, -load, Double::sum);
+          dataNodeLoadMap.merge(destinationId, load, Double::sum);
+          migration = new TMigrateRegionReq(regionGroupId.getId(), sourceId, destinationId);
+          break;
+        }
+      }
+      if (migration == null) {
+        break;
+      }
+      migrations.add(migration);
+    }
+    return migrations;
+  }
+}
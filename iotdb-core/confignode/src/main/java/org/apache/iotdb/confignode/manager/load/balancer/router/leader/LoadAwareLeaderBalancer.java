@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.confignode.manager.load.balancer.router.leader;
+
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
+import org.apache.iotdb.confignode.manager.load.cache.node.NodeStatistics;
+import org.apache.iotdb.confignode.manager.load.cache.region.RegionStatistics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Leader distribution balancer that evens out the load of RegionGroup-leaders among DataNodes.
+ * Each RegionGroup is weighed by its write load estimated from heartbeats, plus a base load so that
+ * the leader count is balanced when there is no write at all. Starting from the current
+ * distribution, leaders are transferred away from the most loaded DataNodes one at a time, until
+ * no transfer can lower the load or the transfer budget runs out.
+ */
+public class LoadAwareLeaderBalancer extends AbstractLeaderBalancer {
+
+  // The base load of each RegionGroup, in points per second
+  private static final double BASE_LOAD = 1;
+  // A leader is transferred only if it lowers the load of the source DataNode by more than this
+  // ratio of its own load, so that small fluctuations won't move the leaders back and forth
+  private static final double MIN_TRANSFER_GAIN_RATIO = 0.1;
+
+  private final Supplier<Map<TConsensusGroupId, Double>> regionGroupLoadSupplier;
+  private final int maxLeaderTransferNum;
+
+  // Map<RegionGroupId, load>
+  private final Map<TConsensusGroupId, Double> regionGroupLoadMap;
+  // Map<DataNodeId, the total load of the RegionGroups it leads>
+  private final Map<Integer, Double> leaderLoadMap;
+
+  /**
+   * @param regionGroupLoadSupplier provides the write load of each RegionGroup
+   * @param maxLeaderTransferNum the maximum number of leader transfers in each balance, except the
+   *     ones required by unavailable leaders
+   */
+  public LoadAwareLeaderBalancer(
+      Supplier<Map<TConsensusGroupId, Double>> regionGroupLoadSupplier, int maxLeaderTransferNum) {
+    super();
+    this.regionGroupLoadSupplier = regionGroupLoadSupplier;
+    this.maxLeaderTransferNum = maxLeaderTransferNum;
+    this.regionGroupLoadMap = new TreeMap<>();
+    this.leaderLoadMap = new TreeMap<>();
+  }
+
+  @Override
+  public Map<TConsensusGroupId, Integer> generateOptimalLeaderDistribution(
+      Map<String, List<TConsensusGroupId>> databaseRegionGroupMap,
+      Map<TConsensusGroupId, Set<Integer>> regionLocationMap,
+      Map<TConsensusGroupId, Integer> regionLeaderMap,
+      Map<Integer, NodeStatistics> dataNodeStatisticsMap,
+      Map<TConsensusGroupId, Map<Integer, RegionStatistics>> regionStatisticsMap) {
+    initialize(
+        databaseRegionGroupMap,
+        regionLocationMap,
+        regionLeaderMap,
+        dataNodeStatisticsMap,
+        regionStatisticsMap);
+    Map<TConsensusGroupId, Integer> result = constructLoadAwareDistribution();
+    clear();
+    return result;
+  }
+
+  @Override
+  protected void clear() {
+    super.clear();
+    this.regionGroupLoadMap.clear();
+    this.leaderLoadMap.clear();
+  }
+
+  private double getLoad(TConsensusGroupId regionGroupId) {
+    return BASE_LOAD + regionGroupLoadMap.getOrDefault(regionGroupId, 0d);
+  }
+
+  private boolean isLeaderAvailable(TConsensusGroupId regionGroupId, int dataNodeId) {
+    return isDataNodeAvailable(dataNodeId) && isRegionAvailable(regionGroupId, dataNodeId);
+  }
+
+  private Map<TConsensusGroupId, Integer> constructLoadAwareDistribution() {
+    regionGroupLoadMap.putAll(regionGroupLoadSupplier.get());
+    dataNodeStatisticsMap.keySet().stream()
+        .filter(this::isDataNodeAvailable)
+        .forEach(dataNodeId -> leaderLoadMap.put(dataNodeId, 0d));
+    if (leaderLoadMap.isEmpty()) {
+      return new ConcurrentHashMap<>(regionLeaderMap);
+    }
+
+    // Keep the available leaders, and collect the RegionGroups whose leader must be reselected
+    List<TConsensusGroupId> leaderlessRegionGroups = new ArrayList<>();
+    for (TConsensusGroupId regionGroupId : regionGroupIntersection) {
+      int leaderId = regionLeaderMap.getOrDefault(regionGroupId, -1);
+      if (isLeaderAvailable(regionGroupId, leaderId)) {
+        leaderLoadMap.merge(leaderId, getLoad(regionGroupId), Double::sum);
+      } else {
+        leaderlessRegionGroups.add(regionGroupId);
+      }
+    }
+
+    // Place the heaviest leaders first, each on the least loaded DataNode
+    leaderlessRegionGroups.sort(
+        Comparator.comparingDouble((TConsensusGroupId id) -> getLoad(id)).reversed());
+    for (TConsensusGroupId regionGroupId : leaderlessRegionGroups) {
+      int leaderId = -1;
+      for (int dataNodeId : regionLocationMap.get(regionGroupId)) {
+        if (isLeaderAvailable(regionGroupId, dataNodeId)
+            && (leaderId == -1 || leaderLoadMap.get(dataNodeId) < leaderLoadMap.get(leaderId))) {
+          leaderId = dataNodeId;
+        }
+      }
+      if (leaderId != -1) {
+        regionLeaderMap.put(regionGroupId, leaderId);
+        leaderLoadMap.merge(leaderId, getLoad(regionGroupId), Double::sum);
+      }
+    }
+
+    // Transfer leaders away from the most loaded DataNodes within the budget
+    for (int transferNum = 0; transferNum < maxLeaderTransferNum; transferNum++) {
+      if (!transferLeaderFromLoadedDataNode()) {
+        break;
+      }
+    }
+    return new ConcurrentHashMap<>(regionLeaderMap);
+  }
+
+  /**
+   * Transfer one leader from the most loaded DataNode that can be relieved.
+   *
+   * @return true if a leader is transferred
+   */
+  private boolean transferLeaderFromLoadedDataNode() {
+    List<Integer> sourceIds = new ArrayList<>(leaderLoadMap.keySet());
+    sourceIds.sort(Comparator.comparingDouble((Integer id) -> leaderLoadMap.get(id)).reversed());
+
+    for (int sourceId : sourceIds) {
+      double sourceLoad = leaderLoadMap.get(sourceId);
+      TConsensusGroupId bestRegionGroupId = null;
+      int bestDestinationId = -1;
+      double bestMaxLoad = sourceLoad;
+      for (TConsensusGroupId regionGroupId : regionGroupIntersection) {
+        if (regionLeaderMap.get(regionGroupId) != sourceId) {
+          continue;
+        }
+        double load = getLoad(regionGroupId);
+        for (int destinationId : regionLocationMap.get(regionGroupId)) {
+          if (destinationId == sourceId || !isLeaderAvailable(regionGroupId, destinationId)) {
+            continue;
+          }
+          // The transfer is worthwhile only if it lowers the higher load of the two DataNodes
+          double maxLoad = Math.max(sourceLoad - load, leaderLoadMap.get(destinationId) + load);
+          if (maxLoad < bestMaxLoad && maxLoad < sourceLoad - MIN_TRANSFER_GAIN_RATIO * load) {
+            bestRegionGroupId = regionGroupId;
+            bestDestinationId = destinationId;
+            bestMaxLoad = maxLoad;
+          }
+        }
+      }
+      if (bestRegionGroupId != null) {
+        double load = getLoad(bestRegionGroupId);
+        regionLeaderMap.put(bestRegionGroupId, bestDestinationId);
+        leaderLoadMap.merge(sourceId, -load, Double::sum);
+        leaderLoadMap.merge(bestDestinationId, load, Double::sum);
+        return true;
+      }
+    }
+    return false;
+  }
+}
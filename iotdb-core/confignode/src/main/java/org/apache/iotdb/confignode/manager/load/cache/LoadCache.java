@@ -42,8 +42,10 @@ import org.apache.iotdb.confignode.manager.load.cache.node.NodeStatistics;
 import org.apache.iotdb.confignode.manager.load.cache.region.RegionGroupCache;
 import org.apache.iotdb.confignode.manager.load.cache.region.RegionGroupStatistics;
 import org.apache.iotdb.confignode.manager.load.cache.region.RegionHeartbeatSample;
+import org.apache.iotdb.confignode.manager.load.cache.region.RegionLoadCache;
 import org.apache.iotdb.confignode.manager.load.cache.region.RegionStatistics;
 import org.apache.iotdb.confignode.manager.partition.RegionGroupStatus;
+import org.apache.iotdb.mpp.rpc.thrift.TDataNodeHeartbeatResp;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -85,6 +87,8 @@ public class LoadCache {
   private final Map<TConsensusGroupId, ConsensusGroupCache> consensusGroupCacheMap;
   // Map<DataNodeId, confirmedConfigNodes>
   private final Map<Integer, Set<TEndPoint>> confirmedConfigNodeMap;
+  // The write load of each RegionGroup
+  private final RegionLoadCache regionLoadCache;
 
   public LoadCache() {
     this.nodeCacheMap = new ConcurrentHashMap<>();
@@ -92,6 +96,7 @@ public class LoadCache {
     this.regionGroupCacheMap = new ConcurrentHashMap<>();
     this.consensusGroupCacheMap = new ConcurrentHashMap<>();
     this.confirmedConfigNodeMap = new ConcurrentHashMap<>();
+    this.regionLoadCache = new RegionLoadCache();
   }
 
   public void initHeartbeatCache(IManager configManager) {
@@ -166,6 +171,7 @@ public class LoadCache {
     nodeCacheMap.clear();
     regionGroupCacheMap.clear();
     consensusGroupCacheMap.clear();
+    regionLoadCache.clear();
   }
 
   /**
@@ -225,6 +231,34 @@ public class LoadCache {
     Optional.ofNullable(heartbeatProcessingMap.get(nodeId)).ifPresent(node -> node.set(false));
   }
 
+  /**
+   * Get the version of the Region states held for the specified DataNode.
+   *
+   * @param dataNodeId the id of the DataNode
+   * @return {@link DataNodeHeartbeatCache#NO_REGION_STATE_VERSION} if none is held
+   */
+  public long getRegionStateVersion(int dataNodeId) {
+    BaseNodeCache nodeCache = nodeCacheMap.get(dataNodeId);
+    return nodeCache instanceof DataNodeHeartbeatCache
+        ? ((DataNodeHeartbeatCache) nodeCache).getRegionStateVersion()
+        : DataNodeHeartbeatCache.NO_REGION_STATE_VERSION;
+  }
+
+  /**
+   * Complete the Region states of a heartbeat response with the ones held for the DataNode.
+   *
+   * @param dataNodeId the id of the DataNode
+   * @param heartbeatResp the heartbeat response
+   * @return false if the response only carries the changes that can not be merged
+   */
+  public boolean mergeRegionStates(int dataNodeId, TDataNodeHeartbeatResp heartbeatResp) {
+    BaseNodeCache nodeCache = nodeCacheMap.get(dataNodeId);
+    if (nodeCache instanceof DataNodeHeartbeatCache) {
+      return ((DataNodeHeartbeatCache) nodeCache).mergeRegionStates(heartbeatResp);
+    }
+    return !heartbeatResp.isSetBaseRegionStateVersion();
+  }
+
   public void resetHeartbeatProcessing(int nodeId) {
     heartbeatProcessingMap.get(nodeId).set(false);
   }
@@ -289,6 +323,26 @@ public class LoadCache {
   public void removeRegionCache(TConsensusGroupId regionGroupId, int dataNodeId) {
     Optional.ofNullable(regionGroupCacheMap.get(regionGroupId))
         .ifPresent(cache -> cache.removeRegionCache(dataNodeId));
+    regionLoadCache.removeRegion(regionGroupId, dataNodeId);
+  }
+
+  /**
+   * Cache the number of points written to each Region on the specified DataNode.
+   *
+   * @param dataNodeId the id of the DataNode
+   * @param sampleNanoTimestamp the time when the numbers are sampled
+   * @param regionWrittenPointsMap Map<RegionGroupId, the total number of points written>
+   */
+  public void cacheRegionWrittenPoints(
+      int dataNodeId, long sampleNanoTimestamp, Map<TConsensusGroupId, Long> regionWrittenPointsMap) {
+    regionWrittenPointsMap.forEach(
+        (regionGroupId, writtenPoints) -> {
+          // Only cache the sample when the corresponding RegionGroup exists
+          if (regionGroupCacheMap.containsKey(regionGroupId)) {
+            regionLoadCache.cacheWrittenPoints(
+                regionGroupId, dataNodeId, sampleNanoTimestamp, writtenPoints);
+          }
+        });
   }
 
   /**
@@ -653,6 +707,16 @@ public class LoadCache {
   public void removeRegionGroupCache(TConsensusGroupId consensusGroupId) {
     regionGroupCacheMap.remove(consensusGroupId);
     consensusGroupCacheMap.remove(consensusGroupId);
+    regionLoadCache.removeRegionGroup(consensusGroupId);
+  }
+
+  /**
+   * Get the write load of each RegionGroup estimated from heartbeats.
+   *
+   * @return Map<RegionGroupId, points written per second>
+   */
+  public Map<TConsensusGroupId, Double> getRegionGroupWriteLoadMap() {
+    return regionLoadCache.getRegionGroupWriteLoadMap();
   }
 
   /**
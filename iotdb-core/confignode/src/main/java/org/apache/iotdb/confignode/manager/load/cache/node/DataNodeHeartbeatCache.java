@@ -19,17 +19,29 @@
 
 package org.apache.iotdb.confignode.manager.load.cache.node;
 
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
 import org.apache.iotdb.commons.cluster.NodeStatus;
+import org.apache.iotdb.mpp.rpc.thrift.TDataNodeHeartbeatResp;
 import org.apache.iotdb.mpp.rpc.thrift.TLoadSample;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
 
 /** Heartbeat cache for cluster DataNodes. */
 public class DataNodeHeartbeatCache extends BaseNodeCache {
 
+  public static final long NO_REGION_STATE_VERSION = -1;
+
   // TODO: The load sample may be moved into NodeStatistics in the future
   private final AtomicReference<TLoadSample> latestLoadSample;
 
+  // The Region states last reported by the DataNode, so that it only needs to report the changes
+  private final Object regionStateLock = new Object();
+  private long regionStateVersion = NO_REGION_STATE_VERSION;
+  private final Map<TConsensusGroupId, Boolean> judgedLeaders = new HashMap<>();
+  private final Map<TConsensusGroupId, Long> logicalClocks = new HashMap<>();
+
   /** Constructor for create DataNodeHeartbeatCache with default NodeStatistics. */
   public DataNodeHeartbeatCache(int dataNodeId) {
     super(dataNodeId);
@@ -79,4 +91,44 @@ public class DataNodeHeartbeatCache extends BaseNodeCache {
   public double getFreeDiskSpace() {
     return latestLoadSample.get().getFreeDiskSpace();
   }
+
+  public long getRegionStateVersion() {
+    synchronized (regionStateLock) {
+      return regionStateVersion;
+    }
+  }
+
+  /**
+   * Merge the Region states of a heartbeat response into the ones held, and then fill all of them
+   * back into the response.
+   *
+   * @param heartbeatResp the heartbeat response
+   * @return false if the response only carries the changes over a version that is not held, in
+   *     which case the next heartbeat will ask for all the Region states
+   */
+  public boolean mergeRegionStates(TDataNodeHeartbeatResp heartbeatResp) {
+    synchronized (regionStateLock) {
+      if (heartbeatResp.isSetBaseRegionStateVersion()) {
+        if (heartbeatResp.getBaseRegionStateVersion() != regionStateVersion) {
+          regionStateVersion = NO_REGION_STATE_VERSION;
+          return false;
+        }
+        heartbeatResp.getRemovedRegionIds().forEach(judgedLeaders::remove);
+        heartbeatResp.getRemovedRegionIds().forEach(logicalClocks::remove);
+      } else {
+        judgedLeaders.clear();
+        logicalClocks.clear();
+      }
+      judgedLeaders.putAll(heartbeatResp.getJudgedLeaders());
+      logicalClocks.putAll(heartbeatResp.getConsensusLogicalTimeMap());
+      // DataNodes of earlier versions always report all the Region states
+      regionStateVersion =
+          heartbeatResp.isSetRegionStateVersion()
+              ? heartbeatResp.getRegionStateVersion()
+              : NO_REGION_STATE_VERSION;
+      heartbeatResp.setJudgedLeaders(new HashMap<>(judgedLeaders));
+      heartbeatResp.setConsensusLogicalTimeMap(new HashMap<>(logicalClocks));
+      return true;
+    }
+  }
 }
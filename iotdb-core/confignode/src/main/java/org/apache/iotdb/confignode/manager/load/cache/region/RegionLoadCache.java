@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.confignode.manager.load.cache.region;
+
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RegionLoadCache estimates the write load of each RegionGroup, in points per second, from the
+ * total number of points written to its Regions that are reported in heartbeats. The write rate
+ * between two samples is smoothed by an exponentially weighted moving average, so that a short
+ * burst won't make a RegionGroup look hot.
+ */
+public class RegionLoadCache {
+
+  // The weight of the latest write rate in the moving average
+  private static final double SMOOTHING_FACTOR = 0.3;
+
+  // Map<RegionGroupId, Map<DataNodeId, RegionLoad>>
+  private final Map<TConsensusGroupId, Map<Integer, RegionLoad>> regionLoadMap;
+
+  public RegionLoadCache() {
+    this.regionLoadMap = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Cache the number of points written to a Region.
+   *
+   * @param regionGroupId the id of the RegionGroup
+   * @param dataNodeId the id of the DataNode where the Region resides
+   * @param sampleNanoTimestamp the time when the number is sampled
+   * @param writtenPoints the total number of points written to the Region
+   */
+  public void cacheWrittenPoints(
+      TConsensusGroupId regionGroupId,
+      int dataNodeId,
+      long sampleNanoTimestamp,
+      long writtenPoints) {
+    regionLoadMap
+        .computeIfAbsent(regionGroupId, empty -> new ConcurrentHashMap<>())
+        .computeIfAbsent(dataNodeId, empty -> new RegionLoad())
+        .update(sampleNanoTimestamp, writtenPoints);
+  }
+
+  /**
+   * Get the write load of each RegionGroup. Since the points are written to every Region of a
+   * RegionGroup, the load of a RegionGroup is the highest one reported by its Regions.
+   *
+   * @return Map<RegionGroupId, points written per second>
+   */
+  public Map<TConsensusGroupId, Double> getRegionGroupWriteLoadMap() {
+    Map<TConsensusGroupId, Double> result = new TreeMap<>();
+    regionLoadMap.forEach(
+        (regionGroupId, regionLoads) ->
+            regionLoads
+                .values()
+                .forEach(
+                    regionLoad ->
+                        result.merge(regionGroupId, regionLoad.getPointsPerSecond(), Math::max)));
+    return result;
+  }
+
+  public void removeRegionGroup(TConsensusGroupId regionGroupId) {
+    regionLoadMap.remove(regionGroupId);
+  }
+
+  public void removeRegion(TConsensusGroupId regionGroupId, int dataNodeId) {
+    Map<Integer, RegionLoad> regionLoads = regionLoadMap.get(regionGroupId);
+    if (regionLoads != null) {
+      regionLoads.remove(dataNodeId);
+    }
+  }
+
+  public void clear() {
+    regionLoadMap.clear();
+  }
+
+  private static class RegionLoad {
+
+    private long lastSampleNanoTimestamp = 0;
+    private long lastWrittenPoints = -1;
+    private double pointsPerSecond = 0;
+
+    private synchronized void update(long sampleNanoTimestamp, long writtenPoints) {
+      if (lastWrittenPoints >= 0
+          && writtenPoints >= lastWrittenPoints
+          && sampleNanoTimestamp > lastSampleNanoTimestamp) {
+        double rate =
+            (double) (writtenPoints - lastWrittenPoints)
+                * TimeUnit.SECONDS.toNanos(1)
+                / (sampleNanoTimestamp - lastSampleNanoTimestamp);
+        pointsPerSecond = SMOOTHING_FACTOR * rate + (1 - SMOOTHING_FACTOR) * pointsPerSecond;
+      }
+      // Otherwise, it is the first sample or the DataNode has restarted, just take it as the base
+      if (sampleNanoTimestamp > lastSampleNanoTimestamp) {
+        lastSampleNanoTimestamp = sampleNanoTimestamp;
+        lastWrittenPoints = writtenPoints;
+      }
+    }
+
+    private synchronized double getPointsPerSecond() {
+      return pointsPerSecond;
+    }
+  }
+}
@@ -35,6 +35,7 @@ import org.apache.iotdb.confignode.manager.IManager;
 import org.apache.iotdb.confignode.manager.consensus.ConsensusManager;
 import org.apache.iotdb.confignode.manager.load.cache.LoadCache;
 import org.apache.iotdb.confignode.manager.load.cache.node.ConfigNodeHeartbeatCache;
+import org.apache.iotdb.confignode.manager.load.cache.node.DataNodeHeartbeatCache;
 import org.apache.iotdb.confignode.manager.node.NodeManager;
 import org.apache.iotdb.confignode.rpc.thrift.TConfigNodeHeartbeatReq;
 import org.apache.iotdb.mpp.rpc.thrift.TDataNodeHeartbeatReq;
@@ -181,6 +182,16 @@ public class HeartbeatService {
     }
   }
 
+  private void addRegionStateVersionToReq(int dataNodeId, TDataNodeHeartbeatReq req) {
+    // The request is serialized before sending to the next DataNode, so it can be reused
+    long regionStateVersion = loadCache.getRegionStateVersion(dataNodeId);
+    if (regionStateVersion == DataNodeHeartbeatCache.NO_REGION_STATE_VERSION) {
+      req.unsetRegionStateVersion();
+    } else {
+      req.setRegionStateVersion(regionStateVersion);
+    }
+  }
+
   private TConfigNodeHeartbeatReq genConfigNodeHeartbeatReq() {
     TConfigNodeHeartbeatReq req = new TConfigNodeHeartbeatReq();
     req.setTimestamp(System.nanoTime());
@@ -220,6 +231,7 @@ public class HeartbeatService {
    */
   private void pingRegisteredDataNodes(
       TDataNodeHeartbeatReq heartbeatReq, List<TDataNodeConfiguration> registeredDataNodes) {
+    configManager.getClusterQuotaManager().updateSpaceQuotaUsage();
     // Send heartbeat requests
     for (TDataNodeConfiguration dataNodeInfo : registeredDataNodes) {
       int dataNodeId = dataNodeInfo.getLocation().getDataNodeId();
@@ -237,8 +249,8 @@ public class HeartbeatService {
               configManager.getClusterSchemaManager()::updateTimeSeriesUsage,
               configManager.getClusterSchemaManager()::updateDeviceUsage,
               configManager.getPipeManager().getPipeRuntimeCoordinator());
-      configManager.getClusterQuotaManager().updateSpaceQuotaUsage();
       addConfigNodeLocationsToReq(dataNodeId, heartbeatReq);
+      addRegionStateVersionToReq(dataNodeId, heartbeatReq);
       AsyncDataNodeHeartbeatClientPool.getInstance()
           .getDataNodeHeartBeat(
               dataNodeInfo.getLocation().getInternalEndPoint(), heartbeatReq, handler);
@@ -30,10 +30,13 @@ import org.apache.iotdb.commons.cluster.RegionRoleType;
 import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
 import org.apache.iotdb.commons.concurrent.ThreadName;
 import org.apache.iotdb.commons.concurrent.threadpool.ScheduledExecutorUtil;
+import org.apache.iotdb.commons.conf.CommonDescriptor;
 import org.apache.iotdb.commons.partition.DataPartitionTable;
 import org.apache.iotdb.commons.partition.SchemaPartitionTable;
 import org.apache.iotdb.commons.partition.executor.SeriesPartitionExecutor;
 import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.commons.utils.CommonDateTimeUtils;
+import org.apache.iotdb.commons.utils.TimePartitionUtils;
 import org.apache.iotdb.confignode.client.DataNodeRequestType;
 import org.apache.iotdb.confignode.client.async.AsyncDataNodeClientPool;
 import org.apache.iotdb.confignode.client.async.handlers.AsyncClientHandler;
@@ -106,6 +109,7 @@ import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -143,12 +147,25 @@ public class PartitionManager {
   private final ScheduledExecutorService regionMaintainer;
   private Future<?> currentRegionMaintainerFuture;
 
+  /** DataPartition pre-creator. */
+  // Check whether to pre-create the DataPartitions of the next time partition in every 60s
+  private static final int DATA_PARTITION_PRE_CREATOR_WORK_INTERVAL = 60;
+  private final ScheduledExecutorService dataPartitionPreCreator;
+  private Future<?> currentDataPartitionPreCreatorFuture;
+
+  // The DataPartitionSlots of the getOrCreateDataPartition requests waiting for creation
+  private final Queue<Map<String, Map<TSeriesPartitionSlot, TTimeSlotList>>>
+      pendingDataPartitionSlotsQueue = new ConcurrentLinkedQueue<>();
+
   public PartitionManager(IManager configManager, PartitionInfo partitionInfo) {
     this.configManager = configManager;
     this.partitionInfo = partitionInfo;
     this.regionMaintainer =
         IoTDBThreadPoolFactory.newSingleThreadScheduledExecutor(
             ThreadName.CONFIG_NODE_REGION_MAINTAINER.getName());
+    this.dataPartitionPreCreator =
+        IoTDBThreadPoolFactory.newSingleThreadScheduledExecutor(
+            ThreadName.CONFIG_NODE_DATA_PARTITION_PRE_CREATOR.getName());
     setSeriesPartitionExecutor();
   }
 
@@ -351,6 +368,10 @@ public class PartitionManager {
       return resp;
     }
 
+    // Queue the DataPartitionSlots, so that they can be created
+    // together with the ones of other concurrent requests
+    pendingDataPartitionSlotsQueue.offer(req.getPartitionSlotsMap());
+
     // We serialize the creation process of DataPartitions to
     // ensure that each DataPartition is created by a unique CreateDataPartitionReq.
     // Because the number of DataPartitions per database is limited
@@ -364,60 +385,18 @@ public class PartitionManager {
         return resp;
       }
 
-      // Filter unassigned DataPartitionSlots
-      Map<String, Map<TSeriesPartitionSlot, TTimeSlotList>> unassignedDataPartitionSlotsMap =
-          partitionInfo.filterUnassignedDataPartitionSlots(req.getPartitionSlotsMap());
-
-      // Here we ensure that each StorageGroup has at least one DataRegion.
-      // And if some StorageGroups own too many slots, extend DataRegion for them.
-
-      // Map<StorageGroup, unassigned SeriesPartitionSlot count>
-      Map<String, Integer> unassignedDataPartitionSlotsCountMap = new ConcurrentHashMap<>();
-      unassignedDataPartitionSlotsMap.forEach(
-          (storageGroup, unassignedDataPartitionSlots) ->
-              unassignedDataPartitionSlotsCountMap.put(
-                  storageGroup, unassignedDataPartitionSlots.size()));
-      TSStatus status =
-          extendRegionGroupIfNecessary(
-              unassignedDataPartitionSlotsCountMap, TConsensusGroupType.DataRegion);
-      if (status.getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
-        // Return an error code if Region extension failed
-        resp.setStatus(status);
-        return resp;
+      // Coalesce the DataPartitionSlots of all the requests waiting here, so that a burst of
+      // requests, e.g. at the time partition boundary, is created by a single consensus write
+      Map<String, Map<TSeriesPartitionSlot, TTimeSlotList>> coalescedPartitionSlotsMap =
+          drainPendingDataPartitionSlots(req.getPartitionSlotsMap());
+      TSStatus status = createDataPartition(coalescedPartitionSlotsMap);
+      if (status.getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()
+          && countDataPartitionSlots(coalescedPartitionSlotsMap)
+              > countDataPartitionSlots(req.getPartitionSlotsMap())) {
+        // Don't fail the current request because of the DataPartitionSlots of the other requests
+        status = createDataPartition(req.getPartitionSlotsMap());
       }
-
-      Map<String, DataPartitionTable> assignedDataPartition;
-      try {
-        assignedDataPartition =
-            getLoadManager().allocateDataPartition(unassignedDataPartitionSlotsMap);
-      } catch (DatabaseNotExistsException | NoAvailableRegionGroupException e) {
-        status = getConsensusManager().confirmLeader();
-        if (status.getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
-          // The allocation might fail due to leadership change
-          resp.setStatus(status);
-          return resp;
-        }
-
-        LOGGER.error("Create DataPartition failed because: ", e);
-        if (e instanceof DatabaseNotExistsException) {
-          resp.setStatus(
-              new TSStatus(TSStatusCode.DATABASE_NOT_EXIST.getStatusCode())
-                  .setMessage(e.getMessage()));
-        } else {
-          resp.setStatus(
-              new TSStatus(TSStatusCode.NO_AVAILABLE_REGION_GROUP.getStatusCode())
-                  .setMessage(e.getMessage()));
-        }
-        return resp;
-      }
-
-      // Cache allocating result only if the current ConfigNode still holds its leadership
-      CreateDataPartitionPlan createPlan = new CreateDataPartitionPlan();
-      createPlan.setAssignedDataPartition(assignedDataPartition);
-
-      status = consensusWritePartitionResult(createPlan);
       if (status.getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
-        // The allocation might fail due to consensus error
         resp.setStatus(status);
         return resp;
       }
@@ -455,6 +434,127 @@ public class PartitionManager {
     return resp;
   }
 
+  /**
+   * Drain the DataPartitionSlots of the requests waiting for DataPartition creation, and merge them
+   * with the specified ones. The pending slots of the Databases that no longer exist are discarded.
+   *
+   * @param partitionSlotsMap The DataPartitionSlots of the current request
+   * @return Map<Database, Map<SeriesPartitionSlot, TTimeSlotList>>
+   */
+  private Map<String, Map<TSeriesPartitionSlot, TTimeSlotList>> drainPendingDataPartitionSlots(
+      Map<String, Map<TSeriesPartitionSlot, TTimeSlotList>> partitionSlotsMap) {
+    Map<String, Map<TSeriesPartitionSlot, Set<TTimePartitionSlot>>> mergedSlotsMap =
+        new HashMap<>();
+    Map<String, Map<TSeriesPartitionSlot, TTimeSlotList>> pendingSlotsMap = partitionSlotsMap;
+    while (pendingSlotsMap != null) {
+      boolean isPending = pendingSlotsMap != partitionSlotsMap;
+      pendingSlotsMap.forEach(
+          (database, partitionSlots) -> {
+            if (isPending && (!isDatabaseExist(database) || isDatabasePreDeleted(database))) {
+              return;
+            }
+            Map<TSeriesPartitionSlot, Set<TTimePartitionSlot>> mergedSlots =
+                mergedSlotsMap.computeIfAbsent(database, empty -> new HashMap<>());
+            partitionSlots.forEach(
+                (seriesPartitionSlot, timeSlotList) ->
+                    mergedSlots
+                        .computeIfAbsent(seriesPartitionSlot, empty -> new HashSet<>())
+                        .addAll(timeSlotList.getTimePartitionSlots()));
+          });
+      pendingSlotsMap = pendingDataPartitionSlotsQueue.poll();
+    }
+
+    Map<String, Map<TSeriesPartitionSlot, TTimeSlotList>> result = new ConcurrentHashMap<>();
+    mergedSlotsMap.forEach(
+        (database, mergedSlots) -> {
+          Map<TSeriesPartitionSlot, TTimeSlotList> partitionSlots = new ConcurrentHashMap<>();
+          mergedSlots.forEach(
+              (seriesPartitionSlot, timePartitionSlots) ->
+                  partitionSlots.put(
+                      seriesPartitionSlot,
+                      new TTimeSlotList(new ArrayList<>(timePartitionSlots), false, false)));
+          result.put(database, partitionSlots);
+        });
+    return result;
+  }
+
+  /**
+   * Count the distinct DataPartitionSlots, i.e. the pairs of SeriesPartitionSlot and
+   * TimePartitionSlot.
+   *
+   * @param partitionSlotsMap Map<Database, Map<SeriesPartitionSlot, TTimeSlotList>>
+   * @return The number of distinct DataPartitionSlots
+   */
+  private static int countDataPartitionSlots(
+      Map<String, Map<TSeriesPartitionSlot, TTimeSlotList>> partitionSlotsMap) {
+    int count = 0;
+    for (Map<TSeriesPartitionSlot, TTimeSlotList> partitionSlots : partitionSlotsMap.values()) {
+      for (TTimeSlotList timeSlotList : partitionSlots.values()) {
+        count += new HashSet<>(timeSlotList.getTimePartitionSlots()).size();
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Create the unassigned DataPartitions among the specified DataPartitionSlots. Only invoked in
+   * the synchronized block of getOrCreateDataPartition.
+   *
+   * @param partitionSlotsMap Map<Database, Map<SeriesPartitionSlot, TTimeSlotList>>
+   * @return SUCCESS_STATUS if all the DataPartitions are created
+   */
+  TSStatus createDataPartition(
+      Map<String, Map<TSeriesPartitionSlot, TTimeSlotList>> partitionSlotsMap) {
+    // Filter unassigned DataPartitionSlots
+    Map<String, Map<TSeriesPartitionSlot, TTimeSlotList>> unassignedDataPartitionSlotsMap =
+        partitionInfo.filterUnassignedDataPartitionSlots(partitionSlotsMap);
+
+    // Here we ensure that each StorageGroup has at least one DataRegion.
+    // And if some StorageGroups own too many slots, extend DataRegion for them.
+
+    // Map<StorageGroup, unassigned SeriesPartitionSlot count>
+    Map<String, Integer> unassignedDataPartitionSlotsCountMap = new ConcurrentHashMap<>();
+    unassignedDataPartitionSlotsMap.forEach(
+        (storageGroup, unassignedDataPartitionSlots) ->
+            unassignedDataPartitionSlotsCountMap.put(
+                storageGroup, unassignedDataPartitionSlots.size()));
+    TSStatus status =
+        extendRegionGroupIfNecessary(
+            unassignedDataPartitionSlotsCountMap, TConsensusGroupType.DataRegion);
+    if (status.getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+      // Return an error code if Region extension failed
+      return status;
+    }
+
+    Map<String, DataPartitionTable> assignedDataPartition;
+    try {
+      assignedDataPartition =
+          getLoadManager().allocateDataPartition(unassignedDataPartitionSlotsMap);
+    } catch (DatabaseNotExistsException | NoAvailableRegionGroupException e) {
+      status = getConsensusManager().confirmLeader();
+      if (status.getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+        // The allocation might fail due to leadership change
+        return status;
+      }
+
+      LOGGER.error("Create DataPartition failed because: ", e);
+      if (e instanceof DatabaseNotExistsException) {
+        return new TSStatus(TSStatusCode.DATABASE_NOT_EXIST.getStatusCode())
+            .setMessage(e.getMessage());
+      } else {
+        return new TSStatus(TSStatusCode.NO_AVAILABLE_REGION_GROUP.getStatusCode())
+            .setMessage(e.getMessage());
+      }
+    }
+
+    // Cache allocating result only if the current ConfigNode still holds its leadership
+    CreateDataPartitionPlan createPlan = new CreateDataPartitionPlan();
+    createPlan.setAssignedDataPartition(assignedDataPartition);
+
+    // The allocation might fail due to consensus error
+    return consensusWritePartitionResult(createPlan);
+  }
+
   private TSStatus consensusWritePartitionResult(ConfigPhysicalPlan plan) {
     TSStatus status = getConsensusManager().confirmLeader();
     if (status.getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
@@ -1430,6 +1530,113 @@ public class PartitionManager {
     }
   }
 
+  /**
+   * Create the DataPartitions of the next time partition in advance when it is about to begin, for
+   * the SeriesPartitionSlots that own DataPartitions in the current time partition. So that the
+   * DataNodes needn't create them all at once when the data of the next time partition arrives.
+   */
+  public void preCreateDataPartition() {
+    long currentTime = CommonDateTimeUtils.currentTime();
+    long nextTimePartitionStartTime = TimePartitionUtils.getTimePartitionUpperBound(currentTime);
+    long aheadTime =
+        CommonDateTimeUtils.convertMilliTimeWithPrecision(
+            CONF.getDataPartitionPreCreateAheadTimeInMs(),
+            CommonDescriptor.getInstance().getConfig().getTimestampPrecision());
+    if (nextTimePartitionStartTime - currentTime > aheadTime) {
+      return;
+    }
+
+    TTimePartitionSlot currentTimePartitionSlot =
+        TimePartitionUtils.getTimePartitionSlot(currentTime);
+    TTimePartitionSlot nextTimePartitionSlot = new TTimePartitionSlot(nextTimePartitionStartTime);
+    for (String database : getClusterSchemaManager().getDatabaseNames()) {
+      if (isDatabasePreDeleted(database)) {
+        continue;
+      }
+
+      // Find the SeriesPartitionSlots that own DataPartitions in the current time partition
+      Map<TSeriesPartitionSlot, TTimeSlotList> currentPartitionSlots = new ConcurrentHashMap<>();
+      getLastDataAllotTable(database)
+          .keySet()
+          .forEach(
+              seriesPartitionSlot ->
+                  currentPartitionSlots.put(
+                      seriesPartitionSlot,
+                      new TTimeSlotList(
+                          new ArrayList<>(Collections.singletonList(currentTimePartitionSlot)),
+                          false,
+                          false)));
+      Map<TSeriesPartitionSlot, TTimeSlotList> unassignedPartitionSlots =
+          partitionInfo
+              .filterUnassignedDataPartitionSlots(
+                  Collections.singletonMap(database, currentPartitionSlots))
+              .getOrDefault(database, Collections.emptyMap());
+      Map<TSeriesPartitionSlot, TTimeSlotList> nextPartitionSlots = new ConcurrentHashMap<>();
+      currentPartitionSlots
+          .keySet()
+          .forEach(
+              seriesPartitionSlot -> {
+                TTimeSlotList unassignedTimeSlots =
+                    unassignedPartitionSlots.get(seriesPartitionSlot);
+                if (unassignedTimeSlots == null
+                    || unassignedTimeSlots.getTimePartitionSlots().isEmpty()) {
+                  nextPartitionSlots.put(
+                      seriesPartitionSlot,
+                      new TTimeSlotList(
+                          new ArrayList<>(Collections.singletonList(nextTimePartitionSlot)),
+                          false,
+                          false));
+                }
+              });
+      if (nextPartitionSlots.isEmpty()) {
+        continue;
+      }
+
+      Map<String, Map<TSeriesPartitionSlot, TTimeSlotList>> partitionSlotsMap =
+          new ConcurrentHashMap<>();
+      partitionSlotsMap.put(database, nextPartitionSlots);
+      DataPartitionResp resp =
+          getOrCreateDataPartition(new GetOrCreateDataPartitionPlan(partitionSlotsMap));
+      if (resp.getStatus().getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+        LOGGER.warn(
+            "Failed to pre-create DataPartitions of Database: {} in TimePartition: {}, because: {}",
+            database,
+            nextTimePartitionSlot.getStartTime(),
+            resp.getStatus());
+      }
+    }
+  }
+
+  public void startDataPartitionPreCreator() {
+    if (CONF.getDataPartitionPreCreateAheadTimeInMs() <= 0) {
+      return;
+    }
+    synchronized (scheduleMonitor) {
+      if (currentDataPartitionPreCreatorFuture == null) {
+        /* Start the DataPartitionPreCreator service */
+        currentDataPartitionPreCreatorFuture =
+            ScheduledExecutorUtil.safelyScheduleAtFixedRate(
+                dataPartitionPreCreator,
+                this::preCreateDataPartition,
+                0,
+                DATA_PARTITION_PRE_CREATOR_WORK_INTERVAL,
+                TimeUnit.SECONDS);
+        LOGGER.info("DataPartitionPreCreator is started successfully.");
+      }
+    }
+  }
+
+  public void stopDataPartitionPreCreator() {
+    synchronized (scheduleMonitor) {
+      if (currentDataPartitionPreCreatorFuture != null) {
+        /* Stop the DataPartitionPreCreator service */
+        currentDataPartitionPreCreatorFuture.cancel(false);
+        currentDataPartitionPreCreatorFuture = null;
+        LOGGER.info("DataPartitionPreCreator is stopped successfully.");
+      }
+    }
+  }
+
   /**
    * Filter the RegionGroups in the specified Database through the RegionGroupStatus.
    *
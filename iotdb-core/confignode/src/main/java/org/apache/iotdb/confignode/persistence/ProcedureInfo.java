@@ -36,10 +36,14 @@ import org.apache.iotdb.rpc.TSStatusCode;
 
 import org.apache.thrift.TException;
 import org.apache.thrift.transport.TIOStreamTransport;
+import org.apache.tsfile.utils.PublicBAOS;
 import org.apache.tsfile.utils.ReadWriteIOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
@@ -58,7 +62,6 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 
@@ -69,6 +72,7 @@ public class ProcedureInfo implements SnapshotProcessor {
   private static final String MAIN_SNAPSHOT_FILENAME = "procedure_info.bin";
   private static final String PROCEDURE_SNAPSHOT_DIR = "procedures";
   private static final String PROCEDURE_SNAPSHOT_FILE_SUFFIX = ".bin";
+  private static final String PROCEDURE_SNAPSHOT_LOG_FILENAME = "procedures.log";
   private static final int PROCEDURE_LOAD_BUFFER_SIZE = 8 * 1024 * 1024;
   private static final String PROCEDURE_WAL_SUFFIX = ".proc.wal";
   private final String OLD_PROCEDURE_WAL_DIR =
@@ -163,7 +167,8 @@ public class ProcedureInfo implements SnapshotProcessor {
     try (FileInputStream fis = new FileInputStream(procedureFilePath.toFile())) {
       Procedure procedure = null;
       try (FileChannel channel = fis.getChannel()) {
-        ByteBuffer byteBuffer = ByteBuffer.allocate(PROCEDURE_LOAD_BUFFER_SIZE);
+        ByteBuffer byteBuffer =
+            ByteBuffer.allocate((int) Math.min(channel.size(), PROCEDURE_LOAD_BUFFER_SIZE));
         if (channel.read(byteBuffer) > 0) {
           byteBuffer.flip();
           procedure = ProcedureFactory.getInstance().create(byteBuffer);
@@ -205,29 +210,27 @@ public class ProcedureInfo implements SnapshotProcessor {
       fileOutputStream.getFD().sync();
     }
 
-    // save all procedures
-    AtomicBoolean snapshotAllSuccess = new AtomicBoolean(true);
-    procedureMap
-        .values()
-        .forEach(
-            procedure -> {
-              try {
-                new ProcedureWAL(
-                        Paths.get(
-                            tmpDir.getAbsolutePath()
-                                + File.separator
-                                + procedure.getProcId()
-                                + PROCEDURE_SNAPSHOT_FILE_SUFFIX),
-                        procedureFactory)
-                    .save(procedure);
-              } catch (IOException e) {
-                snapshotAllSuccess.set(false);
-                LOGGER.warn(
-                    "{} id {} took snapshot fail", procedure.getClass(), procedure.getProcId(), e);
-              }
-            });
-    if (!snapshotAllSuccess.get()) {
-      return false;
+    // save all procedures as length-prefixed records of one file, which is synced only once
+    File logFile = new File(tmpDir, PROCEDURE_SNAPSHOT_LOG_FILENAME);
+    try (FileOutputStream fileOutputStream = new FileOutputStream(logFile);
+        DataOutputStream dataOutputStream =
+            new DataOutputStream(new BufferedOutputStream(fileOutputStream));
+        PublicBAOS procedureBuffer = new PublicBAOS();
+        DataOutputStream procedureOutputStream = new DataOutputStream(procedureBuffer)) {
+      for (Procedure<ConfigNodeProcedureEnv> procedure : procedureMap.values()) {
+        procedureBuffer.reset();
+        try {
+          procedure.serialize(procedureOutputStream);
+        } catch (IOException e) {
+          LOGGER.warn(
+              "{} id {} took snapshot fail", procedure.getClass(), procedure.getProcId(), e);
+          return false;
+        }
+        dataOutputStream.writeInt(procedureBuffer.size());
+        dataOutputStream.write(procedureBuffer.getBuf(), 0, procedureBuffer.size());
+      }
+      dataOutputStream.flush();
+      fileOutputStream.getFD().sync();
     }
 
     return tmpDir.renameTo(procedureSnapshotDir);
@@ -249,6 +252,13 @@ public class ProcedureInfo implements SnapshotProcessor {
       lastProcId.set(ReadWriteIOUtils.readLong(fileInputStream));
     }
 
+    File logFile = new File(procedureSnapshotDir, PROCEDURE_SNAPSHOT_LOG_FILENAME);
+    if (logFile.exists()) {
+      loadProcedureLog(logFile);
+      return;
+    }
+
+    // snapshots of older versions save each procedure in its own file
     Arrays.stream(Objects.requireNonNull(procedureSnapshotDir.listFiles()))
         .forEach(
             procedureSnapshotFile -> {
@@ -259,6 +269,25 @@ public class ProcedureInfo implements SnapshotProcessor {
             });
   }
 
+  private void loadProcedureLog(File logFile) throws IOException {
+    long remainingSize = logFile.length();
+    try (DataInputStream dataInputStream =
+        new DataInputStream(new BufferedInputStream(new FileInputStream(logFile)))) {
+      while (remainingSize > 0) {
+        byte[] procedureBytes = new byte[dataInputStream.readInt()];
+        dataInputStream.readFully(procedureBytes);
+        remainingSize -= Integer.BYTES + procedureBytes.length;
+        try {
+          Procedure<ConfigNodeProcedureEnv> procedure =
+              procedureFactory.create(ByteBuffer.wrap(procedureBytes));
+          procedureMap.put(procedure.getProcId(), procedure);
+        } catch (IOException e) {
+          LOGGER.error("Load a procedure from {} failed, it will be skipped.", logFile, e);
+        }
+      }
+    }
+  }
+
   public List<Procedure<ConfigNodeProcedureEnv>> getProcedures() {
     return new ArrayList<>(procedureMap.values());
   }
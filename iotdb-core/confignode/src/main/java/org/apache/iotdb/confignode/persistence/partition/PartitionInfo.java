@@ -26,9 +26,12 @@ import org.apache.iotdb.common.rpc.thrift.TRegionReplicaSet;
 import org.apache.iotdb.common.rpc.thrift.TSStatus;
 import org.apache.iotdb.common.rpc.thrift.TSeriesPartitionSlot;
 import org.apache.iotdb.common.rpc.thrift.TTimePartitionSlot;
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
 import org.apache.iotdb.commons.partition.DataPartitionTable;
 import org.apache.iotdb.commons.partition.SchemaPartitionTable;
 import org.apache.iotdb.commons.snapshot.SnapshotProcessor;
+import org.apache.iotdb.confignode.conf.ConfigNodeDescriptor;
 import org.apache.iotdb.confignode.consensus.request.read.partition.CountTimeSlotListPlan;
 import org.apache.iotdb.confignode.consensus.request.read.partition.GetDataPartitionPlan;
 import org.apache.iotdb.confignode.consensus.request.read.partition.GetSchemaPartitionPlan;
@@ -80,6 +83,7 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.Collections;
@@ -93,10 +97,18 @@ import java.util.Set;
 import java.util.TreeMap;
 import java.util.UUID;
 import java.util.Vector;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
 
 /**
  * The {@link PartitionInfo} stores cluster PartitionTable.
@@ -127,13 +139,42 @@ public class PartitionInfo implements SnapshotProcessor {
   // For RegionReplicas' asynchronous management
   private final List<RegionMaintainTask> regionMaintainTaskList;
 
+  /** For snapshot. */
+  // The single-file snapshot taken by earlier versions
   private static final String SNAPSHOT_FILENAME = "partition_info.bin";
 
+  // The snapshot consists of a manifest and a file for each DatabasePartitionTable
+  private static final String SNAPSHOT_MANIFEST_FILENAME = "partition_info_manifest.bin";
+  private static final String SNAPSHOT_TABLE_DIRNAME = "partition_info";
+  private static final String SNAPSHOT_TABLE_FILE_SUFFIX = ".bin";
+  private static final String SNAPSHOT_CACHE_DIRNAME = "partition_info_snapshot_cache";
+  private static final String TMP_FILE_SUFFIX = ".tmp";
+
+  // Allocate 4MB buffer for each file of the snapshot
+  private static final int SNAPSHOT_FILE_BUFFER_SIZE = 4 * 1024 * 1024;
+  private static final int SNAPSHOT_PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+  // Increased whenever a DatabasePartitionTable is modified
+  private final AtomicLong modifyVersion;
+  // Map<DatabaseName, the modifyVersion when it's modified last time>
+  private final Map<String, Long> databaseVersionMap;
+  // The DatabasePartitionTables serialized by the last snapshot, which are linked into the next
+  // snapshot if unmodified. Map<DatabaseName, DatabaseSnapshotFile>
+  private final Map<String, DatabaseSnapshotFile> snapshotFileCache;
+  private final File snapshotCacheDir;
+
   public PartitionInfo() {
     this.nextRegionGroupId = new AtomicInteger(-1);
     this.databasePartitionTables = new ConcurrentHashMap<>();
 
     this.regionMaintainTaskList = Collections.synchronizedList(new ArrayList<>());
+
+    this.modifyVersion = new AtomicLong(0);
+    this.databaseVersionMap = new ConcurrentHashMap<>();
+    this.snapshotFileCache = new ConcurrentHashMap<>();
+    this.snapshotCacheDir =
+        new File(
+            ConfigNodeDescriptor.getInstance().getConf().getSystemDir(), SNAPSHOT_CACHE_DIRNAME);
   }
 
   public int generateNextRegionGroupId() {
@@ -157,6 +198,7 @@ public class PartitionInfo implements SnapshotProcessor {
         (database, databasePartitionTable) -> {
           if (isDatabaseExisted(database)) {
             databasePartitionTable.updateDataNode(newDataNodeLocation);
+            markModified(database);
           }
         });
     return new TSStatus(TSStatusCode.SUCCESS_STATUS.getStatusCode());
@@ -173,6 +215,7 @@ public class PartitionInfo implements SnapshotProcessor {
     String databaseName = plan.getSchema().getName();
     DatabasePartitionTable databasePartitionTable = new DatabasePartitionTable(databaseName);
     databasePartitionTables.put(databaseName, databasePartitionTable);
+    markModified(databaseName);
     return new TSStatus(TSStatusCode.SUCCESS_STATUS.getStatusCode());
   }
 
@@ -190,6 +233,7 @@ public class PartitionInfo implements SnapshotProcessor {
         .forEach(
             (database, regionReplicaSets) -> {
               databasePartitionTables.get(database).createRegionGroups(regionReplicaSets);
+              markModified(database);
               regionReplicaSets.forEach(
                   regionReplicaSet ->
                       maxRegionId.set(
@@ -296,6 +340,7 @@ public class PartitionInfo implements SnapshotProcessor {
       default:
         break;
     }
+    markModified(storageGroup);
     return new TSStatus(TSStatusCode.SUCCESS_STATUS.getStatusCode());
   }
 
@@ -312,6 +357,7 @@ public class PartitionInfo implements SnapshotProcessor {
   public void deleteDatabase(DeleteDatabasePlan plan) {
     // Clean the StorageGroupTable cache
     databasePartitionTables.remove(plan.getName());
+    databaseVersionMap.remove(plan.getName());
   }
 
   /**
@@ -474,6 +520,7 @@ public class PartitionInfo implements SnapshotProcessor {
             (database, schemaPartitionTable) -> {
               if (isDatabaseExisted(database)) {
                 databasePartitionTables.get(database).createSchemaPartition(schemaPartitionTable);
+                markModified(database);
               }
             });
 
@@ -492,6 +539,7 @@ public class PartitionInfo implements SnapshotProcessor {
             (database, dataPartitionTable) -> {
               if (isDatabaseExisted(database)) {
                 databasePartitionTables.get(database).createDataPartition(dataPartitionTable);
+                markModified(database);
               }
             });
 
@@ -578,9 +626,10 @@ public class PartitionInfo implements SnapshotProcessor {
         .filter(
             databasePartitionTable -> databasePartitionTable.containRegionGroup(req.getRegionId()))
         .forEach(
-            databasePartitionTable ->
-                databasePartitionTable.addRegionNewLocation(
-                    req.getRegionId(), req.getNewLocation()));
+            databasePartitionTable -> {
+              databasePartitionTable.addRegionNewLocation(req.getRegionId(), req.getNewLocation());
+              markModified(databasePartitionTable.getDatabaseName());
+            });
     return new TSStatus(TSStatusCode.SUCCESS_STATUS.getStatusCode());
   }
 
@@ -590,9 +639,11 @@ public class PartitionInfo implements SnapshotProcessor {
         .filter(
             databasePartitionTable -> databasePartitionTable.containRegionGroup(req.getRegionId()))
         .forEach(
-            databasePartitionTable ->
-                databasePartitionTable.removeRegionLocation(
-                    req.getRegionId(), req.getDeprecatedLocation()));
+            databasePartitionTable -> {
+              databasePartitionTable.removeRegionLocation(
+                  req.getRegionId(), req.getDeprecatedLocation());
+              markModified(databasePartitionTable.getDatabaseName());
+            });
     return new TSStatus(TSStatusCode.SUCCESS_STATUS.getStatusCode());
   }
 
@@ -933,42 +984,61 @@ public class PartitionInfo implements SnapshotProcessor {
 
   @Override
   public boolean processTakeSnapshot(File snapshotDir) throws TException, IOException {
-
-    File snapshotFile = new File(snapshotDir, SNAPSHOT_FILENAME);
-    if (snapshotFile.exists() && snapshotFile.isFile()) {
+    File manifestFile = new File(snapshotDir, SNAPSHOT_MANIFEST_FILENAME);
+    File tableDir = new File(snapshotDir, SNAPSHOT_TABLE_DIRNAME);
+    if (manifestFile.exists() || tableDir.exists()) {
       LOGGER.error(
           "Failed to take snapshot, because snapshot file [{}] is already exist.",
-          snapshotFile.getAbsolutePath());
+          manifestFile.getAbsolutePath());
       return false;
     }
+    if (!tableDir.mkdirs() || (!snapshotCacheDir.exists() && !snapshotCacheDir.mkdirs())) {
+      LOGGER.error(
+          "Failed to take snapshot, because directory [{}] or [{}] can't be created.",
+          tableDir.getAbsolutePath(),
+          snapshotCacheDir.getAbsolutePath());
+      return false;
+    }
+
+    // Serialize each DatabasePartitionTable into a separate file in parallel.
+    // The ones unmodified since the last snapshot are linked from the snapshot cache directly.
+    List<String> databases = new ArrayList<>(databasePartitionTables.keySet());
+    List<Callable<DatabaseSnapshotFile>> tasks = new ArrayList<>();
+    for (int i = 0; i < databases.size(); i++) {
+      String database = databases.get(i);
+      File tableFile = new File(tableDir, i + SNAPSHOT_TABLE_FILE_SUFFIX);
+      tasks.add(() -> takeDatabaseSnapshot(database, tableFile));
+    }
+    List<DatabaseSnapshotFile> snapshotFiles = executeInParallel(tasks);
+    cleanSnapshotCache();
 
     // prevents temporary files from being damaged and cannot be deleted, which affects the next
     // snapshot operation.
-    File tmpFile = new File(snapshotFile.getAbsolutePath() + "-" + UUID.randomUUID());
+    File tmpFile = new File(manifestFile.getAbsolutePath() + "-" + UUID.randomUUID());
 
     try (FileOutputStream fileOutputStream = new FileOutputStream(tmpFile);
         BufferedOutputStream bufferedOutputStream =
-            new BufferedOutputStream(fileOutputStream, PARTITION_TABLE_BUFFER_SIZE);
+            new BufferedOutputStream(fileOutputStream, SNAPSHOT_FILE_BUFFER_SIZE);
         TIOStreamTransport tioStreamTransport = new TIOStreamTransport(bufferedOutputStream)) {
       TProtocol protocol = new TBinaryProtocol(tioStreamTransport);
 
       // serialize nextRegionGroupId
       ReadWriteIOUtils.write(nextRegionGroupId.get(), bufferedOutputStream);
 
-      // serialize StorageGroupPartitionTable
-      ReadWriteIOUtils.write(databasePartitionTables.size(), bufferedOutputStream);
-      for (Map.Entry<String, DatabasePartitionTable> storageGroupPartitionTableEntry :
-          databasePartitionTables.entrySet()) {
-        ReadWriteIOUtils.write(storageGroupPartitionTableEntry.getKey(), bufferedOutputStream);
-        storageGroupPartitionTableEntry.getValue().serialize(bufferedOutputStream, protocol);
-      }
-
       // serialize regionCleanList
       ReadWriteIOUtils.write(regionMaintainTaskList.size(), bufferedOutputStream);
       for (RegionMaintainTask task : regionMaintainTaskList) {
         task.serialize(bufferedOutputStream, protocol);
       }
 
+      // serialize the file name and checksum of each DatabasePartitionTable
+      ReadWriteIOUtils.write(snapshotFiles.size(), bufferedOutputStream);
+      for (int i = 0; i < snapshotFiles.size(); i++) {
+        ReadWriteIOUtils.write(snapshotFiles.get(i).database, bufferedOutputStream);
+        ReadWriteIOUtils.write(i + SNAPSHOT_TABLE_FILE_SUFFIX, bufferedOutputStream);
+        ReadWriteIOUtils.write(snapshotFiles.get(i).checksum, bufferedOutputStream);
+      }
+
       // write to file
       tioStreamTransport.flush();
       fileOutputStream.getFD().sync();
@@ -977,21 +1047,175 @@ public class PartitionInfo implements SnapshotProcessor {
       tioStreamTransport.close();
 
       // rename file
-      return tmpFile.renameTo(snapshotFile);
+      return tmpFile.renameTo(manifestFile);
     } finally {
       // with or without success, delete temporary files anyway
-      for (int retry = 0; retry < 5; retry++) {
-        if (!tmpFile.exists() || tmpFile.delete()) {
-          break;
-        } else {
-          LOGGER.warn(
-              "Can't delete temporary snapshot file: {}, retrying...", tmpFile.getAbsolutePath());
+      deleteTmpFile(tmpFile);
+    }
+  }
+
+  /**
+   * Put the specified DatabasePartitionTable into the snapshot. It's serialized into the snapshot
+   * cache first if modified since it was cached, and then linked into the snapshot.
+   *
+   * @param database The specified Database
+   * @param tableFile The file of the DatabasePartitionTable in the snapshot
+   * @return The cached snapshot file of the DatabasePartitionTable
+   */
+  private DatabaseSnapshotFile takeDatabaseSnapshot(String database, File tableFile)
+      throws TException, IOException {
+    long version = databaseVersionMap.computeIfAbsent(database, empty -> nextVersion());
+    DatabaseSnapshotFile snapshotFile = snapshotFileCache.get(database);
+    if (snapshotFile == null || snapshotFile.version != version || !snapshotFile.file.exists()) {
+      File cacheFile = new File(snapshotCacheDir, UUID.randomUUID() + SNAPSHOT_TABLE_FILE_SUFFIX);
+      File tmpFile = new File(cacheFile.getAbsolutePath() + TMP_FILE_SUFFIX);
+      CRC32 checksum = new CRC32();
+      try (FileOutputStream fileOutputStream = new FileOutputStream(tmpFile);
+          BufferedOutputStream bufferedOutputStream =
+              new BufferedOutputStream(
+                  new CheckedOutputStream(fileOutputStream, checksum), SNAPSHOT_FILE_BUFFER_SIZE);
+          TIOStreamTransport tioStreamTransport = new TIOStreamTransport(bufferedOutputStream)) {
+        databasePartitionTables
+            .get(database)
+            .serialize(bufferedOutputStream, new TBinaryProtocol(tioStreamTransport));
+        tioStreamTransport.flush();
+        fileOutputStream.getFD().sync();
+        tioStreamTransport.close();
+        Files.move(tmpFile.toPath(), cacheFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        deleteTmpFile(tmpFile);
+      }
+      snapshotFile = new DatabaseSnapshotFile(database, version, cacheFile, checksum.getValue());
+      DatabaseSnapshotFile oldSnapshotFile = snapshotFileCache.put(database, snapshotFile);
+      if (oldSnapshotFile != null) {
+        Files.deleteIfExists(oldSnapshotFile.file.toPath());
+      }
+    }
+    linkOrCopy(snapshotFile.file, tableFile);
+    return snapshotFile;
+  }
+
+  /** Remove the cached snapshot files of deleted Databases and the ones left by failures. */
+  private void cleanSnapshotCache() throws IOException {
+    snapshotFileCache.keySet().removeIf(database -> !databasePartitionTables.containsKey(database));
+    Set<File> cachedFiles =
+        snapshotFileCache.values().stream()
+            .map(snapshotFile -> snapshotFile.file)
+            .collect(Collectors.toSet());
+    File[] files = snapshotCacheDir.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        if (!cachedFiles.contains(file)) {
+          Files.deleteIfExists(file.toPath());
         }
       }
     }
   }
 
   public void processLoadSnapshot(File snapshotDir) throws TException, IOException {
+    File manifestFile = new File(snapshotDir, SNAPSHOT_MANIFEST_FILENAME);
+    if (!manifestFile.exists() || !manifestFile.isFile()) {
+      // The snapshot might be taken by an earlier version, which is a single file
+      processLoadLegacySnapshot(snapshotDir);
+      return;
+    }
+
+    int regionGroupId;
+    List<RegionMaintainTask> regionMaintainTasks = new ArrayList<>();
+    List<Callable<DatabasePartitionTable>> tasks = new ArrayList<>();
+    List<File> tableFiles = new ArrayList<>();
+    List<Long> checksums = new ArrayList<>();
+    try (BufferedInputStream fileInputStream =
+            new BufferedInputStream(
+                Files.newInputStream(manifestFile.toPath()), SNAPSHOT_FILE_BUFFER_SIZE);
+        TIOStreamTransport tioStreamTransport = new TIOStreamTransport(fileInputStream)) {
+      TProtocol protocol = new TBinaryProtocol(tioStreamTransport);
+
+      regionGroupId = ReadWriteIOUtils.readInt(fileInputStream);
+
+      // restore deletedRegionSet
+      int length = ReadWriteIOUtils.readInt(fileInputStream);
+      for (int i = 0; i < length; i++) {
+        regionMaintainTasks.add(RegionMaintainTask.Factory.create(fileInputStream, protocol));
+      }
+
+      length = ReadWriteIOUtils.readInt(fileInputStream);
+      for (int i = 0; i < length; i++) {
+        String database = ReadWriteIOUtils.readString(fileInputStream);
+        if (database == null) {
+          throw new IOException("Failed to load snapshot because get null StorageGroup name");
+        }
+        File tableFile =
+            new File(
+                new File(snapshotDir, SNAPSHOT_TABLE_DIRNAME),
+                ReadWriteIOUtils.readString(fileInputStream));
+        long checksum = ReadWriteIOUtils.readLong(fileInputStream);
+        tableFiles.add(tableFile);
+        checksums.add(checksum);
+        tasks.add(() -> loadDatabaseSnapshot(database, tableFile, checksum));
+      }
+    }
+
+    // Deserialize the DatabasePartitionTables in parallel
+    List<DatabasePartitionTable> tables = executeInParallel(tasks);
+
+    // before restoring a snapshot, clear all old data
+    clear();
+    nextRegionGroupId.set(regionGroupId);
+    regionMaintainTaskList.addAll(regionMaintainTasks);
+    for (int i = 0; i < tables.size(); i++) {
+      String database = tables.get(i).getDatabaseName();
+      databasePartitionTables.put(database, tables.get(i));
+      markModified(database);
+      cacheLoadedSnapshot(database, tableFiles.get(i), checksums.get(i));
+    }
+  }
+
+  private DatabasePartitionTable loadDatabaseSnapshot(
+      String database, File tableFile, long expectedChecksum) throws TException, IOException {
+    CRC32 checksum = new CRC32();
+    try (BufferedInputStream fileInputStream =
+            new BufferedInputStream(
+                new CheckedInputStream(Files.newInputStream(tableFile.toPath()), checksum),
+                SNAPSHOT_FILE_BUFFER_SIZE);
+        TIOStreamTransport tioStreamTransport = new TIOStreamTransport(fileInputStream)) {
+      DatabasePartitionTable databasePartitionTable = new DatabasePartitionTable(database);
+      databasePartitionTable.deserialize(fileInputStream, new TBinaryProtocol(tioStreamTransport));
+      if (fileInputStream.read() != -1 || checksum.getValue() != expectedChecksum) {
+        throw new IOException(
+            String.format(
+                "Failed to load snapshot because file [%s] of Database %s is corrupted",
+                tableFile.getAbsolutePath(), database));
+      }
+      return databasePartitionTable;
+    }
+  }
+
+  /**
+   * Link the loaded snapshot file into the snapshot cache, so that the next snapshot needn't
+   * serialize the Databases unmodified since loading.
+   */
+  private void cacheLoadedSnapshot(String database, File tableFile, long checksum) {
+    File cacheFile = new File(snapshotCacheDir, UUID.randomUUID() + SNAPSHOT_TABLE_FILE_SUFFIX);
+    try {
+      if (!snapshotCacheDir.exists() && !snapshotCacheDir.mkdirs()) {
+        return;
+      }
+      linkOrCopy(tableFile, cacheFile);
+      DatabaseSnapshotFile oldSnapshotFile =
+          snapshotFileCache.put(
+              database,
+              new DatabaseSnapshotFile(
+                  database, databaseVersionMap.get(database), cacheFile, checksum));
+      if (oldSnapshotFile != null) {
+        Files.deleteIfExists(oldSnapshotFile.file.toPath());
+      }
+    } catch (IOException e) {
+      LOGGER.warn("Failed to cache the loaded snapshot of Database {}", database, e);
+    }
+  }
+
+  private void processLoadLegacySnapshot(File snapshotDir) throws TException, IOException {
 
     File snapshotFile = new File(snapshotDir, SNAPSHOT_FILENAME);
     if (!snapshotFile.exists() || !snapshotFile.isFile()) {
@@ -1022,6 +1246,7 @@ public class PartitionInfo implements SnapshotProcessor {
         DatabasePartitionTable databasePartitionTable = new DatabasePartitionTable(storageGroup);
         databasePartitionTable.deserialize(fileInputStream, protocol);
         databasePartitionTables.put(storageGroup, databasePartitionTable);
+        markModified(storageGroup);
       }
 
       // restore deletedRegionSet
@@ -1033,6 +1258,65 @@ public class PartitionInfo implements SnapshotProcessor {
     }
   }
 
+  private static <T> List<T> executeInParallel(List<Callable<T>> tasks)
+      throws TException, IOException {
+    List<T> results = new ArrayList<>();
+    if (tasks.isEmpty()) {
+      return results;
+    }
+    ExecutorService executor =
+        IoTDBThreadPoolFactory.newFixedThreadPool(
+            Math.min(tasks.size(), SNAPSHOT_PARALLELISM),
+            ThreadName.CONFIG_NODE_SNAPSHOT.getName());
+    try {
+      for (Future<T> future : executor.invokeAll(tasks)) {
+        results.add(future.get());
+      }
+      return results;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted when processing snapshot", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof TException) {
+        throw (TException) e.getCause();
+      }
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static void linkOrCopy(File source, File target) throws IOException {
+    try {
+      Files.createLink(target.toPath(), source.toPath());
+    } catch (IOException | UnsupportedOperationException e) {
+      // The file system might not support hard links
+      Files.copy(source.toPath(), target.toPath());
+    }
+  }
+
+  private static void deleteTmpFile(File tmpFile) {
+    for (int retry = 0; retry < 5; retry++) {
+      if (!tmpFile.exists() || tmpFile.delete()) {
+        break;
+      } else {
+        LOGGER.warn(
+            "Can't delete temporary snapshot file: {}, retrying...", tmpFile.getAbsolutePath());
+      }
+    }
+  }
+
+  private long nextVersion() {
+    return modifyVersion.incrementAndGet();
+  }
+
+  private void markModified(String database) {
+    databaseVersionMap.put(database, nextVersion());
+  }
+
   /**
    * Get the RegionId of the specific Database or seriesSlotId(device).
    *
@@ -1181,6 +1465,7 @@ public class PartitionInfo implements SnapshotProcessor {
     nextRegionGroupId.set(-1);
     databasePartitionTables.clear();
     regionMaintainTaskList.clear();
+    databaseVersionMap.clear();
   }
 
   @Override
@@ -1201,4 +1486,19 @@ public class PartitionInfo implements SnapshotProcessor {
   public int hashCode() {
     return Objects.hash(nextRegionGroupId, databasePartitionTables, regionMaintainTaskList);
   }
+
+  private static class DatabaseSnapshotFile {
+
+    private final String database;
+    private final long version;
+    private final File file;
+    private final long checksum;
+
+    private DatabaseSnapshotFile(String database, long version, File file, long checksum) {
+      this.database = database;
+      this.version = version;
+      this.file = file;
+      this.checksum = checksum;
+    }
+  }
 }
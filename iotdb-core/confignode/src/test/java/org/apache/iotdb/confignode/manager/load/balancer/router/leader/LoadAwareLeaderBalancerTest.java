@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.confignode.manager.load.balancer.router.leader;
+
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupType;
+import org.apache.iotdb.commons.cluster.NodeStatus;
+import org.apache.iotdb.commons.cluster.RegionStatus;
+import org.apache.iotdb.confignode.manager.load.balancer.region.RegionMigrationPlanner;
+import org.apache.iotdb.confignode.manager.load.cache.node.NodeStatistics;
+import org.apache.iotdb.confignode.manager.load.cache.region.RegionStatistics;
+import org.apache.iotdb.confignode.rpc.thrift.TMigrateRegionReq;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+public class LoadAwareLeaderBalancerTest {
+
+  private static final String DATABASE = "root.database";
+  private static final int DATA_NODE_NUM = 3;
+  private static final int REGION_GROUP_NUM = 6;
+
+  private final Map<String, List<TConsensusGroupId>> databaseRegionGroupMap = new TreeMap<>();
+  private final Map<TConsensusGroupId, Set<Integer>> regionLocationMap = new TreeMap<>();
+  private final Map<TConsensusGroupId, Integer> regionLeaderMap = new TreeMap<>();
+  private final Map<Integer, NodeStatistics> dataNodeStatisticsMap = new TreeMap<>();
+  private final Map<TConsensusGroupId, Map<Integer, RegionStatistics>> regionStatisticsMap =
+      new TreeMap<>();
+  private final Map<TConsensusGroupId, Double> regionGroupLoadMap = new TreeMap<>();
+
+  @Before
+  public void setUp() {
+    // Build 6 RegionGroups in DataNodes 0~2, all of them are led by DataNode 0
+    List<TConsensusGroupId> regionGroupIds = new ArrayList<>();
+    for (int i = 0; i < DATA_NODE_NUM; i++) {
+      dataNodeStatisticsMap.put(i, new NodeStatistics(NodeStatus.Running));
+    }
+    for (int i = 0; i < REGION_GROUP_NUM; i++) {
+      TConsensusGroupId regionGroupId = new TConsensusGroupId(TConsensusGroupType.DataRegion, i);
+      regionGroupIds.add(regionGroupId);
+      regionLocationMap.put(regionGroupId, new HashSet<>(Arrays.asList(0, 1, 2)));
+      regionLeaderMap.put(regionGroupId, 0);
+      Map<Integer, RegionStatistics> regionStatistics = new TreeMap<>();
+      for (int j = 0; j < DATA_NODE_NUM; j++) {
+        regionStatistics.put(j, new RegionStatistics(RegionStatus.Running));
+      }
+      regionStatisticsMap.put(regionGroupId, regionStatistics);
+    }
+    databaseRegionGroupMap.put(DATABASE, regionGroupIds);
+  }
+
+  private Map<TConsensusGroupId, Integer> balance(int maxLeaderTransferNum) {
+    return new LoadAwareLeaderBalancer(() -> regionGroupLoadMap, maxLeaderTransferNum)
+        .generateOptimalLeaderDistribution(
+            databaseRegionGroupMap,
+            regionLocationMap,
+            regionLeaderMap,
+            dataNodeStatisticsMap,
+            regionStatisticsMap);
+  }
+
+  private int[] countLeaders(Map<TConsensusGroupId, Integer> leaderDistribution) {
+    int[] leaderCounts = new int[DATA_NODE_NUM];
+    leaderDistribution.values().forEach(leaderId -> leaderCounts[leaderId]++);
+    return leaderCounts;
+  }
+
+  @Test
+  public void balanceLeaderCountWithoutLoadTest() {
+    int[] leaderCounts = countLeaders(balance(Integer.MAX_VALUE));
+    for (int leaderCount : leaderCounts) {
+      Assert.assertEquals(REGION_GROUP_NUM / DATA_NODE_NUM, leaderCount);
+    }
+  }
+
+  @Test
+  public void isolateHotRegionGroupTest() {
+    TConsensusGroupId hotRegionGroupId = new TConsensusGroupId(TConsensusGroupType.DataRegion, 0);
+    regionGroupLoadMap.put(hotRegionGroupId, 1000d);
+
+    Map<TConsensusGroupId, Integer> leaderDistribution = balance(Integer.MAX_VALUE);
+    int hotLeaderId = leaderDistribution.get(hotRegionGroupId);
+    // The DataNode that leads the hot RegionGroup shouldn't lead any other RegionGroup
+    Assert.assertEquals(1, countLeaders(leaderDistribution)[hotLeaderId]);
+  }
+
+  @Test
+  public void transferBudgetTest() {
+    Map<TConsensusGroupId, Integer> leaderDistribution = balance(1);
+    Assert.assertEquals(REGION_GROUP_NUM - 1, countLeaders(leaderDistribution)[0]);
+
+    // The unavailable leaders are always reselected regardless of the budget
+    dataNodeStatisticsMap.put(0, new NodeStatistics(NodeStatus.Unknown));
+    leaderDistribution = balance(0);
+    Assert.assertEquals(0, countLeaders(leaderDistribution)[0]);
+    Assert.assertEquals(REGION_GROUP_NUM / 2, countLeaders(leaderDistribution)[1]);
+    Assert.assertEquals(REGION_GROUP_NUM / 2, countLeaders(leaderDistribution)[2]);
+  }
+
+  @Test
+  public void planRegionMigrationTest() {
+    // DataNodes 0~2 hold the Regions of two hot RegionGroups, while DataNode 3 is idle
+    regionGroupLoadMap.put(new TConsensusGroupId(TConsensusGroupType.DataRegion, 0), 1000d);
+    regionGroupLoadMap.put(new TConsensusGroupId(TConsensusGroupType.DataRegion, 1), 500d);
+    Set<Integer> availableDataNodeIds = new HashSet<>(Arrays.asList(0, 1, 2, 3));
+
+    List<TMigrateRegionReq> migrations =
+        RegionMigrationPlanner.planMigrations(
+            regionLocationMap, regionGroupLoadMap, availableDataNodeIds, 1);
+    Assert.assertEquals(1, migrations.size());
+    Assert.assertEquals(0, migrations.get(0).getRegionId());
+    Assert.assertEquals(3, migrations.get(0).getToId());
+
+    // Nothing is worth migrating when there is no load
+    regionGroupLoadMap.clear();
+    Assert.assertTrue(
+        RegionMigrationPlanner.planMigrations(
+                regionLocationMap, regionGroupLoadMap, availableDataNodeIds, 10)
+            .isEmpty());
+  }
+}
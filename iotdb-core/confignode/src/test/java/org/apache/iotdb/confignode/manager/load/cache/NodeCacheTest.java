@@ -18,14 +18,21 @@
  */
 package org.apache.iotdb.confignode.manager.load.cache;
 
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupType;
 import org.apache.iotdb.commons.cluster.NodeStatus;
 import org.apache.iotdb.confignode.manager.load.cache.node.ConfigNodeHeartbeatCache;
 import org.apache.iotdb.confignode.manager.load.cache.node.DataNodeHeartbeatCache;
 import org.apache.iotdb.confignode.manager.load.cache.node.NodeHeartbeatSample;
+import org.apache.iotdb.mpp.rpc.thrift.TDataNodeHeartbeatResp;
 
+import com.google.common.collect.ImmutableMap;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Collections;
+import java.util.HashMap;
+
 public class NodeCacheTest {
 
   @Test
@@ -48,4 +55,48 @@ public class NodeCacheTest {
     Assert.assertEquals(NodeStatus.Running, configNodeHeartbeatCache.getNodeStatus());
     Assert.assertEquals(0, configNodeHeartbeatCache.getLoadScore());
   }
+
+  @Test
+  public void mergeRegionStatesTest() {
+    DataNodeHeartbeatCache dataNodeHeartbeatCache = new DataNodeHeartbeatCache(1);
+    TConsensusGroupId region1 = new TConsensusGroupId(TConsensusGroupType.DataRegion, 1);
+    TConsensusGroupId region2 = new TConsensusGroupId(TConsensusGroupType.DataRegion, 2);
+    TConsensusGroupId region3 = new TConsensusGroupId(TConsensusGroupType.SchemaRegion, 3);
+    Assert.assertEquals(
+        DataNodeHeartbeatCache.NO_REGION_STATE_VERSION,
+        dataNodeHeartbeatCache.getRegionStateVersion());
+
+    // Full report
+    TDataNodeHeartbeatResp resp = new TDataNodeHeartbeatResp();
+    resp.setJudgedLeaders(new HashMap<>(ImmutableMap.of(region1, true, region2, false)));
+    resp.setConsensusLogicalTimeMap(new HashMap<>(ImmutableMap.of(region1, 1L, region2, 1L)));
+    resp.setRegionStateVersion(10);
+    Assert.assertTrue(dataNodeHeartbeatCache.mergeRegionStates(resp));
+    Assert.assertEquals(10, dataNodeHeartbeatCache.getRegionStateVersion());
+
+    // Delta report
+    resp = new TDataNodeHeartbeatResp();
+    resp.setJudgedLeaders(new HashMap<>(ImmutableMap.of(region2, true, region3, true)));
+    resp.setConsensusLogicalTimeMap(new HashMap<>(ImmutableMap.of(region2, 2L, region3, 1L)));
+    resp.setRemovedRegionIds(Collections.singletonList(region1));
+    resp.setBaseRegionStateVersion(10);
+    resp.setRegionStateVersion(11);
+    Assert.assertTrue(dataNodeHeartbeatCache.mergeRegionStates(resp));
+    Assert.assertEquals(11, dataNodeHeartbeatCache.getRegionStateVersion());
+    Assert.assertEquals(ImmutableMap.of(region2, true, region3, true), resp.getJudgedLeaders());
+    Assert.assertEquals(
+        ImmutableMap.of(region2, 2L, region3, 1L), resp.getConsensusLogicalTimeMap());
+
+    // Delta report over an unknown version
+    resp = new TDataNodeHeartbeatResp();
+    resp.setJudgedLeaders(new HashMap<>());
+    resp.setConsensusLogicalTimeMap(new HashMap<>());
+    resp.setRemovedRegionIds(Collections.emptyList());
+    resp.setBaseRegionStateVersion(12);
+    resp.setRegionStateVersion(13);
+    Assert.assertFalse(dataNodeHeartbeatCache.mergeRegionStates(resp));
+    Assert.assertEquals(
+        DataNodeHeartbeatCache.NO_REGION_STATE_VERSION,
+        dataNodeHeartbeatCache.getRegionStateVersion());
+  }
 }
@@ -0,0 +1,275 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.confignode.manager.partition;
+
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupType;
+import org.apache.iotdb.common.rpc.thrift.TSStatus;
+import org.apache.iotdb.common.rpc.thrift.TSeriesPartitionSlot;
+import org.apache.iotdb.common.rpc.thrift.TTimePartitionSlot;
+import org.apache.iotdb.commons.conf.CommonDescriptor;
+import org.apache.iotdb.commons.utils.CommonDateTimeUtils;
+import org.apache.iotdb.commons.utils.TimePartitionUtils;
+import org.apache.iotdb.confignode.conf.ConfigNodeConfig;
+import org.apache.iotdb.confignode.conf.ConfigNodeDescriptor;
+import org.apache.iotdb.confignode.consensus.request.read.partition.GetDataPartitionPlan;
+import org.apache.iotdb.confignode.consensus.request.read.partition.GetOrCreateDataPartitionPlan;
+import org.apache.iotdb.confignode.consensus.response.partition.DataPartitionResp;
+import org.apache.iotdb.confignode.manager.IManager;
+import org.apache.iotdb.confignode.manager.consensus.ConsensusManager;
+import org.apache.iotdb.confignode.manager.schema.ClusterSchemaManager;
+import org.apache.iotdb.confignode.persistence.partition.PartitionInfo;
+import org.apache.iotdb.confignode.rpc.thrift.TTimeSlotList;
+import org.apache.iotdb.consensus.exception.ConsensusException;
+import org.apache.iotdb.rpc.RpcUtils;
+import org.apache.iotdb.rpc.TSStatusCode;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class PartitionManagerTest {
+
+  private static final ConfigNodeConfig CONF = ConfigNodeDescriptor.getInstance().getConf();
+  private static final String DATABASE = "root.database";
+  private static final TTimePartitionSlot TIME_PARTITION_SLOT = new TTimePartitionSlot(0);
+  // The DataPartitions of this SeriesPartitionSlot can't be created
+  private static final int BAD_SERIES_PARTITION_SLOT = 99;
+
+  private final long originPreCreateAheadTime = CONF.getDataPartitionPreCreateAheadTimeInMs();
+
+  // The created DataPartitionSlots, in the form of "SeriesPartitionSlot-TimePartitionSlot"
+  private final Set<String> createdSlots = ConcurrentHashMap.newKeySet();
+  // The DataPartitionSlots of each createDataPartition invocation
+  private final List<Map<String, Map<TSeriesPartitionSlot, TTimeSlotList>>> creations =
+      Collections.synchronizedList(new ArrayList<>());
+  // Block the first createDataPartition invocation until released
+  private CountDownLatch firstCreationEntered;
+  private CountDownLatch firstCreationReleased;
+
+  private PartitionInfo partitionInfo;
+  private ClusterSchemaManager clusterSchemaManager;
+  private PartitionManager partitionManager;
+
+  @Before
+  public void setUp() throws ConsensusException {
+    partitionInfo = Mockito.mock(PartitionInfo.class);
+    Mockito.when(partitionInfo.isDatabaseExisted(Mockito.anyString())).thenReturn(true);
+
+    ConsensusManager consensusManager = Mockito.mock(ConsensusManager.class);
+    Mockito.when(consensusManager.read(Mockito.any(GetDataPartitionPlan.class)))
+        .thenAnswer(
+            invocation -> {
+              GetDataPartitionPlan plan = invocation.getArgument(0);
+              return new DataPartitionResp(
+                  RpcUtils.SUCCESS_STATUS,
+                  createdSlots.containsAll(toSlotKeys(plan.getPartitionSlotsMap())),
+                  Collections.emptyMap());
+            });
+    clusterSchemaManager = Mockito.mock(ClusterSchemaManager.class);
+    IManager configManager = Mockito.mock(IManager.class);
+    Mockito.when(configManager.getConsensusManager()).thenReturn(consensusManager);
+    Mockito.when(configManager.getClusterSchemaManager()).thenReturn(clusterSchemaManager);
+
+    partitionManager = Mockito.spy(new PartitionManager(configManager, partitionInfo));
+    Mockito.doAnswer(
+            invocation -> {
+              Map<String, Map<TSeriesPartitionSlot, TTimeSlotList>> partitionSlotsMap =
+                  invocation.getArgument(0);
+              creations.add(partitionSlotsMap);
+              if (creations.size() == 1 && firstCreationReleased != null) {
+                firstCreationEntered.countDown();
+                firstCreationReleased.await();
+              }
+              if (partitionSlotsMap.values().stream()
+                  .anyMatch(
+                      partitionSlots ->
+                          partitionSlots.containsKey(
+                              new TSeriesPartitionSlot(BAD_SERIES_PARTITION_SLOT)))) {
+                return new TSStatus(TSStatusCode.NO_AVAILABLE_REGION_GROUP.getStatusCode());
+              }
+              createdSlots.addAll(toSlotKeys(partitionSlotsMap));
+              return RpcUtils.SUCCESS_STATUS;
+            })
+        .when(partitionManager)
+        .createDataPartition(Mockito.anyMap());
+  }
+
+  @After
+  public void tearDown() {
+    CONF.setDataPartitionPreCreateAheadTimeInMs(originPreCreateAheadTime);
+    partitionManager.getRegionMaintainer().shutdownNow();
+  }
+
+  @Test
+  public void testCoalesceDataPartitionCreation() throws InterruptedException {
+    Map<Integer, TSStatus> statusMap = getOrCreateDataPartitionConcurrently(1, 2, 3);
+
+    for (TSStatus status : statusMap.values()) {
+      Assert.assertEquals(TSStatusCode.SUCCESS_STATUS.getStatusCode(), status.getCode());
+    }
+    // The requests waiting for the first creation are created together
+    Assert.assertEquals(2, creations.size());
+    Assert.assertEquals(
+        new HashSet<>(Arrays.asList(new TSeriesPartitionSlot(2), new TSeriesPartitionSlot(3))),
+        creations.get(1).get(DATABASE).keySet());
+  }
+
+  @Test
+  public void testRetryFailedCoalescedDataPartitionCreation() throws InterruptedException {
+    Map<Integer, TSStatus> statusMap =
+        getOrCreateDataPartitionConcurrently(1, 2, BAD_SERIES_PARTITION_SLOT);
+
+    // The coalesced creation fails because of the bad SeriesPartitionSlot of the same Database,
+    // so each of the requests retries with its own DataPartitionSlots
+    Assert.assertEquals(TSStatusCode.SUCCESS_STATUS.getStatusCode(), statusMap.get(1).getCode());
+    Assert.assertEquals(TSStatusCode.SUCCESS_STATUS.getStatusCode(), statusMap.get(2).getCode());
+    Assert.assertEquals(
+        TSStatusCode.NO_AVAILABLE_REGION_GROUP.getStatusCode(),
+        statusMap.get(BAD_SERIES_PARTITION_SLOT).getCode());
+    Assert.assertEquals(4, creations.size());
+  }
+
+  @Test
+  public void testPreCreateDataPartition() {
+    CONF.setDataPartitionPreCreateAheadTimeInMs(
+        CommonDescriptor.getInstance().getConfig().getTimePartitionInterval());
+    TConsensusGroupId regionGroupId = new TConsensusGroupId(TConsensusGroupType.DataRegion, 1);
+    Map<TSeriesPartitionSlot, TConsensusGroupId> lastDataAllotTable = new ConcurrentHashMap<>();
+    lastDataAllotTable.put(new TSeriesPartitionSlot(1), regionGroupId);
+    lastDataAllotTable.put(new TSeriesPartitionSlot(2), regionGroupId);
+    Mockito.when(clusterSchemaManager.getDatabaseNames())
+        .thenReturn(Collections.singletonList(DATABASE));
+    Mockito.when(partitionInfo.getLastDataAllotTable(DATABASE)).thenReturn(lastDataAllotTable);
+    // The SeriesPartitionSlot 2 owns no DataPartition in the current time partition
+    Map<TSeriesPartitionSlot, TTimeSlotList> unassignedPartitionSlots = new ConcurrentHashMap<>();
+    unassignedPartitionSlots.put(
+        new TSeriesPartitionSlot(2),
+        new TTimeSlotList(Collections.singletonList(TIME_PARTITION_SLOT), false, false));
+    Mockito.when(partitionInfo.filterUnassignedDataPartitionSlots(Mockito.anyMap()))
+        .thenReturn(Collections.singletonMap(DATABASE, unassignedPartitionSlots));
+
+    long nextTimePartitionStartTime =
+        TimePartitionUtils.getTimePartitionUpperBound(CommonDateTimeUtils.currentTime());
+    partitionManager.preCreateDataPartition();
+    Assert.assertEquals(1, creations.size());
+    Map<TSeriesPartitionSlot, TTimeSlotList> preCreatedSlots = creations.get(0).get(DATABASE);
+    Assert.assertEquals(
+        Collections.singleton(new TSeriesPartitionSlot(1)), preCreatedSlots.keySet());
+    Assert.assertEquals(
+        Collections.singletonList(new TTimePartitionSlot(nextTimePartitionStartTime)),
+        preCreatedSlots.get(new TSeriesPartitionSlot(1)).getTimePartitionSlots());
+
+    // The DataPartitions that already exist are not created again
+    partitionManager.preCreateDataPartition();
+    Assert.assertEquals(1, creations.size());
+  }
+
+  /**
+   * Invoke getOrCreateDataPartition for each of the SeriesPartitionSlots in its own thread. The
+   * ones after the first wait for the creation of the first, so that they're coalesced.
+   *
+   * @return Map<SeriesPartitionSlot, TSStatus of getOrCreateDataPartition>
+   */
+  private Map<Integer, TSStatus> getOrCreateDataPartitionConcurrently(int... seriesPartitionSlots)
+      throws InterruptedException {
+    firstCreationEntered = new CountDownLatch(1);
+    firstCreationReleased = new CountDownLatch(1);
+    Map<Integer, TSStatus> statusMap = new ConcurrentHashMap<>();
+    List<Thread> threads = new ArrayList<>();
+    for (int seriesPartitionSlot : seriesPartitionSlots) {
+      Thread thread =
+          new Thread(
+              () ->
+                  statusMap.put(
+                      seriesPartitionSlot,
+                      partitionManager
+                          .getOrCreateDataPartition(
+                              new GetOrCreateDataPartitionPlan(
+                                  toPartitionSlotsMap(seriesPartitionSlot)))
+                          .getStatus()));
+      thread.start();
+      threads.add(thread);
+      if (threads.size() == 1) {
+        Assert.assertTrue(firstCreationEntered.await(10, TimeUnit.SECONDS));
+      } else {
+        waitForBlocked(thread);
+      }
+    }
+
+    firstCreationReleased.countDown();
+    for (Thread thread : threads) {
+      thread.join(TimeUnit.SECONDS.toMillis(10));
+      Assert.assertFalse(thread.isAlive());
+    }
+    return statusMap;
+  }
+
+  private static void waitForBlocked(Thread thread) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+    while (thread.getState() != Thread.State.BLOCKED) {
+      Assert.assertTrue(System.currentTimeMillis() < deadline);
+      TimeUnit.MILLISECONDS.sleep(10);
+    }
+  }
+
+  private static Map<String, Map<TSeriesPartitionSlot, TTimeSlotList>> toPartitionSlotsMap(
+      int seriesPartitionSlot) {
+    Map<TSeriesPartitionSlot, TTimeSlotList> partitionSlots = new ConcurrentHashMap<>();
+    partitionSlots.put(
+        new TSeriesPartitionSlot(seriesPartitionSlot),
+        new TTimeSlotList(
+            new ArrayList<>(Collections.singletonList(TIME_PARTITION_SLOT)), false, false));
+    Map<String, Map<TSeriesPartitionSlot, TTimeSlotList>> partitionSlotsMap =
+        new ConcurrentHashMap<>();
+    partitionSlotsMap.put(DATABASE, partitionSlots);
+    return partitionSlotsMap;
+  }
+
+  private static Set<String> toSlotKeys(
+      Map<String, Map<TSeriesPartitionSlot, TTimeSlotList>> partitionSlotsMap) {
+    Set<String> slotKeys = new HashSet<>();
+    partitionSlotsMap.forEach(
+        (database, partitionSlots) ->
+            partitionSlots.forEach(
+                (seriesPartitionSlot, timeSlotList) ->
+                    timeSlotList
+                        .getTimePartitionSlots()
+                        .forEach(
+                            timePartitionSlot ->
+                                slotKeys.add(
+                                    seriesPartitionSlot.getSlotId()
+                                        + "-"
+                                        + timePartitionSlot.getStartTime()))));
+    return slotKeys;
+  }
+}
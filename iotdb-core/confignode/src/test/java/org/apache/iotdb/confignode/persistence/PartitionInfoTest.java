@@ -52,7 +52,10 @@ import org.junit.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -152,6 +155,66 @@ public class PartitionInfoTest {
     Assert.assertEquals(partitionInfo, partitionInfo1);
   }
 
+  @Test
+  public void testIncrementalSnapshot() throws TException, IOException {
+    for (String database : Arrays.asList("root.test", "root.other")) {
+      partitionInfo.createDatabase(
+          new DatabaseSchemaPlan(
+              ConfigPhysicalPlanType.CreateDatabase, new TDatabaseSchema(database)));
+    }
+    File snapshotDir1 = new File(snapshotDir, "1");
+    Assert.assertTrue(snapshotDir1.mkdirs());
+    Assert.assertTrue(partitionInfo.processTakeSnapshot(snapshotDir1));
+
+    // Only modify root.test
+    CreateRegionGroupsPlan createRegionGroupsReq = new CreateRegionGroupsPlan();
+    createRegionGroupsReq.addRegionGroup(
+        "root.test",
+        generateTRegionReplicaSet(
+            testFlag.DataPartition.getFlag(),
+            generateTConsensusGroupId(
+                testFlag.DataPartition.getFlag(), TConsensusGroupType.DataRegion)));
+    partitionInfo.createRegionGroups(createRegionGroupsReq);
+    File snapshotDir2 = new File(snapshotDir, "2");
+    Assert.assertTrue(snapshotDir2.mkdirs());
+    Assert.assertTrue(partitionInfo.processTakeSnapshot(snapshotDir2));
+
+    // The file of the unmodified Database is shared by both snapshots
+    int sharedFileCount = 0;
+    for (String fileName : Arrays.asList("0.bin", "1.bin")) {
+      if (Files.isSameFile(
+          new File(new File(snapshotDir1, "partition_info"), fileName).toPath(),
+          new File(new File(snapshotDir2, "partition_info"), fileName).toPath())) {
+        sharedFileCount++;
+      }
+    }
+    Assert.assertEquals(1, sharedFileCount);
+
+    PartitionInfo partitionInfo1 = new PartitionInfo();
+    partitionInfo1.processLoadSnapshot(snapshotDir2);
+    Assert.assertEquals(partitionInfo, partitionInfo1);
+  }
+
+  @Test
+  public void testCorruptedSnapshot() throws TException, IOException {
+    partitionInfo.createDatabase(
+        new DatabaseSchemaPlan(
+            ConfigPhysicalPlanType.CreateDatabase, new TDatabaseSchema("root.test")));
+    Assert.assertTrue(partitionInfo.processTakeSnapshot(snapshotDir));
+
+    // Flip the preDeleted flag of the DatabasePartitionTable
+    try (RandomAccessFile tableFile =
+        new RandomAccessFile(new File(new File(snapshotDir, "partition_info"), "0.bin"), "rw")) {
+      tableFile.write(1);
+    }
+    try {
+      new PartitionInfo().processLoadSnapshot(snapshotDir);
+      Assert.fail();
+    } catch (IOException e) {
+      Assert.assertTrue(e.getMessage().contains("corrupted"));
+    }
+  }
+
   @Test
   public void testGetRegionType() {
 
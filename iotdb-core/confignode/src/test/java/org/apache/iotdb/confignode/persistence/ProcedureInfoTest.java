@@ -22,13 +22,17 @@ package org.apache.iotdb.confignode.persistence;
 import org.apache.iotdb.commons.utils.FileUtils;
 import org.apache.iotdb.confignode.consensus.request.write.procedure.UpdateProcedurePlan;
 import org.apache.iotdb.confignode.procedure.impl.testonly.NeverFinishProcedure;
+import org.apache.iotdb.confignode.procedure.store.ProcedureFactory;
+import org.apache.iotdb.confignode.procedure.store.ProcedureWAL;
 
+import org.apache.tsfile.utils.ReadWriteIOUtils;
 import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.util.stream.LongStream;
 
 import static org.apache.iotdb.db.utils.constant.TestConstant.BASE_OUTPUT_PATH;
@@ -72,4 +76,28 @@ public class ProcedureInfoTest {
     procedureInfo1.processLoadSnapshot(snapshotDir);
     Assert.assertEquals(procedureInfo, procedureInfo1);
   }
+
+  @Test
+  public void testLoadSnapshotOfOlderVersion() throws Exception {
+    File oldSnapshotDir = new File(snapshotDir, "old");
+    File procedureSnapshotDir = new File(oldSnapshotDir, "procedures");
+    Assert.assertTrue(procedureSnapshotDir.mkdirs());
+    try (FileOutputStream fileOutputStream =
+        new FileOutputStream(new File(procedureSnapshotDir, "procedure_info.bin"))) {
+      ReadWriteIOUtils.write(99999L, fileOutputStream);
+    }
+    ProcedureInfo expected = new ProcedureInfo(null);
+    for (long procId : new long[] {1, 100, 99999}) {
+      NeverFinishProcedure procedure = new NeverFinishProcedure(procId);
+      expected.updateProcedure(new UpdateProcedurePlan(procedure));
+      new ProcedureWAL(
+              new File(procedureSnapshotDir, procId + ".bin").toPath(),
+              ProcedureFactory.getInstance())
+          .save(procedure);
+    }
+
+    ProcedureInfo procedureInfo1 = new ProcedureInfo(null);
+    procedureInfo1.processLoadSnapshot(oldSnapshotDir);
+    Assert.assertEquals(expected, procedureInfo1);
+  }
 }
@@ -193,6 +193,19 @@ public interface IConsensus {
    */
   long getLogicalClock(ConsensusGroupId groupId);
 
+  /**
+   * Return how far reads on the current peer may fall behind the writes of the consensus group, in
+   * milliseconds, i.e. the time since the current peer was last known to have applied everything
+   * written on the leader, and 0 is returned on the leader itself. For protocols where every peer
+   * accepts writes, such as IoTConsensus, the leader is the peer which latest accepted writes from
+   * clients.
+   *
+   * @param groupId the consensus group
+   * @return {@link Long#MAX_VALUE} if it is unknown, e.g. the leader has not told the current peer
+   *     about its writes yet
+   */
+  long getReadStalenessInMs(ConsensusGroupId groupId);
+
   /**
    * Determine if the current peer is the leader and already able to provide services in the
    * corresponding consensus group.
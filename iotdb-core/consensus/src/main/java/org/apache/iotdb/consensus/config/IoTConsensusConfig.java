@@ -249,6 +249,16 @@ public class IoTConsensusConfig {
     private final long allocateMemoryForConsensus;
     private final long allocateMemoryForQueue;
     private final long regionMigrationSpeedLimitBytesPerSecond;
+    // 0 means each peer of each group has its own dispatcher thread
+    private final int dispatcherThreadNum;
+    // the factor that batch size and pending batches num may grow to, 1 means no adaptive batching
+    private final int adaptiveBatchingMaxScale;
+    // lag of a follower in log entries to compress its batches, 0 means never compress
+    private final long compressionLagThreshold;
+    // number of files of a snapshot transmitted concurrently
+    private final int snapshotTransmissionThreadNum;
+    // interval for an idle dispatcher to tell a caught up follower so, 0 means never
+    private final long heartbeatIntervalInMs;
 
     private Replication(
         int maxLogEntriesNumPerBatch,
@@ -264,7 +274,12 @@ public class IoTConsensusConfig {
         long checkpointGap,
         long allocateMemoryForConsensus,
         double maxMemoryRatioForQueue,
-        long regionMigrationSpeedLimitBytesPerSecond) {
+        long regionMigrationSpeedLimitBytesPerSecond,
+        int dispatcherThreadNum,
+        int adaptiveBatchingMaxScale,
+        long compressionLagThreshold,
+        int snapshotTransmissionThreadNum,
+        long heartbeatIntervalInMs) {
       this.maxLogEntriesNumPerBatch = maxLogEntriesNumPerBatch;
       this.maxSizePerBatch = maxSizePerBatch;
       this.maxPendingBatchesNum = maxPendingBatchesNum;
@@ -279,6 +294,11 @@ public class IoTConsensusConfig {
       this.allocateMemoryForConsensus = allocateMemoryForConsensus;
       this.allocateMemoryForQueue = (long) (allocateMemoryForConsensus * maxMemoryRatioForQueue);
       this.regionMigrationSpeedLimitBytesPerSecond = regionMigrationSpeedLimitBytesPerSecond;
+      this.dispatcherThreadNum = dispatcherThreadNum;
+      this.adaptiveBatchingMaxScale = adaptiveBatchingMaxScale;
+      this.compressionLagThreshold = compressionLagThreshold;
+      this.snapshotTransmissionThreadNum = snapshotTransmissionThreadNum;
+      this.heartbeatIntervalInMs = heartbeatIntervalInMs;
     }
 
     public int getMaxLogEntriesNumPerBatch() {
@@ -337,6 +357,26 @@ public class IoTConsensusConfig {
       return regionMigrationSpeedLimitBytesPerSecond;
     }
 
+    public int getDispatcherThreadNum() {
+      return dispatcherThreadNum;
+    }
+
+    public int getAdaptiveBatchingMaxScale() {
+      return adaptiveBatchingMaxScale;
+    }
+
+    public long getCompressionLagThreshold() {
+      return compressionLagThreshold;
+    }
+
+    public int getSnapshotTransmissionThreadNum() {
+      return snapshotTransmissionThreadNum;
+    }
+
+    public long getHeartbeatIntervalInMs() {
+      return heartbeatIntervalInMs;
+    }
+
     public static Replication.Builder newBuilder() {
       return new Replication.Builder();
     }
@@ -358,6 +398,11 @@ public class IoTConsensusConfig {
       private long allocateMemoryForConsensus = Runtime.getRuntime().maxMemory() / 10;
       private double maxMemoryRatioForQueue = 0.6;
       private long regionMigrationSpeedLimitBytesPerSecond = 32 * 1024 * 1024L;
+      private int dispatcherThreadNum = 0;
+      private int adaptiveBatchingMaxScale = 1;
+      private long compressionLagThreshold = 0;
+      private int snapshotTransmissionThreadNum = 1;
+      private long heartbeatIntervalInMs = 0;
 
       public Replication.Builder setMaxLogEntriesNumPerBatch(int maxLogEntriesNumPerBatch) {
         this.maxLogEntriesNumPerBatch = maxLogEntriesNumPerBatch;
@@ -432,6 +477,31 @@ public class IoTConsensusConfig {
         return this;
       }
 
+      public Builder setDispatcherThreadNum(int dispatcherThreadNum) {
+        this.dispatcherThreadNum = dispatcherThreadNum;
+        return this;
+      }
+
+      public Builder setAdaptiveBatchingMaxScale(int adaptiveBatchingMaxScale) {
+        this.adaptiveBatchingMaxScale = adaptiveBatchingMaxScale;
+        return this;
+      }
+
+      public Builder setCompressionLagThreshold(long compressionLagThreshold) {
+        this.compressionLagThreshold = compressionLagThreshold;
+        return this;
+      }
+
+      public Builder setSnapshotTransmissionThreadNum(int snapshotTransmissionThreadNum) {
+        this.snapshotTransmissionThreadNum = snapshotTransmissionThreadNum;
+        return this;
+      }
+
+      public Builder setHeartbeatIntervalInMs(long heartbeatIntervalInMs) {
+        this.heartbeatIntervalInMs = heartbeatIntervalInMs;
+        return this;
+      }
+
       public Replication build() {
         return new Replication(
             maxLogEntriesNumPerBatch,
@@ -447,7 +517,12 @@ public class IoTConsensusConfig {
             checkpointGap,
             allocateMemoryForConsensus,
             maxMemoryRatioForQueue,
-            regionMigrationSpeedLimitBytesPerSecond);
+            regionMigrationSpeedLimitBytesPerSecond,
+            dispatcherThreadNum,
+            adaptiveBatchingMaxScale,
+            compressionLagThreshold,
+            snapshotTransmissionThreadNum,
+            heartbeatIntervalInMs);
       }
     }
   }
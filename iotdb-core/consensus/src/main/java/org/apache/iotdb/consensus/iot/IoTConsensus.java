@@ -74,6 +74,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -96,6 +97,8 @@ public class IoTConsensus implements IConsensus {
   private final IClientManager<TEndPoint, AsyncIoTConsensusServiceClient> clientManager;
   private final IClientManager<TEndPoint, SyncIoTConsensusServiceClient> syncClientManager;
   private final ScheduledExecutorService backgroundTaskService;
+  // shared by the log dispatchers of all groups, null if each dispatcher has its own thread
+  private final ScheduledExecutorService dispatcherService;
   private Future<?> updateReaderFuture;
 
   public IoTConsensus(ConsensusConfig config, Registry registry) {
@@ -116,6 +119,12 @@ public class IoTConsensus implements IConsensus {
     this.backgroundTaskService =
         IoTDBThreadPoolFactory.newSingleThreadScheduledExecutor(
             ThreadName.IOT_CONSENSUS_BACKGROUND_TASK_EXECUTOR.getName());
+    int dispatcherThreadNum = this.config.getReplication().getDispatcherThreadNum();
+    this.dispatcherService =
+        dispatcherThreadNum > 0
+            ? IoTDBThreadPoolFactory.newScheduledThreadPool(
+                dispatcherThreadNum, ThreadName.SHARED_LOG_DISPATCHER.getName())
+            : null;
     // init IoTConsensus memory manager
     IoTConsensusMemoryManager.getInstance()
         .init(
@@ -172,6 +181,7 @@ public class IoTConsensus implements IConsensus {
                   new ArrayList<>(),
                   registry.apply(consensusGroupId),
                   backgroundTaskService,
+                  dispatcherService,
                   clientManager,
                   syncClientManager,
                   config);
@@ -190,8 +200,12 @@ public class IoTConsensus implements IConsensus {
     syncClientManager.close();
     registerManager.deregisterAll();
     backgroundTaskService.shutdown();
+    Optional.ofNullable(dispatcherService).ifPresent(ExecutorService::shutdownNow);
     try {
       backgroundTaskService.awaitTermination(5, TimeUnit.SECONDS);
+      if (dispatcherService != null) {
+        dispatcherService.awaitTermination(5, TimeUnit.SECONDS);
+      }
     } catch (InterruptedException e) {
       logger.warn("{}: interrupted when shutting down add Executor with exception {}", this, e);
       Thread.currentThread().interrupt();
@@ -255,6 +269,7 @@ public class IoTConsensus implements IConsensus {
                           peers,
                           registry.apply(groupId),
                           backgroundTaskService,
+                          dispatcherService,
                           clientManager,
                           syncClientManager,
                           config);
@@ -421,6 +436,13 @@ public class IoTConsensus implements IConsensus {
         .orElse(0L);
   }
 
+  @Override
+  public long getReadStalenessInMs(ConsensusGroupId groupId) {
+    return Optional.ofNullable(stateMachineMap.get(groupId))
+        .map(IoTConsensusServerImpl::getReadStalenessInMs)
+        .orElse(Long.MAX_VALUE);
+  }
+
   @Override
   public Peer getLeader(ConsensusGroupId groupId) {
     if (!stateMachineMap.containsKey(groupId)) {
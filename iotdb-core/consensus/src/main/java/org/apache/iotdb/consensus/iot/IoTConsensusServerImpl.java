@@ -23,6 +23,8 @@ import org.apache.iotdb.common.rpc.thrift.TEndPoint;
 import org.apache.iotdb.common.rpc.thrift.TSStatus;
 import org.apache.iotdb.commons.client.IClientManager;
 import org.apache.iotdb.commons.client.exception.ClientManagerException;
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
 import org.apache.iotdb.commons.consensus.index.ComparableConsensusRequest;
 import org.apache.iotdb.commons.consensus.index.impl.IoTProgressIndex;
 import org.apache.iotdb.commons.service.metric.MetricService;
@@ -80,15 +82,25 @@ import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
 import java.util.PriorityQueue;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
@@ -98,6 +110,7 @@ import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.zip.CRC32;
 
 import static org.apache.iotdb.commons.utils.FileUtils.humanReadableByteCountSI;
 
@@ -107,6 +120,10 @@ public class IoTConsensusServerImpl {
   private static final String CONFIGURATION_TMP_FILE_NAME = "configuration.dat.tmp";
   public static final String SNAPSHOT_DIR_NAME = "snapshot";
   private static final Pattern SNAPSHOT_INDEX_PATTEN = Pattern.compile(".*[^\\d](?=(\\d+))");
+  private static final int SNAPSHOT_FILE_TRANSMISSION_RETRY_TIMES = 3;
+  private static final int CHECKSUM_BUFFER_SIZE = 1024 * 1024;
+  // a peer silent for this many heartbeat intervals is taken as unreachable
+  private static final int UNREACHABLE_HEARTBEAT_INTERVALS = 3;
   private static final PerformanceOverviewMetrics PERFORMANCE_OVERVIEW_METRICS =
       PerformanceOverviewMetrics.getInstance();
   private final Logger logger = LoggerFactory.getLogger(IoTConsensusServerImpl.class);
@@ -118,6 +135,10 @@ public class IoTConsensusServerImpl {
   private final String storageDir;
   private final List<Peer> configuration;
   private final AtomicLong searchIndex;
+  // source peer id -> how far this peer has applied the logs sent by it
+  private final Map<Integer, SyncProgress> syncProgressMap = new ConcurrentHashMap<>();
+  // when this peer last accepted a write from clients, in nanoseconds
+  private volatile long lastLocalWriteTime = SyncProgress.NEVER;
   private final LogDispatcher logDispatcher;
   private final IoTConsensusConfig config;
   private final ConsensusReqReader consensusReqReader;
@@ -138,6 +159,7 @@ public class IoTConsensusServerImpl {
       List<Peer> configuration,
       IStateMachine stateMachine,
       ScheduledExecutorService backgroundTaskService,
+      ScheduledExecutorService dispatcherService,
       IClientManager<TEndPoint, AsyncIoTConsensusServiceClient> clientManager,
       IClientManager<TEndPoint, SyncIoTConsensusServiceClient> syncClientManager,
       IoTConsensusConfig config) {
@@ -159,7 +181,7 @@ public class IoTConsensusServerImpl {
     consensusReqReader = (ConsensusReqReader) stateMachine.read(new GetConsensusReqReaderPlan());
     this.searchIndex = new AtomicLong(consensusReqReader.getCurrentSearchIndex());
     this.ioTConsensusServerMetrics = new IoTConsensusServerMetrics(this);
-    this.logDispatcher = new LogDispatcher(this, clientManager);
+    this.logDispatcher = new LogDispatcher(this, clientManager, dispatcherService);
     // Since the underlying wal does not persist safelyDeletedSearchIndex, IoTConsensus needs to
     // update wal with its syncIndex recovered from the consensus layer when initializing.
     // This prevents wal from being piled up if the safelyDeletedSearchIndex is not updated after
@@ -250,6 +272,7 @@ public class IoTConsensusServerImpl {
           logDispatcher.offer(indexedConsensusRequest);
           searchIndex.incrementAndGet();
         }
+        lastLocalWriteTime = System.nanoTime();
         // statistic the time of offering request into queue
         ioTConsensusServerMetrics.recordOfferRequestToQueueTime(
             System.nanoTime() - writeToStateMachineEndTime);
@@ -299,13 +322,13 @@ public class IoTConsensusServerImpl {
   public void transmitSnapshot(Peer targetPeer) throws ConsensusGroupModifyPeerException {
     File snapshotDir = new File(storageDir, newSnapshotDirName);
     List<Path> snapshotPaths = stateMachine.getSnapshotFiles(snapshotDir);
-    AtomicLong snapshotSizeSumAtomic = new AtomicLong();
+    Map<Path, Long> snapshotFileSizes = new HashMap<>();
     StringBuilder allFilesStr = new StringBuilder();
     snapshotPaths.forEach(
         path -> {
           try {
             long fileSize = Files.size(path);
-            snapshotSizeSumAtomic.addAndGet(fileSize);
+            snapshotFileSizes.put(path, fileSize);
             allFilesStr
                 .append("\n")
                 .append(path)
@@ -316,9 +339,10 @@ public class IoTConsensusServerImpl {
                 "[SNAPSHOT TRANSMISSION] Calculate snapshot file's size fail: {}", path, e);
           }
         });
-    final long snapshotSizeSum = snapshotSizeSumAtomic.get();
-    long transitedSnapshotSizeSum = 0;
-    long transitedFilesNum = 0;
+    final long snapshotSizeSum =
+        snapshotFileSizes.values().stream().mapToLong(Long::longValue).sum();
+    AtomicLong transitedSnapshotSizeSum = new AtomicLong();
+    AtomicLong transitedFilesNum = new AtomicLong();
     long startTime = System.nanoTime();
     logger.info(
         "[SNAPSHOT TRANSMISSION] Start to transmit snapshots ({} files, total size {}) from dir {}",
@@ -327,54 +351,150 @@ public class IoTConsensusServerImpl {
         snapshotDir);
     logger.info(
         "[SNAPSHOT TRANSMISSION] All the files below shell be transmitted: {}", allFilesStr);
-    try (SyncIoTConsensusServiceClient client =
-        syncClientManager.borrowClient(targetPeer.getEndpoint())) {
-      for (Path path : snapshotPaths) {
-        SnapshotFragmentReader reader = new SnapshotFragmentReader(newSnapshotDirName, path);
+    // transmit large files first, so that the streams tend to finish at the same time
+    Queue<Path> pendingPaths =
+        snapshotPaths.stream()
+            .sorted(
+                Comparator.comparingLong((Path path) -> snapshotFileSizes.getOrDefault(path, 0L))
+                    .reversed())
+            .collect(Collectors.toCollection(ConcurrentLinkedQueue::new));
+    int streamNum =
+        Math.max(
+            1,
+            Math.min(
+                config.getReplication().getSnapshotTransmissionThreadNum(), snapshotPaths.size()));
+    ExecutorService transmissionService =
+        IoTDBThreadPoolFactory.newFixedThreadPool(
+            streamNum,
+            ThreadName.IOT_CONSENSUS_SNAPSHOT_TRANSMISSION.getName() + "-" + consensusGroupId);
+    try {
+      List<Future<Void>> streams = new ArrayList<>(streamNum);
+      for (int i = 0; i < streamNum; i++) {
+        streams.add(
+            transmissionService.submit(
+                () -> {
+                  Path path;
+                  while ((path = pendingPaths.poll()) != null) {
+                    try {
+                      long fileSize = transmitSnapshotFile(targetPeer, path);
+                      logger.info(
+                          "[SNAPSHOT TRANSMISSION] The overall progress for dir {}: files {}/{} done, size {}/{} done, time {} passed. File {} done.",
+                          newSnapshotDirName,
+                          transitedFilesNum.incrementAndGet(),
+                          snapshotPaths.size(),
+                          humanReadableByteCountSI(transitedSnapshotSizeSum.addAndGet(fileSize)),
+                          humanReadableByteCountSI(snapshotSizeSum),
+                          CommonDateTimeUtils.convertMillisecondToDurationStr(
+                              (System.nanoTime() - startTime) / 1_000_000),
+                          path);
+                    } catch (Exception e) {
+                      // stop the other streams from taking new files
+                      pendingPaths.clear();
+                      throw e;
+                    }
+                  }
+                  return null;
+                }));
+      }
+      for (Future<Void> stream : streams) {
+        stream.get();
+      }
+    } catch (ExecutionException e) {
+      throw new ConsensusGroupModifyPeerException(
+          String.format("[SNAPSHOT TRANSMISSION] Error when send snapshot file to %s", targetPeer),
+          e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ConsensusGroupModifyPeerException(
+          String.format(
+              "[SNAPSHOT TRANSMISSION] Interrupted when send snapshot file to %s", targetPeer),
+          e);
+    } finally {
+      transmissionService.shutdownNow();
+    }
+    logger.info(
+        "[SNAPSHOT TRANSMISSION] After {}, successfully transmit all snapshots from dir {}",
+        CommonDateTimeUtils.convertMillisecondToDurationStr(
+            (System.nanoTime() - startTime) / 1_000_000),
+        snapshotDir);
+  }
+
+  /**
+   * Transmits one snapshot file in fragments. Every fragment is written at its offset by the
+   * receiver, so a failed transmission resumes from the last acknowledged fragment. The last
+   * fragment carries the checksum of the whole file, and the file is transmitted again from the
+   * beginning if the receiver finds it corrupted.
+   *
+   * @return the size of the file
+   */
+  private long transmitSnapshotFile(Peer targetPeer, Path path)
+      throws ConsensusGroupModifyPeerException, InterruptedException {
+    long acknowledgedSize = 0;
+    for (int retryTimes = 0; ; retryTimes++) {
+      boolean checksumSent = false;
+      try (SyncIoTConsensusServiceClient client =
+          syncClientManager.borrowClient(targetPeer.getEndpoint())) {
+        SnapshotFragmentReader reader =
+            new SnapshotFragmentReader(newSnapshotDirName, path, acknowledgedSize);
         try {
           while (reader.hasNext()) {
-            // TODO: zero copy ?
             TSendSnapshotFragmentReq req = reader.next().toTSendSnapshotFragmentReq();
             req.setConsensusGroupId(targetPeer.getGroupId().convertToTConsensusGroupId());
+            if (reader.isLastFragment()) {
+              req.setFileChecksum(reader.getChecksum());
+              checksumSent = true;
+            }
             ioTConsensusRateLimiter.acquireTransitDataSizeWithRateLimiter(req.getChunkLength());
             TSendSnapshotFragmentRes res = client.sendSnapshotFragment(req);
             if (!isSuccess(res.getStatus())) {
               throw new ConsensusGroupModifyPeerException(
                   String.format(
-                      "[SNAPSHOT TRANSMISSION] Error when transmitting snapshot fragment to %s",
-                      targetPeer));
+                      "[SNAPSHOT TRANSMISSION] Error when transmitting snapshot fragment to %s, status is %s",
+                      targetPeer, res.getStatus()));
             }
+            acknowledgedSize = reader.getTotalReadSize();
           }
-          transitedSnapshotSizeSum += reader.getTotalReadSize();
-          transitedFilesNum++;
-          logger.info(
-              "[SNAPSHOT TRANSMISSION] The overall progress for dir {}: files {}/{} done, size {}/{} done, time {} passed. File {} done.",
-              newSnapshotDirName,
-              transitedFilesNum,
-              snapshotPaths.size(),
-              humanReadableByteCountSI(transitedSnapshotSizeSum),
-              humanReadableByteCountSI(snapshotSizeSum),
-              CommonDateTimeUtils.convertMillisecondToDurationStr(
-                  (System.nanoTime() - startTime) / 1_000_000),
-              path);
+          return reader.getTotalReadSize();
         } finally {
           reader.close();
         }
+      } catch (Exception e) {
+        if (retryTimes >= SNAPSHOT_FILE_TRANSMISSION_RETRY_TIMES) {
+          throw new ConsensusGroupModifyPeerException(
+              String.format(
+                  "[SNAPSHOT TRANSMISSION] Error when send snapshot file %s to %s",
+                  path, targetPeer),
+              e);
+        }
+        if (checksumSent) {
+          // the receiver may have found the file corrupted
+          acknowledgedSize = 0;
+        }
+        logger.warn(
+            "[SNAPSHOT TRANSMISSION] Fail to send snapshot file {} to {} for {} times, resume from {}",
+            path,
+            targetPeer,
+            retryTimes + 1,
+            acknowledgedSize,
+            e);
+        Thread.sleep(
+            Math.min(
+                config.getReplication().getBasicRetryWaitTimeMs() << retryTimes,
+                config.getReplication().getMaxRetryWaitTimeMs()));
       }
-    } catch (Exception e) {
-      throw new ConsensusGroupModifyPeerException(
-          String.format("[SNAPSHOT TRANSMISSION] Error when send snapshot file to %s", targetPeer),
-          e);
     }
-    logger.info(
-        "[SNAPSHOT TRANSMISSION] After {}, successfully transmit all snapshots from dir {}",
-        CommonDateTimeUtils.convertMillisecondToDurationStr(
-            (System.nanoTime() - startTime) / 1_000_000),
-        snapshotDir);
   }
 
+  /**
+   * Writes a fragment of a snapshot file at offset, or appends it if offset is negative. The file is
+   * verified by fileChecksum if it is present, which means it is the last fragment of the file.
+   */
   public void receiveSnapshotFragment(
-      String snapshotId, String originalFilePath, ByteBuffer fileChunk)
+      String snapshotId,
+      String originalFilePath,
+      ByteBuffer fileChunk,
+      long offset,
+      OptionalLong fileChecksum)
       throws ConsensusGroupModifyPeerException {
     try {
       String targetFilePath = calculateSnapshotPath(snapshotId, originalFilePath);
@@ -383,9 +503,29 @@ public class IoTConsensusServerImpl {
       if (!Files.exists(parentDir)) {
         Files.createDirectories(parentDir);
       }
-      try (FileOutputStream fos = new FileOutputStream(targetFile.getAbsolutePath(), true);
-          FileChannel channel = fos.getChannel()) {
-        channel.write(fileChunk.slice());
+      try (FileChannel channel =
+          FileChannel.open(
+              targetFile.toPath(),
+              StandardOpenOption.CREATE,
+              StandardOpenOption.READ,
+              StandardOpenOption.WRITE)) {
+        ByteBuffer chunk = fileChunk.slice();
+        long position = offset < 0 ? channel.size() : offset;
+        while (chunk.hasRemaining()) {
+          position += channel.write(chunk, position);
+        }
+        if (fileChecksum.isPresent()) {
+          // drop what an interrupted transmission may have left beyond the end of the file
+          channel.truncate(position);
+          long actualChecksum = calculateChecksum(channel);
+          if (actualChecksum != fileChecksum.getAsLong()) {
+            channel.truncate(0);
+            throw new ConsensusGroupModifyPeerException(
+                String.format(
+                    "checksum mismatch of snapshot file %s, expected %d but %d",
+                    targetFilePath, fileChecksum.getAsLong(), actualChecksum));
+          }
+        }
       }
     } catch (IOException e) {
       throw new ConsensusGroupModifyPeerException(
@@ -393,6 +533,20 @@ public class IoTConsensusServerImpl {
     }
   }
 
+  private static long calculateChecksum(FileChannel channel) throws IOException {
+    CRC32 checksum = new CRC32();
+    ByteBuffer buffer = ByteBuffer.allocate(CHECKSUM_BUFFER_SIZE);
+    long position = 0;
+    int readSize;
+    while ((readSize = channel.read(buffer, position)) > 0) {
+      buffer.flip();
+      checksum.update(buffer);
+      buffer.clear();
+      position += readSize;
+    }
+    return checksum.getValue();
+  }
+
   private String calculateSnapshotPath(String snapshotId, String originalFilePath)
       throws ConsensusGroupModifyPeerException {
     if (!originalFilePath.contains(snapshotId)) {
@@ -793,6 +947,82 @@ public class IoTConsensusServerImpl {
     return searchIndex.get();
   }
 
+  /**
+   * Records a request from the source peer, which was received at receivedTime in nanoseconds.
+   *
+   * @param sourceSearchIndex searchIndex of the source peer when it sent the request
+   * @param hasLogs whether the request carries logs, or is a heartbeat
+   */
+  public void recordSyncRequest(
+      int sourcePeerId, long sourceSearchIndex, long receivedTime, boolean hasLogs) {
+    syncProgressMap
+        .computeIfAbsent(sourcePeerId, id -> new SyncProgress())
+        .onReceived(sourceSearchIndex, receivedTime, hasLogs);
+  }
+
+  /** Records that this peer has applied the logs of the source peer up to appliedIndex. */
+  public void recordSyncApplied(int sourcePeerId, long appliedIndex) {
+    SyncProgress progress = syncProgressMap.get(sourcePeerId);
+    if (progress != null) {
+      progress.onApplied(appliedIndex);
+    }
+  }
+
+  /**
+   * Gets how stale the reads on this peer are in ms, i.e. the time since it last applied all the
+   * logs written by the leader. Clients write to one peer of the group at a time, so the leader is
+   * the peer which sent logs to this peer most recently, or this peer itself if it accepted a write
+   * from clients after that, in which case it is not stale at all. Before any log is written, this
+   * peer is as stale as the peers telling it so by heartbeats, and the peers which have been silent
+   * for several heartbeat intervals are ignored as unreachable.
+   *
+   * @return {@link Long#MAX_VALUE} if it is unknown
+   */
+  public long getReadStalenessInMs() {
+    long now = System.nanoTime();
+    SyncProgress leaderProgress = null;
+    long leaderLogTime = lastLocalWriteTime;
+    for (SyncProgress progress : syncProgressMap.values()) {
+      long lastLogTime = progress.getLastLogTime();
+      if (SyncProgress.isLater(lastLogTime, leaderLogTime)) {
+        leaderProgress = progress;
+        leaderLogTime = lastLogTime;
+      }
+    }
+    long caughtUpTime;
+    if (leaderProgress != null) {
+      caughtUpTime = leaderProgress.getCaughtUpTime();
+    } else if (lastLocalWriteTime != SyncProgress.NEVER) {
+      return 0;
+    } else {
+      caughtUpTime = getIdleCaughtUpTime(now);
+    }
+    return caughtUpTime == SyncProgress.NEVER
+        ? Long.MAX_VALUE
+        : TimeUnit.NANOSECONDS.toMillis(now - caughtUpTime);
+  }
+
+  /** The oldest time this peer caught up with the reachable peers, while no log is written. */
+  private long getIdleCaughtUpTime(long now) {
+    long heartbeatIntervalInMs = config.getReplication().getHeartbeatIntervalInMs();
+    long caughtUpTime = SyncProgress.NEVER;
+    for (SyncProgress progress : syncProgressMap.values()) {
+      if (heartbeatIntervalInMs > 0
+          && TimeUnit.NANOSECONDS.toMillis(now - progress.getLastContactTime())
+              > UNREACHABLE_HEARTBEAT_INTERVALS * heartbeatIntervalInMs) {
+        continue;
+      }
+      long time = progress.getCaughtUpTime();
+      if (time == SyncProgress.NEVER) {
+        return SyncProgress.NEVER;
+      }
+      if (caughtUpTime == SyncProgress.NEVER || caughtUpTime - time > 0) {
+        caughtUpTime = time;
+      }
+    }
+    return caughtUpTime;
+  }
+
   public long getSyncLag() {
     long minSyncIndex = getMinSyncIndex();
     return getSearchIndex() - minSyncIndex;
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.consensus.iot;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * How far the current peer has applied the logs of a source peer. The source peer tells its
+ * searchIndex whenever it sends logs or a heartbeat, and the current peer has caught up with the
+ * source peer as of that moment once it applies the logs up to that searchIndex. All the times are
+ * in nanoseconds of {@link System#nanoTime()}.
+ */
+class SyncProgress {
+
+  static final long NEVER = Long.MIN_VALUE;
+
+  // the searchIndexes told by the source peer which are not applied yet, with the time they were
+  // received, the oldest ones are dropped beyond this size
+  private static final int MAX_PENDING_INDEX_NUM = 1024;
+
+  private final Deque<long[]> pendingIndexes = new ArrayDeque<>();
+  private long caughtUpTime = NEVER;
+  private long lastLogTime = NEVER;
+  private long lastContactTime = NEVER;
+
+  /**
+   * Records a request from the source peer.
+   *
+   * @param sourceSearchIndex searchIndex of the source peer when it sent the request
+   * @param receivedTime when the request was received
+   * @param hasLogs whether the request carries logs, or is a heartbeat
+   */
+  synchronized void onReceived(long sourceSearchIndex, long receivedTime, boolean hasLogs) {
+    lastContactTime = later(lastContactTime, receivedTime);
+    if (hasLogs) {
+      lastLogTime = later(lastLogTime, receivedTime);
+    }
+    long[] last = pendingIndexes.peekLast();
+    if (last != null && last[0] >= sourceSearchIndex) {
+      // applying up to the last index implies applying up to this one
+      last[1] = later(last[1], receivedTime);
+      return;
+    }
+    if (pendingIndexes.size() >= MAX_PENDING_INDEX_NUM) {
+      pendingIndexes.pollFirst();
+    }
+    pendingIndexes.addLast(new long[] {sourceSearchIndex, receivedTime});
+  }
+
+  /** Records that the logs of the source peer up to appliedIndex are applied. */
+  synchronized void onApplied(long appliedIndex) {
+    while (!pendingIndexes.isEmpty() && pendingIndexes.peekFirst()[0] <= appliedIndex) {
+      caughtUpTime = later(caughtUpTime, pendingIndexes.pollFirst()[1]);
+    }
+  }
+
+  /** The time as of which the current peer has applied all the logs of the source peer. */
+  synchronized long getCaughtUpTime() {
+    return caughtUpTime;
+  }
+
+  /** When the latest logs from the source peer were received. */
+  synchronized long getLastLogTime() {
+    return lastLogTime;
+  }
+
+  /** When the latest request from the source peer was received. */
+  synchronized long getLastContactTime() {
+    return lastContactTime;
+  }
+
+  static boolean isLater(long time, long than) {
+    return time != NEVER && (than == NEVER || time - than > 0);
+  }
+
+  private static long later(long time, long other) {
+    return isLater(time, other) ? time : other;
+  }
+}
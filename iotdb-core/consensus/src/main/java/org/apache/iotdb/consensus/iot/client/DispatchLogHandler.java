@@ -135,9 +135,13 @@ public class DispatchLogHandler implements AsyncMethodCallback<TSyncLogEntriesRe
   }
 
   private void completeBatch(Batch batch) {
+    // adjust the pipeline before removeBatch wakes up logDispatcherThread
+    thread.onBatchSynced(batch, System.nanoTime() - createTime, retryCount > 0);
     thread.getSyncStatus().removeBatch(batch);
     // update safely deleted search index after last flushed sync index may be updated by
     // removeBatch
     thread.updateSafelyDeletedSearchIndex();
+    // a dispatcher sharing threads may be waiting for the synchronization pipeline
+    thread.wakeUp();
   }
 }
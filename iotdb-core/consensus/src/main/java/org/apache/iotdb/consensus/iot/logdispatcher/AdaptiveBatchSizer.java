@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.consensus.iot.logdispatcher;
+
+import org.apache.iotdb.consensus.config.IoTConsensusConfig;
+
+/**
+ * Adjusts the batch size and the number of pending batches of one {@link
+ * LogDispatcher.LogDispatcherThread} according to the round-trip time and the apply rate measured
+ * from its follower.
+ *
+ * <p>The batch size grows additively while batches are filled up, which means logs are piling up
+ * for the follower, and is halved once a batch is retried or its round-trip time jumps well above
+ * the average. The number of pending batches follows the bandwidth-delay product of the follower,
+ * so that enough batches are in flight to keep it busy during a round trip.
+ */
+public class AdaptiveBatchSizer {
+
+  private static final double SMOOTHING_FACTOR = 0.2;
+  // a round-trip time above this multiple of the average is treated as congestion
+  private static final double RTT_JUMP_RATIO = 2.0;
+  // lets the minimum round-trip time follow a slower network instead of sticking to an outlier
+  private static final double MIN_RTT_DRIFT_RATIO = 1.01;
+
+  private final int baseMaxLogEntriesNum;
+  private final long baseMaxSize;
+  private final int baseMaxPendingBatchesNum;
+  private final int maxScale;
+  private final long maxSizeLimit;
+
+  private double scale = 1;
+  private double averageRttInNanos = 0;
+  private double minRttInNanos = Double.MAX_VALUE;
+  private double averageBatchSize = 0;
+  // bytes synced by the follower per nanosecond
+  private double applyRate = 0;
+  private long lastSyncedTime = -1;
+
+  private volatile int maxLogEntriesNum;
+  private volatile long maxSize;
+  private volatile int maxPendingBatchesNum;
+
+  public AdaptiveBatchSizer(IoTConsensusConfig config) {
+    this.baseMaxLogEntriesNum = config.getReplication().getMaxLogEntriesNumPerBatch();
+    this.baseMaxSize = config.getReplication().getMaxSizePerBatch();
+    this.baseMaxPendingBatchesNum = config.getReplication().getMaxPendingBatchesNum();
+    this.maxScale = Math.max(1, config.getReplication().getAdaptiveBatchingMaxScale());
+    // leave room for the other fields of the request in a thrift frame
+    this.maxSizeLimit = Math.max(baseMaxSize, config.getRpc().getThriftMaxFrameSize() / 2);
+    this.maxLogEntriesNum = baseMaxLogEntriesNum;
+    this.maxSize = baseMaxSize;
+    this.maxPendingBatchesNum = baseMaxPendingBatchesNum;
+  }
+
+  public boolean isEnabled() {
+    return maxScale > 1;
+  }
+
+  /**
+   * Updates the limits after a batch is synced by the follower.
+   *
+   * @param rttInNanos time from sending the batch to the response of the follower
+   * @param retried whether the batch has been sent more than once
+   */
+  public synchronized void onBatchSynced(Batch batch, long rttInNanos, boolean retried) {
+    if (retried || (averageRttInNanos > 0 && rttInNanos > RTT_JUMP_RATIO * averageRttInNanos)) {
+      scale = Math.max(1, scale / 2);
+    } else if (!batch.canAccumulate()) {
+      scale = Math.min(maxScale, scale + 1);
+    }
+    averageRttInNanos = smooth(averageRttInNanos, rttInNanos);
+    minRttInNanos = Math.min(minRttInNanos * MIN_RTT_DRIFT_RATIO, rttInNanos);
+    averageBatchSize = smooth(averageBatchSize, batch.getSerializedSize());
+    long currentTime = System.nanoTime();
+    if (lastSyncedTime >= 0 && currentTime > lastSyncedTime) {
+      applyRate =
+          smooth(applyRate, (double) batch.getSerializedSize() / (currentTime - lastSyncedTime));
+    }
+    lastSyncedTime = currentTime;
+
+    maxLogEntriesNum = (int) (baseMaxLogEntriesNum * scale);
+    maxSize = Math.min((long) (baseMaxSize * scale), maxSizeLimit);
+    if (averageBatchSize > 0 && applyRate > 0) {
+      // batches in flight to keep the follower busy during a round trip, plus one to probe for more
+      long batchesInFlight = (long) Math.ceil(applyRate * minRttInNanos / averageBatchSize) + 1;
+      maxPendingBatchesNum =
+          (int)
+              Math.max(
+                  baseMaxPendingBatchesNum,
+                  Math.min(batchesInFlight, (long) baseMaxPendingBatchesNum * maxScale));
+    }
+  }
+
+  private static double smooth(double average, double sample) {
+    return average == 0 ? sample : average + SMOOTHING_FACTOR * (sample - average);
+  }
+
+  public int getMaxLogEntriesNum() {
+    return maxLogEntriesNum;
+  }
+
+  public long getMaxSize() {
+    return maxSize;
+  }
+
+  public int getMaxPendingBatchesNum() {
+    return maxPendingBatchesNum;
+  }
+}
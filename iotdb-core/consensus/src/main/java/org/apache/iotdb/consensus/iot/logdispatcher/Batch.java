@@ -22,13 +22,20 @@ package org.apache.iotdb.consensus.iot.logdispatcher;
 import org.apache.iotdb.consensus.config.IoTConsensusConfig;
 import org.apache.iotdb.consensus.iot.thrift.TLogEntry;
 
+import org.apache.tsfile.compress.ICompressor;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+
+import java.io.IOException;
 import java.nio.Buffer;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
 public class Batch {
 
-  private final IoTConsensusConfig config;
+  private final int maxLogEntriesNum;
+  private final long maxSize;
+  private final long createTime = System.currentTimeMillis();
 
   private long startIndex;
   private long endIndex;
@@ -40,9 +47,17 @@ public class Batch {
   private long serializedSize;
   // indicates whether this batch has been successfully synchronized to another node
   private boolean synced;
+  private CompressionType compressionType = CompressionType.UNCOMPRESSED;
 
   public Batch(IoTConsensusConfig config) {
-    this.config = config;
+    this(
+        config.getReplication().getMaxLogEntriesNumPerBatch(),
+        config.getReplication().getMaxSizePerBatch());
+  }
+
+  public Batch(int maxLogEntriesNum, long maxSize) {
+    this.maxLogEntriesNum = maxLogEntriesNum;
+    this.maxSize = maxSize;
   }
 
   /*
@@ -66,8 +81,37 @@ public class Batch {
   }
 
   public boolean canAccumulate() {
-    return logEntries.size() < config.getReplication().getMaxLogEntriesNumPerBatch()
-        && serializedSize < config.getReplication().getMaxSizePerBatch();
+    return logEntries.size() < maxLogEntriesNum && serializedSize < maxSize;
+  }
+
+  /**
+   * Compresses the data of all log entries, which are kept as they are if it fails. Notice that
+   * serializedSize still counts the uncompressed data, which is what the memory is reserved for.
+   */
+  public void compress(CompressionType type) throws IOException {
+    ICompressor compressor = ICompressor.getCompressor(type);
+    List<List<ByteBuffer>> compressedData = new ArrayList<>(logEntries.size());
+    for (TLogEntry entry : logEntries) {
+      List<ByteBuffer> data = new ArrayList<>(entry.getDataSize());
+      for (ByteBuffer buffer : entry.getData()) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        data.add(ByteBuffer.wrap(compressor.compress(bytes)));
+      }
+      compressedData.add(data);
+    }
+    for (int i = 0; i < logEntries.size(); i++) {
+      logEntries.get(i).setData(compressedData.get(i));
+    }
+    compressionType = type;
+  }
+
+  public boolean isCompressed() {
+    return compressionType != CompressionType.UNCOMPRESSED;
+  }
+
+  public CompressionType getCompressionType() {
+    return compressionType;
   }
 
   public long getStartIndex() {
@@ -102,6 +146,10 @@ public class Batch {
     return logEntriesNumFromWAL;
   }
 
+  public long getCreateTime() {
+    return createTime;
+  }
+
   @Override
   public String toString() {
     return "Batch{"
@@ -34,11 +34,15 @@ import org.apache.iotdb.consensus.iot.log.ConsensusReqReader;
 import org.apache.iotdb.consensus.iot.log.GetConsensusReqReaderPlan;
 import org.apache.iotdb.consensus.iot.thrift.TLogEntry;
 import org.apache.iotdb.consensus.iot.thrift.TSyncLogEntriesReq;
+import org.apache.iotdb.consensus.iot.thrift.TSyncLogEntriesRes;
 
+import org.apache.thrift.async.AsyncMethodCallback;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -50,8 +54,12 @@ import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
@@ -65,6 +73,8 @@ public class LogDispatcher {
   private final int selfPeerId;
   private final IClientManager<TEndPoint, AsyncIoTConsensusServiceClient> clientManager;
   private ExecutorService executorService;
+  // shared by the dispatchers of all groups, null if each dispatcher occupies its own thread
+  private final ScheduledExecutorService sharedDispatcherService;
 
   private final ConsensusReqReader reader;
   private boolean stopped = false;
@@ -74,8 +84,10 @@ public class LogDispatcher {
 
   public LogDispatcher(
       IoTConsensusServerImpl impl,
-      IClientManager<TEndPoint, AsyncIoTConsensusServiceClient> clientManager) {
+      IClientManager<TEndPoint, AsyncIoTConsensusServiceClient> clientManager,
+      ScheduledExecutorService sharedDispatcherService) {
     this.impl = impl;
+    this.sharedDispatcherService = sharedDispatcherService;
     this.reader = (ConsensusReqReader) impl.getStateMachine().read(new GetConsensusReqReaderPlan());
     this.selfPeerId = impl.getThisNode().getNodeId();
     this.clientManager = clientManager;
@@ -84,7 +96,7 @@ public class LogDispatcher {
             .filter(x -> !Objects.equals(x, impl.getThisNode()))
             .map(x -> new LogDispatcherThread(x, impl.getConfig(), DEFAULT_INITIAL_SYNC_INDEX))
             .collect(Collectors.toList());
-    if (!threads.isEmpty()) {
+    if (!threads.isEmpty() && sharedDispatcherService == null) {
       initLogSyncThreadPool();
     }
   }
@@ -100,13 +112,18 @@ public class LogDispatcher {
   }
 
   public synchronized void start() {
-    if (!threads.isEmpty()) {
+    if (sharedDispatcherService != null) {
+      // catch up with the WAL first
+      threads.forEach(LogDispatcherThread::wakeUp);
+    } else if (!threads.isEmpty()) {
       threads.forEach(thread -> thread.setFuture(executorService.submit(thread)));
     }
   }
 
   public synchronized void stop() {
-    if (!threads.isEmpty()) {
+    if (sharedDispatcherService != null) {
+      threads.forEach(LogDispatcherThread::stop);
+    } else if (!threads.isEmpty()) {
       threads.forEach(LogDispatcherThread::stop);
       executorService.shutdownNow();
       int timeout = 10;
@@ -128,6 +145,10 @@ public class LogDispatcher {
     }
     LogDispatcherThread thread = new LogDispatcherThread(peer, impl.getConfig(), initialSyncIndex);
     threads.add(thread);
+    if (sharedDispatcherService != null) {
+      thread.wakeUp();
+      return;
+    }
     // If the initial replica is 1, the executorService won't be initialized. And when adding
     // dispatcher thread, the executorService should be initialized manually
     if (this.executorService == null) {
@@ -211,11 +232,17 @@ public class LogDispatcher {
 
     private static final long PENDING_REQUEST_TAKING_TIME_OUT_IN_SEC = 10;
     private static final long START_INDEX = 1;
+    private static final int IDLE = 0;
+    private static final int SCHEDULED = 1;
+    // scheduled, and woken up again after the running step starts
+    private static final int SCHEDULED_AND_WOKEN_UP = 2;
     private final IoTConsensusConfig config;
     private final Peer peer;
     private final IndexController controller;
     // A sliding window class that manages asynchronous pendingBatches
     private final SyncStatus syncStatus;
+    // adjusts the size of batches and of the synchronization pipeline to the follower
+    private final AdaptiveBatchSizer batchSizer;
     // A queue used to receive asynchronous replication requests
     private final BlockingQueue<IndexedConsensusRequest> pendingEntries;
     // A container used to cache requests, whose size changes dynamically
@@ -233,6 +260,31 @@ public class LogDispatcher {
 
     private Future<?> future;
 
+    // Fields below are only used when sharing threads with other dispatchers.
+    // Whether a dispatching step is scheduled or running, at most one is at any time.
+    private final AtomicInteger dispatchState = new AtomicInteger(IDLE);
+    // Held by the running dispatching step, so that stop() can wait for it
+    private final Object dispatchLock = new Object();
+    // A batch which has been built but can not enter the full synchronization pipeline yet
+    private Batch unsentBatch;
+    // Wakes up an idle dispatcher to check the WAL periodically as the dedicated thread does
+    private ScheduledFuture<?> idleCheckFuture;
+
+    // The time when a batch or heartbeat was last sent to the follower, in ms
+    private volatile long lastSendTimeInMs = 0;
+    private final AsyncMethodCallback<TSyncLogEntriesRes> heartbeatHandler =
+        new AsyncMethodCallback<TSyncLogEntriesRes>() {
+          @Override
+          public void onComplete(TSyncLogEntriesRes response) {
+            // nothing to do, the next heartbeat is sent anyway
+          }
+
+          @Override
+          public void onError(Exception e) {
+            logger.debug("Can not send heartbeat to peer {} because", peer, e);
+          }
+        };
+
     public LogDispatcherThread(Peer peer, IoTConsensusConfig config, long initialSyncIndex) {
       this.peer = peer;
       this.config = config;
@@ -244,6 +296,7 @@ public class LogDispatcher {
               initialSyncIndex,
               config.getReplication().getCheckpointGap());
       this.syncStatus = new SyncStatus(controller, config);
+      this.batchSizer = new AdaptiveBatchSizer(config);
       this.walEntryIterator = reader.getReqIterator(START_INDEX);
       this.logDispatcherThreadMetrics = new LogDispatcherThreadMetrics(this);
       MetricService.getInstance().addMetricSet(logDispatcherThreadMetrics);
@@ -297,6 +350,8 @@ public class LogDispatcher {
       if (!success) {
         // If offer failed, the reserved memory should be released
         iotConsensusMemoryManager.free(indexedConsensusRequest.getSerializedSize(), true);
+      } else {
+        wakeUp();
       }
       return success;
     }
@@ -308,16 +363,13 @@ public class LogDispatcher {
 
     public void stop() {
       stopped = true;
-      if (!future.cancel(true)) {
-        logger.warn("LogDispatcherThread Future for {} is not stopped", peer);
-      }
-      try {
-        future.get(30, TimeUnit.SECONDS);
-      } catch (InterruptedException | ExecutionException | TimeoutException e) {
-        Thread.currentThread().interrupt();
-        logger.warn("LogDispatcherThread Future for {} is not stopped", peer, e);
-      } catch (CancellationException ignored) {
-        // ignore because it is expected
+      if (sharedDispatcherService != null) {
+        // wait for the running dispatching step, later ones will see the stopped flag
+        synchronized (dispatchLock) {
+          unsentBatch = null;
+        }
+      } else {
+        stopFuture();
       }
       long requestSize = 0;
       for (IndexedConsensusRequest indexedConsensusRequest : pendingEntries) {
@@ -334,6 +386,20 @@ public class LogDispatcher {
       MetricService.getInstance().removeMetricSet(logDispatcherThreadMetrics);
     }
 
+    private void stopFuture() {
+      if (!future.cancel(true)) {
+        logger.warn("LogDispatcherThread Future for {} is not stopped", peer);
+      }
+      try {
+        future.get(30, TimeUnit.SECONDS);
+      } catch (InterruptedException | ExecutionException | TimeoutException e) {
+        Thread.currentThread().interrupt();
+        logger.warn("LogDispatcherThread Future for {} is not stopped", peer, e);
+      } catch (CancellationException ignored) {
+        // ignore because it is expected
+      }
+    }
+
     public void cleanup() throws IOException {
       this.controller.cleanupVersionFiles();
     }
@@ -356,11 +422,13 @@ public class LogDispatcher {
           while ((batch = getBatch()).isEmpty()) {
             // we may block here if there is no requests in the queue
             IndexedConsensusRequest request =
-                pendingEntries.poll(PENDING_REQUEST_TAKING_TIME_OUT_IN_SEC, TimeUnit.SECONDS);
-            if (request != null) {
+                pendingEntries.poll(getIdleTimeInMs(), TimeUnit.MILLISECONDS);
+            if (request == null) {
+              sendHeartbeatIfIdle();
+            } else {
               bufferedEntries.add(request);
               // If write pressure is low, we simply sleep a little to reduce the number of RPC
-              if (pendingEntries.size() <= config.getReplication().getMaxLogEntriesNumPerBatch()
+              if (pendingEntries.size() <= batchSizer.getMaxLogEntriesNum()
                   && bufferedEntries.isEmpty()) {
                 Thread.sleep(config.getReplication().getMaxWaitingTimeForAccumulatingBatchInMs());
               }
@@ -391,6 +459,142 @@ public class LogDispatcher {
       logger.info("{}: Dispatcher for {} exits", impl.getThisNode(), peer);
     }
 
+    /**
+     * Schedule a dispatching step on the shared threads if none is scheduled. It does nothing if
+     * this dispatcher has its own thread.
+     */
+    public void wakeUp() {
+      if (sharedDispatcherService == null || stopped) {
+        return;
+      }
+      while (true) {
+        int state = dispatchState.get();
+        if (state == IDLE) {
+          if (dispatchState.compareAndSet(IDLE, SCHEDULED)) {
+            executeDispatch();
+            return;
+          }
+        } else if (state == SCHEDULED_AND_WOKEN_UP
+            || dispatchState.compareAndSet(SCHEDULED, SCHEDULED_AND_WOKEN_UP)) {
+          // the scheduled step will run again
+          return;
+        }
+      }
+    }
+
+    private void executeDispatch() {
+      try {
+        sharedDispatcherService.execute(this::dispatch);
+      } catch (RejectedExecutionException e) {
+        // the shared threads are shut down with the consensus layer
+        dispatchState.set(IDLE);
+      }
+    }
+
+    /**
+     * One dispatching step on the shared threads, which does the work of one round of {@link
+     * #run()} without blocking. It schedules the next step itself while there are logs to send,
+     * otherwise it waits for {@link #wakeUp()} from new logs or synced batches.
+     */
+    private void dispatch() {
+      synchronized (dispatchLock) {
+        if (stopped) {
+          dispatchState.set(IDLE);
+          return;
+        }
+        dispatchState.set(SCHEDULED);
+        long idleTimeInMs;
+        try {
+          idleTimeInMs = dispatchOnce();
+        } catch (Exception e) {
+          logger.error("Unexpected error in logDispatcher for peer {}", peer, e);
+          idleTimeInMs = config.getReplication().getMaxRetryWaitTimeMs();
+        }
+        if (idleTimeInMs == 0 || !dispatchState.compareAndSet(SCHEDULED, IDLE)) {
+          // more logs to send, or woken up during this step
+          executeDispatch();
+          return;
+        }
+        // a due check may still be running, so it is rescheduled as well
+        long idleCheckDelayInMs =
+            idleCheckFuture == null ? 0 : idleCheckFuture.getDelay(TimeUnit.MILLISECONDS);
+        if (idleCheckDelayInMs <= 0 || idleCheckDelayInMs > idleTimeInMs) {
+          try {
+            idleCheckFuture =
+                sharedDispatcherService.schedule(this::wakeUp, idleTimeInMs, TimeUnit.MILLISECONDS);
+          } catch (RejectedExecutionException e) {
+            // the shared threads are shut down with the consensus layer
+          }
+        }
+      }
+    }
+
+    /** @return 0 if there may be more logs to send, otherwise the time to idle in ms */
+    private long dispatchOnce() {
+      if (unsentBatch == null) {
+        if (syncStatus.isFull()) {
+          // do not take logs from the queue or WAL until a pending batch is synced
+          return config.getReplication().getBasicRetryWaitTimeMs();
+        }
+        long startTime = System.nanoTime();
+        Batch batch = getBatch();
+        if (batch.isEmpty()) {
+          sendHeartbeatIfIdle();
+          return getIdleTimeInMs();
+        }
+        logDispatcherThreadMetrics.recordConstructBatchTime(System.nanoTime() - startTime);
+        unsentBatch = batch;
+      }
+      if (!syncStatus.tryAddNextBatch(unsentBatch)) {
+        // woken up when a pending batch is synced, or retry later if memory is short
+        return config.getReplication().getBasicRetryWaitTimeMs();
+      }
+      Batch batch = unsentBatch;
+      unsentBatch = null;
+      logEntriesFromWAL.addAndGet(batch.getLogEntriesNumFromWAL());
+      logEntriesFromQueue.addAndGet(batch.getLogEntries().size() - batch.getLogEntriesNumFromWAL());
+      sendBatchAsync(batch, new DispatchLogHandler(this, logDispatcherThreadMetrics, batch));
+      return 0;
+    }
+
+    /** How long an idle dispatcher waits before checking the WAL and sending a heartbeat. */
+    private long getIdleTimeInMs() {
+      long idleTimeInMs = TimeUnit.SECONDS.toMillis(PENDING_REQUEST_TAKING_TIME_OUT_IN_SEC);
+      long heartbeatIntervalInMs = config.getReplication().getHeartbeatIntervalInMs();
+      return heartbeatIntervalInMs > 0
+          ? Math.min(idleTimeInMs, heartbeatIntervalInMs)
+          : idleTimeInMs;
+    }
+
+    /**
+     * Tells the follower that it has applied all the logs of this peer if nothing has been sent to
+     * it for a heartbeat interval, so that the follower knows how stale its reads are.
+     */
+    private void sendHeartbeatIfIdle() {
+      long heartbeatIntervalInMs = config.getReplication().getHeartbeatIntervalInMs();
+      if (heartbeatIntervalInMs <= 0
+          || System.currentTimeMillis() - lastSendTimeInMs < heartbeatIntervalInMs
+          || syncStatus.hasPendingBatches()) {
+        return;
+      }
+      // no batch is pending, so the follower has applied all the logs up to it
+      long syncedIndex = controller.getCurrentIndex();
+      if (syncedIndex < impl.getSearchIndex()) {
+        return;
+      }
+      lastSendTimeInMs = System.currentTimeMillis();
+      try {
+        AsyncIoTConsensusServiceClient client = clientManager.borrowClient(peer.getEndpoint());
+        TSyncLogEntriesReq req =
+            new TSyncLogEntriesReq(
+                selfPeerId, peer.getGroupId().convertToTConsensusGroupId(), new ArrayList<>());
+        req.setLeaderSearchIndex(syncedIndex);
+        client.syncLogEntries(req, heartbeatHandler);
+      } catch (Exception e) {
+        logger.debug("Can not send heartbeat to peer {} because", peer, e);
+      }
+    }
+
     public void updateSafelyDeletedSearchIndex() {
       // update safely deleted search index to delete outdated info,
       // indicating that insert nodes whose search index are before this value can be deleted
@@ -418,8 +622,7 @@ public class LogDispatcher {
             bufferedEntries.size());
         // Use drainTo instead of poll to reduce lock overhead
         pendingEntries.drainTo(
-            bufferedEntries,
-            config.getReplication().getMaxLogEntriesNumPerBatch() - bufferedEntries.size());
+            bufferedEntries, batchSizer.getMaxLogEntriesNum() - bufferedEntries.size());
       }
       // remove all request that searchIndex < startIndex
       Iterator<IndexedConsensusRequest> iterator = bufferedEntries.iterator();
@@ -433,7 +636,7 @@ public class LogDispatcher {
         }
       }
 
-      Batch batches = new Batch(config);
+      Batch batches = new Batch(batchSizer.getMaxLogEntriesNum(), batchSizer.getMaxSize());
       // This condition will be executed in several scenarios:
       // 1. restart
       // 2. The getBatch() is invoked immediately at the moment the PendingEntries are consumed
@@ -506,9 +709,17 @@ public class LogDispatcher {
     public void sendBatchAsync(Batch batch, DispatchLogHandler handler) {
       try {
         AsyncIoTConsensusServiceClient client = clientManager.borrowClient(peer.getEndpoint());
+        if (!batch.isCompressed() && isLagging()) {
+          compressBatch(batch);
+        }
         TSyncLogEntriesReq req =
             new TSyncLogEntriesReq(
                 selfPeerId, peer.getGroupId().convertToTConsensusGroupId(), batch.getLogEntries());
+        if (batch.isCompressed()) {
+          req.setCompressionType(batch.getCompressionType().serialize());
+        }
+        req.setLeaderSearchIndex(impl.getSearchIndex());
+        lastSendTimeInMs = System.currentTimeMillis();
         logger.debug(
             "Send Batch[startIndex:{}, endIndex:{}] to ConsensusGroup:{}",
             batch.getStartIndex(),
@@ -521,10 +732,37 @@ public class LogDispatcher {
       }
     }
 
+    /** Whether the follower is so far behind that the bandwidth is worth trading for CPU. */
+    private boolean isLagging() {
+      long compressionLagThreshold = config.getReplication().getCompressionLagThreshold();
+      return compressionLagThreshold > 0
+          && impl.getSearchIndex() - controller.getCurrentIndex() > compressionLagThreshold;
+    }
+
+    private void compressBatch(Batch batch) {
+      try {
+        batch.compress(CompressionType.LZ4);
+      } catch (IOException e) {
+        logger.warn("Can not compress {} for peer {}, send it uncompressed", batch, peer, e);
+      }
+    }
+
+    /** Called when a batch is synced by the follower, to adjust the batching to the follower. */
+    public void onBatchSynced(Batch batch, long rttInNanos, boolean retried) {
+      if (batchSizer.isEnabled()) {
+        batchSizer.onBatchSynced(batch, rttInNanos, retried);
+        syncStatus.setMaxPendingBatchesNum(batchSizer.getMaxPendingBatchesNum());
+      }
+    }
+
     public SyncStatus getSyncStatus() {
       return syncStatus;
     }
 
+    public AdaptiveBatchSizer getBatchSizer() {
+      return batchSizer;
+    }
+
     private boolean constructBatchFromWAL(long currentIndex, long maxIndex, Batch logBatches) {
       logger.debug(
           "DataRegion[{}]->{}: currentIndex: {}, maxIndex: {}",
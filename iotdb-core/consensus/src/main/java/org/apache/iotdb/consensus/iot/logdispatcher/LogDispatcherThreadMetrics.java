@@ -88,6 +88,61 @@ public class LogDispatcherThreadMetrics implements IMetricSet {
         logDispatcherThread.getPeer().getGroupId().toString(),
         Tag.TYPE.toString(),
         "cachedRequestInMemoryQueue");
+    metricService.createAutoGauge(
+        Metric.IOT_CONSENSUS.toString(),
+        MetricLevel.IMPORTANT,
+        logDispatcherThread,
+        x -> x.getSyncStatus().getPendingBatchesSize(),
+        Tag.NAME.toString(),
+        formatName(),
+        Tag.REGION.toString(),
+        logDispatcherThread.getPeer().getGroupId().toString(),
+        Tag.TYPE.toString(),
+        "pipelineSize");
+    metricService.createAutoGauge(
+        Metric.IOT_CONSENSUS.toString(),
+        MetricLevel.IMPORTANT,
+        logDispatcherThread,
+        x -> x.getSyncStatus().getPendingBatchesLagInMs(),
+        Tag.NAME.toString(),
+        formatName(),
+        Tag.REGION.toString(),
+        logDispatcherThread.getPeer().getGroupId().toString(),
+        Tag.TYPE.toString(),
+        "pipelineLagInMs");
+    metricService.createAutoGauge(
+        Metric.IOT_CONSENSUS.toString(),
+        MetricLevel.IMPORTANT,
+        logDispatcherThread,
+        x -> x.getImpl().getSearchIndex() - x.getCurrentSyncIndex(),
+        Tag.NAME.toString(),
+        formatName(),
+        Tag.REGION.toString(),
+        logDispatcherThread.getPeer().getGroupId().toString(),
+        Tag.TYPE.toString(),
+        "syncLag");
+    metricService.createAutoGauge(
+        Metric.IOT_CONSENSUS.toString(),
+        MetricLevel.IMPORTANT,
+        logDispatcherThread,
+        x -> x.getSyncStatus().getMaxPendingBatchesNum(),
+        Tag.NAME.toString(),
+        formatName(),
+        Tag.REGION.toString(),
+        logDispatcherThread.getPeer().getGroupId().toString(),
+        Tag.TYPE.toString(),
+        "maxPipelineNum");
+    metricService.createAutoGauge(
+        Metric.IOT_CONSENSUS.toString(),
+        MetricLevel.IMPORTANT,
+        logDispatcherThread,
+        x -> x.getBatchSizer().getMaxSize(),
+        Tag.NAME.toString(),
+        formatName(),
+        Tag.REGION.toString(),
+        logDispatcherThread.getPeer().getGroupId().toString(),
+        Tag.TYPE.toString(),
+        "maxBatchSize");
   }
 
   private void bindStageTimer(AbstractMetricService metricService) {
@@ -168,6 +223,51 @@ public class LogDispatcherThreadMetrics implements IMetricSet {
         logDispatcherThread.getPeer().getGroupId().toString(),
         Tag.TYPE.toString(),
         "cachedRequestInMemoryQueue");
+    metricService.remove(
+        MetricType.AUTO_GAUGE,
+        Metric.IOT_CONSENSUS.toString(),
+        Tag.NAME.toString(),
+        formatName(),
+        Tag.REGION.toString(),
+        logDispatcherThread.getPeer().getGroupId().toString(),
+        Tag.TYPE.toString(),
+        "pipelineSize");
+    metricService.remove(
+        MetricType.AUTO_GAUGE,
+        Metric.IOT_CONSENSUS.toString(),
+        Tag.NAME.toString(),
+        formatName(),
+        Tag.REGION.toString(),
+        logDispatcherThread.getPeer().getGroupId().toString(),
+        Tag.TYPE.toString(),
+        "pipelineLagInMs");
+    metricService.remove(
+        MetricType.AUTO_GAUGE,
+        Metric.IOT_CONSENSUS.toString(),
+        Tag.NAME.toString(),
+        formatName(),
+        Tag.REGION.toString(),
+        logDispatcherThread.getPeer().getGroupId().toString(),
+        Tag.TYPE.toString(),
+        "syncLag");
+    metricService.remove(
+        MetricType.AUTO_GAUGE,
+        Metric.IOT_CONSENSUS.toString(),
+        Tag.NAME.toString(),
+        formatName(),
+        Tag.REGION.toString(),
+        logDispatcherThread.getPeer().getGroupId().toString(),
+        Tag.TYPE.toString(),
+        "maxPipelineNum");
+    metricService.remove(
+        MetricType.AUTO_GAUGE,
+        Metric.IOT_CONSENSUS.toString(),
+        Tag.NAME.toString(),
+        formatName(),
+        Tag.REGION.toString(),
+        logDispatcherThread.getPeer().getGroupId().toString(),
+        Tag.TYPE.toString(),
+        "maxBatchSize");
   }
 
   private String formatName() {
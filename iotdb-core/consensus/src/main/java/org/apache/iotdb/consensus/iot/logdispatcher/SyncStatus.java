@@ -27,15 +27,16 @@ import java.util.List;
 
 public class SyncStatus {
 
-  private final IoTConsensusConfig config;
   private final IndexController controller;
   private final LinkedList<Batch> pendingBatches = new LinkedList<>();
+  private volatile int maxPendingBatchesNum;
+  private long pendingBatchesSize = 0;
   private final IoTConsensusMemoryManager iotConsensusMemoryManager =
       IoTConsensusMemoryManager.getInstance();
 
   public SyncStatus(IndexController controller, IoTConsensusConfig config) {
     this.controller = controller;
-    this.config = config;
+    this.maxPendingBatchesNum = config.getReplication().getMaxPendingBatchesNum();
   }
 
   /**
@@ -45,11 +46,36 @@ public class SyncStatus {
    */
   public void addNextBatch(Batch batch) throws InterruptedException {
     synchronized (this) {
-      while (pendingBatches.size() >= config.getReplication().getMaxPendingBatchesNum()
+      while (pendingBatches.size() >= maxPendingBatchesNum
           || !iotConsensusMemoryManager.reserve(batch.getSerializedSize(), false)) {
         wait();
       }
       pendingBatches.add(batch);
+      pendingBatchesSize += batch.getSerializedSize();
+    }
+  }
+
+  /**
+   * Non-blocking version of {@link #addNextBatch(Batch)}, used by dispatchers sharing threads.
+   *
+   * @return false if the synchronization pipeline is full
+   */
+  public boolean tryAddNextBatch(Batch batch) {
+    synchronized (this) {
+      if (pendingBatches.size() >= maxPendingBatchesNum
+          || !iotConsensusMemoryManager.reserve(batch.getSerializedSize(), false)) {
+        return false;
+      }
+      pendingBatches.add(batch);
+      pendingBatchesSize += batch.getSerializedSize();
+      return true;
+    }
+  }
+
+  /** Whether no more batch can be added until a pending one is synchronized. */
+  public boolean isFull() {
+    synchronized (this) {
+      return pendingBatches.size() >= maxPendingBatchesNum;
     }
   }
 
@@ -67,6 +93,7 @@ public class SyncStatus {
         while (current.isSynced()) {
           controller.update(current.getEndIndex(), false);
           iterator.remove();
+          pendingBatchesSize -= current.getSerializedSize();
           iotConsensusMemoryManager.free(current.getSerializedSize(), false);
           if (iterator.hasNext()) {
             current = iterator.next();
@@ -86,6 +113,7 @@ public class SyncStatus {
       size += pendingBatch.getSerializedSize();
     }
     pendingBatches.clear();
+    pendingBatchesSize = 0;
     controller.update(0L, true);
     iotConsensusMemoryManager.free(size, false);
   }
@@ -101,7 +129,45 @@ public class SyncStatus {
     }
   }
 
+  /** Whether some batches are sent but not yet synchronized. */
+  public boolean hasPendingBatches() {
+    synchronized (this) {
+      return !pendingBatches.isEmpty();
+    }
+  }
+
   public List<Batch> getPendingBatches() {
     return pendingBatches;
   }
+
+  /** Changes the size of the synchronization pipeline, which may unblock logDispatcherThread. */
+  public void setMaxPendingBatchesNum(int maxPendingBatchesNum) {
+    synchronized (this) {
+      int previous = this.maxPendingBatchesNum;
+      this.maxPendingBatchesNum = maxPendingBatchesNum;
+      if (maxPendingBatchesNum > previous) {
+        notifyAll();
+      }
+    }
+  }
+
+  public int getMaxPendingBatchesNum() {
+    return maxPendingBatchesNum;
+  }
+
+  /** Gets the size in bytes of the batches that are sent but not yet synchronized. */
+  public long getPendingBatchesSize() {
+    synchronized (this) {
+      return pendingBatchesSize;
+    }
+  }
+
+  /** Gets how long the first batch that is not yet synchronized has been waiting, in ms. */
+  public long getPendingBatchesLagInMs() {
+    synchronized (this) {
+      return pendingBatches.isEmpty()
+          ? 0
+          : System.currentTimeMillis() - pendingBatches.getFirst().getCreateTime();
+    }
+  }
 }
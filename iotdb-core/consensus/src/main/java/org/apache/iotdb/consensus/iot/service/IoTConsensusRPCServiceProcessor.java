@@ -56,10 +56,17 @@ import org.apache.iotdb.rpc.TSStatusCode;
 
 import org.apache.thrift.TException;
 import org.apache.thrift.async.AsyncMethodCallback;
+import org.apache.tsfile.compress.IUnCompressor;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.OptionalLong;
 import java.util.stream.Collectors;
 
 public class IoTConsensusRPCServiceProcessor implements IoTConsensusIService.AsyncIface {
@@ -76,6 +83,7 @@ public class IoTConsensusRPCServiceProcessor implements IoTConsensusIService.Asy
   @Override
   public void syncLogEntries(
       TSyncLogEntriesReq req, AsyncMethodCallback<TSyncLogEntriesRes> resultHandler) {
+    long receivedTime = System.nanoTime();
     try {
       ConsensusGroupId groupId =
           ConsensusGroupId.Factory.createFromTConsensusGroupId(req.getConsensusGroupId());
@@ -105,14 +113,35 @@ public class IoTConsensusRPCServiceProcessor implements IoTConsensusIService.Asy
         resultHandler.onComplete(new TSyncLogEntriesRes(Collections.singletonList(status)));
         return;
       }
+      if (req.isSetLeaderSearchIndex()) {
+        impl.recordSyncRequest(
+            req.getPeerId(),
+            req.getLeaderSearchIndex(),
+            receivedTime,
+            !req.getLogEntries().isEmpty());
+      }
+      if (req.getLogEntries().isEmpty()) {
+        // a heartbeat from an idle source peer, whose logs are all applied by this peer
+        if (req.isSetLeaderSearchIndex()) {
+          impl.recordSyncApplied(req.getPeerId(), req.getLeaderSearchIndex());
+        }
+        resultHandler.onComplete(new TSyncLogEntriesRes(Collections.emptyList()));
+        return;
+      }
       BatchIndexedConsensusRequest logEntriesInThisBatch =
           new BatchIndexedConsensusRequest(req.peerId);
+      IUnCompressor unCompressor =
+          req.isSetCompressionType()
+              ? IUnCompressor.getUnCompressor(CompressionType.deserialize(req.getCompressionType()))
+              : null;
       // We use synchronized to ensure atomicity of executing multiple logs
       for (TLogEntry entry : req.getLogEntries()) {
+        List<ByteBuffer> data =
+            unCompressor == null ? entry.getData() : uncompress(unCompressor, entry.getData());
         logEntriesInThisBatch.add(
             impl.buildIndexedConsensusRequestForRemoteRequest(
                 entry.getSearchIndex(),
-                entry.getData().stream()
+                data.stream()
                     .map(
                         entry.isFromWAL()
                             ? IoTConsensusRequest::new
@@ -126,6 +155,15 @@ public class IoTConsensusRPCServiceProcessor implements IoTConsensusIService.Asy
           .recordDeserializeCost(System.nanoTime() - buildRequestTime);
       TSStatus writeStatus =
           impl.syncLog(logEntriesInThisBatch.getSourcePeerId(), deserializedRequest);
+      // batches are applied in the order of searchIndex, so the logs of the source peer are
+      // applied up to the last one of this batch
+      if (req.isSetLeaderSearchIndex()
+          && writeStatus.getSubStatus().stream()
+              .allMatch(
+                  status -> status.getCode() == TSStatusCode.SUCCESS_STATUS.getStatusCode())) {
+        impl.recordSyncApplied(
+            req.getPeerId(), req.getLogEntries().get(req.getLogEntriesSize() - 1).getSearchIndex());
+      }
       LOGGER.debug(
           "execute TSyncLogEntriesReq for {} with result {}",
           req.consensusGroupId,
@@ -136,6 +174,17 @@ public class IoTConsensusRPCServiceProcessor implements IoTConsensusIService.Asy
     }
   }
 
+  private static List<ByteBuffer> uncompress(IUnCompressor unCompressor, List<ByteBuffer> data)
+      throws IOException {
+    List<ByteBuffer> uncompressedData = new ArrayList<>(data.size());
+    for (ByteBuffer buffer : data) {
+      byte[] bytes = new byte[buffer.remaining()];
+      buffer.duplicate().get(bytes);
+      uncompressedData.add(ByteBuffer.wrap(unCompressor.uncompress(bytes)));
+    }
+    return uncompressedData;
+  }
+
   @Override
   public void inactivatePeer(
       TInactivatePeerReq req, AsyncMethodCallback<TInactivatePeerRes> resultHandler)
@@ -278,7 +327,12 @@ public class IoTConsensusRPCServiceProcessor implements IoTConsensusIService.Asy
     }
     TSStatus responseStatus;
     try {
-      impl.receiveSnapshotFragment(req.snapshotId, req.filePath, req.fileChunk);
+      impl.receiveSnapshotFragment(
+          req.snapshotId,
+          req.filePath,
+          req.fileChunk,
+          req.isSetOffset() ? req.getOffset() : -1,
+          req.isSetFileChecksum() ? OptionalLong.of(req.getFileChecksum()) : OptionalLong.empty());
       responseStatus = new TSStatus(TSStatusCode.SUCCESS_STATUS.getStatusCode());
     } catch (ConsensusGroupModifyPeerException e) {
       responseStatus = new TSStatus(TSStatusCode.INTERNAL_SERVER_ERROR.getStatusCode());
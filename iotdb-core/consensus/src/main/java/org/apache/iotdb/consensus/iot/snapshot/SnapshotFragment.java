@@ -52,6 +52,7 @@ public class SnapshotFragment {
     req.setFilePath(filePath);
     req.setChunkLength(fragmentSize);
     req.setFileChunk(fileChunk);
+    req.setOffset(startOffset);
     return req;
   }
 
@@ -21,34 +21,63 @@ package org.apache.iotdb.consensus.iot.snapshot;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
 
 public class SnapshotFragmentReader {
 
   private static final int DEFAULT_FILE_FRAGMENT_SIZE = 10 * 1024 * 1024;
   private final String snapshotId;
   private final String filePath;
-  private final SeekableByteChannel fileChannel;
+  private final FileChannel fileChannel;
   private final long fileSize;
   private final ByteBuffer buf;
+  private final CRC32 checksum = new CRC32();
   private long totalReadSize;
   private SnapshotFragment cachedSnapshotFragment;
 
   public SnapshotFragmentReader(String snapshotId, Path path) throws IOException {
+    this(snapshotId, path, 0);
+  }
+
+  /**
+   * Reads the fragments of a file from startOffset, which resumes a transmission that has sent the
+   * part before it.
+   */
+  public SnapshotFragmentReader(String snapshotId, Path path, long startOffset) throws IOException {
     this.snapshotId = snapshotId;
     this.filePath = path.toAbsolutePath().toString();
     this.fileSize = Files.size(path);
-    this.fileChannel = Files.newByteChannel(path);
+    this.fileChannel = FileChannel.open(path, StandardOpenOption.READ);
     this.buf = ByteBuffer.allocate(DEFAULT_FILE_FRAGMENT_SIZE);
+    try {
+      // the checksum covers the whole file, so the part sent before is read again locally
+      while (totalReadSize < Math.min(startOffset, fileSize)) {
+        buf.clear();
+        buf.limit((int) Math.min(buf.capacity(), startOffset - totalReadSize));
+        int actualReadSize = fileChannel.read(buf, totalReadSize);
+        if (actualReadSize <= 0) {
+          break;
+        }
+        buf.flip();
+        checksum.update(buf);
+        totalReadSize += actualReadSize;
+      }
+    } catch (IOException e) {
+      fileChannel.close();
+      throw e;
+    }
   }
 
   public boolean hasNext() throws IOException {
     buf.clear();
-    int actualReadSize = fileChannel.read(buf);
+    int actualReadSize = fileChannel.read(buf, totalReadSize);
     buf.flip();
     if (actualReadSize > 0) {
+      checksum.update(buf.duplicate());
       cachedSnapshotFragment =
           new SnapshotFragment(snapshotId, filePath, fileSize, totalReadSize, actualReadSize, buf);
       totalReadSize += actualReadSize;
@@ -61,6 +90,16 @@ public class SnapshotFragmentReader {
     return cachedSnapshotFragment;
   }
 
+  /** Whether the fragment returned by {@link #next()} is the last one of the file. */
+  public boolean isLastFragment() {
+    return totalReadSize >= fileSize;
+  }
+
+  /** Gets the CRC32 checksum of the file, which is complete after the last fragment is read. */
+  public long getChecksum() {
+    return checksum.getValue();
+  }
+
   public void close() throws IOException {
     if (fileChannel != null) {
       fileChannel.close();
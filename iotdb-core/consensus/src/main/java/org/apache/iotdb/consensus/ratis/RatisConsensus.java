@@ -60,6 +60,7 @@ import org.apache.ratis.conf.Parameters;
 import org.apache.ratis.conf.RaftProperties;
 import org.apache.ratis.grpc.GrpcConfigKeys;
 import org.apache.ratis.grpc.GrpcFactory;
+import org.apache.ratis.proto.RaftProtos.RoleInfoProto;
 import org.apache.ratis.protocol.ClientId;
 import org.apache.ratis.protocol.GroupManagementRequest;
 import org.apache.ratis.protocol.Message;
@@ -634,6 +635,31 @@ class RatisConsensus implements IConsensus {
     }
   }
 
+  @Override
+  public long getReadStalenessInMs(ConsensusGroupId groupId) {
+    RaftGroupId raftGroupId = Utils.fromConsensusGroupIdToRaftGroupId(groupId);
+    try {
+      RaftServer.Division division = server.getDivision(raftGroupId);
+      DivisionInfo divisionInfo = division.getInfo();
+      if (divisionInfo.isLeader()) {
+        return 0;
+      }
+      RoleInfoProto roleInfo = divisionInfo.getRoleInfoProto();
+      // the commit index known by a follower is as new as the last rpc from the leader, so the
+      // follower is that stale once it has applied all the committed logs
+      if (!roleInfo.hasFollowerInfo()
+          || !roleInfo.getFollowerInfo().hasLeaderInfo()
+          || divisionInfo.getLastAppliedIndex() < division.getRaftLog().getLastCommittedIndex()) {
+        return Long.MAX_VALUE;
+      }
+      return roleInfo.getFollowerInfo().getLeaderInfo().getLastRpcElapsedTimeMs();
+    } catch (IOException exception) {
+      // if the read fails, simply return unknown
+      logger.info("getReadStalenessInMs request failed with exception: ", exception);
+      return Long.MAX_VALUE;
+    }
+  }
+
   private boolean waitUntilLeaderReady(RaftGroupId groupId) {
     DivisionInfo divisionInfo;
     try {
@@ -236,6 +236,11 @@ class SimpleConsensus implements IConsensus {
     return 0;
   }
 
+  @Override
+  public long getReadStalenessInMs(ConsensusGroupId groupId) {
+    return 0;
+  }
+
   @Override
   public Peer getLeader(ConsensusGroupId groupId) {
     if (!stateMachineMap.containsKey(groupId)) {
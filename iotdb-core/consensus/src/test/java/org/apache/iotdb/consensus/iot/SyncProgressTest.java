@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.consensus.iot;
+
+package org.apache.iotdb.consensus.iot;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SyncProgressTest {
+
+  @Test
+  public void caughtUpUnderSteadyWritesTest() {
+    SyncProgress progress = new SyncProgress();
+    Assert.assertEquals(SyncProgress.NEVER, progress.getCaughtUpTime());
+
+    progress.onReceived(10, 100, true);
+    progress.onReceived(20, 200, true);
+    progress.onApplied(8);
+    Assert.assertEquals(SyncProgress.NEVER, progress.getCaughtUpTime());
+    // the source peer keeps writing, but the logs it had when sending the first batch are applied
+    progress.onApplied(15);
+    Assert.assertEquals(100, progress.getCaughtUpTime());
+    progress.onReceived(30, 300, true);
+    progress.onApplied(20);
+    Assert.assertEquals(200, progress.getCaughtUpTime());
+    Assert.assertEquals(300, progress.getLastLogTime());
+  }
+
+  @Test
+  public void heartbeatTest() {
+    SyncProgress progress = new SyncProgress();
+    progress.onReceived(10, 100, true);
+    progress.onApplied(10);
+    // heartbeats with the same searchIndex keep the peer caught up without new logs
+    progress.onReceived(10, 200, false);
+    progress.onApplied(10);
+    Assert.assertEquals(200, progress.getCaughtUpTime());
+    Assert.assertEquals(100, progress.getLastLogTime());
+    Assert.assertEquals(200, progress.getLastContactTime());
+  }
+
+  @Test
+  public void isLaterTest() {
+    Assert.assertTrue(SyncProgress.isLater(1, SyncProgress.NEVER));
+    Assert.assertFalse(SyncProgress.isLater(SyncProgress.NEVER, 1));
+    Assert.assertTrue(SyncProgress.isLater(Long.MIN_VALUE + 1, Long.MAX_VALUE));
+    Assert.assertFalse(SyncProgress.isLater(2, 2));
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.consensus.iot.logdispatcher;
+
+import org.apache.iotdb.consensus.config.IoTConsensusConfig;
+import org.apache.iotdb.consensus.iot.thrift.TLogEntry;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+public class AdaptiveBatchSizerTest {
+
+  private static final int MAX_LOG_ENTRIES_NUM = 2;
+  private static final int MAX_PENDING_BATCHES_NUM = 3;
+  private static final int MAX_SCALE = 4;
+
+  private final IoTConsensusConfig config =
+      IoTConsensusConfig.newBuilder()
+          .setReplication(
+              IoTConsensusConfig.Replication.newBuilder()
+                  .setMaxLogEntriesNumPerBatch(MAX_LOG_ENTRIES_NUM)
+                  .setMaxPendingBatchesNum(MAX_PENDING_BATCHES_NUM)
+                  .setAdaptiveBatchingMaxScale(MAX_SCALE)
+                  .build())
+          .build();
+
+  @Test
+  public void disabledByDefaultTest() {
+    AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(IoTConsensusConfig.newBuilder().build());
+    Assert.assertFalse(sizer.isEnabled());
+    Assert.assertEquals(1024, sizer.getMaxLogEntriesNum());
+    Assert.assertEquals(5, sizer.getMaxPendingBatchesNum());
+  }
+
+  @Test
+  public void growAndShrinkTest() {
+    AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(config);
+    Assert.assertTrue(sizer.isEnabled());
+    long rtt = TimeUnit.MILLISECONDS.toNanos(1);
+
+    // full batches grow the batch size up to the max scale
+    for (int i = 1; i < MAX_SCALE + 2; i++) {
+      sizer.onBatchSynced(fullBatch(sizer), rtt, false);
+      Assert.assertEquals(
+          MAX_LOG_ENTRIES_NUM * Math.min(i + 1, MAX_SCALE), sizer.getMaxLogEntriesNum());
+    }
+    // batches which are not full keep the batch size
+    sizer.onBatchSynced(batch(1), rtt, false);
+    Assert.assertEquals(MAX_LOG_ENTRIES_NUM * MAX_SCALE, sizer.getMaxLogEntriesNum());
+
+    // retries halve the batch size
+    sizer.onBatchSynced(fullBatch(sizer), rtt, true);
+    Assert.assertEquals(MAX_LOG_ENTRIES_NUM * MAX_SCALE / 2, sizer.getMaxLogEntriesNum());
+
+    // so does a jump of the round-trip time, but not below the configured size
+    sizer.onBatchSynced(fullBatch(sizer), rtt * 10, false);
+    Assert.assertEquals(MAX_LOG_ENTRIES_NUM * MAX_SCALE / 4, sizer.getMaxLogEntriesNum());
+    sizer.onBatchSynced(fullBatch(sizer), rtt * 100, false);
+    Assert.assertEquals(MAX_LOG_ENTRIES_NUM, sizer.getMaxLogEntriesNum());
+
+    Assert.assertTrue(sizer.getMaxPendingBatchesNum() >= MAX_PENDING_BATCHES_NUM);
+    Assert.assertTrue(sizer.getMaxPendingBatchesNum() <= MAX_PENDING_BATCHES_NUM * MAX_SCALE);
+  }
+
+  private static Batch fullBatch(AdaptiveBatchSizer sizer) {
+    return batch(sizer.getMaxLogEntriesNum());
+  }
+
+  private static Batch batch(int size) {
+    Batch batch = new Batch(size, Long.MAX_VALUE);
+    for (int i = 0; i < size; i++) {
+      batch.addTLogEntry(
+          new TLogEntry(Collections.singletonList(ByteBuffer.allocate(16)), i, false));
+    }
+    batch.buildIndex();
+    return batch;
+  }
+}
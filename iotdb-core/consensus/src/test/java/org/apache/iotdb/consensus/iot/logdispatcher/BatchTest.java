@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.consensus.iot.logdispatcher;
+
+import org.apache.iotdb.consensus.iot.thrift.TLogEntry;
+
+import org.apache.tsfile.compress.IUnCompressor;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class BatchTest {
+
+  @Test
+  public void compressTest() throws IOException {
+    byte[][] requests = new byte[3][];
+    Batch batch = new Batch(requests.length, Long.MAX_VALUE);
+    for (int i = 0; i < requests.length; i++) {
+      StringBuilder builder = new StringBuilder();
+      for (int j = 0; j < 100; j++) {
+        builder.append("root.sg.d").append(i).append(".s").append(j);
+      }
+      requests[i] = builder.toString().getBytes(StandardCharsets.UTF_8);
+      batch.addTLogEntry(
+          new TLogEntry(
+              Arrays.asList(ByteBuffer.wrap(requests[i]), ByteBuffer.allocate(0)), i, i > 0));
+    }
+    batch.buildIndex();
+    long serializedSize = batch.getSerializedSize();
+    Assert.assertFalse(batch.isCompressed());
+
+    batch.compress(CompressionType.LZ4);
+    Assert.assertTrue(batch.isCompressed());
+    // memory is reserved for the uncompressed batch
+    Assert.assertEquals(serializedSize, batch.getSerializedSize());
+
+    IUnCompressor unCompressor = IUnCompressor.getUnCompressor(batch.getCompressionType());
+    for (int i = 0; i < requests.length; i++) {
+      TLogEntry entry = batch.getLogEntries().get(i);
+      Assert.assertEquals(i, entry.getSearchIndex());
+      Assert.assertEquals(2, entry.getDataSize());
+      Assert.assertTrue(entry.getData().get(0).remaining() < requests[i].length);
+      Assert.assertArrayEquals(
+          requests[i], unCompressor.uncompress(entry.getData().get(0).array()));
+      Assert.assertEquals(0, unCompressor.uncompress(entry.getData().get(1).array()).length);
+    }
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.consensus.iot.snapshot;
+
+import org.apache.ratis.util.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.zip.CRC32;
+
+public class SnapshotFragmentReaderTest {
+
+  private static final String SNAPSHOT_ID = "snapshot_1_1";
+  private static final File snapshotDir =
+      new File("target" + File.separator + "fragment" + File.separator + SNAPSHOT_ID);
+
+  private final byte[] content = new byte[25 * 1024 * 1024 + 7];
+  private Path path;
+
+  @Before
+  public void setUp() throws IOException {
+    FileUtils.createDirectories(snapshotDir);
+    new Random(0).nextBytes(content);
+    path = new File(snapshotDir, "file").toPath();
+    Files.write(path, content);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    FileUtils.deleteFully(snapshotDir.getParentFile());
+  }
+
+  @Test
+  public void readTest() throws IOException {
+    CRC32 expectedChecksum = new CRC32();
+    expectedChecksum.update(content);
+
+    SnapshotFragmentReader reader = new SnapshotFragmentReader(SNAPSHOT_ID, path);
+    try {
+      long expectedOffset = 0;
+      int fragmentNum = 0;
+      while (reader.hasNext()) {
+        SnapshotFragment fragment = reader.next();
+        Assert.assertEquals(expectedOffset, fragment.getStartOffset());
+        Assert.assertEquals(
+            ByteBuffer.wrap(content, (int) expectedOffset, (int) fragment.getFragmentSize()),
+            fragment.getFileChunk());
+        expectedOffset += fragment.getFragmentSize();
+        fragmentNum++;
+        Assert.assertEquals(expectedOffset == content.length, reader.isLastFragment());
+      }
+      Assert.assertEquals(content.length, expectedOffset);
+      Assert.assertEquals(3, fragmentNum);
+      Assert.assertEquals(expectedChecksum.getValue(), reader.getChecksum());
+    } finally {
+      reader.close();
+    }
+  }
+
+  /** A resumed reader starts from the offset but still checksums the whole file. */
+  @Test
+  public void resumeTest() throws IOException {
+    CRC32 expectedChecksum = new CRC32();
+    expectedChecksum.update(content);
+    long startOffset = 15 * 1024 * 1024 + 3;
+
+    SnapshotFragmentReader reader = new SnapshotFragmentReader(SNAPSHOT_ID, path, startOffset);
+    try {
+      Assert.assertTrue(reader.hasNext());
+      Assert.assertEquals(startOffset, reader.next().getStartOffset());
+      Assert.assertEquals(startOffset, reader.next().toTSendSnapshotFragmentReq().getOffset());
+      while (reader.hasNext()) {
+        // read to the end
+      }
+      Assert.assertTrue(reader.isLastFragment());
+      Assert.assertEquals(content.length, reader.getTotalReadSize());
+      Assert.assertEquals(expectedChecksum.getValue(), reader.getChecksum());
+    } finally {
+      reader.close();
+    }
+  }
+}
@@ -356,6 +356,12 @@ public class IoTDBConfig {
   /** How many threads can concurrently flush. When <= 0, use CPU core number. */
   private int flushThreadCount = Runtime.getRuntime().availableProcessors();
 
+  /**
+   * How many threads, shared by all flushing memtables, encode the chunk groups of different
+   * devices concurrently. When <= 0, use CPU core number.
+   */
+  private int flushEncodingThreadCount = Runtime.getRuntime().availableProcessors();
+
   /** How many threads can concurrently execute query statement. When <= 0, use CPU core number. */
   private int queryThreadCount = Runtime.getRuntime().availableProcessors();
 
@@ -536,6 +542,12 @@ public class IoTDBConfig {
 
   private boolean enableTsFileValidation = false;
 
+  /**
+   * Whether to write the value statistics of each series into a summary file next to every sealed
+   * TsFile, which lets queries with value filters skip the TsFile without reading its metadata.
+   */
+  private boolean enableTsFileSummary = false;
+
   /** The size of candidate compaction task queue. */
   private int candidateCompactionTaskQueueSize = 200;
 
@@ -561,6 +573,12 @@ public class IoTDBConfig {
   /** Memory allocated for bloomFilter cache in read process */
   private long allocateMemoryForBloomFilterCache = allocateMemoryForRead / 1001;
 
+  /**
+   * Memory allocated for TsFile summary cache in read process, which is taken from the bloomFilter
+   * cache when TsFile summary is enabled at startup
+   */
+  private long allocateMemoryForTsFileSummaryCache = 0;
+
   /** Memory allocated for timeSeriesMetaData cache in read process */
   private long allocateMemoryForTimeSeriesMetaDataCache = allocateMemoryForRead * 200 / 1001;
 
@@ -674,6 +692,15 @@ public class IoTDBConfig {
   /** TEXT encoding when creating schema automatically is enabled */
   private TSEncoding defaultTextEncoding = TSEncoding.PLAIN;
 
+  /**
+   * Whether to choose the encoding and compressor of flushed and compacted chunks from the sampled
+   * statistics of their data instead of the series schema.
+   */
+  private boolean enableAdaptiveEncoding = false;
+
+  /** How many points of a chunk are sampled when choosing its encoding adaptively */
+  private int adaptiveEncodingSampleSize = 1024;
+
   /** How many threads will be set up to perform settle tasks. */
   private int settleThreadNum = 1;
 
@@ -798,6 +825,15 @@ public class IoTDBConfig {
   // if enable partial insert, one measurement failure will not impact other measurements
   private boolean enablePartialInsert = true;
 
+  /**
+   * Single-row inserts arriving at the same data region within this window are coalesced into one
+   * batch. 0 means disabled.
+   */
+  private long insertRowCoalescingWindowInUs = 0;
+
+  /** The maximum number of single-row inserts in one coalesced batch. */
+  private int insertRowCoalescingMaxBatchSize = 256;
+
   private boolean enable13DataInsertAdapt = false;
 
   /**
@@ -956,7 +992,8 @@ public class IoTDBConfig {
 
   /**
    * Cache size of partition cache in {@link
-   * org.apache.iotdb.db.queryengine.plan.analyze.ClusterPartitionFetcher}
+   * org.apache.iotdb.db.queryengine.plan.analyze.ClusterPartitionFetcher}. Deprecated, the
+   * partition cache is limited by {@link #allocateMemoryForPartitionCache} instead.
    */
   private int partitionCacheSize = 1000;
 
@@ -1095,6 +1132,33 @@ public class IoTDBConfig {
   private double maxMemoryRatioForQueue = 0.6;
   private long regionMigrationSpeedLimitBytesPerSecond = 32 * 1024 * 1024L;
 
+  /**
+   * The number of threads shared by all IoTConsensus groups to dispatch logs. 0 means each peer of
+   * each group has its own dispatcher thread.
+   */
+  private int iotConsensusDispatcherThreadNum = 0;
+
+  /**
+   * The factor that IoTConsensus may grow the batch size and pending batches num to for a peer
+   * according to its round-trip time and apply rate. 1 means the batching is not adaptive.
+   */
+  private int iotConsensusAdaptiveBatchingMaxScale = 1;
+
+  /**
+   * IoTConsensus compresses batches sent to a peer lagging behind by more log entries than this. 0
+   * means batches are never compressed.
+   */
+  private long iotConsensusCompressionLagThreshold = 0;
+
+  /** The number of snapshot files IoTConsensus transmits concurrently to a new peer. */
+  private int iotConsensusSnapshotTransmissionThreadNum = 1;
+
+  /**
+   * An idle IoTConsensus replica sends heartbeats to the other replicas at this interval, so that
+   * they know how stale they are for reads with bounded staleness. 0 means no heartbeats.
+   */
+  private long iotConsensusHeartbeatIntervalInMs = 0;
+
   /** Load related */
   private double maxAllocateMemoryRatioForLoad = 0.8;
 
@@ -1109,6 +1173,25 @@ public class IoTDBConfig {
 
   private double loadWriteThroughputBytesPerSecond = Double.MAX_VALUE; // Bytes/s
 
+  /** Tier migration related */
+  /**
+   * Data ttl of each tier. Sealed TsFiles whose data are older than the ttl of their tier are
+   * migrated to the next tier. Long.MAX_VALUE means the files of this tier never expire.
+   */
+  private long[] tierTTLInMs = {Long.MAX_VALUE};
+
+  /**
+   * When the usable space ratio of a tier is lower than this threshold, the oldest TsFiles of this
+   * tier are migrated to the next tier until the ratio is recovered. 0 disables it.
+   */
+  private double tierMigrationUsableSpaceThreshold = 0.1;
+
+  private long tierMigrationCheckIntervalInMs = 60_000L;
+
+  private int tierMigrationThreadCount = 1;
+
+  private double tierMigrationThroughputBytesPerSecond = 64 * 1024 * 1024d; // Bytes/s
+
   /** Pipe related */
   /** initialized as empty, updated based on the latest `systemDir` during querying */
   private String[] pipeReceiverFileDirs = new String[0];
@@ -1158,6 +1241,47 @@ public class IoTDBConfig {
     this.maxSizePerBatch = maxSizePerBatch;
   }
 
+  public int getIotConsensusDispatcherThreadNum() {
+    return iotConsensusDispatcherThreadNum;
+  }
+
+  public void setIotConsensusDispatcherThreadNum(int iotConsensusDispatcherThreadNum) {
+    this.iotConsensusDispatcherThreadNum = iotConsensusDispatcherThreadNum;
+  }
+
+  public int getIotConsensusAdaptiveBatchingMaxScale() {
+    return iotConsensusAdaptiveBatchingMaxScale;
+  }
+
+  public void setIotConsensusAdaptiveBatchingMaxScale(int iotConsensusAdaptiveBatchingMaxScale) {
+    this.iotConsensusAdaptiveBatchingMaxScale = iotConsensusAdaptiveBatchingMaxScale;
+  }
+
+  public long getIotConsensusCompressionLagThreshold() {
+    return iotConsensusCompressionLagThreshold;
+  }
+
+  public void setIotConsensusCompressionLagThreshold(long iotConsensusCompressionLagThreshold) {
+    this.iotConsensusCompressionLagThreshold = iotConsensusCompressionLagThreshold;
+  }
+
+  public int getIotConsensusSnapshotTransmissionThreadNum() {
+    return iotConsensusSnapshotTransmissionThreadNum;
+  }
+
+  public void setIotConsensusSnapshotTransmissionThreadNum(
+      int iotConsensusSnapshotTransmissionThreadNum) {
+    this.iotConsensusSnapshotTransmissionThreadNum = iotConsensusSnapshotTransmissionThreadNum;
+  }
+
+  public long getIotConsensusHeartbeatIntervalInMs() {
+    return iotConsensusHeartbeatIntervalInMs;
+  }
+
+  public void setIotConsensusHeartbeatIntervalInMs(long iotConsensusHeartbeatIntervalInMs) {
+    this.iotConsensusHeartbeatIntervalInMs = iotConsensusHeartbeatIntervalInMs;
+  }
+
   public void setMaxPendingBatchesNum(int maxPendingBatchesNum) {
     this.maxPendingBatchesNum = maxPendingBatchesNum;
   }
@@ -1625,6 +1749,14 @@ public class IoTDBConfig {
     this.flushThreadCount = flushThreadCount;
   }
 
+  public int getFlushEncodingThreadCount() {
+    return flushEncodingThreadCount;
+  }
+
+  void setFlushEncodingThreadCount(int flushEncodingThreadCount) {
+    this.flushEncodingThreadCount = flushEncodingThreadCount;
+  }
+
   public int getQueryThreadCount() {
     return queryThreadCount;
   }
@@ -1976,6 +2108,7 @@ public class IoTDBConfig {
     this.allocateMemoryForRead = allocateMemoryForRead;
 
     this.allocateMemoryForBloomFilterCache = allocateMemoryForRead / 1001;
+    this.allocateMemoryForTsFileSummaryCache = 0;
     this.allocateMemoryForTimeSeriesMetaDataCache = allocateMemoryForRead * 200 / 1001;
     this.allocateMemoryForChunkCache = allocateMemoryForRead * 100 / 1001;
     this.allocateMemoryForCoordinator = allocateMemoryForRead * 50 / 1001;
@@ -2008,6 +2141,22 @@ public class IoTDBConfig {
     this.enablePartialInsert = enablePartialInsert;
   }
 
+  public long getInsertRowCoalescingWindowInUs() {
+    return insertRowCoalescingWindowInUs;
+  }
+
+  public void setInsertRowCoalescingWindowInUs(long insertRowCoalescingWindowInUs) {
+    this.insertRowCoalescingWindowInUs = insertRowCoalescingWindowInUs;
+  }
+
+  public int getInsertRowCoalescingMaxBatchSize() {
+    return insertRowCoalescingMaxBatchSize;
+  }
+
+  public void setInsertRowCoalescingMaxBatchSize(int insertRowCoalescingMaxBatchSize) {
+    this.insertRowCoalescingMaxBatchSize = insertRowCoalescingMaxBatchSize;
+  }
+
   public boolean isEnable13DataInsertAdapt() {
     return enable13DataInsertAdapt;
   }
@@ -2184,6 +2333,14 @@ public class IoTDBConfig {
     this.allocateMemoryForBloomFilterCache = allocateMemoryForBloomFilterCache;
   }
 
+  public long getAllocateMemoryForTsFileSummaryCache() {
+    return allocateMemoryForTsFileSummaryCache;
+  }
+
+  public void setAllocateMemoryForTsFileSummaryCache(long allocateMemoryForTsFileSummaryCache) {
+    this.allocateMemoryForTsFileSummaryCache = allocateMemoryForTsFileSummaryCache;
+  }
+
   public long getAllocateMemoryForTimeSeriesMetaDataCache() {
     return allocateMemoryForTimeSeriesMetaDataCache;
   }
@@ -2392,6 +2549,22 @@ public class IoTDBConfig {
     this.defaultTextEncoding = TSEncoding.valueOf(defaultTextEncoding);
   }
 
+  public boolean isEnableAdaptiveEncoding() {
+    return enableAdaptiveEncoding;
+  }
+
+  public void setEnableAdaptiveEncoding(boolean enableAdaptiveEncoding) {
+    this.enableAdaptiveEncoding = enableAdaptiveEncoding;
+  }
+
+  public int getAdaptiveEncodingSampleSize() {
+    return adaptiveEncodingSampleSize;
+  }
+
+  public void setAdaptiveEncodingSampleSize(int adaptiveEncodingSampleSize) {
+    this.adaptiveEncodingSampleSize = adaptiveEncodingSampleSize;
+  }
+
   FSType getTsFileStorageFs() {
     return tsFileStorageFs;
   }
@@ -3826,6 +3999,47 @@ public class IoTDBConfig {
     this.loadWriteThroughputBytesPerSecond = loadWriteThroughputBytesPerSecond;
   }
 
+  public long[] getTierTTLInMs() {
+    return tierTTLInMs;
+  }
+
+  public void setTierTTLInMs(long[] tierTTLInMs) {
+    this.tierTTLInMs = tierTTLInMs;
+  }
+
+  public double getTierMigrationUsableSpaceThreshold() {
+    return tierMigrationUsableSpaceThreshold;
+  }
+
+  public void setTierMigrationUsableSpaceThreshold(double tierMigrationUsableSpaceThreshold) {
+    this.tierMigrationUsableSpaceThreshold = tierMigrationUsableSpaceThreshold;
+  }
+
+  public long getTierMigrationCheckIntervalInMs() {
+    return tierMigrationCheckIntervalInMs;
+  }
+
+  public void setTierMigrationCheckIntervalInMs(long tierMigrationCheckIntervalInMs) {
+    this.tierMigrationCheckIntervalInMs = tierMigrationCheckIntervalInMs;
+  }
+
+  public int getTierMigrationThreadCount() {
+    return tierMigrationThreadCount;
+  }
+
+  public void setTierMigrationThreadCount(int tierMigrationThreadCount) {
+    this.tierMigrationThreadCount = tierMigrationThreadCount;
+  }
+
+  public double getTierMigrationThroughputBytesPerSecond() {
+    return tierMigrationThroughputBytesPerSecond;
+  }
+
+  public void setTierMigrationThroughputBytesPerSecond(
+      double tierMigrationThroughputBytesPerSecond) {
+    this.tierMigrationThroughputBytesPerSecond = tierMigrationThroughputBytesPerSecond;
+  }
+
   public void setPipeReceiverFileDirs(String[] pipeReceiverFileDirs) {
     this.pipeReceiverFileDirs = pipeReceiverFileDirs;
   }
@@ -3896,6 +4110,14 @@ public class IoTDBConfig {
     this.enableTsFileValidation = enableTsFileValidation;
   }
 
+  public boolean isEnableTsFileSummary() {
+    return enableTsFileSummary;
+  }
+
+  public void setEnableTsFileSummary(boolean enableTsFileSummary) {
+    this.enableTsFileSummary = enableTsFileSummary;
+  }
+
   public long getInnerCompactionTaskSelectionModsFileThreshold() {
     return innerCompactionTaskSelectionModsFileThreshold;
   }
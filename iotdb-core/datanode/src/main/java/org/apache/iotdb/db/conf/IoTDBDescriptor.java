@@ -530,6 +530,16 @@ public class IoTDBDescriptor {
       conf.setFlushThreadCount(Runtime.getRuntime().availableProcessors());
     }
 
+    conf.setFlushEncodingThreadCount(
+        Integer.parseInt(
+            properties.getProperty(
+                "flush_encoding_thread_count",
+                Integer.toString(conf.getFlushEncodingThreadCount()))));
+
+    if (conf.getFlushEncodingThreadCount() <= 0) {
+      conf.setFlushEncodingThreadCount(Runtime.getRuntime().availableProcessors());
+    }
+
     // start: index parameter setting
     conf.setIndexRootFolder(properties.getProperty("index_root_dir", conf.getIndexRootFolder()));
 
@@ -691,6 +701,19 @@ public class IoTDBDescriptor {
         Boolean.parseBoolean(
             properties.getProperty(
                 "enable_tsfile_validation", String.valueOf(conf.isEnableTsFileValidation()))));
+    conf.setEnableTsFileSummary(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_tsfile_summary", String.valueOf(conf.isEnableTsFileSummary()))));
+    if (conf.isEnableTsFileSummary()) {
+      // split the memory of bloomFilter cache, since both caches are used to skip a TsFile before
+      // reading its metadata
+      long skippingCacheMemory =
+          conf.getAllocateMemoryForBloomFilterCache()
+              + conf.getAllocateMemoryForTsFileSummaryCache();
+      conf.setAllocateMemoryForTsFileSummaryCache(skippingCacheMemory / 2);
+      conf.setAllocateMemoryForBloomFilterCache(skippingCacheMemory - skippingCacheMemory / 2);
+    }
     conf.setCandidateCompactionTaskQueueSize(
         Integer.parseInt(
             properties.getProperty(
@@ -714,6 +737,21 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "enable_partial_insert", String.valueOf(conf.isEnablePartialInsert()))));
 
+    conf.setInsertRowCoalescingWindowInUs(
+        Long.parseLong(
+            properties.getProperty(
+                "insert_row_coalescing_window_in_us",
+                String.valueOf(conf.getInsertRowCoalescingWindowInUs()))));
+
+    int insertRowCoalescingMaxBatchSize =
+        Integer.parseInt(
+            properties.getProperty(
+                "insert_row_coalescing_max_batch_size",
+                String.valueOf(conf.getInsertRowCoalescingMaxBatchSize())));
+    if (insertRowCoalescingMaxBatchSize > 0) {
+      conf.setInsertRowCoalescingMaxBatchSize(insertRowCoalescingMaxBatchSize);
+    }
+
     conf.setEnable13DataInsertAdapt(
         Boolean.parseBoolean(
             properties.getProperty(
@@ -925,6 +963,8 @@ public class IoTDBDescriptor {
                 "load_write_throughput_bytes_per_sec",
                 String.valueOf(conf.getLoadWriteThroughputBytesPerSecond()))));
 
+    loadTierMigrationProps(properties);
+
     conf.setExtPipeDir(properties.getProperty("ext_pipe_dir", conf.getExtPipeDir()).trim());
 
     // At the same time, set TSFileConfig
@@ -1102,6 +1142,56 @@ public class IoTDBDescriptor {
                     "region_migration_speed_limit_bytes_per_second",
                     String.valueOf(conf.getRegionMigrationSpeedLimitBytesPerSecond()))
                 .trim()));
+    int iotConsensusDispatcherThreadNum =
+        Integer.parseInt(
+            properties
+                .getProperty(
+                    "data_region_iot_dispatcher_thread_num",
+                    String.valueOf(conf.getIotConsensusDispatcherThreadNum()))
+                .trim());
+    if (iotConsensusDispatcherThreadNum >= 0) {
+      conf.setIotConsensusDispatcherThreadNum(iotConsensusDispatcherThreadNum);
+    }
+    int iotConsensusAdaptiveBatchingMaxScale =
+        Integer.parseInt(
+            properties
+                .getProperty(
+                    "data_region_iot_adaptive_batching_max_scale",
+                    String.valueOf(conf.getIotConsensusAdaptiveBatchingMaxScale()))
+                .trim());
+    if (iotConsensusAdaptiveBatchingMaxScale >= 1) {
+      conf.setIotConsensusAdaptiveBatchingMaxScale(iotConsensusAdaptiveBatchingMaxScale);
+    }
+    long iotConsensusCompressionLagThreshold =
+        Long.parseLong(
+            properties
+                .getProperty(
+                    "data_region_iot_compression_lag_threshold",
+                    String.valueOf(conf.getIotConsensusCompressionLagThreshold()))
+                .trim());
+    if (iotConsensusCompressionLagThreshold >= 0) {
+      conf.setIotConsensusCompressionLagThreshold(iotConsensusCompressionLagThreshold);
+    }
+    int iotConsensusSnapshotTransmissionThreadNum =
+        Integer.parseInt(
+            properties
+                .getProperty(
+                    "data_region_iot_snapshot_transmission_thread_num",
+                    String.valueOf(conf.getIotConsensusSnapshotTransmissionThreadNum()))
+                .trim());
+    if (iotConsensusSnapshotTransmissionThreadNum >= 1) {
+      conf.setIotConsensusSnapshotTransmissionThreadNum(iotConsensusSnapshotTransmissionThreadNum);
+    }
+    long iotConsensusHeartbeatIntervalInMs =
+        Long.parseLong(
+            properties
+                .getProperty(
+                    "data_region_iot_heartbeat_interval_in_ms",
+                    String.valueOf(conf.getIotConsensusHeartbeatIntervalInMs()))
+                .trim());
+    if (iotConsensusHeartbeatIntervalInMs >= 0) {
+      conf.setIotConsensusHeartbeatIntervalInMs(iotConsensusHeartbeatIntervalInMs);
+    }
   }
 
   private void loadAuthorCache(Properties properties) {
@@ -1432,6 +1522,18 @@ public class IoTDBDescriptor {
             "default_double_encoding", conf.getDefaultDoubleEncoding().toString()));
     conf.setDefaultTextEncoding(
         properties.getProperty("default_text_encoding", conf.getDefaultTextEncoding().toString()));
+    conf.setEnableAdaptiveEncoding(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_adaptive_encoding", Boolean.toString(conf.isEnableAdaptiveEncoding()))));
+    int adaptiveEncodingSampleSize =
+        Integer.parseInt(
+            properties.getProperty(
+                "adaptive_encoding_sample_size",
+                Integer.toString(conf.getAdaptiveEncodingSampleSize())));
+    if (adaptiveEncodingSampleSize > 0) {
+      conf.setAdaptiveEncodingSampleSize(adaptiveEncodingSampleSize);
+    }
   }
 
   private void loadTsFileProps(Properties properties) {
@@ -1633,6 +1735,44 @@ public class IoTDBDescriptor {
     }
   }
 
+  private void loadTierMigrationProps(Properties properties) {
+    String tierTTLInMs = properties.getProperty("tier_ttl_in_ms", null);
+    if (tierTTLInMs != null) {
+      conf.setTierTTLInMs(parseTierTTL(tierTTLInMs));
+    }
+    conf.setTierMigrationUsableSpaceThreshold(
+        Double.parseDouble(
+            properties.getProperty(
+                "tier_migration_usable_space_threshold",
+                String.valueOf(conf.getTierMigrationUsableSpaceThreshold()))));
+    conf.setTierMigrationCheckIntervalInMs(
+        Long.parseLong(
+            properties.getProperty(
+                "tier_migration_check_interval_in_ms",
+                String.valueOf(conf.getTierMigrationCheckIntervalInMs()))));
+    conf.setTierMigrationThreadCount(
+        Integer.parseInt(
+            properties.getProperty(
+                "tier_migration_thread_count",
+                String.valueOf(conf.getTierMigrationThreadCount()))));
+    conf.setTierMigrationThroughputBytesPerSecond(
+        Double.parseDouble(
+            properties.getProperty(
+                "tier_migration_throughput_bytes_per_sec",
+                String.valueOf(conf.getTierMigrationThroughputBytesPerSecond()))));
+  }
+
+  private long[] parseTierTTL(String tierTTLInMs) {
+    String[] tiers = tierTTLInMs.split(IoTDBConstant.TIER_SEPARATOR);
+    long[] tierTTL = new long[tiers.length];
+    for (int i = 0; i < tiers.length; ++i) {
+      long ttl = Long.parseLong(tiers[i].trim());
+      // non-positive ttl means the files of this tier never expire
+      tierTTL[i] = ttl <= 0 ? Long.MAX_VALUE : ttl;
+    }
+    return tierTTL;
+  }
+
   private String[][] parseDataDirs(String dataDirs) {
     String[] tiers = dataDirs.split(IoTDBConstant.TIER_SEPARATOR);
     String[][] tierDataDirs = new String[tiers.length][];
@@ -1697,6 +1837,10 @@ public class IoTDBDescriptor {
           Boolean.parseBoolean(
               properties.getProperty(
                   "enable_tsfile_validation", String.valueOf(conf.isEnableTsFileValidation()))));
+      conf.setEnableTsFileSummary(
+          Boolean.parseBoolean(
+              properties.getProperty(
+                  "enable_tsfile_summary", String.valueOf(conf.isEnableTsFileSummary()))));
 
       // update wal config
       long prevDeleteWalFilesPeriodInMs = conf.getDeleteWalFilesPeriodInMs();
@@ -1721,6 +1865,9 @@ public class IoTDBDescriptor {
                   "load_write_throughput_bytes_per_sec",
                   String.valueOf(conf.getLoadWriteThroughputBytesPerSecond()))));
 
+      // update tier migration config
+      loadTierMigrationProps(properties);
+
       // update merge_threshold_of_explain_analyze
       conf.setMergeThresholdOfExplainAnalyze(
           Integer.parseInt(
@@ -130,6 +130,13 @@ public class DataRegionConsensusImpl {
                           .setMaxMemoryRatioForQueue(CONF.getMaxMemoryRatioForQueue())
                           .setRegionMigrationSpeedLimitBytesPerSecond(
                               CONF.getRegionMigrationSpeedLimitBytesPerSecond())
+                          .setDispatcherThreadNum(CONF.getIotConsensusDispatcherThreadNum())
+                          .setAdaptiveBatchingMaxScale(
+                              CONF.getIotConsensusAdaptiveBatchingMaxScale())
+                          .setCompressionLagThreshold(CONF.getIotConsensusCompressionLagThreshold())
+                          .setSnapshotTransmissionThreadNum(
+                              CONF.getIotConsensusSnapshotTransmissionThreadNum())
+                          .setHeartbeatIntervalInMs(CONF.getIotConsensusHeartbeatIntervalInMs())
                           .build())
                   .build())
           .setRatisConfig(
@@ -311,7 +311,8 @@ public class ClientRPCServiceImpl implements IClientRPCServiceWithHandler {
               statement,
               partitionFetcher,
               schemaFetcher,
-              req.getTimeout());
+              req.getTimeout(),
+              req.isSetMaxStalenessInMs() ? req.getMaxStalenessInMs() : -1);
 
       if (result.status.code != TSStatusCode.SUCCESS_STATUS.getStatusCode()
           && result.status.code != TSStatusCode.REDIRECTION_RECOMMEND.getStatusCode()) {
@@ -47,6 +47,7 @@ import org.apache.iotdb.commons.pipe.task.meta.PipeMeta;
 import org.apache.iotdb.commons.schema.SchemaConstant;
 import org.apache.iotdb.commons.schema.view.viewExpression.ViewExpression;
 import org.apache.iotdb.commons.service.metric.MetricService;
+import org.apache.iotdb.commons.service.metric.enums.Metric;
 import org.apache.iotdb.commons.service.metric.enums.Tag;
 import org.apache.iotdb.commons.subscription.meta.consumer.ConsumerGroupMeta;
 import org.apache.iotdb.commons.subscription.meta.topic.TopicMeta;
@@ -127,6 +128,7 @@ import org.apache.iotdb.db.schemaengine.template.TemplateInternalRPCUpdateType;
 import org.apache.iotdb.db.service.DataNode;
 import org.apache.iotdb.db.service.RegionMigrateService;
 import org.apache.iotdb.db.storageengine.StorageEngine;
+import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.repair.RepairTaskStatus;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionScheduleTaskManager;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.settle.SettleRequestHandler;
@@ -282,6 +284,8 @@ public class DataNodeInternalRPCServiceImpl implements IDataNodeRPCService.Iface
 
   private final DataNodeRegionManager regionManager = DataNodeRegionManager.getInstance();
 
+  private final RegionStateTracker regionStateTracker = new RegionStateTracker();
+
   private final DataNodeSpaceQuotaManager spaceQuotaManager =
       DataNodeSpaceQuotaManager.getInstance();
 
@@ -336,6 +340,9 @@ public class DataNodeInternalRPCServiceImpl implements IDataNodeRPCService.Iface
     resp.setAccepted(executionResult.isAccepted());
     resp.setMessage(executionResult.getMessage());
     resp.setNeedRetry(executionResult.isNeedRetry());
+    if (executionResult.isStaleReplica()) {
+      resp.setStaleReplica(true);
+    }
     return resp;
   }
 
@@ -476,7 +483,12 @@ public class DataNodeInternalRPCServiceImpl implements IDataNodeRPCService.Iface
 
   @Override
   public TSStatus invalidatePartitionCache(TInvalidateCacheReq req) {
-    ClusterPartitionFetcher.getInstance().invalidAllCache();
+    if (req.isStorageGroup()) {
+      // req.getFullPath() is a database path, and only its partitions are out of date
+      ClusterPartitionFetcher.getInstance().invalidStorageGroupCache(req.getFullPath());
+    } else {
+      ClusterPartitionFetcher.getInstance().invalidAllCache();
+    }
     return new TSStatus(TSStatusCode.SUCCESS_STATUS.getStatusCode());
   }
 
@@ -1431,8 +1443,8 @@ public class DataNodeInternalRPCServiceImpl implements IDataNodeRPCService.Iface
     if (req.isNeedJudgeLeader()) {
       // Always get logical clock before judging leader
       // to ensure that the leader is up-to-date
-      resp.setConsensusLogicalTimeMap(getLogicalClockMap());
-      resp.setJudgedLeaders(getJudgedLeaders());
+      Map<TConsensusGroupId, Long> logicalClockMap = getLogicalClockMap();
+      regionStateTracker.fillRegionStates(req, resp, getJudgedLeaders(), logicalClockMap);
     }
 
     // Sampling load if necessary
@@ -1463,6 +1475,7 @@ public class DataNodeInternalRPCServiceImpl implements IDataNodeRPCService.Iface
       sampleDiskLoad(loadSample);
 
       resp.setLoadSample(loadSample);
+      resp.setRegionWrittenPointsMap(sampleRegionWrittenPoints());
     }
     AuthorityChecker.getAuthorityFetcher().refreshToken();
     resp.setHeartbeatTimestamp(req.getHeartbeatTimestamp());
@@ -1590,6 +1603,30 @@ public class DataNodeInternalRPCServiceImpl implements IDataNodeRPCService.Iface
     return result;
   }
 
+  /** Sample the total number of points written to each local DataRegion */
+  private Map<TConsensusGroupId, Long> sampleRegionWrittenPoints() {
+    Map<TConsensusGroupId, Long> regionWrittenPointsMap = new HashMap<>();
+    for (DataRegion dataRegion : StorageEngine.getInstance().getAllDataRegions()) {
+      long writtenPoints =
+          MetricService.getInstance()
+              .getOrCreateCounter(
+                  Metric.QUANTITY.toString(),
+                  MetricLevel.CORE,
+                  Tag.NAME.toString(),
+                  Metric.POINTS_IN.toString(),
+                  Tag.DATABASE.toString(),
+                  dataRegion.getDatabaseName(),
+                  Tag.REGION.toString(),
+                  dataRegion.getDataRegionId())
+              .getCount();
+      regionWrittenPointsMap.put(
+          new DataRegionId(Integer.parseInt(dataRegion.getDataRegionId()))
+              .convertToTConsensusGroupId(),
+          writtenPoints);
+    }
+    return regionWrittenPointsMap;
+  }
+
   private void sampleDiskLoad(TLoadSample loadSample) {
     double availableDisk =
         MetricService.getInstance()
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.protocol.thrift.impl;
+
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
+import org.apache.iotdb.mpp.rpc.thrift.TDataNodeHeartbeatReq;
+import org.apache.iotdb.mpp.rpc.thrift.TDataNodeHeartbeatResp;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Remember the Region states last reported in heartbeats, so that only the changed ones are
+ * reported when the ConfigNode-leader still holds them.
+ */
+public class RegionStateTracker {
+
+  // Start from the current time, so that the versions after a restart won't collide with the ones
+  // held by the ConfigNode-leader
+  private long version = System.currentTimeMillis();
+  private Map<TConsensusGroupId, Boolean> reportedLeaders = Collections.emptyMap();
+  private Map<TConsensusGroupId, Long> reportedLogicalClocks = Collections.emptyMap();
+
+  /**
+   * Fill the Region states into the heartbeat response, only the changed ones if the request
+   * carries the version last reported.
+   *
+   * @param req the heartbeat request
+   * @param resp the heartbeat response
+   * @param judgedLeaders whether the current DataNode is the leader of each local Region
+   * @param logicalClocks the logical clock of each local Region
+   */
+  public synchronized void fillRegionStates(
+      TDataNodeHeartbeatReq req,
+      TDataNodeHeartbeatResp resp,
+      Map<TConsensusGroupId, Boolean> judgedLeaders,
+      Map<TConsensusGroupId, Long> logicalClocks) {
+    if (req.isSetRegionStateVersion() && req.getRegionStateVersion() == version) {
+      Map<TConsensusGroupId, Boolean> changedLeaders = new HashMap<>();
+      Map<TConsensusGroupId, Long> changedLogicalClocks = new HashMap<>();
+      judgedLeaders.forEach(
+          (regionId, isLeader) -> {
+            Long logicalClock = logicalClocks.get(regionId);
+            if (!isLeader.equals(reportedLeaders.get(regionId))
+                || !Objects.equals(logicalClock, reportedLogicalClocks.get(regionId))) {
+              changedLeaders.put(regionId, isLeader);
+              if (logicalClock != null) {
+                changedLogicalClocks.put(regionId, logicalClock);
+              }
+            }
+          });
+      List<TConsensusGroupId> removedRegionIds =
+          reportedLeaders.keySet().stream()
+              .filter(regionId -> !judgedLeaders.containsKey(regionId))
+              .collect(Collectors.toList());
+      resp.setJudgedLeaders(changedLeaders);
+      resp.setConsensusLogicalTimeMap(changedLogicalClocks);
+      resp.setRemovedRegionIds(removedRegionIds);
+      resp.setBaseRegionStateVersion(version);
+    } else {
+      resp.setJudgedLeaders(judgedLeaders);
+      resp.setConsensusLogicalTimeMap(logicalClocks);
+    }
+    reportedLeaders = judgedLeaders;
+    reportedLogicalClocks = logicalClocks;
+    resp.setRegionStateVersion(++version);
+  }
+}
@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.db.queryengine.common;
 
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
 import org.apache.iotdb.common.rpc.thrift.TEndPoint;
 import org.apache.iotdb.common.rpc.thrift.TRegionReplicaSet;
 import org.apache.iotdb.db.queryengine.plan.analyze.Analysis;
@@ -31,10 +32,13 @@ import org.apache.iotdb.db.queryengine.statistics.QueryPlanStatistics;
 import org.apache.tsfile.read.filter.basic.Filter;
 
 import java.time.ZoneId;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * This class is used to record the context of a query including QueryId, query statement, session
@@ -51,6 +55,9 @@ public class MPPQueryContext {
   private QueryType queryType = QueryType.READ;
   private long timeOut;
   private long startTime;
+  // How stale the data read from a data region replica may be, in ms. Negative means the query
+  // reads from the first replica by the routing priority, unless the read consistency is weak.
+  private long maxStalenessInMs = -1;
 
   private TEndPoint localDataBlockEndpoint;
   private TEndPoint localInternalEndpoint;
@@ -65,6 +72,10 @@ public class MPPQueryContext {
   // onto this node.
   private final List<TEndPoint> endPointBlackList;
 
+  // The replicas of each data region which are too stale for maxStalenessInMs. The following retry
+  // reads the region from other replicas, while these DataNodes still serve the other regions.
+  private final Map<TConsensusGroupId, Set<TEndPoint>> staleReplicaMap = new HashMap<>();
+
   private final TypeProvider typeProvider = new TypeProvider();
 
   private Filter globalTimeFilter;
@@ -139,6 +150,14 @@ public class MPPQueryContext {
     this.timeOut = timeOut;
   }
 
+  public long getMaxStalenessInMs() {
+    return maxStalenessInMs;
+  }
+
+  public void setMaxStalenessInMs(long maxStalenessInMs) {
+    this.maxStalenessInMs = maxStalenessInMs;
+  }
+
   public void setQueryType(QueryType queryType) {
     this.queryType = queryType;
   }
@@ -175,6 +194,14 @@ public class MPPQueryContext {
     return endPointBlackList;
   }
 
+  public void addStaleReplica(TConsensusGroupId regionId, TEndPoint endPoint) {
+    staleReplicaMap.computeIfAbsent(regionId, k -> new HashSet<>()).add(endPoint);
+  }
+
+  public Set<TEndPoint> getStaleReplicas(TConsensusGroupId regionId) {
+    return staleReplicaMap.getOrDefault(regionId, Collections.emptySet());
+  }
+
   public TRegionReplicaSet getMainFragmentLocatedRegion() {
     return this.mainFragmentLocatedRegion;
   }
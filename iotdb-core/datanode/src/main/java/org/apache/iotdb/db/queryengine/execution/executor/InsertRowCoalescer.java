@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.queryengine.execution.executor;
+
+import org.apache.iotdb.common.rpc.thrift.TSStatus;
+import org.apache.iotdb.commons.consensus.ConsensusGroupId;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertRowNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertRowsNode;
+import org.apache.iotdb.rpc.RpcUtils;
+import org.apache.iotdb.rpc.TSStatusCode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Coalesces the {@link InsertRowNode}s that arrive at the same data region within a short window
+ * into one {@link InsertRowsNode}, so that they go through the consensus layer, WAL and memtable
+ * once. The first row of a batch waits for the window and executes the batch, and every row still
+ * gets its own result.
+ */
+public class InsertRowCoalescer {
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  private final Map<ConsensusGroupId, Batch> openBatches = new ConcurrentHashMap<>();
+
+  private InsertRowCoalescer() {}
+
+  public static InsertRowCoalescer getInstance() {
+    return InsertRowCoalescerHolder.INSTANCE;
+  }
+
+  public boolean isEnabled() {
+    return CONFIG.getInsertRowCoalescingWindowInUs() > 0;
+  }
+
+  /**
+   * Insert a row together with the rows concurrently inserted into the same region.
+   *
+   * @param rowExecutor executes a batch that contains only this row
+   * @param batchExecutor executes a batch of rows
+   */
+  public RegionExecutionResult insert(
+      ConsensusGroupId regionId,
+      InsertRowNode row,
+      Function<InsertRowNode, RegionExecutionResult> rowExecutor,
+      Function<InsertRowsNode, RegionExecutionResult> batchExecutor) {
+    Batch batch;
+    int index;
+    boolean isLeader = false;
+    while (true) {
+      batch = openBatches.computeIfAbsent(regionId, id -> new Batch());
+      synchronized (batch) {
+        if (batch.sealed.isDone()) {
+          // sealed but not removed yet, retry with a new batch
+          openBatches.remove(regionId, batch);
+          continue;
+        }
+        index = batch.rows.size();
+        batch.rows.add(row);
+        if (index == 0) {
+          isLeader = true;
+        }
+        if (batch.rows.size() >= CONFIG.getInsertRowCoalescingMaxBatchSize()) {
+          seal(regionId, batch);
+        }
+      }
+      break;
+    }
+
+    if (isLeader) {
+      executeAsLeader(regionId, batch, rowExecutor, batchExecutor);
+    }
+    try {
+      return batch.results.get().get(index);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return failedResult(e);
+    } catch (ExecutionException e) {
+      return failedResult(e.getCause());
+    }
+  }
+
+  private void executeAsLeader(
+      ConsensusGroupId regionId,
+      Batch batch,
+      Function<InsertRowNode, RegionExecutionResult> rowExecutor,
+      Function<InsertRowsNode, RegionExecutionResult> batchExecutor) {
+    try {
+      batch.sealed.get(CONFIG.getInsertRowCoalescingWindowInUs(), TimeUnit.MICROSECONDS);
+    } catch (TimeoutException e) {
+      // the window is over
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      // never completed exceptionally
+    }
+    List<InsertRowNode> rows;
+    synchronized (batch) {
+      seal(regionId, batch);
+      rows = batch.rows;
+    }
+
+    try {
+      batch.results.complete(execute(rows, rowExecutor, batchExecutor));
+    } catch (Exception e) {
+      batch.results.completeExceptionally(e);
+    }
+  }
+
+  private List<RegionExecutionResult> execute(
+      List<InsertRowNode> rows,
+      Function<InsertRowNode, RegionExecutionResult> rowExecutor,
+      Function<InsertRowsNode, RegionExecutionResult> batchExecutor) {
+    List<RegionExecutionResult> results = new ArrayList<>(rows.size());
+    if (rows.size() == 1) {
+      results.add(rowExecutor.apply(rows.get(0)));
+      return results;
+    }
+
+    List<Integer> indexes = new ArrayList<>(rows.size());
+    for (int i = 0; i < rows.size(); i++) {
+      indexes.add(i);
+    }
+    InsertRowsNode insertRowsNode =
+        new InsertRowsNode(rows.get(0).getPlanNodeId(), indexes, new ArrayList<>(rows));
+    RegionExecutionResult batchResult = batchExecutor.apply(insertRowsNode);
+    Map<Integer, TSStatus> failedRows = insertRowsNode.getResults();
+    for (int i = 0; i < rows.size(); i++) {
+      if (batchResult.isAccepted()) {
+        results.add(batchResult);
+      } else if (failedRows.isEmpty()) {
+        // the failed rows are unknown, e.g. the batch is rejected as a whole
+        results.add(batchResult);
+      } else if (failedRows.containsKey(i)) {
+        RegionExecutionResult result = new RegionExecutionResult();
+        result.setAccepted(false);
+        result.setMessage(failedRows.get(i).getMessage());
+        result.setStatus(failedRows.get(i));
+        results.add(result);
+      } else {
+        RegionExecutionResult result = new RegionExecutionResult();
+        result.setAccepted(true);
+        results.add(result);
+      }
+    }
+    return results;
+  }
+
+  private void seal(ConsensusGroupId regionId, Batch batch) {
+    openBatches.remove(regionId, batch);
+    batch.sealed.complete(null);
+  }
+
+  private static RegionExecutionResult failedResult(Throwable e) {
+    RegionExecutionResult result = new RegionExecutionResult();
+    result.setAccepted(false);
+    result.setMessage(e.getMessage());
+    result.setStatus(RpcUtils.getStatus(TSStatusCode.INTERNAL_SERVER_ERROR, e.getMessage()));
+    return result;
+  }
+
+  private static class Batch {
+
+    private final List<InsertRowNode> rows = new ArrayList<>();
+
+    // completed when no more row can join the batch
+    private final CompletableFuture<Void> sealed = new CompletableFuture<>();
+
+    private final CompletableFuture<List<RegionExecutionResult>> results =
+        new CompletableFuture<>();
+  }
+
+  private static class InsertRowCoalescerHolder {
+
+    private static final InsertRowCoalescer INSTANCE = new InsertRowCoalescer();
+
+    private InsertRowCoalescerHolder() {
+      // empty constructor
+    }
+  }
+}
@@ -29,6 +29,7 @@ public class RegionExecutionResult {
 
   private TSStatus status;
   private boolean needRetry;
+  private boolean staleReplica;
 
   public boolean isAccepted() {
     return accepted;
@@ -61,4 +62,12 @@ public class RegionExecutionResult {
   public void setNeedRetry(boolean needRetry) {
     this.needRetry = needRetry;
   }
+
+  public boolean isStaleReplica() {
+    return staleReplica;
+  }
+
+  public void setStaleReplica(boolean staleReplica) {
+    this.staleReplica = staleReplica;
+  }
 }
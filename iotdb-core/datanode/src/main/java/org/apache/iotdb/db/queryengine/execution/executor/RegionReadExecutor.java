@@ -45,6 +45,9 @@ public class RegionReadExecutor {
 
   public static final String ERROR_MSG_FORMAT = "Execute FragmentInstance failed: %s";
 
+  public static final String STALE_REPLICA_MSG_FORMAT =
+      "Replica of %s is %s ms stale, more than the %s ms allowed";
+
   private static final Logger LOGGER = LoggerFactory.getLogger(RegionReadExecutor.class);
 
   private final IConsensus dataRegionConsensus;
@@ -77,6 +80,23 @@ public class RegionReadExecutor {
     try (SetThreadName threadName = new SetThreadName(fragmentInstance.getId().getFullId())) {
       DataSet readResponse;
       if (groupId instanceof DataRegionId) {
+        long maxStalenessInMs = fragmentInstance.getMaxStalenessInMs();
+        if (maxStalenessInMs >= 0) {
+          long stalenessInMs = dataRegionConsensus.getReadStalenessInMs(groupId);
+          if (stalenessInMs > maxStalenessInMs) {
+            // let the query retry on other replicas
+            resp.setAccepted(false);
+            resp.setNeedRetry(true);
+            resp.setStaleReplica(true);
+            resp.setMessage(
+                String.format(
+                    STALE_REPLICA_MSG_FORMAT,
+                    groupId,
+                    stalenessInMs == Long.MAX_VALUE ? "unknown" : stalenessInMs,
+                    maxStalenessInMs));
+            return resp;
+          }
+        }
         readResponse = dataRegionConsensus.read(groupId, fragmentInstance);
       } else {
         readResponse = schemaRegionConsensus.read(groupId, fragmentInstance);
@@ -199,6 +199,14 @@ public class RegionWriteExecutor {
     @Override
     public RegionExecutionResult visitInsertRow(
         InsertRowNode node, WritePlanNodeExecutionContext context) {
+      if (InsertRowCoalescer.getInstance().isEnabled()) {
+        return InsertRowCoalescer.getInstance()
+            .insert(
+                context.getRegionId(),
+                node,
+                row -> executeDataInsert(row, context),
+                rows -> executeDataInsert(rows, context));
+      }
       return executeDataInsert(node, context);
     }
 
@@ -19,12 +19,14 @@
 
 package org.apache.iotdb.db.queryengine.execution.operator.process.join.merge;
 
+import org.apache.iotdb.commons.conf.IoTDBConstant;
 import org.apache.iotdb.db.queryengine.plan.statement.component.NullOrdering;
 import org.apache.iotdb.db.queryengine.plan.statement.component.Ordering;
 import org.apache.iotdb.db.queryengine.plan.statement.component.SortItem;
 import org.apache.iotdb.db.utils.datastructure.SortKey;
 
 import org.apache.commons.collections4.comparators.ComparatorChain;
+import org.apache.tsfile.common.conf.TSFileConfig;
 import org.apache.tsfile.enums.TSDataType;
 
 import java.util.ArrayList;
@@ -109,6 +111,48 @@ public class MergeSortComparator {
     return comparator;
   }
 
+  /**
+   * Compare the full paths in the given text column node by node, where a path precedes its
+   * descendants and the sibling nodes are ordered by name. This is the order MTree is traversed in
+   * when the results are required in path order.
+   */
+  public static Comparator<SortKey> getPathComparator(int index) {
+    return (o1, o2) ->
+        comparePath(
+            o1.tsBlock
+                .getColumn(index)
+                .getBinary(o1.rowIndex)
+                .getStringValue(TSFileConfig.STRING_CHARSET),
+            o2.tsBlock
+                .getColumn(index)
+                .getBinary(o2.rowIndex)
+                .getStringValue(TSFileConfig.STRING_CHARSET));
+  }
+
+  private static int comparePath(String path1, String path2) {
+    // the common prefix is the same for both paths, so is whether a char is quoted
+    boolean quoted = false;
+    int length = Math.min(path1.length(), path2.length());
+    for (int i = 0; i < length; i++) {
+      char c1 = path1.charAt(i);
+      char c2 = path2.charAt(i);
+      if (c1 != c2) {
+        // the node ending first is the prefix of the other one
+        if (!quoted && c1 == IoTDBConstant.PATH_SEPARATOR) {
+          return -1;
+        }
+        if (!quoted && c2 == IoTDBConstant.PATH_SEPARATOR) {
+          return 1;
+        }
+        return c1 - c2;
+      }
+      if (c1 == '`') {
+        quoted = !quoted;
+      }
+    }
+    return path1.length() - path2.length();
+  }
+
   private static Comparator<SortKey> genSingleComparator(
       boolean asc, int index, TSDataType dataType, boolean nullFirst) {
 
@@ -98,6 +98,11 @@ public class SchemaCountOperator<T extends ISchemaInfo> implements SourceOperato
       return NOT_BLOCKED;
     } else {
       if (schemaReader == null) {
+        long subtreeCount = schemaSource.countBySubtreeCounter(schemaRegion);
+        if (subtreeCount >= 0) {
+          next = constructTsBlock(subtreeCount);
+          return NOT_BLOCKED;
+        }
         schemaReader = createSchemaReader();
       }
       while (true) {
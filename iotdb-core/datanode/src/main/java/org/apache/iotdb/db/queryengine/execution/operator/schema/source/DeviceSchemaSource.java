@@ -54,6 +54,8 @@ public class DeviceSchemaSource implements ISchemaSource<IDeviceSchemaInfo> {
 
   private final SchemaFilter schemaFilter;
 
+  private final PartialPath startAfter;
+
   DeviceSchemaSource(
       PartialPath pathPattern,
       boolean isPrefixPath,
@@ -61,7 +63,8 @@ public class DeviceSchemaSource implements ISchemaSource<IDeviceSchemaInfo> {
       long offset,
       boolean hasSgCol,
       SchemaFilter schemaFilter,
-      PathPatternTree scope) {
+      PathPatternTree scope,
+      PartialPath startAfter) {
     this.pathPattern = pathPattern;
     this.isPrefixMatch = isPrefixPath;
 
@@ -71,6 +74,7 @@ public class DeviceSchemaSource implements ISchemaSource<IDeviceSchemaInfo> {
     this.hasSgCol = hasSgCol;
     this.schemaFilter = schemaFilter;
     this.scope = scope;
+    this.startAfter = startAfter;
   }
 
   @Override
@@ -78,7 +82,7 @@ public class DeviceSchemaSource implements ISchemaSource<IDeviceSchemaInfo> {
     try {
       return schemaRegion.getDeviceReader(
           SchemaRegionReadPlanFactory.getShowDevicesPlan(
-              pathPattern, limit, offset, isPrefixMatch, schemaFilter, scope));
+              pathPattern, limit, offset, isPrefixMatch, schemaFilter, scope, startAfter));
     } catch (MetadataException e) {
       throw new SchemaExecutionException(e.getMessage(), e);
     }
@@ -147,4 +151,12 @@ public class DeviceSchemaSource implements ISchemaSource<IDeviceSchemaInfo> {
   public long getSchemaStatistic(ISchemaRegion schemaRegion) {
     return schemaRegion.getSchemaRegionStatistics().getDevicesNumber();
   }
+
+  @Override
+  public long countBySubtreeCounter(ISchemaRegion schemaRegion) {
+    if (isPrefixMatch || schemaFilter != null || !scope.equals(SchemaConstant.ALL_MATCH_SCOPE)) {
+      return -1;
+    }
+    return schemaRegion.countDevicesBySubtreeCounter(pathPattern);
+  }
 }
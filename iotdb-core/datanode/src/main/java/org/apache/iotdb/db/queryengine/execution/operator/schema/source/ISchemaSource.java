@@ -52,4 +52,14 @@ public interface ISchemaSource<T extends ISchemaInfo> {
   boolean hasSchemaStatistic(ISchemaRegion schemaRegion);
 
   long getSchemaStatistic(ISchemaRegion schemaRegion);
+
+  /**
+   * Count the matched schema with the subtree counters maintained in MTree, used when there is no
+   * schema statistic for the whole database.
+   *
+   * @return the count, or -1 if the schema has to be read one by one to count
+   */
+  default long countBySubtreeCounter(ISchemaRegion schemaRegion) {
+    return -1;
+  }
 }
@@ -44,7 +44,7 @@ public class SchemaSourceFactory {
       Map<Integer, Template> templateMap,
       PathPatternTree scope) {
     return new TimeSeriesSchemaSource(
-        pathPattern, isPrefixMatch, 0, 0, schemaFilter, templateMap, false, scope);
+        pathPattern, isPrefixMatch, 0, 0, schemaFilter, templateMap, false, scope, null);
   }
 
   // show time series
@@ -56,14 +56,36 @@ public class SchemaSourceFactory {
       SchemaFilter schemaFilter,
       Map<Integer, Template> templateMap,
       PathPatternTree scope) {
+    return getTimeSeriesSchemaScanSource(
+        pathPattern, isPrefixMatch, limit, offset, schemaFilter, templateMap, scope, null);
+  }
+
+  // show time series after the given path
+  public static ISchemaSource<ITimeSeriesSchemaInfo> getTimeSeriesSchemaScanSource(
+      PartialPath pathPattern,
+      boolean isPrefixMatch,
+      long limit,
+      long offset,
+      SchemaFilter schemaFilter,
+      Map<Integer, Template> templateMap,
+      PathPatternTree scope,
+      PartialPath startAfter) {
     return new TimeSeriesSchemaSource(
-        pathPattern, isPrefixMatch, limit, offset, schemaFilter, templateMap, true, scope);
+        pathPattern,
+        isPrefixMatch,
+        limit,
+        offset,
+        schemaFilter,
+        templateMap,
+        true,
+        scope,
+        startAfter);
   }
 
   // count device
   public static ISchemaSource<IDeviceSchemaInfo> getDeviceSchemaSource(
       PartialPath pathPattern, boolean isPrefixPath, PathPatternTree scope) {
-    return new DeviceSchemaSource(pathPattern, isPrefixPath, 0, 0, false, null, scope);
+    return new DeviceSchemaSource(pathPattern, isPrefixPath, 0, 0, false, null, scope, null);
   }
 
   // show device
@@ -75,8 +97,22 @@ public class SchemaSourceFactory {
       boolean hasSgCol,
       SchemaFilter schemaFilter,
       PathPatternTree scope) {
+    return getDeviceSchemaSource(
+        pathPattern, isPrefixPath, limit, offset, hasSgCol, schemaFilter, scope, null);
+  }
+
+  // show device after the given path
+  public static ISchemaSource<IDeviceSchemaInfo> getDeviceSchemaSource(
+      PartialPath pathPattern,
+      boolean isPrefixPath,
+      long limit,
+      long offset,
+      boolean hasSgCol,
+      SchemaFilter schemaFilter,
+      PathPatternTree scope,
+      PartialPath startAfter) {
     return new DeviceSchemaSource(
-        pathPattern, isPrefixPath, limit, offset, hasSgCol, schemaFilter, scope);
+        pathPattern, isPrefixPath, limit, offset, hasSgCol, schemaFilter, scope, startAfter);
   }
 
   // show nodes
@@ -54,6 +54,7 @@ public class TimeSeriesSchemaSource implements ISchemaSource<ITimeSeriesSchemaIn
   private final SchemaFilter schemaFilter;
   private final Map<Integer, Template> templateMap;
   private final boolean needViewDetail;
+  private final PartialPath startAfter;
 
   TimeSeriesSchemaSource(
       PartialPath pathPattern,
@@ -63,7 +64,8 @@ public class TimeSeriesSchemaSource implements ISchemaSource<ITimeSeriesSchemaIn
       SchemaFilter schemaFilter,
       Map<Integer, Template> templateMap,
       boolean needViewDetail,
-      PathPatternTree scope) {
+      PathPatternTree scope,
+      PartialPath startAfter) {
     this.pathPattern = pathPattern;
     this.isPrefixMatch = isPrefixMatch;
     this.limit = limit;
@@ -72,6 +74,7 @@ public class TimeSeriesSchemaSource implements ISchemaSource<ITimeSeriesSchemaIn
     this.templateMap = templateMap;
     this.needViewDetail = needViewDetail;
     this.scope = scope;
+    this.startAfter = startAfter;
   }
 
   @Override
@@ -86,7 +89,8 @@ public class TimeSeriesSchemaSource implements ISchemaSource<ITimeSeriesSchemaIn
               isPrefixMatch,
               schemaFilter,
               needViewDetail,
-              scope));
+              scope,
+              startAfter));
     } catch (MetadataException e) {
       throw new SchemaExecutionException(e.getMessage(), e);
     }
@@ -136,6 +140,14 @@ public class TimeSeriesSchemaSource implements ISchemaSource<ITimeSeriesSchemaIn
     return schemaRegion.getSchemaRegionStatistics().getSeriesNumber(true);
   }
 
+  @Override
+  public long countBySubtreeCounter(ISchemaRegion schemaRegion) {
+    if (isPrefixMatch || schemaFilter != null || !scope.equals(SchemaConstant.ALL_MATCH_SCOPE)) {
+      return -1;
+    }
+    return schemaRegion.countTimeSeriesBySubtreeCounter(pathPattern);
+  }
+
   private String mapToString(Map<String, String> map) {
     if (map == null || map.isEmpty()) {
       return null;
@@ -19,19 +19,23 @@
 
 package org.apache.iotdb.db.queryengine.execution.operator.source;
 
+import org.apache.iotdb.commons.path.AlignedPath;
 import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.queryengine.execution.MemoryEstimationHelper;
 import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext;
 import org.apache.iotdb.db.queryengine.execution.fragment.QueryContext;
 import org.apache.iotdb.db.queryengine.metric.SeriesScanCostMetricSet;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.SeriesScanOptions;
 import org.apache.iotdb.db.queryengine.plan.statement.component.Ordering;
+import org.apache.iotdb.db.storageengine.buffer.TsFileSummaryCache;
 import org.apache.iotdb.db.storageengine.dataregion.read.QueryDataSource;
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.chunk.MemAlignedPageReader;
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.chunk.MemPageReader;
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.common.DescPriorityMergeReader;
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.common.PriorityMergeReader;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.summary.TsFileSummary;
 
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.file.metadata.IChunkMetadata;
@@ -82,6 +86,8 @@ public class SeriesScanUtil implements Accountable {
   private final TimeOrderUtils orderUtils;
 
   private QueryDataSource dataSource;
+  // built on demand for skipping TsFiles by summaries
+  private TsFileOverlapChecker overlapChecker;
 
   // file index
   private int curSeqFileIndex;
@@ -172,6 +178,7 @@ public class SeriesScanUtil implements Accountable {
   public void initQueryDataSource(QueryDataSource dataSource) {
     dataSource.fillOrderIndexes(deviceID, orderUtils.getAscending());
     this.dataSource = dataSource;
+    this.overlapChecker = null;
 
     // updated filter concerning TTL
     scanOptions.setTTL(dataSource.getDataTTL());
@@ -1134,8 +1141,11 @@ public class SeriesScanUtil implements Accountable {
   }
 
   private void unpackSeqTsFileResource() throws IOException {
-    ITimeSeriesMetadata timeseriesMetadata =
-        loadTimeSeriesMetadata(orderUtils.getNextSeqFileResource(true), true);
+    TsFileResource resource = orderUtils.getNextSeqFileResource(true);
+    if (canSkipBySummary(resource, true)) {
+      return;
+    }
+    ITimeSeriesMetadata timeseriesMetadata = loadTimeSeriesMetadata(resource, true);
     // skip if data type is mismatched which may be caused by delete
     if (timeseriesMetadata != null && timeseriesMetadata.typeMatch(getTsDataTypeList())) {
       timeseriesMetadata.setSeq(true);
@@ -1144,8 +1154,11 @@ public class SeriesScanUtil implements Accountable {
   }
 
   private void unpackUnseqTsFileResource() throws IOException {
-    ITimeSeriesMetadata timeseriesMetadata =
-        loadTimeSeriesMetadata(orderUtils.getNextUnseqFileResource(true), false);
+    TsFileResource resource = orderUtils.getNextUnseqFileResource(true);
+    if (canSkipBySummary(resource, false)) {
+      return;
+    }
+    ITimeSeriesMetadata timeseriesMetadata = loadTimeSeriesMetadata(resource, false);
     // skip if data type is mismatched which may be caused by delete
     if (timeseriesMetadata != null && timeseriesMetadata.typeMatch(getTsDataTypeList())) {
       timeseriesMetadata.setSeq(false);
@@ -1153,6 +1166,40 @@ public class SeriesScanUtil implements Accountable {
     }
   }
 
+  /**
+   * Whether the summary of a sealed TsFile shows that no point of this series in it satisfies the
+   * push-down filter. The points of a TsFile may override the points of other TsFiles, so only a
+   * TsFile that does not overlap with others can be skipped.
+   */
+  private boolean canSkipBySummary(TsFileResource resource, boolean isSeq) {
+    Filter pushDownFilter = scanOptions.getPushDownFilter();
+    if (pushDownFilter == null
+        || !resource.isClosed()
+        || !IoTDBDescriptor.getInstance().getConfig().isEnableTsFileSummary()) {
+      return false;
+    }
+    // the in-memory check goes before loading the summary
+    if (overlapChecker == null) {
+      overlapChecker =
+          new TsFileOverlapChecker(
+              deviceID, dataSource.getSeqResources(), dataSource.getUnseqResources());
+    }
+    if (overlapChecker.overlapsWithOthers(resource, isSeq)) {
+      return false;
+    }
+    TsFileSummary summary =
+        TsFileSummaryCache.getInstance().get(resource.getTsFilePath(), deviceID);
+    if (summary.isEmpty()) {
+      return false;
+    }
+    List<String> measurements =
+        isAligned
+            ? ((AlignedPath) seriesPath).getMeasurementList()
+            : Collections.singletonList(seriesPath.getMeasurement());
+    // the data types are checked by the summary since the series may have been recreated
+    return summary.canSkip(deviceID, measurements, getTsDataTypeList(), isAligned, pushDownFilter);
+  }
+
   protected ITimeSeriesMetadata loadTimeSeriesMetadata(TsFileResource resource, boolean isSeq)
       throws IOException {
     return FileLoaderUtils.loadTimeSeriesMetadata(
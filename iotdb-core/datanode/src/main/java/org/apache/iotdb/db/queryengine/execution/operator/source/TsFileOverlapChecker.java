@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source;
+
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import org.apache.tsfile.file.metadata.IDeviceID;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tells whether the time range of a device in a TsFile overlaps with the other TsFiles of a query.
+ * It is built once per series scan in O(N log N), after which each check costs O(log N).
+ */
+class TsFileOverlapChecker {
+
+  private static final Comparator<long[]> BY_START_TIME = Comparator.comparingLong(r -> r[0]);
+
+  private final IDeviceID deviceID;
+
+  // the unions of the time ranges of the device in sequence and unsequence files, both sorted and
+  // disjoint
+  private final long[][] seqRanges;
+  private final long[][] unseqRanges;
+
+  // unsequence files overlapping with other unsequence files
+  private final Set<TsFileResource> overlappedUnseqResources = new HashSet<>();
+
+  TsFileOverlapChecker(
+      IDeviceID deviceID, List<TsFileResource> seqResources, List<TsFileResource> unseqResources) {
+    this.deviceID = deviceID;
+    this.seqRanges = union(getRanges(seqResources));
+
+    List<long[]> ranges = getRanges(unseqResources);
+    // sorted by start time, a range overlaps with a later one iff it does with the next one
+    long maxEndTime = Long.MIN_VALUE;
+    for (int i = 0; i < ranges.size(); i++) {
+      long[] range = ranges.get(i);
+      if ((i > 0 && range[0] <= maxEndTime)
+          || (i + 1 < ranges.size() && range[1] >= ranges.get(i + 1)[0])) {
+        overlappedUnseqResources.add(unseqResources.get((int) range[2]));
+      }
+      maxEndTime = Math.max(maxEndTime, range[1]);
+    }
+    this.unseqRanges = union(ranges);
+  }
+
+  /** The resource shall be one of the sealed files given on construction. */
+  boolean overlapsWithOthers(TsFileResource resource, boolean isSeq) {
+    long startTime = resource.getStartTime(deviceID);
+    long endTime = resource.getEndTime(deviceID);
+    if (isSeq) {
+      // sequence files never overlap with each other
+      return overlaps(unseqRanges, startTime, endTime);
+    }
+    return overlappedUnseqResources.contains(resource)
+        || overlaps(seqRanges, startTime, endTime);
+  }
+
+  /**
+   * @return {start time, end time, index of the resource} of the resources which may contain the
+   *     device, sorted by start time
+   */
+  private List<long[]> getRanges(List<TsFileResource> resources) {
+    List<long[]> ranges = new ArrayList<>();
+    for (int i = 0; i < resources.size(); i++) {
+      TsFileResource resource = resources.get(i);
+      if (resource.definitelyNotContains(deviceID)) {
+        continue;
+      }
+      long startTime = resource.getStartTime(deviceID);
+      // the end time of an unsealed file is not known yet
+      long endTime = resource.isClosed() ? resource.getEndTime(deviceID) : Long.MAX_VALUE;
+      if (startTime <= endTime) {
+        ranges.add(new long[] {startTime, endTime, i});
+      }
+    }
+    ranges.sort(BY_START_TIME);
+    return ranges;
+  }
+
+  private static long[][] union(List<long[]> sortedRanges) {
+    List<long[]> union = new ArrayList<>();
+    for (long[] range : sortedRanges) {
+      long[] last = union.isEmpty() ? null : union.get(union.size() - 1);
+      if (last != null && range[0] <= last[1]) {
+        last[1] = Math.max(last[1], range[1]);
+      } else {
+        union.add(new long[] {range[0], range[1]});
+      }
+    }
+    return union.toArray(new long[0][]);
+  }
+
+  private static boolean overlaps(long[][] ranges, long startTime, long endTime) {
+    // the last range starting no later than endTime is the only candidate
+    int index =
+        Collections.binarySearch(Arrays.asList(ranges), new long[] {endTime}, BY_START_TIME);
+    if (index < 0) {
+      index = -index - 2;
+    }
+    return index >= 0 && ranges[index][1] >= startTime;
+  }
+}
@@ -172,6 +172,23 @@ public class Coordinator {
       IPartitionFetcher partitionFetcher,
       ISchemaFetcher schemaFetcher,
       long timeOut) {
+    return executeForTreeModel(
+        statement, queryId, session, sql, partitionFetcher, schemaFetcher, timeOut, -1);
+  }
+
+  /**
+   * @param maxStalenessInMs the query may read data regions from any replica at most this stale,
+   *     instead of the leader. Negative means reading from the leader.
+   */
+  public ExecutionResult executeForTreeModel(
+      Statement statement,
+      long queryId,
+      SessionInfo session,
+      String sql,
+      IPartitionFetcher partitionFetcher,
+      ISchemaFetcher schemaFetcher,
+      long timeOut,
+      long maxStalenessInMs) {
     return execution(
         queryId,
         session,
@@ -183,6 +200,7 @@ public class Coordinator {
                 partitionFetcher,
                 schemaFetcher,
                 timeOut > 0 ? timeOut : CONFIG.getQueryTimeoutThreshold(),
+                maxStalenessInMs,
                 startTime)));
   }
 
@@ -192,9 +210,11 @@ public class Coordinator {
       IPartitionFetcher partitionFetcher,
       ISchemaFetcher schemaFetcher,
       long timeOut,
+      long maxStalenessInMs,
       long startTime) {
     queryContext.setTimeOut(timeOut);
     queryContext.setStartTime(startTime);
+    queryContext.setMaxStalenessInMs(maxStalenessInMs);
     if (statement instanceof IConfigStatement) {
       queryContext.setQueryType(((IConfigStatement) statement).getQueryType());
       return new ConfigExecution(
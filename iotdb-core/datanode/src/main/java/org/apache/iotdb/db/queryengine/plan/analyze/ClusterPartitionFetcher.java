@@ -291,6 +291,20 @@ public class ClusterPartitionFetcher implements IPartitionFetcher {
     partitionCache.invalidAllCache();
   }
 
+  public void invalidStorageGroupCache(String storageGroupName) {
+    partitionCache.invalidStorageGroupCache(storageGroupName);
+  }
+
+  /**
+   * Get the database of each device, and auto create the databases that don't exist.
+   *
+   * @return Map<device, database>
+   */
+  public Map<String, String> getOrCreateDatabaseOfDevices(
+      List<String> devicePaths, String userName) {
+    return partitionCache.getDeviceToStorageGroup(devicePaths, true, true, userName);
+  }
+
   /** split data partition query param by database */
   private Map<String, List<DataPartitionQueryParam>> splitDataPartitionQueryParam(
       List<DataPartitionQueryParam> dataPartitionQueryParams,
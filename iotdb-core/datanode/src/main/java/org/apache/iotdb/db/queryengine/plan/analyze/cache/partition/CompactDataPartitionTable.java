@@ -0,0 +1,232 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.analyze.cache.partition;
+
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
+
+import org.apache.tsfile.utils.RamUsageEstimator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The cached data partitions of one database. Each series slot is found through an array indexed
+ * by the slot id, and keeps its time slots as sorted ranges of consecutive time slots assigned to
+ * the same DataRegions.
+ */
+public class CompactDataPartitionTable {
+
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(CompactDataPartitionTable.class);
+  private static final long REGION_ID_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(TConsensusGroupId.class);
+  private static final long REGION_ID_LIST_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(ArrayList.class)
+          + RamUsageEstimator.NUM_BYTES_ARRAY_HEADER;
+  private static final long TIME_SLOT_RANGES_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(TimeSlotRanges.class);
+
+  private final long timePartitionInterval;
+
+  private final TimeSlotRanges[] seriesSlotToTimeSlotRanges;
+
+  // The same RegionId lists are shared by all the time slots assigned to them
+  private final Map<TConsensusGroupId, TConsensusGroupId> regionIds = new HashMap<>();
+  private final Map<List<TConsensusGroupId>, List<TConsensusGroupId>> regionIdLists =
+      new HashMap<>();
+
+  private long rangesRamBytesUsed = 0;
+
+  public CompactDataPartitionTable(int seriesPartitionSlotNum, long timePartitionInterval) {
+    this.seriesSlotToTimeSlotRanges = new TimeSlotRanges[seriesPartitionSlotNum];
+    this.timePartitionInterval = timePartitionInterval;
+  }
+
+  /**
+   * @param seriesSlotId the id of the series slot
+   * @return whether any time slot of the series slot is cached
+   */
+  public boolean containsSeriesSlot(int seriesSlotId) {
+    return seriesSlotToTimeSlotRanges[seriesSlotId] != null;
+  }
+
+  /**
+   * @param seriesSlotId the id of the series slot
+   * @param timeSlotStartTime the start time of the time slot
+   * @return the RegionIds of the time slot, or null if it is not cached
+   */
+  public List<TConsensusGroupId> get(int seriesSlotId, long timeSlotStartTime) {
+    TimeSlotRanges ranges = seriesSlotToTimeSlotRanges[seriesSlotId];
+    return ranges == null ? null : ranges.get(timeSlotStartTime);
+  }
+
+  public void put(int seriesSlotId, long timeSlotStartTime, List<TConsensusGroupId> regionIdList) {
+    TimeSlotRanges ranges = seriesSlotToTimeSlotRanges[seriesSlotId];
+    if (ranges == null) {
+      ranges = new TimeSlotRanges();
+      seriesSlotToTimeSlotRanges[seriesSlotId] = ranges;
+    }
+    rangesRamBytesUsed -= ranges.ramBytesUsed();
+    ranges.put(timeSlotStartTime, intern(regionIdList));
+    rangesRamBytesUsed += ranges.ramBytesUsed();
+  }
+
+  private List<TConsensusGroupId> intern(List<TConsensusGroupId> regionIdList) {
+    List<TConsensusGroupId> internedList = regionIdLists.get(regionIdList);
+    if (internedList == null) {
+      List<TConsensusGroupId> list = new ArrayList<>(regionIdList.size());
+      for (TConsensusGroupId regionId : regionIdList) {
+        list.add(regionIds.computeIfAbsent(regionId, k -> k));
+      }
+      internedList = Collections.unmodifiableList(list);
+      regionIdLists.put(internedList, internedList);
+    }
+    return internedList;
+  }
+
+  public long ramBytesUsed() {
+    return INSTANCE_SIZE
+        + RamUsageEstimator.shallowSizeOf(seriesSlotToTimeSlotRanges)
+        + rangesRamBytesUsed
+        + regionIds.size() * (REGION_ID_SIZE + RamUsageEstimator.HASHTABLE_RAM_BYTES_PER_ENTRY)
+        + regionIdLists.size()
+            * (REGION_ID_LIST_SIZE + RamUsageEstimator.HASHTABLE_RAM_BYTES_PER_ENTRY);
+  }
+
+  /** Sorted, non-overlapping ranges of time slots, each assigned to the same RegionIds. */
+  private class TimeSlotRanges {
+
+    private static final int INITIAL_CAPACITY = 2;
+
+    // The start time of the first and the last time slot in each range
+    private long[] firstStartTimes = new long[INITIAL_CAPACITY];
+    private long[] lastStartTimes = new long[INITIAL_CAPACITY];
+    private List<TConsensusGroupId>[] rangeRegionIds = newRegionIdsArray(INITIAL_CAPACITY);
+    private int size = 0;
+
+    private List<TConsensusGroupId> get(long startTime) {
+      int index = floorIndex(startTime);
+      return index >= 0 && startTime <= lastStartTimes[index] ? rangeRegionIds[index] : null;
+    }
+
+    private void put(long startTime, List<TConsensusGroupId> regionIdList) {
+      int index = floorIndex(startTime);
+      if (index >= 0 && startTime <= lastStartTimes[index]) {
+        if (rangeRegionIds[index] == regionIdList) {
+          return;
+        }
+        // Split the range that covers the time slot
+        long firstStartTime = firstStartTimes[index];
+        long lastStartTime = lastStartTimes[index];
+        List<TConsensusGroupId> oldRegionIdList = rangeRegionIds[index];
+        remove(index);
+        if (firstStartTime < startTime) {
+          insert(index++, firstStartTime, startTime - timePartitionInterval, oldRegionIdList);
+        }
+        if (startTime < lastStartTime) {
+          insert(index, startTime + timePartitionInterval, lastStartTime, oldRegionIdList);
+        }
+      } else {
+        index++;
+      }
+
+      // Now index is where the time slot should be inserted, try to extend the adjacent ranges
+      boolean extendPrevious =
+          index > 0
+              && lastStartTimes[index - 1] + timePartitionInterval == startTime
+              && rangeRegionIds[index - 1] == regionIdList;
+      boolean extendNext =
+          index < size
+              && startTime + timePartitionInterval == firstStartTimes[index]
+              && rangeRegionIds[index] == regionIdList;
+      if (extendPrevious && extendNext) {
+        lastStartTimes[index - 1] = lastStartTimes[index];
+        remove(index);
+      } else if (extendPrevious) {
+        lastStartTimes[index - 1] = startTime;
+      } else if (extendNext) {
+        firstStartTimes[index] = startTime;
+      } else {
+        insert(index, startTime, startTime, regionIdList);
+      }
+    }
+
+    /** Return the index of the last range starting no later than startTime, or -1 if none. */
+    private int floorIndex(long startTime) {
+      int low = 0;
+      int high = size - 1;
+      while (low <= high) {
+        int mid = (low + high) >>> 1;
+        if (firstStartTimes[mid] <= startTime) {
+          low = mid + 1;
+        } else {
+          high = mid - 1;
+        }
+      }
+      return high;
+    }
+
+    private void insert(
+        int index, long firstStartTime, long lastStartTime, List<TConsensusGroupId> regionIdList) {
+      if (size == firstStartTimes.length) {
+        int capacity = size * 2;
+        long[] newFirstStartTimes = new long[capacity];
+        long[] newLastStartTimes = new long[capacity];
+        List<TConsensusGroupId>[] newRangeRegionIds = newRegionIdsArray(capacity);
+        System.arraycopy(firstStartTimes, 0, newFirstStartTimes, 0, size);
+        System.arraycopy(lastStartTimes, 0, newLastStartTimes, 0, size);
+        System.arraycopy(rangeRegionIds, 0, newRangeRegionIds, 0, size);
+        firstStartTimes = newFirstStartTimes;
+        lastStartTimes = newLastStartTimes;
+        rangeRegionIds = newRangeRegionIds;
+      }
+      System.arraycopy(firstStartTimes, index, firstStartTimes, index + 1, size - index);
+      System.arraycopy(lastStartTimes, index, lastStartTimes, index + 1, size - index);
+      System.arraycopy(rangeRegionIds, index, rangeRegionIds, index + 1, size - index);
+      firstStartTimes[index] = firstStartTime;
+      lastStartTimes[index] = lastStartTime;
+      rangeRegionIds[index] = regionIdList;
+      size++;
+    }
+
+    private void remove(int index) {
+      System.arraycopy(firstStartTimes, index + 1, firstStartTimes, index, size - index - 1);
+      System.arraycopy(lastStartTimes, index + 1, lastStartTimes, index, size - index - 1);
+      System.arraycopy(rangeRegionIds, index + 1, rangeRegionIds, index, size - index - 1);
+      size--;
+      rangeRegionIds[size] = null;
+    }
+
+    private long ramBytesUsed() {
+      return TIME_SLOT_RANGES_SIZE
+          + RamUsageEstimator.sizeOf(firstStartTimes)
+          + RamUsageEstimator.sizeOf(lastStartTimes)
+          + RamUsageEstimator.shallowSizeOf(rangeRegionIds);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<TConsensusGroupId>[] newRegionIdsArray(int capacity) {
+    return new List[capacity];
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.analyze.cache.partition;
+
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
+
+import org.apache.tsfile.utils.RamUsageEstimator;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The cached schema partitions of one database, which map each series slot to its SchemaRegion
+ * through an array indexed by the slot id.
+ */
+public class CompactSchemaPartitionTable {
+
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(CompactSchemaPartitionTable.class);
+  private static final long REGION_ID_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(TConsensusGroupId.class);
+
+  private final TConsensusGroupId[] seriesSlotToRegionId;
+
+  // The same RegionId is shared by all the series slots assigned to it
+  private final Map<TConsensusGroupId, TConsensusGroupId> regionIds = new HashMap<>();
+
+  public CompactSchemaPartitionTable(int seriesPartitionSlotNum) {
+    this.seriesSlotToRegionId = new TConsensusGroupId[seriesPartitionSlotNum];
+  }
+
+  /**
+   * @param seriesSlotId the id of the series slot
+   * @return the RegionId of the series slot, or null if it is not cached
+   */
+  public TConsensusGroupId get(int seriesSlotId) {
+    return seriesSlotToRegionId[seriesSlotId];
+  }
+
+  public void put(int seriesSlotId, TConsensusGroupId regionId) {
+    seriesSlotToRegionId[seriesSlotId] = regionIds.computeIfAbsent(regionId, k -> k);
+  }
+
+  public long ramBytesUsed() {
+    return INSTANCE_SIZE
+        + RamUsageEstimator.shallowSizeOf(seriesSlotToRegionId)
+        + regionIds.size() * (REGION_ID_SIZE + RamUsageEstimator.HASHTABLE_RAM_BYTES_PER_ENTRY);
+  }
+}
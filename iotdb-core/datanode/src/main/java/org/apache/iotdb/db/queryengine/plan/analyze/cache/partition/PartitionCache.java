@@ -27,15 +27,13 @@ import org.apache.iotdb.common.rpc.thrift.TTimePartitionSlot;
 import org.apache.iotdb.commons.auth.entity.PrivilegeType;
 import org.apache.iotdb.commons.client.IClientManager;
 import org.apache.iotdb.commons.client.exception.ClientManagerException;
+import org.apache.iotdb.commons.conf.CommonDescriptor;
 import org.apache.iotdb.commons.consensus.ConfigRegionId;
 import org.apache.iotdb.commons.exception.IoTDBException;
 import org.apache.iotdb.commons.exception.MetadataException;
 import org.apache.iotdb.commons.partition.DataPartition;
 import org.apache.iotdb.commons.partition.DataPartitionQueryParam;
-import org.apache.iotdb.commons.partition.DataPartitionTable;
 import org.apache.iotdb.commons.partition.SchemaPartition;
-import org.apache.iotdb.commons.partition.SchemaPartitionTable;
-import org.apache.iotdb.commons.partition.SeriesPartitionTable;
 import org.apache.iotdb.commons.partition.executor.SeriesPartitionExecutor;
 import org.apache.iotdb.commons.path.PartialPath;
 import org.apache.iotdb.commons.schema.SchemaConstant;
@@ -67,7 +65,6 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -85,17 +82,20 @@ public class PartitionCache {
   private final int seriesPartitionSlotNum = config.getSeriesPartitionSlotNum();
   private final SeriesPartitionExecutor partitionExecutor;
 
-  /** the size of partitionCache */
-  private final int cacheSize = config.getPartitionCacheSize();
+  private final long timePartitionInterval =
+      CommonDescriptor.getInstance().getConfig().getTimePartitionInterval();
+
+  /** the memory of partitionCache, shared equally by the schema and data partition caches */
+  private final long cacheMemory = config.getAllocateMemoryForPartitionCache();
 
   /** the cache of database */
   private final Set<String> storageGroupCache = Collections.synchronizedSet(new HashSet<>());
 
   /** storage -> schemaPartitionTable */
-  private final Cache<String, SchemaPartitionTable> schemaPartitionCache;
+  private final Cache<String, CompactSchemaPartitionTable> schemaPartitionCache;
 
   /** storage -> dataPartitionTable */
-  private final Cache<String, DataPartitionTable> dataPartitionCache;
+  private final Cache<String, CompactDataPartitionTable> dataPartitionCache;
 
   /** the latest time when groupIdToReplicaSetMap updated. */
   private final AtomicLong latestUpdateTime = new AtomicLong(0);
@@ -116,8 +116,20 @@ public class PartitionCache {
   private final CacheMetrics cacheMetrics;
 
   public PartitionCache() {
-    this.schemaPartitionCache = Caffeine.newBuilder().maximumSize(cacheSize).build();
-    this.dataPartitionCache = Caffeine.newBuilder().maximumSize(cacheSize).build();
+    this.schemaPartitionCache =
+        Caffeine.newBuilder()
+            .maximumWeight(cacheMemory / 2)
+            .weigher(
+                (String storageGroupName, CompactSchemaPartitionTable table) ->
+                    (int) Math.min(Integer.MAX_VALUE, table.ramBytesUsed()))
+            .build();
+    this.dataPartitionCache =
+        Caffeine.newBuilder()
+            .maximumWeight(cacheMemory / 2)
+            .weigher(
+                (String storageGroupName, CompactDataPartitionTable table) ->
+                    (int) Math.min(Integer.MAX_VALUE, table.ramBytesUsed()))
+            .build();
     this.partitionExecutor =
         SeriesPartitionExecutor.getSeriesPartitionExecutor(
             this.seriesSlotExecutorName, this.seriesPartitionSlotNum);
@@ -524,7 +536,7 @@ public class PartitionCache {
         String storageGroupName = entry.getKey();
         Map<TSeriesPartitionSlot, TRegionReplicaSet> regionReplicaSetMap =
             schemaPartitionMap.computeIfAbsent(storageGroupName, k -> new HashMap<>());
-        SchemaPartitionTable schemaPartitionTable =
+        CompactSchemaPartitionTable schemaPartitionTable =
             schemaPartitionCache.getIfPresent(storageGroupName);
         if (null == schemaPartitionTable) {
           // if database not find, then return cache miss.
@@ -535,13 +547,13 @@ public class PartitionCache {
           cacheMetrics.record(false, CacheMetrics.SCHEMA_PARTITION_CACHE_NAME);
           return null;
         }
-        Map<TSeriesPartitionSlot, TConsensusGroupId> map =
-            schemaPartitionTable.getSchemaPartitionMap();
         // check cache for each device
         for (String device : entry.getValue()) {
           TSeriesPartitionSlot seriesPartitionSlot =
               partitionExecutor.getSeriesPartitionSlot(device);
-          if (!map.containsKey(seriesPartitionSlot)) {
+          TConsensusGroupId consensusGroupId =
+              schemaPartitionTable.get(seriesPartitionSlot.getSlotId());
+          if (null == consensusGroupId) {
             // if one device not find, then return cache miss.
             logger.debug(
                 "[{} Cache] miss when search device {}",
@@ -550,7 +562,6 @@ public class PartitionCache {
             cacheMetrics.record(false, CacheMetrics.SCHEMA_PARTITION_CACHE_NAME);
             return null;
           }
-          TConsensusGroupId consensusGroupId = map.get(seriesPartitionSlot);
           TRegionReplicaSet regionReplicaSet = getRegionReplicaSet(consensusGroupId);
           regionReplicaSetMap.put(seriesPartitionSlot, regionReplicaSet);
         }
@@ -577,14 +588,18 @@ public class PartitionCache {
       for (Map.Entry<String, Map<TSeriesPartitionSlot, TConsensusGroupId>> entry1 :
           schemaPartitionTable.entrySet()) {
         String storageGroupName = entry1.getKey();
-        SchemaPartitionTable result = schemaPartitionCache.getIfPresent(storageGroupName);
+        CompactSchemaPartitionTable result = schemaPartitionCache.getIfPresent(storageGroupName);
         if (null == result) {
-          result = new SchemaPartitionTable();
-          schemaPartitionCache.put(storageGroupName, result);
+          result = new CompactSchemaPartitionTable(seriesPartitionSlotNum);
+        }
+        for (Map.Entry<TSeriesPartitionSlot, TConsensusGroupId> entry2 :
+            entry1.getValue().entrySet()) {
+          if (null != entry2.getKey() && null != entry2.getValue()) {
+            result.put(entry2.getKey().getSlotId(), entry2.getValue());
+          }
         }
-        Map<TSeriesPartitionSlot, TConsensusGroupId> seriesPartitionSlotTConsensusGroupIdMap =
-            result.getSchemaPartitionMap();
-        seriesPartitionSlotTConsensusGroupIdMap.putAll(entry1.getValue());
+        // put the table back so that its weight is recalculated
+        schemaPartitionCache.put(storageGroupName, result);
       }
     } finally {
       schemaPartitionCacheLock.writeLock().unlock();
@@ -667,7 +682,8 @@ public class PartitionCache {
           dataPartitionMap,
       String storageGroupName,
       List<DataPartitionQueryParam> dataPartitionQueryParams) {
-    DataPartitionTable dataPartitionTable = dataPartitionCache.getIfPresent(storageGroupName);
+    CompactDataPartitionTable dataPartitionTable =
+        dataPartitionCache.getIfPresent(storageGroupName);
     if (null == dataPartitionTable) {
       logger.debug(
           "[{} Cache] miss when search database {}",
@@ -675,15 +691,13 @@ public class PartitionCache {
           storageGroupName);
       return false;
     }
-    Map<TSeriesPartitionSlot, SeriesPartitionTable> cachedStorageGroupPartitionMap =
-        dataPartitionTable.getDataPartitionMap();
     Map<TSeriesPartitionSlot, Map<TTimePartitionSlot, List<TRegionReplicaSet>>>
         seriesSlotToTimePartitionMap =
             dataPartitionMap.computeIfAbsent(storageGroupName, k -> new HashMap<>());
     // check cache for each device
     for (DataPartitionQueryParam dataPartitionQueryParam : dataPartitionQueryParams) {
       if (!getDeviceDataPartition(
-          seriesSlotToTimePartitionMap, dataPartitionQueryParam, cachedStorageGroupPartitionMap)) {
+          seriesSlotToTimePartitionMap, dataPartitionQueryParam, dataPartitionTable)) {
         return false;
       }
     }
@@ -695,14 +709,14 @@ public class PartitionCache {
    *
    * @param seriesSlotToTimePartitionMap result
    * @param dataPartitionQueryParam specific query param of data partition
-   * @param cachedStorageGroupPartitionMap all cached data partition map of related database
+   * @param dataPartitionTable all cached data partitions of related database
    * @return whether hit
    */
   private boolean getDeviceDataPartition(
       Map<TSeriesPartitionSlot, Map<TTimePartitionSlot, List<TRegionReplicaSet>>>
           seriesSlotToTimePartitionMap,
       DataPartitionQueryParam dataPartitionQueryParam,
-      Map<TSeriesPartitionSlot, SeriesPartitionTable> cachedStorageGroupPartitionMap) {
+      CompactDataPartitionTable dataPartitionTable) {
     TSeriesPartitionSlot seriesPartitionSlot;
     if (null != dataPartitionQueryParam.getDevicePath()) {
       seriesPartitionSlot =
@@ -710,9 +724,8 @@ public class PartitionCache {
     } else {
       return false;
     }
-    SeriesPartitionTable cachedSeriesPartitionTable =
-        cachedStorageGroupPartitionMap.get(seriesPartitionSlot);
-    if (null == cachedSeriesPartitionTable) {
+    int seriesSlotId = seriesPartitionSlot.getSlotId();
+    if (!dataPartitionTable.containsSeriesSlot(seriesSlotId)) {
       if (logger.isDebugEnabled()) {
         logger.debug(
             "[{} Cache] miss when search device {}",
@@ -721,8 +734,6 @@ public class PartitionCache {
       }
       return false;
     }
-    Map<TTimePartitionSlot, List<TConsensusGroupId>> cachedTimePartitionSlot =
-        cachedSeriesPartitionTable.getSeriesPartitionMap();
     Map<TTimePartitionSlot, List<TRegionReplicaSet>> timePartitionSlotListMap =
         seriesSlotToTimePartitionMap.computeIfAbsent(seriesPartitionSlot, k -> new HashMap<>());
     // Notice: when query all time partition, then miss
@@ -733,7 +744,7 @@ public class PartitionCache {
     for (TTimePartitionSlot timePartitionSlot :
         dataPartitionQueryParam.getTimePartitionSlotList()) {
       if (!getTimeSlotDataPartition(
-          timePartitionSlotListMap, timePartitionSlot, cachedTimePartitionSlot)) {
+          timePartitionSlotListMap, timePartitionSlot, seriesSlotId, dataPartitionTable)) {
         return false;
       }
     }
@@ -745,24 +756,27 @@ public class PartitionCache {
    *
    * @param timePartitionSlotListMap result
    * @param timePartitionSlot the specific time partition slot of data partition
-   * @param cachedTimePartitionSlot all cached time slot map of related device
+   * @param seriesSlotId the id of the series slot of related device
+   * @param dataPartitionTable all cached data partitions of related database
    * @return whether hit
    */
   private boolean getTimeSlotDataPartition(
       Map<TTimePartitionSlot, List<TRegionReplicaSet>> timePartitionSlotListMap,
       TTimePartitionSlot timePartitionSlot,
-      Map<TTimePartitionSlot, List<TConsensusGroupId>> cachedTimePartitionSlot) {
-    List<TConsensusGroupId> cacheConsensusGroupId = cachedTimePartitionSlot.get(timePartitionSlot);
-    if (null == cacheConsensusGroupId
-        || cacheConsensusGroupId.isEmpty()
-        || null == timePartitionSlot) {
+      int seriesSlotId,
+      CompactDataPartitionTable dataPartitionTable) {
+    List<TConsensusGroupId> cacheConsensusGroupId =
+        null == timePartitionSlot
+            ? null
+            : dataPartitionTable.get(seriesSlotId, timePartitionSlot.getStartTime());
+    if (null == cacheConsensusGroupId || cacheConsensusGroupId.isEmpty()) {
       logger.debug(
           "[{} Cache] miss when search time partition {}",
           CacheMetrics.DATA_PARTITION_CACHE_NAME,
           timePartitionSlot);
       return false;
     }
-    List<TRegionReplicaSet> regionReplicaSets = new LinkedList<>();
+    List<TRegionReplicaSet> regionReplicaSets = new ArrayList<>(cacheConsensusGroupId.size());
     for (TConsensusGroupId consensusGroupId : cacheConsensusGroupId) {
       regionReplicaSets.add(getRegionReplicaSet(consensusGroupId));
     }
@@ -786,36 +800,27 @@ public class PartitionCache {
           entry1 : dataPartitionTable.entrySet()) {
         String storageGroupName = entry1.getKey();
         if (null != storageGroupName) {
-          DataPartitionTable result = dataPartitionCache.getIfPresent(storageGroupName);
-          boolean needToUpdateCache = (null == result);
-          if (needToUpdateCache) {
-            result = new DataPartitionTable();
+          CompactDataPartitionTable result = dataPartitionCache.getIfPresent(storageGroupName);
+          if (null == result) {
+            result = new CompactDataPartitionTable(seriesPartitionSlotNum, timePartitionInterval);
           }
-          Map<TSeriesPartitionSlot, SeriesPartitionTable>
-              seriesPartitionSlotSeriesPartitionTableMap = result.getDataPartitionMap();
           for (Map.Entry<TSeriesPartitionSlot, Map<TTimePartitionSlot, List<TConsensusGroupId>>>
               entry2 : entry1.getValue().entrySet()) {
             TSeriesPartitionSlot seriesPartitionSlot = entry2.getKey();
             if (null != seriesPartitionSlot) {
-              SeriesPartitionTable seriesPartitionTable;
-              if (!seriesPartitionSlotSeriesPartitionTableMap.containsKey(seriesPartitionSlot)) {
-                // if device not exists, then add new seriesPartitionTable
-                seriesPartitionTable = new SeriesPartitionTable(entry2.getValue());
-                seriesPartitionSlotSeriesPartitionTableMap.put(
-                    seriesPartitionSlot, seriesPartitionTable);
-              } else {
-                // if device exists, then merge
-                seriesPartitionTable =
-                    seriesPartitionSlotSeriesPartitionTableMap.get(seriesPartitionSlot);
-                Map<TTimePartitionSlot, List<TConsensusGroupId>> result3 =
-                    seriesPartitionTable.getSeriesPartitionMap();
-                result3.putAll(entry2.getValue());
+              for (Map.Entry<TTimePartitionSlot, List<TConsensusGroupId>> entry3 :
+                  entry2.getValue().entrySet()) {
+                if (null != entry3.getKey() && null != entry3.getValue()) {
+                  result.put(
+                      seriesPartitionSlot.getSlotId(),
+                      entry3.getKey().getStartTime(),
+                      entry3.getValue());
+                }
               }
             }
           }
-          if (needToUpdateCache) {
-            dataPartitionCache.put(storageGroupName, result);
-          }
+          // put the table back so that its weight is recalculated
+          dataPartitionCache.put(storageGroupName, result);
         }
       }
     } finally {
@@ -849,6 +854,19 @@ public class PartitionCache {
 
   // endregion
 
+  /**
+   * invalid all the caches of a database, since the partitions of other databases won't change
+   * when it is deleted
+   *
+   * @param storageGroupName the database that need to invalid
+   */
+  public void invalidStorageGroupCache(String storageGroupName) {
+    logger.debug("[Partition Cache] invalid database {}", storageGroupName);
+    removeFromStorageGroupCache(Collections.singletonList(storageGroupName));
+    invalidDataPartitionCache(storageGroupName);
+    invalidSchemaPartitionCache(storageGroupName);
+  }
+
   public void invalidAllCache() {
     logger.debug("[Partition Cache] invalid");
     removeFromStorageGroupCache();
@@ -861,8 +879,8 @@ public class PartitionCache {
   @Override
   public String toString() {
     return "PartitionCache{"
-        + "cacheSize="
-        + cacheSize
+        + "cacheMemory="
+        + cacheMemory
         + ", storageGroupCache="
         + storageGroupCache
         + ", replicaSetCache="
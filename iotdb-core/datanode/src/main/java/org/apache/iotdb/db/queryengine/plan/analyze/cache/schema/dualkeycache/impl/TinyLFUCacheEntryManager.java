@@ -0,0 +1,383 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.dualkeycache.impl;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class implements the cache entry manager with TinyLFU policy.
+ *
+ * <p>The access frequency of every key is recorded in a count-min sketch of 4-bit counters, which
+ * is periodically halved so that the history ages. Accessing a cache entry only marks the entry as
+ * referenced and increments the sketch with lock-free, lossy CAS, so a cache hit never takes a
+ * lock. Entries are spread into slots, each of which is a CLOCK list guarded by its own lock and
+ * only touched by put, eviction and invalidation.
+ *
+ * <p>On eviction, a few slots are sampled. Each of them offers its CLOCK victim, which gives
+ * recently referenced entries a second chance, and the candidate with the lowest estimated
+ * frequency is evicted. Entries seen only once, e.g. those loaded by a scan over many devices,
+ * therefore do not push out the frequently written ones.
+ *
+ * @param <FK> The first key of cache value.
+ * @param <SK> The second key of cache value.
+ * @param <V> The cache value.
+ */
+class TinyLFUCacheEntryManager<FK, SK, V>
+    implements ICacheEntryManager<FK, SK, V, TinyLFUCacheEntryManager.TinyLFUCacheEntry<SK, V>> {
+
+  private static final int SLOT_NUM = 128;
+
+  // number of non-empty slots compared with each other for one eviction
+  private static final int SAMPLE_NUM = 8;
+
+  // bound the second chances given in one peek to keep eviction cheap
+  private static final int MAX_SECOND_CHANCE_NUM = 16;
+
+  // rough memory usage of one cache entry, used to size the frequency sketch
+  private static final int ESTIMATED_ENTRY_SIZE = 256;
+
+  @SuppressWarnings("unchecked")
+  private final ClockList<SK, V>[] clockLists = new ClockList[SLOT_NUM];
+
+  private final FrequencySketch sketch;
+
+  TinyLFUCacheEntryManager(long memoryCapacity) {
+    this.sketch =
+        new FrequencySketch(
+            (int) Math.min(Integer.MAX_VALUE, memoryCapacity / ESTIMATED_ENTRY_SIZE));
+  }
+
+  @Override
+  public TinyLFUCacheEntry<SK, V> createCacheEntry(
+      SK secondKey,
+      V value,
+      ICacheEntryGroup<FK, SK, V, TinyLFUCacheEntry<SK, V>> cacheEntryGroup) {
+    return new TinyLFUCacheEntry<>(secondKey, value, cacheEntryGroup);
+  }
+
+  @Override
+  public void access(TinyLFUCacheEntry<SK, V> cacheEntry) {
+    if (!cacheEntry.referenced) {
+      cacheEntry.referenced = true;
+    }
+    sketch.increment(cacheEntry.hash);
+  }
+
+  @Override
+  public void put(TinyLFUCacheEntry<SK, V> cacheEntry) {
+    getBelongedList(cacheEntry).add(cacheEntry);
+    sketch.increment(cacheEntry.hash);
+    sketch.recordAddition();
+  }
+
+  @Override
+  public void invalid(TinyLFUCacheEntry<SK, V> cacheEntry) {
+    ClockList<SK, V> clockList = cacheEntry.clockList;
+    if (clockList != null) {
+      clockList.remove(cacheEntry);
+    }
+  }
+
+  @Override
+  public TinyLFUCacheEntry<SK, V> evict() {
+    while (true) {
+      int index = ThreadLocalRandom.current().nextInt(SLOT_NUM);
+      ClockList<SK, V> victimList = null;
+      TinyLFUCacheEntry<SK, V> victim = null;
+      int victimFrequency = Integer.MAX_VALUE;
+      int sampledNum = 0;
+      for (int i = 0; i < SLOT_NUM && sampledNum < SAMPLE_NUM; i++) {
+        ClockList<SK, V> clockList = clockLists[index];
+        index = index + 1 == SLOT_NUM ? 0 : index + 1;
+        if (clockList == null) {
+          continue;
+        }
+        TinyLFUCacheEntry<SK, V> candidate = clockList.peekVictim();
+        if (candidate == null) {
+          continue;
+        }
+        sampledNum++;
+        int frequency = sketch.frequency(candidate.hash);
+        if (frequency < victimFrequency) {
+          victimList = clockList;
+          victim = candidate;
+          victimFrequency = frequency;
+        }
+      }
+      if (victim == null) {
+        return null;
+      }
+      if (victimList.remove(victim)) {
+        return victim;
+      }
+      // the victim has been evicted or invalidated by other threads, sample again
+    }
+  }
+
+  @Override
+  public void cleanUp() {
+    synchronized (clockLists) {
+      for (int i = 0; i < SLOT_NUM; i++) {
+        clockLists[i] = null;
+      }
+    }
+  }
+
+  private ClockList<SK, V> getBelongedList(TinyLFUCacheEntry<SK, V> cacheEntry) {
+    int slotIndex = cacheEntry.hash % SLOT_NUM;
+    slotIndex = slotIndex < 0 ? slotIndex + SLOT_NUM : slotIndex;
+    ClockList<SK, V> clockList = clockLists[slotIndex];
+    if (clockList == null) {
+      synchronized (clockLists) {
+        clockList = clockLists[slotIndex];
+        if (clockList == null) {
+          clockList = new ClockList<>();
+          clockLists[slotIndex] = clockList;
+        }
+      }
+    }
+    return clockList;
+  }
+
+  static class TinyLFUCacheEntry<SK, V> implements ICacheEntry<SK, V> {
+
+    private final SK secondKey;
+    private volatile ICacheEntryGroup cacheEntryGroup;
+
+    private V value;
+
+    // computed once, the belonged group is reset to null when the entry is evicted
+    private final int hash;
+
+    private volatile boolean referenced = true;
+
+    // guarded by the lock of clockList
+    private ClockList<SK, V> clockList;
+    private TinyLFUCacheEntry<SK, V> pre;
+    private TinyLFUCacheEntry<SK, V> next;
+
+    private TinyLFUCacheEntry(SK secondKey, V value, ICacheEntryGroup cacheEntryGroup) {
+      this.secondKey = secondKey;
+      this.value = value;
+      this.cacheEntryGroup = cacheEntryGroup;
+      this.hash =
+          cacheEntryGroup == null ? 0 : cacheEntryGroup.hashCode() * 31 + secondKey.hashCode();
+    }
+
+    @Override
+    public SK getSecondKey() {
+      return secondKey;
+    }
+
+    @Override
+    public V getValue() {
+      return value;
+    }
+
+    @Override
+    public ICacheEntryGroup getBelongedGroup() {
+      return cacheEntryGroup;
+    }
+
+    @Override
+    public void setBelongedGroup(ICacheEntryGroup belongedGroup) {
+      this.cacheEntryGroup = belongedGroup;
+    }
+
+    @Override
+    public void replaceValue(V newValue) {
+      this.value = newValue;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      TinyLFUCacheEntry<?, ?> that = (TinyLFUCacheEntry<?, ?>) o;
+      return Objects.equals(secondKey, that.secondKey)
+          && Objects.equals(cacheEntryGroup, that.cacheEntryGroup);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  private static class ClockList<SK, V> {
+
+    // the clock hand starts from tail.pre, head.next is the newest
+    private final TinyLFUCacheEntry<SK, V> head;
+    private final TinyLFUCacheEntry<SK, V> tail;
+
+    ClockList() {
+      head = new TinyLFUCacheEntry<>(null, null, null);
+      tail = new TinyLFUCacheEntry<>(null, null, null);
+      head.next = tail;
+      tail.pre = head;
+    }
+
+    synchronized void add(TinyLFUCacheEntry<SK, V> cacheEntry) {
+      cacheEntry.clockList = this;
+      linkToHead(cacheEntry);
+    }
+
+    /** Returns false if the entry is not in this list any more. */
+    synchronized boolean remove(TinyLFUCacheEntry<SK, V> cacheEntry) {
+      if (cacheEntry.clockList != this || cacheEntry.pre == null) {
+        return false;
+      }
+      unlink(cacheEntry);
+      cacheEntry.clockList = null;
+      return true;
+    }
+
+    /**
+     * Advance the clock hand and return the entry it stops at without removing it. Referenced
+     * entries passed by the hand lose their reference mark and move to the head.
+     */
+    synchronized TinyLFUCacheEntry<SK, V> peekVictim() {
+      for (int i = 0; i < MAX_SECOND_CHANCE_NUM && tail.pre != head; i++) {
+        TinyLFUCacheEntry<SK, V> cacheEntry = tail.pre;
+        if (!cacheEntry.referenced) {
+          return cacheEntry;
+        }
+        cacheEntry.referenced = false;
+        if (cacheEntry.pre == head) {
+          return cacheEntry;
+        }
+        unlink(cacheEntry);
+        linkToHead(cacheEntry);
+      }
+      return tail.pre == head ? null : tail.pre;
+    }
+
+    private void linkToHead(TinyLFUCacheEntry<SK, V> cacheEntry) {
+      cacheEntry.next = head.next;
+      cacheEntry.pre = head;
+      head.next.pre = cacheEntry;
+      head.next = cacheEntry;
+    }
+
+    private void unlink(TinyLFUCacheEntry<SK, V> cacheEntry) {
+      cacheEntry.pre.next = cacheEntry.next;
+      cacheEntry.next.pre = cacheEntry.pre;
+      cacheEntry.next = null;
+      cacheEntry.pre = null;
+    }
+  }
+
+  /**
+   * A count-min sketch with four rows of 4-bit counters packed into longs. Increments are lossy
+   * under contention, which only makes the estimation slightly lower. After a sample of additions
+   * all counters are halved, so the frequency reflects the recent workload.
+   */
+  private static class FrequencySketch {
+
+    private static final long[] SEEDS = {
+      0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private static final int MAX_FREQUENCY = 15;
+
+    private static final int MIN_TABLE_SIZE = 1 << 6;
+
+    private static final int MAX_TABLE_SIZE = 1 << 18;
+
+    private final AtomicLongArray table;
+
+    private final int tableMask;
+
+    private final int sampleSize;
+
+    private final AtomicInteger additionCount = new AtomicInteger(0);
+
+    private final AtomicBoolean isResetting = new AtomicBoolean(false);
+
+    FrequencySketch(int expectedEntryNum) {
+      // each long holds 16 counters and each key takes one counter per row
+      int tableSize = MIN_TABLE_SIZE;
+      while (tableSize < MAX_TABLE_SIZE && tableSize < (expectedEntryNum >>> 2)) {
+        tableSize <<= 1;
+      }
+      this.table = new AtomicLongArray(tableSize);
+      this.tableMask = tableSize - 1;
+      this.sampleSize = Math.max(tableSize << 4, 10 * Math.min(expectedEntryNum, 1 << 27));
+    }
+
+    int frequency(int hash) {
+      int frequency = MAX_FREQUENCY;
+      for (int i = 0; i < SEEDS.length; i++) {
+        long rowHash = rowHash(hash, i);
+        long word = table.get(indexOf(rowHash));
+        frequency = Math.min(frequency, (int) ((word >>> offsetOf(rowHash)) & 0xfL));
+      }
+      return frequency;
+    }
+
+    void increment(int hash) {
+      for (int i = 0; i < SEEDS.length; i++) {
+        long rowHash = rowHash(hash, i);
+        int index = indexOf(rowHash);
+        int offset = offsetOf(rowHash);
+        long word = table.get(index);
+        if (((word >>> offset) & 0xfL) != MAX_FREQUENCY) {
+          // a failed CAS means another thread is updating the same word, just skip it
+          table.compareAndSet(index, word, word + (1L << offset));
+        }
+      }
+    }
+
+    void recordAddition() {
+      if (additionCount.incrementAndGet() >= sampleSize && isResetting.compareAndSet(false, true)) {
+        try {
+          for (int i = 0; i < table.length(); i++) {
+            long word;
+            do {
+              word = table.get(i);
+            } while (!table.compareAndSet(i, word, (word >>> 1) & RESET_MASK));
+          }
+          additionCount.set(0);
+        } finally {
+          isResetting.set(false);
+        }
+      }
+    }
+
+    private long rowHash(int hash, int row) {
+      long rowHash = (hash + SEEDS[row]) * SEEDS[row];
+      return rowHash ^ (rowHash >>> 29);
+    }
+
+    private int indexOf(long rowHash) {
+      return (int) (rowHash >>> 4) & tableMask;
+    }
+
+    private int offsetOf(long rowHash) {
+      return ((int) rowHash & 0xf) << 2;
+    }
+  }
+}
@@ -41,7 +41,6 @@ import org.apache.iotdb.db.queryengine.plan.planner.plan.node.metedata.write.Mea
 import org.apache.iotdb.db.queryengine.plan.statement.Statement;
 import org.apache.iotdb.db.queryengine.plan.statement.internal.InternalBatchActivateTemplateStatement;
 import org.apache.iotdb.db.queryengine.plan.statement.internal.InternalCreateMultiTimeSeriesStatement;
-import org.apache.iotdb.db.queryengine.plan.statement.internal.InternalCreateTimeSeriesStatement;
 import org.apache.iotdb.db.queryengine.plan.statement.metadata.template.ActivateTemplateStatement;
 import org.apache.iotdb.db.queryengine.plan.statement.metadata.template.AlterSchemaTemplateStatement;
 import org.apache.iotdb.db.schemaengine.template.ITemplateManager;
@@ -64,6 +63,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.IntFunction;
 import java.util.stream.Collectors;
 
@@ -74,15 +74,31 @@ class AutoCreateSchemaExecutor {
   private final Coordinator coordinator;
   private final ITemplateManager templateManager;
   private final ISchemaFetcher schemaFetcher;
+  private final Consumer<ClusterSchemaTree> schemaCacheUpdater;
+  private final AutoCreateTimeSeriesBatcher timeSeriesBatcher;
 
   AutoCreateSchemaExecutor(
-      Coordinator coordinator, ITemplateManager templateManager, ISchemaFetcher schemaFetcher) {
+      Coordinator coordinator,
+      ITemplateManager templateManager,
+      ISchemaFetcher schemaFetcher,
+      Consumer<ClusterSchemaTree> schemaCacheUpdater) {
     this.coordinator = coordinator;
     this.templateManager = templateManager;
     this.schemaFetcher = schemaFetcher;
+    this.schemaCacheUpdater = schemaCacheUpdater;
+    this.timeSeriesBatcher =
+        new AutoCreateTimeSeriesBatcher(
+            (devices, context, timeOut) ->
+                executeInternalCreateTimeseriesStatement(
+                    new InternalCreateMultiTimeSeriesStatement(devices), context, timeOut));
   }
 
   private ExecutionResult executeStatement(Statement statement, MPPQueryContext context) {
+    return executeStatement(statement, context, getTimeOut(context));
+  }
+
+  private ExecutionResult executeStatement(
+      Statement statement, MPPQueryContext context, long timeOut) {
 
     return coordinator.executeForTreeModel(
         statement,
@@ -91,9 +107,13 @@ class AutoCreateSchemaExecutor {
         "",
         ClusterPartitionFetcher.getInstance(),
         schemaFetcher,
-        context == null || context.getQueryType().equals(QueryType.WRITE)
-            ? config.getQueryTimeoutThreshold()
-            : context.getTimeOut());
+        timeOut);
+  }
+
+  private long getTimeOut(MPPQueryContext context) {
+    return context == null || context.getQueryType().equals(QueryType.WRITE)
+        ? config.getQueryTimeoutThreshold()
+        : context.getTimeOut();
   }
 
   // Auto create the missing measurements and merge them into given schemaTree
@@ -469,44 +489,21 @@ class AutoCreateSchemaExecutor {
       List<CompressionType> compressors,
       boolean isAligned,
       MPPQueryContext context) {
-    List<MeasurementPath> measurementPathList =
-        executeInternalCreateTimeseriesStatement(
-            new InternalCreateTimeSeriesStatement(
-                devicePath, measurements, tsDataTypes, encodings, compressors, isAligned),
-            context);
-
-    Set<Integer> alreadyExistingMeasurementIndexSet =
-        measurementPathList.stream()
-            .map(o -> measurements.indexOf(o.getMeasurement()))
-            .collect(Collectors.toSet());
-
-    schemaTree.appendMeasurementPaths(measurementPathList);
-
+    MeasurementGroup measurementGroup = new MeasurementGroup();
     for (int i = 0, size = measurements.size(); i < size; i++) {
-      if (alreadyExistingMeasurementIndexSet.contains(i)) {
-        continue;
-      }
-
-      schemaTree.appendSingleMeasurement(
-          devicePath.concatNode(measurements.get(i)),
-          new MeasurementSchema(
-              measurements.get(i), tsDataTypes.get(i), encodings.get(i), compressors.get(i)),
-          null,
-          null,
-          isAligned);
+      measurementGroup.addMeasurement(
+          measurements.get(i), tsDataTypes.get(i), encodings.get(i), compressors.get(i));
     }
+    Map<PartialPath, Pair<Boolean, MeasurementGroup>> devicesNeedAutoCreateTimeSeries =
+        new HashMap<>();
+    devicesNeedAutoCreateTimeSeries.put(devicePath, new Pair<>(isAligned, measurementGroup));
+    internalCreateTimeSeries(schemaTree, devicesNeedAutoCreateTimeSeries, context);
   }
 
   // Auto create timeseries and return the existing timeseries info
   private List<MeasurementPath> executeInternalCreateTimeseriesStatement(
-      Statement statement, MPPQueryContext context) {
-    TSStatus status =
-        AuthorityChecker.checkAuthority(statement, context.getSession().getUserName());
-    if (status.getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
-      throw new RuntimeException(new IoTDBException(status.getMessage(), status.getCode()));
-    }
-
-    ExecutionResult executionResult = executeStatement(statement, context);
+      Statement statement, MPPQueryContext context, long timeOut) {
+    ExecutionResult executionResult = executeStatement(statement, context, timeOut);
 
     int statusCode = executionResult.status.getCode();
     if (statusCode == TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
@@ -588,11 +585,31 @@ class AutoCreateSchemaExecutor {
       Map<PartialPath, Pair<Boolean, MeasurementGroup>> devicesNeedAutoCreateTimeSeries,
       MPPQueryContext context) {
 
+    TSStatus status =
+        AuthorityChecker.checkAuthority(
+            new InternalCreateMultiTimeSeriesStatement(devicesNeedAutoCreateTimeSeries),
+            context.getSession().getUserName());
+    if (status.getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+      throw new RuntimeException(new IoTDBException(status.getMessage(), status.getCode()));
+    }
+
+    // The authority is checked per request, the creation may be merged with concurrent requests
+    // on the same databases
+    Set<String> databases =
+        new HashSet<>(
+            ClusterPartitionFetcher.getInstance()
+                .getOrCreateDatabaseOfDevices(
+                    devicesNeedAutoCreateTimeSeries.keySet().stream()
+                        .map(PartialPath::getFullPath)
+                        .collect(Collectors.toList()),
+                    context.getSession().getUserName())
+                .values());
     List<MeasurementPath> measurementPathList =
-        executeInternalCreateTimeseriesStatement(
-            new InternalCreateMultiTimeSeriesStatement(devicesNeedAutoCreateTimeSeries), context);
+        timeSeriesBatcher.createTimeSeries(
+            devicesNeedAutoCreateTimeSeries, databases, context, getTimeOut(context));
 
-    schemaTree.appendMeasurementPaths(measurementPathList);
+    ClusterSchemaTree createdSchemaTree = new ClusterSchemaTree();
+    createdSchemaTree.appendMeasurementPaths(measurementPathList);
 
     Map<PartialPath, Set<String>> alreadyExistingMeasurementMap = new HashMap<>();
     for (MeasurementPath measurementPath : measurementPathList) {
@@ -611,7 +628,7 @@ class AutoCreateSchemaExecutor {
             && measurementSet.contains(measurementGroup.getMeasurements().get(i))) {
           continue;
         }
-        schemaTree.appendSingleMeasurement(
+        createdSchemaTree.appendSingleMeasurement(
             entry.getKey().concatNode(measurementGroup.getMeasurements().get(i)),
             new MeasurementSchema(
                 measurementGroup.getMeasurements().get(i),
@@ -623,6 +640,11 @@ class AutoCreateSchemaExecutor {
             entry.getValue().left);
       }
     }
+
+    createdSchemaTree.setDatabases(databases);
+    schemaTree.mergeSchemaTree(createdSchemaTree);
+    // Cache the created timeseries, so that the following insertions needn't fetch them
+    schemaCacheUpdater.accept(createdSchemaTree);
   }
 
   private void internalExtendTemplate(
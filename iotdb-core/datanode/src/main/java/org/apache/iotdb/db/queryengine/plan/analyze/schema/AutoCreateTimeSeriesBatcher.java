@@ -0,0 +1,395 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.analyze.schema;
+
+import org.apache.iotdb.commons.path.MeasurementPath;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.exception.query.QueryTimeoutRuntimeException;
+import org.apache.iotdb.db.exception.sql.SemanticException;
+import org.apache.iotdb.db.queryengine.common.MPPQueryContext;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.metedata.write.MeasurementGroup;
+
+import org.apache.tsfile.utils.Pair;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Coalesces concurrent timeseries auto-creation requests into one {@link
+ * org.apache.iotdb.db.queryengine.plan.statement.internal.InternalCreateMultiTimeSeriesStatement},
+ * which is planned as one write per SchemaRegion.
+ *
+ * <p>Batching is leader based and keyed by database: at most one batch is executed per database at
+ * a time. The first waiting request whose databases are not being created executes everything
+ * queued on those databases, while requests arriving in the meantime queue up for the next round.
+ * There is no extra waiting window, so a single client sees no added latency and concurrent
+ * clients share the consensus writes.
+ *
+ * <p>Each request keeps its own deadline. A merged batch is executed with the earliest deadline of
+ * its requests, and a request whose deadline passes before it is executed fails with a timeout.
+ *
+ * <p>A measurement requested by several clients in one batch is created with the first requested
+ * schema, and the others get it back as already existing, which is exactly what they would see if
+ * the requests had been executed one by one. If the merged execution fails, every request is
+ * retried on its own, so that a failure is only reported to the request causing it.
+ */
+class AutoCreateTimeSeriesBatcher {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(AutoCreateTimeSeriesBatcher.class);
+
+  // Upper bound of measurements merged into one batch, a single larger request is still executed
+  private static final int MAX_MEASUREMENT_NUM_IN_BATCH = 100_000;
+
+  interface CreationExecutor {
+
+    /**
+     * Create the given timeseries without authority check and return the already existing ones.
+     */
+    List<MeasurementPath> execute(
+        Map<PartialPath, Pair<Boolean, MeasurementGroup>> devicesNeedAutoCreateTimeSeries,
+        MPPQueryContext context,
+        long timeOut);
+  }
+
+  private final CreationExecutor executor;
+
+  private final Object monitor = new Object();
+  private final LinkedList<Request> waitingRequests = new LinkedList<>();
+  // The databases of the batches being executed
+  private final Set<String> executingDatabases = new HashSet<>();
+
+  AutoCreateTimeSeriesBatcher(CreationExecutor executor) {
+    this.executor = executor;
+  }
+
+  /**
+   * Create the given timeseries, possibly together with those of concurrent requests.
+   *
+   * @param databases the databases of the given devices, which key the batches
+   * @param timeOut the time in ms this request may wait and execute
+   * @return the timeseries already existing, either before this request or created by another
+   *     request of the same batch with a different schema
+   */
+  List<MeasurementPath> createTimeSeries(
+      Map<PartialPath, Pair<Boolean, MeasurementGroup>> devicesNeedAutoCreateTimeSeries,
+      Set<String> databases,
+      MPPQueryContext context,
+      long timeOut) {
+    Request request = new Request(devicesNeedAutoCreateTimeSeries, databases, context, timeOut);
+    boolean interrupted = false;
+    try {
+      while (true) {
+        List<Request> batch;
+        synchronized (monitor) {
+          if (!request.isQueued) {
+            waitingRequests.add(request);
+            request.isQueued = true;
+          }
+          while (!request.isDone && isExecuting(request.databases)) {
+            long remainingTime = request.getRemainingTime();
+            if (!request.isPolled && remainingTime <= 0) {
+              // nobody has taken the request yet, so it can be abandoned
+              waitingRequests.remove(request);
+              throw request.timeout();
+            }
+            try {
+              // a polled request can't be abandoned, it waits for the batch executing it
+              monitor.wait(request.isPolled ? 0 : remainingTime);
+            } catch (InterruptedException e) {
+              // the request may be executing by another thread, it can't be abandoned
+              interrupted = true;
+            }
+          }
+          if (request.isDone) {
+            break;
+          }
+          batch = pollBatch();
+        }
+
+        try {
+          executeBatch(batch);
+        } finally {
+          synchronized (monitor) {
+            for (Request finished : batch) {
+              if (finished.result == null && finished.failure == null) {
+                finished.failure =
+                    new SemanticException("Failed to auto create timeseries in batch");
+              }
+              finished.isDone = true;
+              executingDatabases.removeAll(finished.databases);
+            }
+            monitor.notifyAll();
+          }
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    if (request.failure != null) {
+      throw request.failure;
+    }
+    return request.result;
+  }
+
+  private boolean isExecuting(Set<String> databases) {
+    for (String database : databases) {
+      if (executingDatabases.contains(database)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // Take the queued requests that can be merged, requests on the databases of another executing
+  // batch, or creating a device with a conflicting alignment, are left for the next batch. Must be
+  // called while holding the monitor.
+  private List<Request> pollBatch() {
+    List<Request> batch = new ArrayList<>();
+    Map<PartialPath, Boolean> alignmentOfDevices = new HashMap<>();
+    int measurementNum = 0;
+    Iterator<Request> iterator = waitingRequests.iterator();
+    while (iterator.hasNext()) {
+      Request request = iterator.next();
+      if (isExecuting(request.databases)
+          || (!batch.isEmpty()
+              && (measurementNum + request.measurementNum > MAX_MEASUREMENT_NUM_IN_BATCH
+                  || hasAlignmentConflict(request, alignmentOfDevices)))) {
+        continue;
+      }
+      for (Map.Entry<PartialPath, Pair<Boolean, MeasurementGroup>> entry :
+          request.devices.entrySet()) {
+        alignmentOfDevices.putIfAbsent(entry.getKey(), entry.getValue().left);
+      }
+      measurementNum += request.measurementNum;
+      request.isPolled = true;
+      batch.add(request);
+      iterator.remove();
+    }
+    for (Request request : batch) {
+      executingDatabases.addAll(request.databases);
+    }
+    return batch;
+  }
+
+  private boolean hasAlignmentConflict(Request request, Map<PartialPath, Boolean> alignments) {
+    for (Map.Entry<PartialPath, Pair<Boolean, MeasurementGroup>> entry :
+        request.devices.entrySet()) {
+      Boolean isAligned = alignments.get(entry.getKey());
+      if (isAligned != null && !isAligned.equals(entry.getValue().left)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void executeBatch(List<Request> batch) {
+    List<Request> liveRequests = new ArrayList<>(batch.size());
+    for (Request request : batch) {
+      if (request.getRemainingTime() <= 0) {
+        request.failure = request.timeout();
+      } else {
+        liveRequests.add(request);
+      }
+    }
+    if (liveRequests.isEmpty()) {
+      return;
+    }
+    if (liveRequests.size() == 1) {
+      executeSingleRequest(liveRequests.get(0));
+      return;
+    }
+
+    // the authority has been checked per request, so the context of any request can execute the
+    // batch, which must finish before the earliest deadline
+    long timeOut = Long.MAX_VALUE;
+    for (Request request : liveRequests) {
+      timeOut = Math.min(timeOut, request.getRemainingTime());
+    }
+    Map<PartialPath, Pair<Boolean, MeasurementGroup>> mergedDevices = mergeRequests(liveRequests);
+    List<MeasurementPath> alreadyExistingMeasurements;
+    try {
+      alreadyExistingMeasurements =
+          executor.execute(mergedDevices, liveRequests.get(0).context, Math.max(timeOut, 1));
+    } catch (RuntimeException e) {
+      LOGGER.debug(
+          "Failed to auto create timeseries of {} requests in batch, retry them one by one",
+          liveRequests.size(),
+          e);
+      for (Request request : liveRequests) {
+        if (request.getRemainingTime() <= 0) {
+          request.failure = request.timeout();
+        } else {
+          executeSingleRequest(request);
+        }
+      }
+      return;
+    }
+
+    Map<PartialPath, Map<String, MeasurementPath>> alreadyExistingMap = new HashMap<>();
+    for (MeasurementPath measurementPath : alreadyExistingMeasurements) {
+      alreadyExistingMap
+          .computeIfAbsent(measurementPath.getDevicePath(), k -> new HashMap<>())
+          .put(measurementPath.getMeasurement(), measurementPath);
+    }
+    Map<PartialPath, Map<String, Integer>> mergedIndexMap = new HashMap<>();
+    for (Map.Entry<PartialPath, Pair<Boolean, MeasurementGroup>> entry :
+        mergedDevices.entrySet()) {
+      List<String> measurements = entry.getValue().right.getMeasurements();
+      Map<String, Integer> indexMap = new HashMap<>(measurements.size());
+      for (int i = 0, size = measurements.size(); i < size; i++) {
+        indexMap.put(measurements.get(i), i);
+      }
+      mergedIndexMap.put(entry.getKey(), indexMap);
+    }
+    for (Request request : liveRequests) {
+      request.result =
+          collectAlreadyExisting(request, mergedDevices, mergedIndexMap, alreadyExistingMap);
+    }
+  }
+
+  private void executeSingleRequest(Request request) {
+    try {
+      request.result =
+          executor.execute(
+              request.devices, request.context, Math.max(request.getRemainingTime(), 1));
+    } catch (RuntimeException e) {
+      request.failure = e;
+    }
+  }
+
+  private Map<PartialPath, Pair<Boolean, MeasurementGroup>> mergeRequests(List<Request> batch) {
+    Map<PartialPath, Pair<Boolean, MeasurementGroup>> mergedDevices = new HashMap<>();
+    for (Request request : batch) {
+      for (Map.Entry<PartialPath, Pair<Boolean, MeasurementGroup>> entry :
+          request.devices.entrySet()) {
+        MeasurementGroup mergedGroup =
+            mergedDevices
+                .computeIfAbsent(
+                    entry.getKey(), k -> new Pair<>(entry.getValue().left, new MeasurementGroup()))
+                .right;
+        MeasurementGroup group = entry.getValue().right;
+        for (int i = 0, size = group.size(); i < size; i++) {
+          // addMeasurement ignores the measurements already added by former requests
+          mergedGroup.addMeasurement(
+              group.getMeasurements().get(i),
+              group.getDataTypes().get(i),
+              group.getEncodings().get(i),
+              group.getCompressors().get(i));
+        }
+      }
+    }
+    return mergedDevices;
+  }
+
+  // The measurements of the request which exist before the batch, or which are created in this
+  // batch with a schema requested by another request
+  private List<MeasurementPath> collectAlreadyExisting(
+      Request request,
+      Map<PartialPath, Pair<Boolean, MeasurementGroup>> mergedDevices,
+      Map<PartialPath, Map<String, Integer>> mergedIndexMap,
+      Map<PartialPath, Map<String, MeasurementPath>> alreadyExistingMap) {
+    List<MeasurementPath> result = new ArrayList<>();
+    for (Map.Entry<PartialPath, Pair<Boolean, MeasurementGroup>> entry :
+        request.devices.entrySet()) {
+      Map<String, MeasurementPath> existingOfDevice = alreadyExistingMap.get(entry.getKey());
+      Pair<Boolean, MeasurementGroup> merged = mergedDevices.get(entry.getKey());
+      Map<String, Integer> indexMap = mergedIndexMap.get(entry.getKey());
+      MeasurementGroup group = entry.getValue().right;
+      for (int i = 0, size = group.size(); i < size; i++) {
+        String measurement = group.getMeasurements().get(i);
+        if (existingOfDevice != null && existingOfDevice.containsKey(measurement)) {
+          result.add(existingOfDevice.get(measurement));
+          continue;
+        }
+        int index = indexMap.get(measurement);
+        if (group.getDataTypes().get(i) != merged.right.getDataTypes().get(index)
+            || group.getEncodings().get(i) != merged.right.getEncodings().get(index)
+            || !Objects.equals(
+                group.getCompressors().get(i), merged.right.getCompressors().get(index))) {
+          result.add(
+              new MeasurementPath(
+                  entry.getKey().concatNode(measurement),
+                  new MeasurementSchema(
+                      measurement,
+                      merged.right.getDataTypes().get(index),
+                      merged.right.getEncodings().get(index),
+                      merged.right.getCompressors().get(index)),
+                  merged.left));
+        }
+      }
+    }
+    return result;
+  }
+
+  private static class Request {
+
+    private final Map<PartialPath, Pair<Boolean, MeasurementGroup>> devices;
+    private final Set<String> databases;
+    private final MPPQueryContext context;
+    private final long startTime;
+    private final long timeOut;
+    private final int measurementNum;
+
+    private boolean isQueued = false;
+    // whether the request has been taken into a batch
+    private boolean isPolled = false;
+    private boolean isDone = false;
+    private List<MeasurementPath> result;
+    private RuntimeException failure;
+
+    private Request(
+        Map<PartialPath, Pair<Boolean, MeasurementGroup>> devices,
+        Set<String> databases,
+        MPPQueryContext context,
+        long timeOut) {
+      this.devices = devices;
+      this.databases = databases;
+      this.context = context;
+      this.startTime = System.currentTimeMillis();
+      this.timeOut = timeOut;
+      int num = 0;
+      for (Pair<Boolean, MeasurementGroup> pair : devices.values()) {
+        num += pair.right.size();
+      }
+      this.measurementNum = num;
+    }
+
+    private long getRemainingTime() {
+      return startTime + timeOut - System.currentTimeMillis();
+    }
+
+    private QueryTimeoutRuntimeException timeout() {
+      return new QueryTimeoutRuntimeException(startTime, System.currentTimeMillis(), timeOut);
+    }
+  }
+}
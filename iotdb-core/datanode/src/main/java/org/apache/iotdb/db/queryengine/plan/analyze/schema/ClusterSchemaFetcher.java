@@ -62,7 +62,7 @@ public class ClusterSchemaFetcher implements ISchemaFetcher {
   private final ITemplateManager templateManager = ClusterTemplateManager.getInstance();
 
   private final AutoCreateSchemaExecutor autoCreateSchemaExecutor =
-      new AutoCreateSchemaExecutor(coordinator, templateManager, this);
+      new AutoCreateSchemaExecutor(coordinator, templateManager, this, schemaCache::put);
   private final ClusterSchemaFetchExecutor clusterSchemaFetchExecutor =
       new ClusterSchemaFetchExecutor(coordinator, templateManager, this, schemaCache::put);
 
@@ -623,6 +623,12 @@ public class ASTVisitor extends IoTDBSqlParserBaseVisitor<Statement> {
       SchemaFilter schemaFilter = parseTimeseriesWhereClause(ctx.timeseriesWhereClause());
       showTimeSeriesStatement.setSchemaFilter(schemaFilter);
     }
+    if (ctx.startAfterClause() != null) {
+      if (orderByHeat) {
+        throw new SemanticException("AFTER is not supported in SHOW LATEST TIMESERIES");
+      }
+      showTimeSeriesStatement.setStartAfter(parseFullPath(ctx.startAfterClause().fullPath()));
+    }
     if (ctx.rowPaginationClause() != null) {
       if (ctx.rowPaginationClause().limitClause() != null) {
         showTimeSeriesStatement.setLimit(parseLimitClause(ctx.rowPaginationClause().limitClause()));
@@ -708,6 +714,9 @@ public class ASTVisitor extends IoTDBSqlParserBaseVisitor<Statement> {
     if (ctx.devicesWhereClause() != null) {
       showDevicesStatement.setSchemaFilter(parseDevicesWhereClause(ctx.devicesWhereClause()));
     }
+    if (ctx.startAfterClause() != null) {
+      showDevicesStatement.setStartAfter(parseFullPath(ctx.startAfterClause().fullPath()));
+    }
 
     if (ctx.rowPaginationClause() != null) {
       if (ctx.rowPaginationClause().limitClause() != null) {
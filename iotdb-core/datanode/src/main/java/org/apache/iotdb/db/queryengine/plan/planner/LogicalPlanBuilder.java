@@ -1015,7 +1015,8 @@ public class LogicalPlanBuilder {
       boolean orderByHeat,
       boolean prefixPath,
       Map<Integer, Template> templateMap,
-      PathPatternTree scope) {
+      PathPatternTree scope,
+      PartialPath startAfter) {
     this.root =
         new TimeSeriesSchemaScanNode(
             context.getQueryId().genPlanNodeId(),
@@ -1026,7 +1027,8 @@ public class LogicalPlanBuilder {
             orderByHeat,
             prefixPath,
             templateMap,
-            scope);
+            scope,
+            startAfter);
     return this;
   }
 
@@ -1037,7 +1039,8 @@ public class LogicalPlanBuilder {
       boolean prefixPath,
       boolean hasSgCol,
       SchemaFilter schemaFilter,
-      PathPatternTree scope) {
+      PathPatternTree scope,
+      PartialPath startAfter) {
     this.root =
         new DevicesSchemaScanNode(
             context.getQueryId().genPlanNodeId(),
@@ -1047,13 +1050,18 @@ public class LogicalPlanBuilder {
             prefixPath,
             hasSgCol,
             schemaFilter,
-            scope);
+            scope,
+            startAfter);
     return this;
   }
 
   public LogicalPlanBuilder planSchemaQueryMerge(boolean orderByHeat) {
+    return planSchemaQueryMerge(orderByHeat, false);
+  }
+
+  public LogicalPlanBuilder planSchemaQueryMerge(boolean orderByHeat, boolean orderByPath) {
     SchemaQueryMergeNode schemaMergeNode =
-        new SchemaQueryMergeNode(context.getQueryId().genPlanNodeId(), orderByHeat);
+        new SchemaQueryMergeNode(context.getQueryId().genPlanNodeId(), orderByHeat, orderByPath);
     schemaMergeNode.addChild(this.getRoot());
     this.root = schemaMergeNode;
     return this;
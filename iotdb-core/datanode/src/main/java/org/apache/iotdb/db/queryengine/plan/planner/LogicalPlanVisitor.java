@@ -539,8 +539,11 @@ public class LogicalPlanVisitor extends StatementVisitor<PlanNode, MPPQueryConte
                 showTimeSeriesStatement.isOrderByHeat(),
                 showTimeSeriesStatement.isPrefixPath(),
                 analysis.getRelatedTemplateInfo(),
-                showTimeSeriesStatement.getAuthorityScope())
-            .planSchemaQueryMerge(showTimeSeriesStatement.isOrderByHeat());
+                showTimeSeriesStatement.getAuthorityScope(),
+                showTimeSeriesStatement.getStartAfter())
+            .planSchemaQueryMerge(
+                showTimeSeriesStatement.isOrderByHeat(),
+                showTimeSeriesStatement.getStartAfter() != null);
 
     // show latest timeseries
     if (showTimeSeriesStatement.isOrderByHeat()
@@ -588,8 +591,9 @@ public class LogicalPlanVisitor extends StatementVisitor<PlanNode, MPPQueryConte
                 showDevicesStatement.isPrefixPath(),
                 showDevicesStatement.hasSgCol(),
                 showDevicesStatement.getSchemaFilter(),
-                showDevicesStatement.getAuthorityScope())
-            .planSchemaQueryMerge(false);
+                showDevicesStatement.getAuthorityScope(),
+                showDevicesStatement.getStartAfter())
+            .planSchemaQueryMerge(false, showDevicesStatement.getStartAfter() != null);
 
     if (!canPushDownOffsetLimit) {
       return planBuilder
@@ -287,6 +287,7 @@ import static org.apache.iotdb.db.queryengine.execution.operator.AggregationUtil
 import static org.apache.iotdb.db.queryengine.execution.operator.AggregationUtil.getOutputColumnSizePerLine;
 import static org.apache.iotdb.db.queryengine.execution.operator.AggregationUtil.initTimeRangeIterator;
 import static org.apache.iotdb.db.queryengine.execution.operator.process.join.merge.MergeSortComparator.getComparator;
+import static org.apache.iotdb.db.queryengine.execution.operator.process.join.merge.MergeSortComparator.getPathComparator;
 import static org.apache.iotdb.db.queryengine.plan.analyze.PredicateUtils.convertPredicateToFilter;
 import static org.apache.iotdb.db.queryengine.plan.expression.leaf.TimestampOperand.TIMESTAMP_EXPRESSION_STRING;
 import static org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.AggregationDescriptor.getAggregationTypeByFuncName;
@@ -760,7 +761,8 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
             node.getOffset(),
             node.getSchemaFilter(),
             node.getTemplateMap(),
-            node.getScope()));
+            node.getScope(),
+            node.getStartAfter()));
   }
 
   @Override
@@ -783,12 +785,29 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
             node.getOffset(),
             node.isHasSgCol(),
             node.getSchemaFilter(),
-            node.getScope()));
+            node.getScope(),
+            node.getStartAfter()));
   }
 
   @Override
   public Operator visitSchemaQueryMerge(
       SchemaQueryMergeNode node, LocalExecutionPlanContext context) {
+    if (node.isOrderByPath()) {
+      OperatorContext operatorContext =
+          context
+              .getDriverContext()
+              .addOperatorContext(
+                  context.getNextOperatorId(),
+                  node.getPlanNodeId(),
+                  MergeSortOperator.class.getSimpleName());
+      List<Operator> children = dealWithConsumeAllChildrenPipelineBreaker(node, context);
+      // the columns of show time series and devices are all text, and the first one is the path
+      return new MergeSortOperator(
+          operatorContext,
+          children,
+          Collections.nCopies(node.getOutputColumnNames().size(), TSDataType.TEXT),
+          getPathComparator(0));
+    }
     List<Operator> children = dealWithConsumeChildrenOneByOneNode(node, context);
     OperatorContext operatorContext =
         context
@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.db.queryengine.plan.planner.distribution;
 
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupType;
 import org.apache.iotdb.common.rpc.thrift.TDataNodeLocation;
 import org.apache.iotdb.common.rpc.thrift.TEndPoint;
 import org.apache.iotdb.common.rpc.thrift.TRegionReplicaSet;
@@ -54,6 +55,7 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -171,6 +173,14 @@ public class SimpleFragmentParallelPlanner implements IFragmentParallelPlaner {
     } else {
       fragmentInstance.setExecutorAndHost(new StorageExecutor(regionReplicaSet));
       fragmentInstance.setHostDataNode(selectTargetDataNode(regionReplicaSet));
+      // the order of the replicas is only a routing priority, so every replica checks whether it
+      // is fresh enough, and the consensus layer knows whether the replica is the leader. Once some
+      // replica turned out too stale, the retry reads the leader without the bound, so that it
+      // won't be rejected again.
+      if (isFollowerReadWithBoundedStaleness(regionReplicaSet)
+          && queryContext.getStaleReplicas(regionReplicaSet.getRegionId()).isEmpty()) {
+        fragmentInstance.setMaxStalenessInMs(queryContext.getMaxStalenessInMs());
+      }
     }
 
     dataNodeFIMap.compute(
@@ -205,7 +215,8 @@ public class SimpleFragmentParallelPlanner implements IFragmentParallelPlaner {
         IoTDBDescriptor.getInstance().getConfig().getReadConsistencyLevel();
     // TODO: (Chen Rongzhao) need to make the values of ReadConsistencyLevel as static variable or
     // enums
-    boolean selectRandomDataNode = "weak".equals(readConsistencyLevel);
+    boolean selectRandomDataNode =
+        "weak".equals(readConsistencyLevel) || isFollowerReadWithBoundedStaleness(regionReplicaSet);
 
     // When planning fragment onto specific DataNode, the DataNode whose endPoint is in
     // black list won't be considered because it may have connection issue now.
@@ -221,6 +232,17 @@ public class SimpleFragmentParallelPlanner implements IFragmentParallelPlaner {
     if (regionReplicaSet.getDataNodeLocationsSize() != availableDataNodes.size()) {
       logger.info("available replicas: " + availableDataNodes);
     }
+    if (selectRandomDataNode) {
+      // prefer the leader, i.e. the first replica by routing priority, over the replicas which
+      // are too stale for the query
+      Set<TEndPoint> staleReplicas = queryContext.getStaleReplicas(regionReplicaSet.getRegionId());
+      if (!staleReplicas.isEmpty()) {
+        return availableDataNodes.stream()
+            .filter(location -> !staleReplicas.contains(location.getInternalEndPoint()))
+            .findFirst()
+            .orElse(availableDataNodes.get(0));
+      }
+    }
     int targetIndex;
     if (!selectRandomDataNode || queryContext.getSession() == null) {
       targetIndex = 0;
@@ -230,6 +252,12 @@ public class SimpleFragmentParallelPlanner implements IFragmentParallelPlaner {
     return availableDataNodes.get(targetIndex);
   }
 
+  /** Whether the query may read the data region from any replica which is not too stale. */
+  private boolean isFollowerReadWithBoundedStaleness(TRegionReplicaSet regionReplicaSet) {
+    return queryContext.getMaxStalenessInMs() >= 0
+        && regionReplicaSet.getRegionId().getType() == TConsensusGroupType.DataRegion;
+  }
+
   private List<TDataNodeLocation> filterAvailableTDataNode(
       List<TDataNodeLocation> originalDataNodeList) {
     List<TDataNodeLocation> result = new LinkedList<>();
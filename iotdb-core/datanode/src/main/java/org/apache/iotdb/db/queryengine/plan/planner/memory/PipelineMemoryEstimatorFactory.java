@@ -21,6 +21,7 @@ package org.apache.iotdb.db.queryengine.plan.planner.memory;
 
 import org.apache.iotdb.db.queryengine.execution.operator.Operator;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.metedata.read.SchemaQueryMergeNode;
 
 public class PipelineMemoryEstimatorFactory {
 
@@ -38,6 +39,8 @@ public class PipelineMemoryEstimatorFactory {
   public static boolean isConsumeChildrenOneByOneNode(final PlanNode node) {
     switch (node.getType()) {
       case SCHEMA_QUERY_MERGE:
+        // merging the children in path order consumes all of them at the same time
+        return !((SchemaQueryMergeNode) node).isOrderByPath();
       case COUNT_MERGE:
       case DEVICE_VIEW:
       case IDENTITY_SINK:
@@ -79,6 +79,10 @@ public class FragmentInstance implements IConsensusRequest {
   // We need to cache and calculate the statistics of this FragmentInstance if it is.
   private boolean isExplainAnalyze = false;
 
+  // If it is read from a replica other than the leader, how stale the replica may be in ms.
+  // Negative means no limit.
+  private long maxStalenessInMs = -1;
+
   // We can add some more params for a specific FragmentInstance
   // So that we can make different FragmentInstance owns different data range.
 
@@ -223,6 +227,10 @@ public class FragmentInstance implements IConsensusRequest {
     fragmentInstance.hostDataNode =
         hasHostDataNode ? ThriftCommonsSerDeUtils.deserializeTDataNodeLocation(buffer) : null;
     fragmentInstance.isExplainAnalyze = ReadWriteIOUtils.readBool(buffer);
+    // absent unless the query reads with bounded staleness, see serializeToByteBuffer
+    if (buffer.hasRemaining()) {
+      fragmentInstance.maxStalenessInMs = ReadWriteIOUtils.readLong(buffer);
+    }
     return fragmentInstance;
   }
 
@@ -247,6 +255,11 @@ public class FragmentInstance implements IConsensusRequest {
         ThriftCommonsSerDeUtils.serializeTDataNodeLocation(hostDataNode, outputStream);
       }
       ReadWriteIOUtils.write(isExplainAnalyze, outputStream);
+      // written last and only when set, so the format stays the same for other queries, and nodes
+      // of former versions just ignore it
+      if (maxStalenessInMs >= 0) {
+        ReadWriteIOUtils.write(maxStalenessInMs, outputStream);
+      }
       return ByteBuffer.wrap(publicBAOS.getBuf(), 0, publicBAOS.size());
     } catch (IOException e) {
       LOGGER.error("Unexpected error occurs when serializing this FragmentInstance.", e);
@@ -295,4 +308,12 @@ public class FragmentInstance implements IConsensusRequest {
   public boolean isExplainAnalyze() {
     return isExplainAnalyze;
   }
+
+  public long getMaxStalenessInMs() {
+    return maxStalenessInMs;
+  }
+
+  public void setMaxStalenessInMs(long maxStalenessInMs) {
+    this.maxStalenessInMs = maxStalenessInMs;
+  }
 }
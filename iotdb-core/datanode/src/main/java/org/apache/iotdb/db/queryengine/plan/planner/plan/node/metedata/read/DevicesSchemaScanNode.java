@@ -42,6 +42,9 @@ public class DevicesSchemaScanNode extends SchemaQueryScanNode {
   private final boolean hasSgCol;
   private final SchemaFilter schemaFilter;
 
+  // if not null, the devices are returned in path order starting after this path
+  private final PartialPath startAfter;
+
   public DevicesSchemaScanNode(
       PlanNodeId id,
       PartialPath path,
@@ -51,9 +54,23 @@ public class DevicesSchemaScanNode extends SchemaQueryScanNode {
       boolean hasSgCol,
       SchemaFilter schemaFilter,
       PathPatternTree scope) {
+    this(id, path, limit, offset, isPrefixPath, hasSgCol, schemaFilter, scope, null);
+  }
+
+  public DevicesSchemaScanNode(
+      PlanNodeId id,
+      PartialPath path,
+      long limit,
+      long offset,
+      boolean isPrefixPath,
+      boolean hasSgCol,
+      SchemaFilter schemaFilter,
+      PathPatternTree scope,
+      PartialPath startAfter) {
     super(id, path, limit, offset, isPrefixPath, scope);
     this.hasSgCol = hasSgCol;
     this.schemaFilter = schemaFilter;
+    this.startAfter = startAfter;
   }
 
   public boolean isHasSgCol() {
@@ -64,6 +81,10 @@ public class DevicesSchemaScanNode extends SchemaQueryScanNode {
     return schemaFilter;
   }
 
+  public PartialPath getStartAfter() {
+    return startAfter;
+  }
+
   @Override
   public PlanNodeType getType() {
     return PlanNodeType.DEVICES_SCHEMA_SCAN;
@@ -72,7 +93,15 @@ public class DevicesSchemaScanNode extends SchemaQueryScanNode {
   @Override
   public PlanNode clone() {
     return new DevicesSchemaScanNode(
-        getPlanNodeId(), path, limit, offset, isPrefixPath, hasSgCol, schemaFilter, scope);
+        getPlanNodeId(),
+        path,
+        limit,
+        offset,
+        isPrefixPath,
+        hasSgCol,
+        schemaFilter,
+        scope,
+        startAfter);
   }
 
   @Override
@@ -97,6 +126,10 @@ public class DevicesSchemaScanNode extends SchemaQueryScanNode {
     ReadWriteIOUtils.write(isPrefixPath, byteBuffer);
     ReadWriteIOUtils.write(hasSgCol, byteBuffer);
     SchemaFilter.serialize(schemaFilter, byteBuffer);
+    ReadWriteIOUtils.write(startAfter != null, byteBuffer);
+    if (startAfter != null) {
+      ReadWriteIOUtils.write(startAfter.getFullPath(), byteBuffer);
+    }
   }
 
   @Override
@@ -109,25 +142,33 @@ public class DevicesSchemaScanNode extends SchemaQueryScanNode {
     ReadWriteIOUtils.write(isPrefixPath, stream);
     ReadWriteIOUtils.write(hasSgCol, stream);
     SchemaFilter.serialize(schemaFilter, stream);
+    ReadWriteIOUtils.write(startAfter != null, stream);
+    if (startAfter != null) {
+      ReadWriteIOUtils.write(startAfter.getFullPath(), stream);
+    }
   }
 
   public static DevicesSchemaScanNode deserialize(ByteBuffer byteBuffer) {
     String fullPath = ReadWriteIOUtils.readString(byteBuffer);
-    PartialPath path;
-    try {
-      path = new PartialPath(fullPath);
-    } catch (IllegalPathException e) {
-      throw new IllegalArgumentException("Cannot deserialize DevicesSchemaScanNode", e);
-    }
     PathPatternTree scope = PathPatternTree.deserialize(byteBuffer);
     long limit = ReadWriteIOUtils.readLong(byteBuffer);
     long offset = ReadWriteIOUtils.readLong(byteBuffer);
     boolean isPrefixPath = ReadWriteIOUtils.readBool(byteBuffer);
     boolean hasSgCol = ReadWriteIOUtils.readBool(byteBuffer);
     SchemaFilter schemaFilter = SchemaFilter.deserialize(byteBuffer);
+    String startAfterPath =
+        ReadWriteIOUtils.readBool(byteBuffer) ? ReadWriteIOUtils.readString(byteBuffer) : null;
+    PartialPath path;
+    PartialPath startAfter;
+    try {
+      path = new PartialPath(fullPath);
+      startAfter = startAfterPath == null ? null : new PartialPath(startAfterPath);
+    } catch (IllegalPathException e) {
+      throw new IllegalArgumentException("Cannot deserialize DevicesSchemaScanNode", e);
+    }
     PlanNodeId planNodeId = PlanNodeId.deserialize(byteBuffer);
     return new DevicesSchemaScanNode(
-        planNodeId, path, limit, offset, isPrefixPath, hasSgCol, schemaFilter, scope);
+        planNodeId, path, limit, offset, isPrefixPath, hasSgCol, schemaFilter, scope, startAfter);
   }
 
   @Override
@@ -142,12 +183,14 @@ public class DevicesSchemaScanNode extends SchemaQueryScanNode {
       return false;
     }
     DevicesSchemaScanNode that = (DevicesSchemaScanNode) o;
-    return hasSgCol == that.hasSgCol && Objects.equals(schemaFilter, that.schemaFilter);
+    return hasSgCol == that.hasSgCol
+        && Objects.equals(schemaFilter, that.schemaFilter)
+        && Objects.equals(startAfter, that.startAfter);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(super.hashCode(), hasSgCol, schemaFilter);
+    return Objects.hash(super.hashCode(), hasSgCol, schemaFilter, startAfter);
   }
 
   @Override
@@ -24,6 +24,8 @@ import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeType;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanVisitor;
 
+import org.apache.tsfile.utils.ReadWriteIOUtils;
+
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -33,6 +35,9 @@ public class SchemaQueryMergeNode extends AbstractSchemaMergeNode {
 
   private boolean orderByHeat;
 
+  // if true, the children are merged in path order rather than concatenated
+  private boolean orderByPath;
+
   public SchemaQueryMergeNode(PlanNodeId id) {
     super(id);
   }
@@ -47,28 +52,40 @@ public class SchemaQueryMergeNode extends AbstractSchemaMergeNode {
     this.orderByHeat = orderByHeat;
   }
 
+  public SchemaQueryMergeNode(PlanNodeId id, boolean orderByHeat, boolean orderByPath) {
+    this(id, orderByHeat);
+    this.orderByPath = orderByPath;
+  }
+
   public boolean isOrderByHeat() {
     return orderByHeat;
   }
 
+  public boolean isOrderByPath() {
+    return orderByPath;
+  }
+
   @Override
   public PlanNode clone() {
-    return new SchemaQueryMergeNode(getPlanNodeId(), this.orderByHeat);
+    return new SchemaQueryMergeNode(getPlanNodeId(), this.orderByHeat, this.orderByPath);
   }
 
   @Override
   protected void serializeAttributes(ByteBuffer byteBuffer) {
     PlanNodeType.SCHEMA_QUERY_MERGE.serialize(byteBuffer);
+    ReadWriteIOUtils.write(orderByPath, byteBuffer);
   }
 
   @Override
   protected void serializeAttributes(DataOutputStream stream) throws IOException {
     PlanNodeType.SCHEMA_QUERY_MERGE.serialize(stream);
+    ReadWriteIOUtils.write(orderByPath, stream);
   }
 
   public static SchemaQueryMergeNode deserialize(ByteBuffer byteBuffer) {
+    boolean orderByPath = ReadWriteIOUtils.readBool(byteBuffer);
     PlanNodeId id = PlanNodeId.deserialize(byteBuffer);
-    return new SchemaQueryMergeNode(id);
+    return new SchemaQueryMergeNode(id, false, orderByPath);
   }
 
   @Override
@@ -87,11 +104,11 @@ public class SchemaQueryMergeNode extends AbstractSchemaMergeNode {
     if (o == null || getClass() != o.getClass()) return false;
     if (!super.equals(o)) return false;
     SchemaQueryMergeNode that = (SchemaQueryMergeNode) o;
-    return orderByHeat == that.orderByHeat;
+    return orderByHeat == that.orderByHeat && orderByPath == that.orderByPath;
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(super.hashCode(), orderByHeat);
+    return Objects.hash(super.hashCode(), orderByHeat, orderByPath);
   }
 }
@@ -51,6 +51,9 @@ public class TimeSeriesSchemaScanNode extends SchemaQueryScanNode {
 
   private final Map<Integer, Template> templateMap;
 
+  // if not null, the timeseries are returned in path order starting after this path
+  private final PartialPath startAfter;
+
   public TimeSeriesSchemaScanNode(
       PlanNodeId id,
       PartialPath partialPath,
@@ -61,10 +64,35 @@ public class TimeSeriesSchemaScanNode extends SchemaQueryScanNode {
       boolean isPrefixPath,
       @NotNull Map<Integer, Template> templateMap,
       @NotNull PathPatternTree scope) {
+    this(
+        id,
+        partialPath,
+        schemaFilter,
+        limit,
+        offset,
+        orderByHeat,
+        isPrefixPath,
+        templateMap,
+        scope,
+        null);
+  }
+
+  public TimeSeriesSchemaScanNode(
+      PlanNodeId id,
+      PartialPath partialPath,
+      SchemaFilter schemaFilter,
+      long limit,
+      long offset,
+      boolean orderByHeat,
+      boolean isPrefixPath,
+      @NotNull Map<Integer, Template> templateMap,
+      @NotNull PathPatternTree scope,
+      PartialPath startAfter) {
     super(id, partialPath, limit, offset, isPrefixPath, scope);
     this.schemaFilter = schemaFilter;
     this.orderByHeat = orderByHeat;
     this.templateMap = templateMap;
+    this.startAfter = startAfter;
   }
 
   public SchemaFilter getSchemaFilter() {
@@ -81,6 +109,10 @@ public class TimeSeriesSchemaScanNode extends SchemaQueryScanNode {
     ReadWriteIOUtils.write(offset, byteBuffer);
     ReadWriteIOUtils.write(orderByHeat, byteBuffer);
     ReadWriteIOUtils.write(isPrefixPath, byteBuffer);
+    ReadWriteIOUtils.write(startAfter != null, byteBuffer);
+    if (startAfter != null) {
+      ReadWriteIOUtils.write(startAfter.getFullPath(), byteBuffer);
+    }
 
     ReadWriteIOUtils.write(templateMap.size(), byteBuffer);
     for (Template template : templateMap.values()) {
@@ -98,6 +130,10 @@ public class TimeSeriesSchemaScanNode extends SchemaQueryScanNode {
     ReadWriteIOUtils.write(offset, stream);
     ReadWriteIOUtils.write(orderByHeat, stream);
     ReadWriteIOUtils.write(isPrefixPath, stream);
+    ReadWriteIOUtils.write(startAfter != null, stream);
+    if (startAfter != null) {
+      ReadWriteIOUtils.write(startAfter.getFullPath(), stream);
+    }
 
     ReadWriteIOUtils.write(templateMap.size(), stream);
     for (Template template : templateMap.values()) {
@@ -107,18 +143,22 @@ public class TimeSeriesSchemaScanNode extends SchemaQueryScanNode {
 
   public static TimeSeriesSchemaScanNode deserialize(ByteBuffer byteBuffer) {
     String fullPath = ReadWriteIOUtils.readString(byteBuffer);
-    PartialPath path;
-    try {
-      path = new PartialPath(fullPath);
-    } catch (IllegalPathException e) {
-      throw new IllegalArgumentException("Cannot deserialize TimeSeriesSchemaScanNode", e);
-    }
     PathPatternTree scope = PathPatternTree.deserialize(byteBuffer);
     SchemaFilter schemaFilter = SchemaFilter.deserialize(byteBuffer);
     long limit = ReadWriteIOUtils.readLong(byteBuffer);
     long offset = ReadWriteIOUtils.readLong(byteBuffer);
     boolean oderByHeat = ReadWriteIOUtils.readBool(byteBuffer);
     boolean isPrefixPath = ReadWriteIOUtils.readBool(byteBuffer);
+    String startAfterPath =
+        ReadWriteIOUtils.readBool(byteBuffer) ? ReadWriteIOUtils.readString(byteBuffer) : null;
+    PartialPath path;
+    PartialPath startAfter;
+    try {
+      path = new PartialPath(fullPath);
+      startAfter = startAfterPath == null ? null : new PartialPath(startAfterPath);
+    } catch (IllegalPathException e) {
+      throw new IllegalArgumentException("Cannot deserialize TimeSeriesSchemaScanNode", e);
+    }
 
     int templateNum = ReadWriteIOUtils.readInt(byteBuffer);
     Map<Integer, Template> templateMap = new HashMap<>();
@@ -140,13 +180,18 @@ public class TimeSeriesSchemaScanNode extends SchemaQueryScanNode {
         oderByHeat,
         isPrefixPath,
         templateMap,
-        scope);
+        scope,
+        startAfter);
   }
 
   public boolean isOrderByHeat() {
     return orderByHeat;
   }
 
+  public PartialPath getStartAfter() {
+    return startAfter;
+  }
+
   public Map<Integer, Template> getTemplateMap() {
     return templateMap;
   }
@@ -167,7 +212,8 @@ public class TimeSeriesSchemaScanNode extends SchemaQueryScanNode {
         orderByHeat,
         isPrefixPath,
         templateMap,
-        scope);
+        scope,
+        startAfter);
   }
 
   @Override
@@ -189,12 +235,14 @@ public class TimeSeriesSchemaScanNode extends SchemaQueryScanNode {
       return false;
     }
     TimeSeriesSchemaScanNode that = (TimeSeriesSchemaScanNode) o;
-    return orderByHeat == that.orderByHeat && Objects.equals(schemaFilter, that.schemaFilter);
+    return orderByHeat == that.orderByHeat
+        && Objects.equals(schemaFilter, that.schemaFilter)
+        && Objects.equals(startAfter, that.startAfter);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(super.hashCode(), schemaFilter, orderByHeat);
+    return Objects.hash(super.hashCode(), schemaFilter, orderByHeat, startAfter);
   }
 
   @Override
@@ -309,7 +309,10 @@ public class FragmentInstanceDispatcherImpl implements IFragInstanceDispatcher {
               client.sendFragmentInstance(sendFragmentInstanceReq);
           if (!sendFragmentInstanceResp.accepted) {
             logger.warn(sendFragmentInstanceResp.message);
-            if (sendFragmentInstanceResp.isSetNeedRetry()
+            if (sendFragmentInstanceResp.isSetStaleReplica()
+                && sendFragmentInstanceResp.isStaleReplica()) {
+              throw staleReplicaException(instance, endPoint, sendFragmentInstanceResp.message);
+            } else if (sendFragmentInstanceResp.isSetNeedRetry()
                 && sendFragmentInstanceResp.isNeedRetry()) {
               throw new RatisReadUnavailableException(sendFragmentInstanceResp.message);
             } else {
@@ -389,6 +392,17 @@ public class FragmentInstanceDispatcherImpl implements IFragInstanceDispatcher {
     }
   }
 
+  /**
+   * The replica is too stale for the query, so the query is retried, reading the region from
+   * another replica while the DataNode of the stale replica still serves the other regions.
+   */
+  private FragmentInstanceDispatchException staleReplicaException(
+      FragmentInstance instance, TEndPoint endPoint, String message) {
+    queryContext.addStaleReplica(instance.getRegionReplicaSet().getRegionId(), endPoint);
+    return new FragmentInstanceDispatchException(
+        RpcUtils.getStatus(TSStatusCode.DISPATCH_ERROR, message));
+  }
+
   private void dispatchLocally(FragmentInstance instance) throws FragmentInstanceDispatchException {
     // deserialize ConsensusGroupId
     ConsensusGroupId groupId = null;
@@ -415,6 +429,10 @@ public class FragmentInstanceDispatcherImpl implements IFragInstanceDispatcher {
                 : readExecutor.execute(groupId, instance);
         if (!readResult.isAccepted()) {
           logger.warn(readResult.getMessage());
+          if (readResult.isStaleReplica()) {
+            throw staleReplicaException(
+                instance, instance.getHostDataNode().getInternalEndPoint(), readResult.getMessage());
+          }
           throw new FragmentInstanceDispatchException(
               RpcUtils.getStatus(TSStatusCode.EXECUTE_STATEMENT_ERROR, readResult.getMessage()));
         }
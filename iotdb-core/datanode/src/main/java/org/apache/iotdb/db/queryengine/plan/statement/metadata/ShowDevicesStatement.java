@@ -31,7 +31,7 @@ import java.util.List;
  *
  * <p>Here is the syntax definition:
  *
- * <p>SHOW DEVICES [pathPattern] [WITH DATABASE] [LIMIT limit] [OFFSET offset]
+ * <p>SHOW DEVICES [pathPattern] [WITH DATABASE] [AFTER fullPath] [LIMIT limit] [OFFSET offset]
  */
 public class ShowDevicesStatement extends ShowStatement {
 
@@ -39,6 +39,10 @@ public class ShowDevicesStatement extends ShowStatement {
   private boolean hasSgCol;
   private SchemaFilter schemaFilter;
 
+  // if not null, the devices are returned in path order starting after this path, which is the last
+  // one of the previous page
+  private PartialPath startAfter;
+
   public ShowDevicesStatement(PartialPath pathPattern) {
     super();
     this.pathPattern = pathPattern;
@@ -64,6 +68,14 @@ public class ShowDevicesStatement extends ShowStatement {
     return hasSgCol;
   }
 
+  public PartialPath getStartAfter() {
+    return startAfter;
+  }
+
+  public void setStartAfter(PartialPath startAfter) {
+    this.startAfter = startAfter;
+  }
+
   @Override
   public <R, C> R accept(StatementVisitor<R, C> visitor, C context) {
     return visitor.visitShowDevices(this, context);
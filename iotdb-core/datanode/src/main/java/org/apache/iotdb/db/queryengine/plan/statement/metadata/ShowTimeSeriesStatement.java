@@ -31,8 +31,8 @@ import java.util.List;
  *
  * <p>Here is the syntax definition:
  *
- * <p>SHOW [LATEST] TIMESERIES [pathPattern] [WHERE key { = | CONTAINS } value] [LIMIT limit]
- * [OFFSET offset]
+ * <p>SHOW [LATEST] TIMESERIES [pathPattern] [WHERE key { = | CONTAINS } value] [AFTER fullPath]
+ * [LIMIT limit] [OFFSET offset]
  */
 public class ShowTimeSeriesStatement extends ShowStatement {
 
@@ -43,6 +43,10 @@ public class ShowTimeSeriesStatement extends ShowStatement {
   // if is true, the result will be sorted according to the inserting frequency of the time series
   private final boolean orderByHeat;
 
+  // if not null, the time series are returned in path order starting after this path, which is the
+  // last one of the previous page
+  private PartialPath startAfter;
+
   public ShowTimeSeriesStatement(PartialPath pathPattern, boolean orderByHeat) {
     super();
     this.pathPattern = pathPattern;
@@ -65,6 +69,14 @@ public class ShowTimeSeriesStatement extends ShowStatement {
     return orderByHeat;
   }
 
+  public PartialPath getStartAfter() {
+    return startAfter;
+  }
+
+  public void setStartAfter(PartialPath startAfter) {
+    this.startAfter = startAfter;
+  }
+
   @Override
   public List<PartialPath> getPaths() {
     return Collections.singletonList(pathPattern);
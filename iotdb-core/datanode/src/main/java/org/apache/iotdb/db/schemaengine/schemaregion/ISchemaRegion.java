@@ -308,5 +308,21 @@ public interface ISchemaRegion {
   ISchemaReader<INodeSchemaInfo> getNodeReader(IShowNodesPlan showNodesPlan)
       throws MetadataException;
 
+  /**
+   * Count the timeseries matching the given pattern with the subtree counters maintained in MTree,
+   * without reading each of them.
+   *
+   * @return the count, or -1 if the pattern can't be answered by the counters
+   */
+  long countTimeSeriesBySubtreeCounter(PartialPath pathPattern);
+
+  /**
+   * Count the devices matching the given pattern with the subtree counters maintained in MTree,
+   * without reading each of them.
+   *
+   * @return the count, or -1 if the pattern can't be answered by the counters
+   */
+  long countDevicesBySubtreeCounter(PartialPath pathPattern);
+
   // endregion
 }
@@ -580,18 +580,8 @@ public class SchemaRegionMemoryImpl implements ISchemaRegion {
       // update statistics and schemaDataTypeNumMap
       regionStatistics.addMeasurement(1L);
 
-      // update tag index
-      if (offset != -1 && isRecovering) {
-        // the timeseries has already been created and now system is recovering, using the tag
-        // info
-        // in tagFile to recover index directly
-        tagManager.recoverIndex(offset, leafMNode);
-      } else if (plan.getTags() != null) {
-        // tag key, tag value
-        tagManager.addIndex(plan.getTags(), leafMNode);
-      }
-
       // write log
+      boolean isRecoveringTags = offset != -1 && isRecovering;
       if (!isRecovering) {
         // either tags or attributes is not empty
         if ((plan.getTags() != null && !plan.getTags().isEmpty())
@@ -605,6 +595,17 @@ public class SchemaRegionMemoryImpl implements ISchemaRegion {
         leafMNode.setOffset(offset);
       }
 
+      // update tag index, which is identified by the tag offset
+      if (isRecoveringTags) {
+        // the timeseries has already been created and now system is recovering, using the tag
+        // info
+        // in tagFile to recover index directly
+        tagManager.recoverIndex(offset, leafMNode);
+      } else if (plan.getTags() != null) {
+        // tag key, tag value
+        tagManager.addIndex(plan.getTags(), leafMNode);
+      }
+
     } catch (IOException e) {
       throw new MetadataException(e);
     }
@@ -650,18 +651,7 @@ public class SchemaRegionMemoryImpl implements ISchemaRegion {
       regionStatistics.addMeasurement(seriesCount);
 
       List<Long> tagOffsets = plan.getTagOffsets();
-      for (int i = 0; i < measurements.size(); i++) {
-        if (tagOffsets != null && !plan.getTagOffsets().isEmpty() && isRecovering) {
-          if (tagOffsets.get(i) != -1) {
-            tagManager.recoverIndex(plan.getTagOffsets().get(i), measurementMNodeList.get(i));
-          }
-        } else if (tagsList != null && !tagsList.isEmpty()) {
-          if (tagsList.get(i) != null) {
-            // tag key, tag value
-            tagManager.addIndex(tagsList.get(i), measurementMNodeList.get(i));
-          }
-        }
-      }
+      boolean isRecoveringTags = tagOffsets != null && !tagOffsets.isEmpty() && isRecovering;
 
       // write log
       tagOffsets = new ArrayList<>();
@@ -693,6 +683,20 @@ public class SchemaRegionMemoryImpl implements ISchemaRegion {
           measurementMNodeList.get(i).setOffset(tagOffsets.get(i));
         }
       }
+
+      // update tag index, which is identified by the tag offset
+      for (int i = 0; i < measurements.size(); i++) {
+        if (isRecoveringTags) {
+          if (tagOffsets.get(i) != -1) {
+            tagManager.recoverIndex(tagOffsets.get(i), measurementMNodeList.get(i));
+          }
+        } else if (tagsList != null && !tagsList.isEmpty()) {
+          if (tagsList.get(i) != null) {
+            // tag key, tag value
+            tagManager.addIndex(tagsList.get(i), measurementMNodeList.get(i));
+          }
+        }
+      }
     } catch (IOException e) {
       throw new MetadataException(e);
     }
@@ -1286,6 +1290,16 @@ public class SchemaRegionMemoryImpl implements ISchemaRegion {
     return mtree.getNodeReader(showNodesPlan);
   }
 
+  @Override
+  public long countTimeSeriesBySubtreeCounter(PartialPath pathPattern) {
+    return mtree.countBySubtreeCounter(pathPattern, false);
+  }
+
+  @Override
+  public long countDevicesBySubtreeCounter(PartialPath pathPattern) {
+    return mtree.countBySubtreeCounter(pathPattern, true);
+  }
+
   // endregion
 
   private static class RecoverOperationResult {
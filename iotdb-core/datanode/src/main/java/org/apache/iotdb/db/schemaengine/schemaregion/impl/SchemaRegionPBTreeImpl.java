@@ -631,20 +631,8 @@ public class SchemaRegionPBTreeImpl implements ISchemaRegion {
         // update statistics and schemaDataTypeNumMap
         regionStatistics.addMeasurement(1L);
 
-        // update tag index
-        if (offset != -1 && isRecovering) {
-          // the timeseries has already been created and now system is recovering, using the tag
-          // info
-          // in tagFile to recover index directly
-          tagManager.recoverIndex(offset, leafMNode);
-          mtree.pinMNode(leafMNode.getAsMNode());
-        } else if (plan.getTags() != null) {
-          // tag key, tag value
-          tagManager.addIndex(plan.getTags(), leafMNode);
-          mtree.pinMNode(leafMNode.getAsMNode());
-        }
-
         // write log
+        boolean isRecoveringTags = offset != -1 && isRecovering;
         if (!isRecovering) {
           // either tags or attributes is not empty
           if ((plan.getTags() != null && !plan.getTags().isEmpty())
@@ -660,6 +648,19 @@ public class SchemaRegionPBTreeImpl implements ISchemaRegion {
               leafMNode.getAsMNode(), o -> o.getAsMeasurementMNode().setOffset(finalOffset));
         }
 
+        // update tag index, which is identified by the tag offset
+        if (isRecoveringTags) {
+          // the timeseries has already been created and now system is recovering, using the tag
+          // info
+          // in tagFile to recover index directly
+          tagManager.recoverIndex(offset, leafMNode);
+          mtree.pinMNode(leafMNode.getAsMNode());
+        } else if (plan.getTags() != null) {
+          // tag key, tag value
+          tagManager.addIndex(plan.getTags(), leafMNode);
+          mtree.pinMNode(leafMNode.getAsMNode());
+        }
+
       } finally {
         mtree.unPinMNode(leafMNode.getAsMNode());
       }
@@ -726,20 +727,7 @@ public class SchemaRegionPBTreeImpl implements ISchemaRegion {
         regionStatistics.addMeasurement(seriesCount);
 
         List<Long> tagOffsets = plan.getTagOffsets();
-        for (int i = 0; i < measurements.size(); i++) {
-          if (tagOffsets != null && !plan.getTagOffsets().isEmpty() && isRecovering) {
-            if (tagOffsets.get(i) != -1) {
-              tagManager.recoverIndex(plan.getTagOffsets().get(i), measurementMNodeList.get(i));
-              mtree.pinMNode(measurementMNodeList.get(i).getAsMNode());
-            }
-          } else if (tagsList != null && !tagsList.isEmpty()) {
-            if (tagsList.get(i) != null) {
-              // Tag key, tag value
-              tagManager.addIndex(tagsList.get(i), measurementMNodeList.get(i));
-              mtree.pinMNode(measurementMNodeList.get(i).getAsMNode());
-            }
-          }
-        }
+        boolean isRecoveringTags = tagOffsets != null && !tagOffsets.isEmpty() && isRecovering;
 
         // Write log
         tagOffsets = new ArrayList<>();
@@ -774,6 +762,22 @@ public class SchemaRegionPBTreeImpl implements ISchemaRegion {
                 o -> o.getAsMeasurementMNode().setOffset(offset));
           }
         }
+
+        // Update tag index, which is identified by the tag offset
+        for (int i = 0; i < measurements.size(); i++) {
+          if (isRecoveringTags) {
+            if (tagOffsets.get(i) != -1) {
+              tagManager.recoverIndex(tagOffsets.get(i), measurementMNodeList.get(i));
+              mtree.pinMNode(measurementMNodeList.get(i).getAsMNode());
+            }
+          } else if (tagsList != null && !tagsList.isEmpty()) {
+            if (tagsList.get(i) != null) {
+              // Tag key, tag value
+              tagManager.addIndex(tagsList.get(i), measurementMNodeList.get(i));
+              mtree.pinMNode(measurementMNodeList.get(i).getAsMNode());
+            }
+          }
+        }
       } finally {
         for (IMeasurementMNode<ICachedMNode> measurementMNode : measurementMNodeList) {
           mtree.unPinMNode(measurementMNode.getAsMNode());
@@ -1391,6 +1395,18 @@ public class SchemaRegionPBTreeImpl implements ISchemaRegion {
     return mtree.getNodeReader(showNodesPlan);
   }
 
+  // The MNodes in PBTree may be evicted to disk, whose counters can't be maintained without
+  // loading them back, thus counting always traverses the MTree.
+  @Override
+  public long countTimeSeriesBySubtreeCounter(PartialPath pathPattern) {
+    return -1;
+  }
+
+  @Override
+  public long countDevicesBySubtreeCounter(PartialPath pathPattern) {
+    return -1;
+  }
+
   // endregion
 
   private static class RecoverOperationResult {
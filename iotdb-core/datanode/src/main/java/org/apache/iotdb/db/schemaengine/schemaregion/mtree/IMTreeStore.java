@@ -28,6 +28,9 @@ import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.pbtree.memory.Re
 import org.apache.iotdb.db.schemaengine.template.Template;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
 
@@ -71,6 +74,35 @@ public interface IMTreeStore<N extends IMNode<N>> {
       N parent, Map<Integer, Template> templateMap, boolean skipPreDeletedSchema)
       throws MetadataException;
 
+  /**
+   * Get the names of the children returned by {@link #getTraverserIterator} in order, starting
+   * from the given name, or the first one after it if absent.
+   *
+   * <p>By default, all the children are listed and their names are sorted. Implementations keeping
+   * the children ordered should seek to the given name instead.
+   *
+   * @param startName null means starting from the first child
+   */
+  default Iterator<String> getSortedChildrenName(
+      N parent, Map<Integer, Template> templateMap, boolean skipPreDeletedSchema, String startName)
+      throws MetadataException {
+    List<String> childrenName = new ArrayList<>();
+    IMNodeIterator<N> iterator = getTraverserIterator(parent, templateMap, skipPreDeletedSchema);
+    try {
+      while (iterator.hasNext()) {
+        N child = iterator.next();
+        if (startName == null || child.getName().compareTo(startName) >= 0) {
+          childrenName.add(child.getName());
+        }
+        unPin(child);
+      }
+    } finally {
+      iterator.close();
+    }
+    childrenName.sort(null);
+    return childrenName.iterator();
+  }
+
   N addChild(N parent, String childName, N child);
 
   void deleteChild(N parent, String childName) throws MetadataException;
@@ -24,6 +24,7 @@ import org.apache.iotdb.commons.exception.MetadataException;
 import org.apache.iotdb.commons.path.MeasurementPath;
 import org.apache.iotdb.commons.path.PartialPath;
 import org.apache.iotdb.commons.path.PathPatternTree;
+import org.apache.iotdb.commons.path.PathPatternUtil;
 import org.apache.iotdb.commons.schema.SchemaConstant;
 import org.apache.iotdb.commons.schema.node.role.IDeviceMNode;
 import org.apache.iotdb.commons.schema.node.role.IMeasurementMNode;
@@ -46,6 +47,7 @@ import org.apache.iotdb.db.queryengine.common.schematree.ClusterSchemaTree;
 import org.apache.iotdb.db.schemaengine.metric.SchemaRegionMemMetric;
 import org.apache.iotdb.db.schemaengine.rescon.MemSchemaRegionStatistics;
 import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.mem.mnode.IMemMNode;
+import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.mem.mnode.impl.BasicInternalMNode;
 import org.apache.iotdb.db.schemaengine.schemaregion.mtree.loader.MNodeFactoryLoader;
 import org.apache.iotdb.db.schemaengine.schemaregion.mtree.traverser.collector.EntityCollector;
 import org.apache.iotdb.db.schemaengine.schemaregion.mtree.traverser.collector.MNodeCollector;
@@ -764,6 +766,67 @@ public class MTreeBelowSGMemoryImpl {
     return schemaTree;
   }
 
+  /**
+   * Count the timeseries or devices matching the given pattern with the subtree counters
+   * maintained at the internal MNodes, instead of visiting each of them. Only the pattern ending
+   * with "**" and without any other multi-level wildcard is supported. Its nodes before "**" are
+   * matched level by level, thus a single level wildcard only traverses the matched levels.
+   *
+   * @return the count, or -1 if the pattern can't be answered by the counters, including the case
+   *     of counting timeseries while some devices use template, whose series are not in MTree
+   */
+  public long countBySubtreeCounter(PartialPath pathPattern, boolean isCountDevice) {
+    String[] nodes = pathPattern.getNodes();
+    int tailIndex = nodes.length - 1;
+    // the pattern covering the whole database is answered by region statistics
+    if (tailIndex <= levelOfSG + 1
+        || !PathPatternUtil.isMultiLevelMatchWildcard(nodes[tailIndex])) {
+      return -1;
+    }
+    for (int i = 0; i < tailIndex; i++) {
+      if (PathPatternUtil.isMultiLevelMatchWildcard(nodes[i])) {
+        return -1;
+      }
+    }
+    if (!isCountDevice && regionStatistics.getTemplateActivatedNumber() > 0) {
+      return -1;
+    }
+    String[] databaseNodes = storageGroupMNode.getPartialPath().getNodes();
+    for (int i = 0; i <= levelOfSG; i++) {
+      if (PathPatternUtil.hasWildcard(nodes[i])
+          ? !PathPatternUtil.isNodeMatch(nodes[i], databaseNodes[i])
+          : !nodes[i].equals(databaseNodes[i])) {
+        return 0;
+      }
+    }
+    return countBySubtreeCounter(storageGroupMNode, nodes, levelOfSG + 1, isCountDevice);
+  }
+
+  private long countBySubtreeCounter(
+      IMemMNode node, String[] nodes, int index, boolean isCountDevice) {
+    if (index == nodes.length - 1) {
+      if (!(node instanceof BasicInternalMNode)) {
+        return 0;
+      }
+      BasicInternalMNode internalMNode = (BasicInternalMNode) node;
+      return isCountDevice
+          ? internalMNode.getSubtreeDeviceNum()
+          : internalMNode.getSubtreeSeriesNum();
+    }
+    // alias and template children are leaves, which contain nothing matched by the tail "**"
+    if (!PathPatternUtil.hasWildcard(nodes[index])) {
+      IMemMNode child = node.getChildren().get(nodes[index]);
+      return child == null ? 0 : countBySubtreeCounter(child, nodes, index + 1, isCountDevice);
+    }
+    long count = 0;
+    for (IMemMNode child : node.getChildren().values()) {
+      if (PathPatternUtil.isNodeMatch(nodes[index], child.getName())) {
+        count += countBySubtreeCounter(child, nodes, index + 1, isCountDevice);
+      }
+    }
+    return count;
+  }
+
   // endregion
 
   // region Interfaces and Implementation for MNode Query
@@ -967,6 +1030,7 @@ public class MTreeBelowSGMemoryImpl {
     if (showDevicesPlan.usingSchemaTemplate()) {
       collector.setSchemaTemplateFilter(showDevicesPlan.getSchemaTemplateId());
     }
+    collector.setStartAfter(showDevicesPlan.getStartAfter());
     ISchemaReader<IDeviceSchemaInfo> reader =
         new ISchemaReader<IDeviceSchemaInfo>() {
 
@@ -1082,9 +1146,13 @@ public class MTreeBelowSGMemoryImpl {
         };
 
     collector.setTemplateMap(showTimeSeriesPlan.getRelatedTemplate(), nodeFactory);
+    collector.setStartAfter(showTimeSeriesPlan.getStartAfter());
     ISchemaReader<ITimeSeriesSchemaInfo> reader =
         new TimeseriesReaderWithViewFetch(
-            collector, showTimeSeriesPlan.getSchemaFilter(), showTimeSeriesPlan.needViewDetail());
+            collector,
+            showTimeSeriesPlan.getSchemaFilter(),
+            showTimeSeriesPlan.needViewDetail(),
+            showTimeSeriesPlan.getStartAfter() != null);
     if (showTimeSeriesPlan.getLimit() > 0 || showTimeSeriesPlan.getOffset() > 0) {
       return new SchemaReaderLimitOffsetWrapper<>(
           reader, showTimeSeriesPlan.getLimit(), showTimeSeriesPlan.getOffset());
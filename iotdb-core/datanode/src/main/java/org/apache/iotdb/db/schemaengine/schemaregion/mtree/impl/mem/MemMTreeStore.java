@@ -25,13 +25,16 @@ import org.apache.iotdb.commons.exception.MetadataException;
 import org.apache.iotdb.commons.path.PartialPath;
 import org.apache.iotdb.commons.schema.node.role.IDeviceMNode;
 import org.apache.iotdb.commons.schema.node.role.IMeasurementMNode;
+import org.apache.iotdb.commons.schema.node.utils.IMNodeContainer;
 import org.apache.iotdb.commons.schema.node.utils.IMNodeFactory;
 import org.apache.iotdb.commons.schema.node.utils.IMNodeIterator;
 import org.apache.iotdb.db.schemaengine.metric.SchemaRegionMemMetric;
 import org.apache.iotdb.db.schemaengine.rescon.MemSchemaRegionStatistics;
 import org.apache.iotdb.db.schemaengine.schemaregion.mtree.IMTreeStore;
 import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.mem.mnode.IMemMNode;
+import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.mem.mnode.container.MemMNodeContainer;
 import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.mem.mnode.estimator.MNodeSizeEstimator;
+import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.mem.mnode.impl.BasicInternalMNode;
 import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.mem.mnode.iterator.AbstractTraverserIterator;
 import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.mem.mnode.iterator.MNodeIterator;
 import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.mem.mnode.iterator.MemoryTraverserIterator;
@@ -41,11 +44,19 @@ import org.apache.iotdb.db.schemaengine.schemaregion.mtree.loader.MNodeFactoryLo
 import org.apache.iotdb.db.schemaengine.schemaregion.utils.MNodeUtils;
 import org.apache.iotdb.db.schemaengine.template.Template;
 
+import com.google.common.collect.Iterators;
+
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.function.Consumer;
 
+import static org.apache.iotdb.commons.schema.SchemaConstant.NON_TEMPLATE;
+
 /** This is a memory-based implementation of IMTreeStore. All MNodes are stored in memory. */
 public class MemMTreeStore implements IMTreeStore<IMemMNode> {
 
@@ -129,18 +140,71 @@ public class MemMTreeStore implements IMTreeStore<IMemMNode> {
     }
   }
 
+  @Override
+  public Iterator<String> getSortedChildrenName(
+      IMemMNode parent,
+      Map<Integer, Template> templateMap,
+      boolean skipPreDeletedSchema,
+      String startName) {
+    IMNodeContainer<IMemMNode> children = parent.getChildren();
+    // the container without any child is not a MemMNodeContainer
+    Iterator<String> childrenName =
+        children instanceof MemMNodeContainer
+            ? ((MemMNodeContainer) children).getSortedNames(startName)
+            : Collections.emptyIterator();
+    if (skipPreDeletedSchema && parent.isDevice()) {
+      childrenName =
+          Iterators.filter(
+              childrenName,
+              childName -> {
+                IMemMNode child = parent.getChild(childName);
+                return child != null
+                    && !(child.isMeasurement() && child.getAsMeasurementMNode().isPreDeleted());
+              });
+    }
+    Template template = getActivatedTemplate(parent, templateMap, skipPreDeletedSchema);
+    if (template == null) {
+      return childrenName;
+    }
+    String[] measurements = template.getSortedMeasurements();
+    int start = startName == null ? 0 : Arrays.binarySearch(measurements, startName);
+    if (start < 0) {
+      start = -(start + 1);
+    }
+    return Iterators.mergeSorted(
+        Arrays.asList(
+            childrenName,
+            Arrays.asList(measurements).subList(start, measurements.length).iterator()),
+        Comparator.naturalOrder());
+  }
+
+  /** The template whose measurements are children of the given node, like the traverser gets. */
+  private Template getActivatedTemplate(
+      IMemMNode node, Map<Integer, Template> templateMap, boolean skipPreDeletedSchema) {
+    if (templateMap == null
+        || !node.isDevice()
+        || node.getAsDeviceMNode().getSchemaTemplateId() == NON_TEMPLATE
+        || (skipPreDeletedSchema && node.getAsDeviceMNode().isPreDeactivateTemplate())) {
+      return null;
+    }
+    return templateMap.get(node.getAsDeviceMNode().getSchemaTemplateId());
+  }
+
   @Override
   public IMemMNode addChild(IMemMNode parent, String childName, IMemMNode child) {
     IMemMNode result = parent.addChild(childName, child);
     if (result == child) {
       requestMemory(child.estimateSize());
+      updateSubtreeCounter(parent, getSeriesNum(child), getDeviceNum(child));
     }
     return result;
   }
 
   @Override
   public void deleteChild(IMemMNode parent, String childName) {
-    releaseMemory(parent.deleteChild(childName).estimateSize());
+    IMemMNode child = parent.deleteChild(childName);
+    releaseMemory(child.estimateSize());
+    updateSubtreeCounter(parent, -getSeriesNum(child), -getDeviceNum(child));
   }
 
   @Override
@@ -152,6 +216,7 @@ public class MemMTreeStore implements IMTreeStore<IMemMNode> {
     if (MNodeUtils.setToEntity(node)) {
       regionStatistics.addDevice();
       requestMemory(node.estimateSize() - rawSize);
+      updateSubtreeCounter(node.getParent(), 0, 1);
     }
 
     return node.getAsDeviceMNode();
@@ -163,6 +228,7 @@ public class MemMTreeStore implements IMTreeStore<IMemMNode> {
     if (MNodeUtils.setToInternal(entityMNode)) {
       regionStatistics.deleteDevice();
       releaseMemory(rawSize - entityMNode.estimateSize());
+      updateSubtreeCounter(entityMNode.getParent(), 0, -1);
     }
 
     return entityMNode.getAsMNode();
@@ -222,11 +288,66 @@ public class MemMTreeStore implements IMTreeStore<IMemMNode> {
       MemSchemaRegionStatistics regionStatistics,
       SchemaRegionMemMetric metric)
       throws IOException {
-    return new MemMTreeStore(
+    IMemMNode root =
         MemMTreeSnapshotUtil.loadSnapshot(
-            snapshotDir, measurementProcess, deviceProcess, regionStatistics),
-        regionStatistics,
-        metric);
+            snapshotDir, measurementProcess, deviceProcess, regionStatistics);
+    initSubtreeCounter(root);
+    return new MemMTreeStore(root, regionStatistics, metric);
+  }
+
+  /**
+   * Add the deltas to the subtree counters of the given node and its ancestors below database. The
+   * counters of database and the nodes above are not maintained since the region statistics
+   * already cover them.
+   */
+  private void updateSubtreeCounter(IMemMNode node, long seriesDelta, long deviceDelta) {
+    if (seriesDelta == 0 && deviceDelta == 0) {
+      return;
+    }
+    synchronized (this) {
+      for (IMemMNode cur = node;
+          cur instanceof BasicInternalMNode && !cur.isDatabase();
+          cur = cur.getParent()) {
+        ((BasicInternalMNode) cur).updateSubtreeCounter(seriesDelta, deviceDelta);
+      }
+    }
+  }
+
+  /** Timeseries number of the node and its subtree. */
+  private static long getSeriesNum(IMemMNode node) {
+    if (node.isMeasurement()) {
+      return 1;
+    }
+    return node instanceof BasicInternalMNode
+        ? ((BasicInternalMNode) node).getSubtreeSeriesNum()
+        : 0;
+  }
+
+  /** Device number of the node and its subtree. */
+  private static long getDeviceNum(IMemMNode node) {
+    if (node.isMeasurement()) {
+      return 0;
+    }
+    return (node.isDevice() ? 1 : 0)
+        + (node instanceof BasicInternalMNode
+            ? ((BasicInternalMNode) node).getSubtreeDeviceNum()
+            : 0);
+  }
+
+  /** Compute the subtree counters of all nodes below the given node, used after snapshot load. */
+  private static void initSubtreeCounter(IMemMNode node) {
+    long seriesNum = 0;
+    long deviceNum = 0;
+    for (IMemMNode child : node.getChildren().values()) {
+      if (!child.isMeasurement()) {
+        initSubtreeCounter(child);
+      }
+      seriesNum += getSeriesNum(child);
+      deviceNum += getDeviceNum(child);
+    }
+    if (node instanceof BasicInternalMNode) {
+      ((BasicInternalMNode) node).updateSubtreeCounter(seriesNum, deviceNum);
+    }
   }
 
   @Override
@@ -30,7 +30,6 @@ import org.apache.iotdb.commons.schema.node.utils.IMNodeContainer;
 import org.apache.iotdb.commons.schema.node.visitor.MNodeVisitor;
 import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.mem.mnode.IMemMNode;
 import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.mem.mnode.container.MemMNodeContainer;
-import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.mem.mnode.info.BasicMNodeInfo;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -44,7 +43,7 @@ public class BasicMNode implements IMemMNode {
   private static final long serialVersionUID = -770028375899514063L;
 
   private IMemMNode parent;
-  private final BasicMNodeInfo basicMNodeInfo;
+  private String name;
 
   /** from root to this node, only be set when used once for InternalMNode */
   private String fullPath;
@@ -52,17 +51,17 @@ public class BasicMNode implements IMemMNode {
   /** Constructor of MNode. */
   public BasicMNode(IMemMNode parent, String name) {
     this.parent = parent;
-    this.basicMNodeInfo = new BasicMNodeInfo(name);
+    this.name = name;
   }
 
   @Override
   public String getName() {
-    return basicMNodeInfo.getName();
+    return name;
   }
 
   @Override
   public void setName(String name) {
-    basicMNodeInfo.setName(name);
+    this.name = name;
   }
 
   @Override
@@ -221,21 +220,22 @@ public class BasicMNode implements IMemMNode {
    *   <li>object header, 8B
    *   <li>node attributes
    *       <ol>
-   *         <li>basicMNodeInfo reference, 8B
    *         <li>parent reference, 8B
    *         <li>fullPath reference, 8B
+   *         <li>name reference, name length and name hash code, 8 + 4 + 4 = 16B
+   *         <li>name content, 2 * name.length()
    *       </ol>
-   *   <li>MapEntry in parent
+   *   <li>slots in parent's MemMNodeContainer
    *       <ol>
    *         <li>key reference, 8B
    *         <li>value reference, 8B
-   *         <li>entry size, see ConcurrentHashMap.Node, 28
+   *         <li>free slots of the hashed layout on average, 16B
    *       </ol>
    * </ol>
    */
   @Override
   public int estimateSize() {
-    return 8 + 8 + 8 + 8 + 8 + 8 + 28 + basicMNodeInfo.estimateSize();
+    return 8 + 8 + 8 + 16 + 2 * name.length() + 8 + 8 + 16;
   }
 
   @Override
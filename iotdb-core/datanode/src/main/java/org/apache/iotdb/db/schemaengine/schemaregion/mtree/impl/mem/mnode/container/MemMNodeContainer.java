@@ -25,23 +25,592 @@ import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.mem.mnode.IMemMN
 import javax.validation.constraints.NotNull;
 
 import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
 
 import static java.util.Collections.emptySet;
 
-public class MemMNodeContainer extends ConcurrentHashMap<String, IMemMNode>
+/**
+ * Children container of the in-memory MTree.
+ *
+ * <p>Keys and values are stored interleaved in a single array, the key of the i-th slot at 2i and
+ * its value at 2i + 1, so that no entry object is allocated per child. The container adapts to
+ * the number of children:
+ *
+ * <ol>
+ *   <li>With at most {@link #MAX_SORTED_SIZE} children, the slots are sorted by name and looked up
+ *       by binary search. The array is immutable and every update publishes a new copy.
+ *   <li>With more children, the array is an open-addressing hash table with linear probing. New
+ *       children are inserted in place and removed children leave a tombstone; the table is
+ *       rebuilt and republished when it gets too full.
+ * </ol>
+ *
+ * <p>Reads are lock-free. Updates are rare compared with reads and serialized on the container.
+ * Iterators are weakly consistent, like those of ConcurrentHashMap, and never throw
+ * ConcurrentModificationException.
+ *
+ * <p>The names can also be iterated in order from a given one, see {@link #getSortedNames}. The
+ * hashed layout sorts its names for it once and reuses them until the children change.
+ */
+public class MemMNodeContainer extends AbstractMap<String, IMemMNode>
     implements IMNodeContainer<IMemMNode> {
 
   private static final IMNodeContainer<IMemMNode> EMPTY_CONTAINER =
       new MemMNodeContainer.EmptyContainer();
 
+  /** Max number of children kept in the sorted layout. */
+  static final int MAX_SORTED_SIZE = 16;
+
+  /** Switch back to the sorted layout when the hashed layout shrinks to this size. */
+  private static final int SHRINK_SIZE = MAX_SORTED_SIZE / 2;
+
+  private static final int MIN_HASHED_CAPACITY = MAX_SORTED_SIZE * 2;
+
+  private static final float LOAD_FACTOR = 0.75f;
+
+  private static final AtomicReferenceArray<Object> EMPTY_SLOTS = new AtomicReferenceArray<>(0);
+
+  /** Marks a removed slot of the hashed layout, so that probing continues past it. */
+  private static final Object TOMBSTONE = new Object();
+
+  private volatile AtomicReferenceArray<Object> slots = EMPTY_SLOTS;
+
+  /** Number of children in the hashed layout. The sorted layout is always full. */
+  private volatile int hashedSize = 0;
+
+  /** Number of tombstones in the hashed layout, only accessed when holding the lock. */
+  private int tombstoneNum = 0;
+
+  /** Incremented when a child is added or removed, only updated when holding the lock. */
+  private volatile int modCount = 0;
+
+  /** Sorted names of the hashed layout, built on demand and stale once modCount changes. */
+  private volatile SortedNames sortedNames;
+
   public static IMNodeContainer<IMemMNode> emptyMNodeContainer() {
     return EMPTY_CONTAINER;
   }
 
+  private static boolean isHashed(AtomicReferenceArray<Object> slots) {
+    return slots.length() > MAX_SORTED_SIZE * 2;
+  }
+
+  private static int capacity(AtomicReferenceArray<Object> slots) {
+    return slots.length() >> 1;
+  }
+
+  private static int hash(Object key) {
+    int h = key.hashCode();
+    return h ^ (h >>> 16);
+  }
+
+  // region read
+
+  @Override
+  public int size() {
+    AtomicReferenceArray<Object> current = slots;
+    return isHashed(current) ? hashedSize : capacity(current);
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return get(key) != null;
+  }
+
+  @Override
+  public IMemMNode get(Object key) {
+    if (!(key instanceof String)) {
+      return null;
+    }
+    AtomicReferenceArray<Object> current = slots;
+    return isHashed(current)
+        ? getFromHashed(current, (String) key)
+        : getFromSorted(current, (String) key);
+  }
+
+  private static IMemMNode getFromSorted(AtomicReferenceArray<Object> current, String key) {
+    int index = binarySearch(current, key);
+    return index < 0 ? null : (IMemMNode) current.get(2 * index + 1);
+  }
+
+  private static IMemMNode getFromHashed(AtomicReferenceArray<Object> current, String key) {
+    int mask = capacity(current) - 1;
+    int index = hash(key) & mask;
+    while (true) {
+      Object slotKey = current.get(2 * index);
+      if (slotKey == null) {
+        return null;
+      }
+      if (slotKey != TOMBSTONE && key.equals(slotKey)) {
+        Object value = current.get(2 * index + 1);
+        // the slot may have been removed and reused by another child during the read
+        if (current.get(2 * index) == slotKey) {
+          return (IMemMNode) value;
+        }
+        continue;
+      }
+      index = (index + 1) & mask;
+    }
+  }
+
+  /**
+   * @return index of the key in the sorted layout, or (-(insertion point) - 1) if absent
+   */
+  private static int binarySearch(AtomicReferenceArray<Object> current, String key) {
+    int low = 0;
+    int high = capacity(current) - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int cmp = ((String) current.get(2 * mid)).compareTo(key);
+      if (cmp < 0) {
+        low = mid + 1;
+      } else if (cmp > 0) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -(low + 1);
+  }
+
+  // endregion
+
+  // region write
+
+  @Override
+  public synchronized IMemMNode put(String key, IMemMNode value) {
+    return doPut(key, value, false);
+  }
+
+  @Override
+  public synchronized IMemMNode putIfAbsent(String key, IMemMNode value) {
+    return doPut(key, value, true);
+  }
+
+  @Override
+  public synchronized IMemMNode computeIfAbsent(
+      String key, Function<? super String, ? extends IMemMNode> mappingFunction) {
+    IMemMNode existing = get(key);
+    if (existing != null) {
+      return existing;
+    }
+    IMemMNode value = mappingFunction.apply(key);
+    if (value != null) {
+      doPut(key, value, true);
+    }
+    return value;
+  }
+
+  @Override
+  public synchronized IMemMNode remove(Object key) {
+    if (!(key instanceof String)) {
+      return null;
+    }
+    AtomicReferenceArray<Object> current = slots;
+    return isHashed(current)
+        ? removeFromHashed(current, (String) key)
+        : removeFromSorted(current, (String) key);
+  }
+
+  @Override
+  public synchronized boolean remove(Object key, Object value) {
+    if (value != null && value.equals(get(key))) {
+      remove(key);
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public synchronized void clear() {
+    modCount++;
+    slots = EMPTY_SLOTS;
+    hashedSize = 0;
+    tombstoneNum = 0;
+  }
+
+  private IMemMNode doPut(String key, IMemMNode value, boolean onlyIfAbsent) {
+    if (key == null || value == null) {
+      throw new NullPointerException();
+    }
+    AtomicReferenceArray<Object> current = slots;
+    return isHashed(current)
+        ? putToHashed(current, key, value, onlyIfAbsent)
+        : putToSorted(current, key, value, onlyIfAbsent);
+  }
+
+  private IMemMNode putToSorted(
+      AtomicReferenceArray<Object> current, String key, IMemMNode value, boolean onlyIfAbsent) {
+    int index = binarySearch(current, key);
+    int size = capacity(current);
+    if (index >= 0) {
+      IMemMNode existing = (IMemMNode) current.get(2 * index + 1);
+      if (!onlyIfAbsent) {
+        AtomicReferenceArray<Object> copy = copyOf(current, size);
+        copy.set(2 * index + 1, value);
+        slots = copy;
+      }
+      return existing;
+    }
+    modCount++;
+    if (size == MAX_SORTED_SIZE) {
+      AtomicReferenceArray<Object> hashed = newHashed(MIN_HASHED_CAPACITY);
+      for (int i = 0; i < size; i++) {
+        insertToHashed(hashed, current.get(2 * i), current.get(2 * i + 1));
+      }
+      insertToHashed(hashed, key, value);
+      hashedSize = size + 1;
+      tombstoneNum = 0;
+      slots = hashed;
+      return null;
+    }
+    int insertion = -(index + 1);
+    AtomicReferenceArray<Object> copy = new AtomicReferenceArray<>(2 * (size + 1));
+    for (int i = 0; i < insertion; i++) {
+      copy.lazySet(2 * i, current.get(2 * i));
+      copy.lazySet(2 * i + 1, current.get(2 * i + 1));
+    }
+    copy.lazySet(2 * insertion, key);
+    copy.lazySet(2 * insertion + 1, value);
+    for (int i = insertion; i < size; i++) {
+      copy.lazySet(2 * i + 2, current.get(2 * i));
+      copy.lazySet(2 * i + 3, current.get(2 * i + 1));
+    }
+    slots = copy;
+    return null;
+  }
+
+  private IMemMNode putToHashed(
+      AtomicReferenceArray<Object> current, String key, IMemMNode value, boolean onlyIfAbsent) {
+    int mask = capacity(current) - 1;
+    int index = hash(key) & mask;
+    int firstTombstone = -1;
+    while (true) {
+      Object slotKey = current.get(2 * index);
+      if (slotKey == null) {
+        break;
+      }
+      if (slotKey == TOMBSTONE) {
+        if (firstTombstone < 0) {
+          firstTombstone = index;
+        }
+      } else if (key.equals(slotKey)) {
+        IMemMNode existing = (IMemMNode) current.get(2 * index + 1);
+        if (!onlyIfAbsent) {
+          current.set(2 * index + 1, value);
+        }
+        return existing;
+      }
+      index = (index + 1) & mask;
+    }
+
+    modCount++;
+    int size = hashedSize;
+    if (firstTombstone < 0 && size + tombstoneNum + 1 > capacity(current) * LOAD_FACTOR) {
+      rehash(current, size + 1);
+      insertToHashed(slots, key, value);
+      hashedSize = size + 1;
+      return null;
+    }
+    if (firstTombstone >= 0) {
+      index = firstTombstone;
+      tombstoneNum--;
+    }
+    // publish the value before the key, readers matching the key will then see the value
+    current.set(2 * index + 1, value);
+    current.set(2 * index, key);
+    hashedSize = size + 1;
+    return null;
+  }
+
+  private IMemMNode removeFromSorted(AtomicReferenceArray<Object> current, String key) {
+    int index = binarySearch(current, key);
+    if (index < 0) {
+      return null;
+    }
+    IMemMNode existing = (IMemMNode) current.get(2 * index + 1);
+    modCount++;
+    int size = capacity(current);
+    if (size == 1) {
+      slots = EMPTY_SLOTS;
+      return existing;
+    }
+    AtomicReferenceArray<Object> copy = new AtomicReferenceArray<>(2 * (size - 1));
+    for (int i = 0, j = 0; i < size; i++) {
+      if (i != index) {
+        copy.lazySet(2 * j, current.get(2 * i));
+        copy.lazySet(2 * j + 1, current.get(2 * i + 1));
+        j++;
+      }
+    }
+    slots = copy;
+    return existing;
+  }
+
+  private IMemMNode removeFromHashed(AtomicReferenceArray<Object> current, String key) {
+    int mask = capacity(current) - 1;
+    int index = hash(key) & mask;
+    while (true) {
+      Object slotKey = current.get(2 * index);
+      if (slotKey == null) {
+        return null;
+      }
+      if (slotKey != TOMBSTONE && key.equals(slotKey)) {
+        break;
+      }
+      index = (index + 1) & mask;
+    }
+    IMemMNode existing = (IMemMNode) current.get(2 * index + 1);
+    modCount++;
+    int size = hashedSize - 1;
+    if (size <= SHRINK_SIZE) {
+      slots = toSorted(current, index, size);
+      hashedSize = 0;
+      tombstoneNum = 0;
+      return existing;
+    }
+    current.set(2 * index + 1, null);
+    current.set(2 * index, TOMBSTONE);
+    tombstoneNum++;
+    hashedSize = size;
+    return existing;
+  }
+
+  private void rehash(AtomicReferenceArray<Object> current, int expectedSize) {
+    int newCapacity = MIN_HASHED_CAPACITY;
+    while (expectedSize > newCapacity * LOAD_FACTOR) {
+      newCapacity <<= 1;
+    }
+    AtomicReferenceArray<Object> hashed = newHashed(newCapacity);
+    for (int i = 0, capacity = capacity(current); i < capacity; i++) {
+      Object slotKey = current.get(2 * i);
+      if (slotKey != null && slotKey != TOMBSTONE) {
+        insertToHashed(hashed, slotKey, current.get(2 * i + 1));
+      }
+    }
+    tombstoneNum = 0;
+    slots = hashed;
+  }
+
+  private static AtomicReferenceArray<Object> newHashed(int capacity) {
+    return new AtomicReferenceArray<>(2 * capacity);
+  }
+
+  /** Insert an absent key into a hashed layout that has enough free slots. */
+  private static void insertToHashed(
+      AtomicReferenceArray<Object> hashed, Object key, Object value) {
+    int mask = capacity(hashed) - 1;
+    int index = hash(key) & mask;
+    while (hashed.get(2 * index) != null) {
+      index = (index + 1) & mask;
+    }
+    hashed.set(2 * index + 1, value);
+    hashed.set(2 * index, key);
+  }
+
+  /** Build the sorted layout of all children of the hashed layout except the excluded slot. */
+  private static AtomicReferenceArray<Object> toSorted(
+      AtomicReferenceArray<Object> current, int excluded, int size) {
+    Object[] keys = new Object[size];
+    int n = 0;
+    for (int i = 0, capacity = capacity(current); i < capacity; i++) {
+      Object slotKey = current.get(2 * i);
+      if (i != excluded && slotKey != null && slotKey != TOMBSTONE) {
+        keys[n++] = slotKey;
+      }
+    }
+    Arrays.sort(keys);
+    AtomicReferenceArray<Object> sorted = new AtomicReferenceArray<>(2 * size);
+    for (int i = 0; i < size; i++) {
+      sorted.lazySet(2 * i, keys[i]);
+      sorted.lazySet(2 * i + 1, getFromHashed(current, (String) keys[i]));
+    }
+    return sorted;
+  }
+
+  private static AtomicReferenceArray<Object> copyOf(
+      AtomicReferenceArray<Object> current, int size) {
+    AtomicReferenceArray<Object> copy = new AtomicReferenceArray<>(2 * size);
+    for (int i = 0; i < 2 * size; i++) {
+      copy.lazySet(i, current.get(i));
+    }
+    return copy;
+  }
+
+  // endregion
+
+  // region iteration
+
+  @Override
+  @NotNull
+  public Set<Map.Entry<String, IMemMNode>> entrySet() {
+    return new EntrySet();
+  }
+
+  private class EntrySet extends AbstractSet<Map.Entry<String, IMemMNode>> {
+
+    @Override
+    @NotNull
+    public Iterator<Map.Entry<String, IMemMNode>> iterator() {
+      return new EntryIterator(slots);
+    }
+
+    @Override
+    public int size() {
+      return MemMNodeContainer.this.size();
+    }
+
+    @Override
+    public void clear() {
+      MemMNodeContainer.this.clear();
+    }
+  }
+
+  /** Iterates over the slots published when the iterator is created. */
+  private class EntryIterator implements Iterator<Map.Entry<String, IMemMNode>> {
+
+    private final AtomicReferenceArray<Object> snapshot;
+    private final int capacity;
+    private int nextIndex = 0;
+    private Map.Entry<String, IMemMNode> next;
+    private String lastKey;
+
+    private EntryIterator(AtomicReferenceArray<Object> snapshot) {
+      this.snapshot = snapshot;
+      this.capacity = capacity(snapshot);
+      advance();
+    }
+
+    private void advance() {
+      next = null;
+      while (next == null && nextIndex < capacity) {
+        Object slotKey = snapshot.get(2 * nextIndex);
+        Object value = snapshot.get(2 * nextIndex + 1);
+        if (snapshot.get(2 * nextIndex) != slotKey) {
+          // the slot has been reused by another child during the read, read it again
+          continue;
+        }
+        nextIndex++;
+        if (slotKey != null && slotKey != TOMBSTONE && value != null) {
+          next = new Entry((String) slotKey, (IMemMNode) value);
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public Map.Entry<String, IMemMNode> next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      Map.Entry<String, IMemMNode> result = next;
+      lastKey = result.getKey();
+      advance();
+      return result;
+    }
+
+    @Override
+    public void remove() {
+      if (lastKey == null) {
+        throw new IllegalStateException();
+      }
+      MemMNodeContainer.this.remove(lastKey);
+      lastKey = null;
+    }
+  }
+
+  /**
+   * Iterate over the names of the children in order, starting from the given name, or the first
+   * one after it if absent. Null means starting from the first child. The names are those
+   * published when the iterator is created.
+   */
+  public Iterator<String> getSortedNames(String from) {
+    AtomicReferenceArray<Object> current = slots;
+    String[] names;
+    int start;
+    if (isHashed(current)) {
+      names = getSortedNamesOfHashed();
+      start = from == null ? 0 : Arrays.binarySearch(names, from);
+    } else {
+      // the sorted layout is immutable, read the names from it directly
+      names = new String[capacity(current)];
+      for (int i = 0; i < names.length; i++) {
+        names[i] = (String) current.get(2 * i);
+      }
+      start = from == null ? 0 : binarySearch(current, from);
+    }
+    if (start < 0) {
+      start = -(start + 1);
+    }
+    return Arrays.asList(names).subList(start, names.length).iterator();
+  }
+
+  private String[] getSortedNamesOfHashed() {
+    // read modCount before the slots, a concurrent update then makes the built names stale
+    int expectedModCount = modCount;
+    SortedNames cached = sortedNames;
+    if (cached != null && cached.modCount == expectedModCount) {
+      return cached.names;
+    }
+    AtomicReferenceArray<Object> current = slots;
+    String[] names = new String[capacity(current)];
+    int n = 0;
+    for (int i = 0, capacity = capacity(current); i < capacity; i++) {
+      Object slotKey = current.get(2 * i);
+      if (slotKey != null && slotKey != TOMBSTONE) {
+        names[n++] = (String) slotKey;
+      }
+    }
+    names = Arrays.copyOf(names, n);
+    Arrays.sort(names);
+    sortedNames = new SortedNames(names, expectedModCount);
+    return names;
+  }
+
+  private static class SortedNames {
+
+    private final String[] names;
+    private final int modCount;
+
+    private SortedNames(String[] names, int modCount) {
+      this.names = names;
+      this.modCount = modCount;
+    }
+  }
+
+  /** Entry view of a slot, writing through to the container like ConcurrentHashMap does. */
+  private class Entry extends AbstractMap.SimpleEntry<String, IMemMNode> {
+
+    private Entry(String key, IMemMNode value) {
+      super(key, value);
+    }
+
+    @Override
+    public IMemMNode setValue(IMemMNode value) {
+      IMemMNode oldValue = super.setValue(value);
+      put(getKey(), value);
+      return oldValue;
+    }
+  }
+
+  // endregion
+
   private static class EmptyContainer extends AbstractMap<String, IMemMNode>
       implements IMNodeContainer<IMemMNode> {
 
@@ -29,6 +29,7 @@ import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.mem.mnode.impl.B
 import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.mem.mnode.impl.DatabaseMNode;
 import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.mem.mnode.impl.MeasurementMNode;
 import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.mem.mnode.info.DeviceInfo;
+import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.mem.mnode.info.SharedDeviceInfo;
 
 import org.apache.tsfile.write.schema.IMeasurementSchema;
 
@@ -38,13 +39,14 @@ public class MemMNodeFactory implements IMNodeFactory<IMemMNode> {
   @Override
   public IMeasurementMNode<IMemMNode> createMeasurementMNode(
       IDeviceMNode<IMemMNode> parent, String name, IMeasurementSchema schema, String alias) {
-    return new MeasurementMNode(parent, name, schema, alias);
+    // measurement names repeat across devices, share one String instance among them
+    return new MeasurementMNode(parent, name.intern(), schema, alias);
   }
 
   @Override
   public IDeviceMNode<IMemMNode> createDeviceMNode(IMemMNode parent, String name) {
     BasicInternalMNode internalMNode = new BasicInternalMNode(parent, name);
-    internalMNode.setDeviceInfo(new DeviceInfo<>());
+    internalMNode.setDeviceInfo(SharedDeviceInfo.share(new DeviceInfo<>()));
     return internalMNode.getAsDeviceMNode();
   }
 
@@ -20,7 +20,6 @@
 package org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.mem.mnode.impl;
 
 import org.apache.iotdb.commons.schema.node.MNodeType;
-import org.apache.iotdb.commons.schema.node.common.DeviceMNodeWrapper;
 import org.apache.iotdb.commons.schema.node.info.IDeviceInfo;
 import org.apache.iotdb.commons.schema.node.role.IDeviceMNode;
 import org.apache.iotdb.commons.schema.node.role.IInternalMNode;
@@ -28,6 +27,9 @@ import org.apache.iotdb.commons.schema.node.utils.IMNodeContainer;
 import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.mem.mnode.IMemMNode;
 import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.mem.mnode.basic.BasicMNode;
 import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.mem.mnode.container.MemMNodeContainer;
+import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.mem.mnode.info.SharedDeviceInfo;
+
+import java.util.function.Function;
 
 /**
  * This class is the implementation of Metadata Node. One MNode instance represents one node in the
@@ -46,6 +48,12 @@ public class BasicInternalMNode extends BasicMNode implements IInternalMNode<IMe
   @SuppressWarnings("squid:S3077")
   private volatile IDeviceInfo<IMemMNode> deviceInfo = null;
 
+  // numbers of the timeseries and devices below this node, maintained by MemMTreeStore so that
+  // counting under a prefix doesn't need to traverse the subtree
+  private volatile long subtreeSeriesNum = 0;
+
+  private volatile long subtreeDeviceNum = 0;
+
   /** Constructor of MNode. */
   public BasicInternalMNode(IMemMNode parent, String name) {
     super(parent, name);
@@ -153,10 +161,32 @@ public class BasicInternalMNode extends BasicMNode implements IInternalMNode<IMe
     this.children = children;
   }
 
-  /** MNodeContainer reference and basic occupation, 8 + 80B. DeviceInfo reference and size. */
+  /**
+   * MNodeContainer reference and basic occupation, 8 + 64B. DeviceInfo reference and size. Subtree
+   * counters, 16B.
+   */
   @Override
   public int estimateSize() {
-    return 8 + 80 + super.estimateSize() + 8 + (deviceInfo == null ? 0 : deviceInfo.estimateSize());
+    return 8
+        + 64
+        + super.estimateSize()
+        + 8
+        + (deviceInfo == null ? 0 : deviceInfo.estimateSize())
+        + 16;
+  }
+
+  public long getSubtreeSeriesNum() {
+    return subtreeSeriesNum;
+  }
+
+  public long getSubtreeDeviceNum() {
+    return subtreeDeviceNum;
+  }
+
+  /** Should be called with the lock of MemMTreeStore held. */
+  public void updateSubtreeCounter(long seriesDelta, long deviceDelta) {
+    subtreeSeriesNum += seriesDelta;
+    subtreeDeviceNum += deviceDelta;
   }
 
   @Override
@@ -166,7 +196,7 @@ public class BasicInternalMNode extends BasicMNode implements IInternalMNode<IMe
 
   @Override
   public boolean isDevice() {
-    return getDeviceInfo() != null;
+    return deviceInfo != null;
   }
 
   @Override
@@ -177,14 +207,32 @@ public class BasicInternalMNode extends BasicMNode implements IInternalMNode<IMe
   @Override
   public IDeviceMNode<IMemMNode> getAsDeviceMNode() {
     if (isDevice()) {
-      return new DeviceMNodeWrapper<>(this);
+      return new MemDeviceMNodeWrapper(this);
     } else {
       throw new UnsupportedOperationException("Wrong node type");
     }
   }
 
+  /**
+   * Get the device info of this node, which is no longer shared with other devices thus can be
+   * modified directly. Use {@link #peekDeviceInfo} to read it without copying.
+   */
   @Override
   public IDeviceInfo<IMemMNode> getDeviceInfo() {
+    IDeviceInfo<IMemMNode> info = deviceInfo;
+    if (info instanceof SharedDeviceInfo) {
+      synchronized (this) {
+        if (deviceInfo instanceof SharedDeviceInfo) {
+          deviceInfo = ((SharedDeviceInfo<IMemMNode>) deviceInfo).copy();
+        }
+        info = deviceInfo;
+      }
+    }
+    return info;
+  }
+
+  /** Get the device info of this node for reading only, which may be shared with other devices. */
+  public IDeviceInfo<IMemMNode> peekDeviceInfo() {
     return deviceInfo;
   }
 
@@ -192,4 +240,21 @@ public class BasicInternalMNode extends BasicMNode implements IInternalMNode<IMe
   public void setDeviceInfo(IDeviceInfo<IMemMNode> deviceInfo) {
     this.deviceInfo = deviceInfo;
   }
+
+  /**
+   * Modify the device info of this node. The device info may be shared with other devices, thus it
+   * will be copied before the operation and shared again afterwards if possible.
+   *
+   * @param operation modification on device info
+   * @return result of the operation
+   */
+  public synchronized <R> R updateDeviceInfo(Function<IDeviceInfo<IMemMNode>, R> operation) {
+    IDeviceInfo<IMemMNode> info = deviceInfo;
+    if (info instanceof SharedDeviceInfo) {
+      info = ((SharedDeviceInfo<IMemMNode>) info).copy();
+    }
+    R result = operation.apply(info);
+    deviceInfo = SharedDeviceInfo.share(info);
+    return result;
+  }
 }
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.mem.mnode.impl;
+
+import org.apache.iotdb.commons.schema.node.common.DeviceMNodeWrapper;
+import org.apache.iotdb.commons.schema.node.role.IMeasurementMNode;
+import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.mem.mnode.IMemMNode;
+
+import java.util.Map;
+
+/**
+ * Device view of a {@link BasicInternalMNode} in memory mode. All the modifications of device info
+ * go through {@link BasicInternalMNode#updateDeviceInfo}, since the info may be shared with other
+ * devices, and the reads go through {@link BasicInternalMNode#peekDeviceInfo} to keep it shared.
+ */
+public class MemDeviceMNodeWrapper extends DeviceMNodeWrapper<IMemMNode, BasicInternalMNode> {
+
+  public MemDeviceMNodeWrapper(BasicInternalMNode basicMNode) {
+    super(basicMNode);
+  }
+
+  @Override
+  public boolean addAlias(String alias, IMeasurementMNode<IMemMNode> child) {
+    return basicMNode.updateDeviceInfo(info -> info.addAlias(alias, child));
+  }
+
+  @Override
+  public void deleteAliasChild(String alias) {
+    basicMNode.updateDeviceInfo(
+        info -> {
+          info.deleteAliasChild(alias);
+          return null;
+        });
+  }
+
+  @Override
+  public Map<String, IMeasurementMNode<IMemMNode>> getAliasChildren() {
+    return basicMNode.peekDeviceInfo().getAliasChildren();
+  }
+
+  @Override
+  public void setAliasChildren(Map<String, IMeasurementMNode<IMemMNode>> aliasChildren) {
+    basicMNode.updateDeviceInfo(
+        info -> {
+          info.setAliasChildren(aliasChildren);
+          return null;
+        });
+  }
+
+  @Override
+  public boolean isUseTemplate() {
+    return basicMNode.peekDeviceInfo().isUseTemplate();
+  }
+
+  @Override
+  public void setUseTemplate(boolean useTemplate) {
+    basicMNode.updateDeviceInfo(
+        info -> {
+          info.setUseTemplate(useTemplate);
+          return null;
+        });
+  }
+
+  @Override
+  public void setSchemaTemplateId(int schemaTemplateId) {
+    basicMNode.updateDeviceInfo(
+        info -> {
+          info.setSchemaTemplateId(schemaTemplateId);
+          return null;
+        });
+  }
+
+  @Override
+  public int getSchemaTemplateId() {
+    return basicMNode.peekDeviceInfo().getSchemaTemplateId();
+  }
+
+  @Override
+  public int getSchemaTemplateIdWithState() {
+    return basicMNode.peekDeviceInfo().getSchemaTemplateIdWithState();
+  }
+
+  @Override
+  public boolean isPreDeactivateTemplate() {
+    return basicMNode.peekDeviceInfo().isPreDeactivateTemplate();
+  }
+
+  @Override
+  public void preDeactivateTemplate() {
+    basicMNode.updateDeviceInfo(
+        info -> {
+          info.preDeactivateTemplate();
+          return null;
+        });
+  }
+
+  @Override
+  public void rollbackPreDeactivateTemplate() {
+    basicMNode.updateDeviceInfo(
+        info -> {
+          info.rollbackPreDeactivateTemplate();
+          return null;
+        });
+  }
+
+  @Override
+  public void deactivateTemplate() {
+    basicMNode.updateDeviceInfo(
+        info -> {
+          info.deactivateTemplate();
+          return null;
+        });
+  }
+
+  @Override
+  public boolean isAligned() {
+    Boolean align = basicMNode.peekDeviceInfo().isAligned();
+    return align != null && align;
+  }
+
+  @Override
+  public Boolean isAlignedNullable() {
+    return basicMNode.peekDeviceInfo().isAligned();
+  }
+
+  @Override
+  public void setAligned(Boolean isAligned) {
+    basicMNode.updateDeviceInfo(
+        info -> {
+          info.setAligned(isAligned);
+          return null;
+        });
+  }
+}
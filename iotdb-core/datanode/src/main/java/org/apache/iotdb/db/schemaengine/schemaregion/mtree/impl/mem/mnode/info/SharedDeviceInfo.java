@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.mem.mnode.info;
+
+import org.apache.iotdb.commons.schema.node.IMNode;
+import org.apache.iotdb.commons.schema.node.info.IDeviceInfo;
+import org.apache.iotdb.commons.schema.node.role.IDeviceMNode;
+import org.apache.iotdb.commons.schema.node.role.IMeasurementMNode;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable device info shared by all the devices in the same state. Most devices of a template
+ * fleet only differ in name, so instead of keeping one DeviceInfo per device, the state of a
+ * device without alias children, i.e. the template id with state, useTemplate and isAligned, is
+ * dictionary-encoded to one shared instance.
+ *
+ * <p>The modification methods are not supported. The owner node copies the shared info to a
+ * private {@link DeviceInfo} before modifying it and shares it again afterwards, see {@link
+ * #share(IDeviceInfo)}.
+ */
+public final class SharedDeviceInfo<N extends IMNode<N>> implements IDeviceInfo<N> {
+
+  private static final Map<Long, SharedDeviceInfo<?>> DICTIONARY = new ConcurrentHashMap<>();
+
+  private final int schemaTemplateId;
+
+  private final boolean useTemplate;
+
+  private final Boolean isAligned;
+
+  private SharedDeviceInfo(int schemaTemplateId, boolean useTemplate, Boolean isAligned) {
+    this.schemaTemplateId = schemaTemplateId;
+    this.useTemplate = useTemplate;
+    this.isAligned = isAligned;
+  }
+
+  /**
+   * Get the shared info with the same state as the given one.
+   *
+   * @return the shared info, or the given one itself if it has alias children or is a subclass of
+   *     DeviceInfo with extra state
+   */
+  @SuppressWarnings("unchecked")
+  public static <N extends IMNode<N>> IDeviceInfo<N> share(IDeviceInfo<N> deviceInfo) {
+    if (deviceInfo == null
+        || deviceInfo instanceof SharedDeviceInfo
+        || deviceInfo.getClass() != DeviceInfo.class
+        || !deviceInfo.getAliasChildren().isEmpty()) {
+      return deviceInfo;
+    }
+    int schemaTemplateId = deviceInfo.getSchemaTemplateIdWithState();
+    boolean useTemplate = deviceInfo.isUseTemplate();
+    Boolean isAligned = deviceInfo.isAligned();
+    return (IDeviceInfo<N>)
+        DICTIONARY.computeIfAbsent(
+            encode(schemaTemplateId, useTemplate, isAligned),
+            k -> new SharedDeviceInfo<>(schemaTemplateId, useTemplate, isAligned));
+  }
+
+  private static long encode(int schemaTemplateId, boolean useTemplate, Boolean isAligned) {
+    int alignedCode = isAligned == null ? 0 : (isAligned ? 1 : 2);
+    return ((long) schemaTemplateId << 32) | (useTemplate ? 4 : 0) | alignedCode;
+  }
+
+  /** Copy the state to a private DeviceInfo, which can be modified. */
+  public DeviceInfo<N> copy() {
+    DeviceInfo<N> deviceInfo = new DeviceInfo<>();
+    deviceInfo.setSchemaTemplateId(schemaTemplateId);
+    deviceInfo.setUseTemplate(useTemplate);
+    deviceInfo.setAligned(isAligned);
+    return deviceInfo;
+  }
+
+  @Override
+  public void moveDataToNewMNode(IDeviceMNode<N> newMNode) {
+    newMNode.setSchemaTemplateId(schemaTemplateId);
+    newMNode.setUseTemplate(useTemplate);
+    newMNode.setAligned(isAligned);
+  }
+
+  @Override
+  public boolean addAlias(String alias, IMeasurementMNode<N> child) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void deleteAliasChild(String alias) {
+    // there's no alias child in shared info
+  }
+
+  @Override
+  public Map<String, IMeasurementMNode<N>> getAliasChildren() {
+    return Collections.emptyMap();
+  }
+
+  @Override
+  public void setAliasChildren(Map<String, IMeasurementMNode<N>> aliasChildren) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean hasAliasChild(String name) {
+    return false;
+  }
+
+  @Override
+  public N getAliasChild(String name) {
+    return null;
+  }
+
+  @Override
+  public boolean isUseTemplate() {
+    return useTemplate;
+  }
+
+  @Override
+  public void setUseTemplate(boolean useTemplate) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void setSchemaTemplateId(int schemaTemplateId) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public int getSchemaTemplateId() {
+    return schemaTemplateId >= -1 ? schemaTemplateId : -schemaTemplateId - 2;
+  }
+
+  @Override
+  public int getSchemaTemplateIdWithState() {
+    return schemaTemplateId;
+  }
+
+  @Override
+  public boolean isPreDeactivateTemplate() {
+    return schemaTemplateId < -1;
+  }
+
+  @Override
+  public void preDeactivateTemplate() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void rollbackPreDeactivateTemplate() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void deactivateTemplate() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public Boolean isAligned() {
+    return isAligned;
+  }
+
+  @Override
+  public void setAligned(Boolean isAligned) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Keep the estimation of DeviceInfo, so that the accounted size of a device does not change
+   * when its info is shared or copied.
+   */
+  @Override
+  public int estimateSize() {
+    return 8 + 4 + 1 + 1 + 8;
+  }
+}
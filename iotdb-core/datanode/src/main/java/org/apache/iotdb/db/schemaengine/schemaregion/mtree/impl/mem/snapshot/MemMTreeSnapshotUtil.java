@@ -19,6 +19,8 @@
 
 package org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.mem.snapshot;
 
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
 import org.apache.iotdb.commons.file.SystemFileFactory;
 import org.apache.iotdb.commons.schema.SchemaConstant;
 import org.apache.iotdb.commons.schema.node.IMNode;
@@ -36,6 +38,7 @@ import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.mem.MemMTreeStor
 import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.mem.mnode.IMemMNode;
 import org.apache.iotdb.db.schemaengine.schemaregion.mtree.loader.MNodeFactoryLoader;
 
+import org.apache.tsfile.utils.Pair;
 import org.apache.tsfile.utils.ReadWriteIOUtils;
 import org.apache.tsfile.write.schema.MeasurementSchema;
 import org.slf4j.Logger;
@@ -43,15 +46,32 @@ import org.slf4j.LoggerFactory;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
 
 import static org.apache.iotdb.commons.schema.SchemaConstant.ENTITY_MNODE_TYPE;
 import static org.apache.iotdb.commons.schema.SchemaConstant.INTERNAL_MNODE_TYPE;
@@ -61,6 +81,17 @@ import static org.apache.iotdb.commons.schema.SchemaConstant.STORAGE_GROUP_ENTIT
 import static org.apache.iotdb.commons.schema.SchemaConstant.STORAGE_GROUP_MNODE_TYPE;
 import static org.apache.iotdb.commons.schema.SchemaConstant.isStorageGroupType;
 
+/**
+ * Serialize and deserialize the {@link MemMTreeStore} of a SchemaRegion.
+ *
+ * <p>The snapshot file is a preorder serialization of the whole tree, which is also parsed directly
+ * by {@link org.apache.iotdb.db.tools.schema.SRStatementGenerator}. For large trees, the tree is
+ * cut into segments of whole subtrees, which are serialized in parallel and appended after the
+ * other children of their parent. The offset, length and checksum of each segment are recorded in
+ * a separate index file, with which the segments are deserialized in parallel as well, while the
+ * nodes above them are deserialized sequentially. A snapshot without a valid index is always
+ * loaded sequentially.
+ */
 public class MemMTreeSnapshotUtil {
 
   private static final Logger logger = LoggerFactory.getLogger(MemMTreeSnapshotUtil.class);
@@ -69,19 +100,47 @@ public class MemMTreeSnapshotUtil {
       "Error occurred during deserializing MemMTree.";
 
   private static final byte VERSION = 0;
+  private static final byte INDEX_VERSION = 0;
   private static final IMNodeFactory<IMemMNode> nodeFactory =
       MNodeFactoryLoader.getInstance().getMemMNodeIMNodeFactory();
 
+  private static final int SNAPSHOT_PARALLELISM = Runtime.getRuntime().availableProcessors();
+  private static final int SEGMENT_NUM_PER_THREAD = 4;
+  // Bound of the nodes above the segments, which are processed sequentially
+  private static final int MAX_SKELETON_NODE_NUM = 65536;
+
   public static boolean createSnapshot(File snapshotDir, MemMTreeStore store) {
     File snapshotTmp =
         SystemFileFactory.INSTANCE.getFile(snapshotDir, SchemaConstant.MTREE_SNAPSHOT_TMP);
     File snapshot = SystemFileFactory.INSTANCE.getFile(snapshotDir, SchemaConstant.MTREE_SNAPSHOT);
+    File indexTmp =
+        SystemFileFactory.INSTANCE.getFile(snapshotDir, SchemaConstant.MTREE_SNAPSHOT_INDEX_TMP);
+    File index =
+        SystemFileFactory.INSTANCE.getFile(snapshotDir, SchemaConstant.MTREE_SNAPSHOT_INDEX);
+    List<File> segmentFiles = new ArrayList<>();
 
     try {
+      SnapshotPlan plan = planSegments(store);
+      List<SegmentIndex> segmentIndexes = null;
       FileOutputStream fileOutputStream = new FileOutputStream(snapshotTmp);
       BufferedOutputStream outputStream = new BufferedOutputStream(fileOutputStream);
       try {
-        serializeTo(store, outputStream);
+        if (plan.segments.size() < 2) {
+          serializeTo(store, outputStream);
+        } else {
+          for (Segment segment : plan.segments) {
+            segmentFiles.add(
+                SystemFileFactory.INSTANCE.getFile(
+                    snapshotDir, SchemaConstant.MTREE_SNAPSHOT_TMP + "." + segment.id));
+          }
+          List<SegmentIndex> serializedSegments = serializeSegments(plan, store, segmentFiles);
+          SnapshotWriter writer =
+              new SnapshotWriter(
+                  store, plan, serializedSegments, segmentFiles, fileOutputStream, outputStream);
+          ReadWriteIOUtils.write(VERSION, outputStream);
+          writer.serializeSkeleton(store.getRoot());
+          segmentIndexes = writer.segmentIndexes;
+        }
       } finally {
         outputStream.flush();
         fileOutputStream.getFD().sync();
@@ -92,6 +151,12 @@ public class MemMTreeSnapshotUtil {
             "Failed to delete old snapshot {} while creating mtree snapshot.", snapshot.getName());
         return false;
       }
+      if (index.exists() && !FileUtils.deleteFileIfExist(index)) {
+        logger.error(
+            "Failed to delete old snapshot index {} while creating mtree snapshot.",
+            index.getName());
+        return false;
+      }
       if (!snapshotTmp.renameTo(snapshot)) {
         logger.error(
             "Failed to rename {} to {} while creating mtree snapshot.",
@@ -100,14 +165,20 @@ public class MemMTreeSnapshotUtil {
         FileUtils.deleteFileIfExist(snapshot);
         return false;
       }
+      if (segmentIndexes != null) {
+        writeIndex(indexTmp, index, snapshot.length(), segmentIndexes);
+      }
 
       return true;
     } catch (IOException e) {
       logger.error("Failed to create mtree snapshot due to {}", e.getMessage(), e);
       FileUtils.deleteFileIfExist(snapshot);
+      FileUtils.deleteFileIfExist(index);
       return false;
     } finally {
       FileUtils.deleteFileIfExist(snapshotTmp);
+      FileUtils.deleteFileIfExist(indexTmp);
+      segmentFiles.forEach(FileUtils::deleteFileIfExist);
     }
   }
 
@@ -118,8 +189,16 @@ public class MemMTreeSnapshotUtil {
       MemSchemaRegionStatistics regionStatistics)
       throws IOException {
     File snapshot = SystemFileFactory.INSTANCE.getFile(snapshotDir, SchemaConstant.MTREE_SNAPSHOT);
-    try (BufferedInputStream inputStream = new BufferedInputStream(new FileInputStream(snapshot))) {
-      return deserializeFrom(inputStream, measurementProcess, deviceProcess, regionStatistics);
+    List<SegmentIndex> segmentIndexes = readIndex(snapshotDir, snapshot);
+    try {
+      if (segmentIndexes != null) {
+        return deserializeInParallel(
+            snapshot, segmentIndexes, measurementProcess, deviceProcess, regionStatistics);
+      }
+      try (BufferedInputStream inputStream =
+          new BufferedInputStream(new FileInputStream(snapshot))) {
+        return deserializeFrom(inputStream, measurementProcess, deviceProcess, regionStatistics);
+      }
     } catch (Throwable e) {
       // This method is only invoked during recovery. If failed, the memory usage should be cleared
       // since the loaded schema will not be used.
@@ -161,6 +240,173 @@ public class MemMTreeSnapshotUtil {
     }
   }
 
+  // Expand the tree level by level until there are enough subtrees to be serialized in parallel,
+  // and group the consecutive subtrees of the same parent into segments.
+  private static SnapshotPlan planSegments(MemMTreeStore store) {
+    SnapshotPlan plan = new SnapshotPlan();
+    int targetSegmentNum = SNAPSHOT_PARALLELISM * SEGMENT_NUM_PER_THREAD;
+    IMemMNode root = store.getRoot();
+    plan.skeletonNodes.add(root);
+    List<Pair<IMemMNode, IMemMNode>> frontier = getNonMeasurementChildren(root, store);
+    boolean isExpanded = true;
+    while (isExpanded && frontier.size() < targetSegmentNum) {
+      isExpanded = false;
+      List<Pair<IMemMNode, IMemMNode>> nextFrontier = new ArrayList<>();
+      for (Pair<IMemMNode, IMemMNode> parentAndNode : frontier) {
+        List<Pair<IMemMNode, IMemMNode>> children =
+            plan.skeletonNodes.size() < MAX_SKELETON_NODE_NUM
+                ? getNonMeasurementChildren(parentAndNode.right, store)
+                : Collections.emptyList();
+        if (children.isEmpty()) {
+          nextFrontier.add(parentAndNode);
+        } else {
+          plan.skeletonNodes.add(parentAndNode.right);
+          nextFrontier.addAll(children);
+          isExpanded = true;
+        }
+      }
+      frontier = nextFrontier;
+    }
+
+    int segmentSize = Math.max(1, frontier.size() / targetSegmentNum);
+    Segment segment = null;
+    IMemMNode segmentParent = null;
+    for (Pair<IMemMNode, IMemMNode> parentAndNode : frontier) {
+      if (segment == null
+          || segment.subtrees.size() >= segmentSize
+          || parentAndNode.left != segmentParent) {
+        segment = new Segment(plan.segments.size());
+        segmentParent = parentAndNode.left;
+        plan.segments.add(segment);
+        plan.segmentsOfParent.computeIfAbsent(segmentParent, k -> new ArrayList<>()).add(segment);
+      }
+      segment.subtrees.add(parentAndNode.right);
+    }
+    return plan;
+  }
+
+  private static List<Pair<IMemMNode, IMemMNode>> getNonMeasurementChildren(
+      IMemMNode node, MemMTreeStore store) {
+    List<Pair<IMemMNode, IMemMNode>> result = new ArrayList<>();
+    IMNodeIterator<IMemMNode> iterator = store.getChildrenIterator(node);
+    while (iterator.hasNext()) {
+      IMemMNode child = iterator.next();
+      if (!child.isMeasurement()) {
+        result.add(new Pair<>(node, child));
+      }
+    }
+    return result;
+  }
+
+  private static List<SegmentIndex> serializeSegments(
+      SnapshotPlan plan, MemMTreeStore store, List<File> segmentFiles) throws IOException {
+    List<Callable<SegmentIndex>> tasks = new ArrayList<>(plan.segments.size());
+    for (Segment segment : plan.segments) {
+      tasks.add(() -> serializeSegment(segment, store, segmentFiles.get(segment.id)));
+    }
+    ExecutorService executor =
+        IoTDBThreadPoolFactory.newFixedThreadPool(
+            Math.min(tasks.size(), SNAPSHOT_PARALLELISM),
+            ThreadName.SCHEMA_REGION_SNAPSHOT.getName());
+    try {
+      List<SegmentIndex> results = new ArrayList<>(tasks.size());
+      for (Future<SegmentIndex> future : executor.invokeAll(tasks)) {
+        results.add(future.get());
+      }
+      return results;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted when serializing MemMTree.", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException(SERIALIZE_ERROR_INFO, e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  // The offset of the returned index is decided when the segment is appended to the snapshot
+  private static SegmentIndex serializeSegment(Segment segment, MemMTreeStore store, File file)
+      throws IOException {
+    CRC32 checksum = new CRC32();
+    try (BufferedOutputStream outputStream =
+        new BufferedOutputStream(new CheckedOutputStream(new FileOutputStream(file), checksum))) {
+      for (IMemMNode subtree : segment.subtrees) {
+        inorderSerialize(subtree, store, outputStream);
+      }
+    }
+    return new SegmentIndex(-1, file.length(), segment.subtrees.size(), checksum.getValue());
+  }
+
+  private static void writeIndex(
+      File indexTmp, File index, long snapshotLength, List<SegmentIndex> segmentIndexes)
+      throws IOException {
+    CRC32 checksum = new CRC32();
+    FileOutputStream fileOutputStream = new FileOutputStream(indexTmp);
+    try (BufferedOutputStream outputStream = new BufferedOutputStream(fileOutputStream)) {
+      CheckedOutputStream checkedOutputStream = new CheckedOutputStream(outputStream, checksum);
+      ReadWriteIOUtils.write(INDEX_VERSION, checkedOutputStream);
+      ReadWriteIOUtils.write(snapshotLength, checkedOutputStream);
+      ReadWriteIOUtils.write(segmentIndexes.size(), checkedOutputStream);
+      for (SegmentIndex segmentIndex : segmentIndexes) {
+        ReadWriteIOUtils.write(segmentIndex.offset, checkedOutputStream);
+        ReadWriteIOUtils.write(segmentIndex.length, checkedOutputStream);
+        ReadWriteIOUtils.write(segmentIndex.subtreeNum, checkedOutputStream);
+        ReadWriteIOUtils.write(segmentIndex.checksum, checkedOutputStream);
+      }
+      ReadWriteIOUtils.write(checksum.getValue(), outputStream);
+      outputStream.flush();
+      fileOutputStream.getFD().sync();
+    }
+    if (!indexTmp.renameTo(index)) {
+      throw new IOException(
+          String.format("Failed to rename %s to %s", indexTmp.getName(), index.getName()));
+    }
+  }
+
+  // Return null if there's no valid index, then the snapshot shall be loaded sequentially
+  private static List<SegmentIndex> readIndex(File snapshotDir, File snapshot) {
+    File index =
+        SystemFileFactory.INSTANCE.getFile(snapshotDir, SchemaConstant.MTREE_SNAPSHOT_INDEX);
+    if (!index.exists()) {
+      return null;
+    }
+    CRC32 checksum = new CRC32();
+    try (BufferedInputStream inputStream = new BufferedInputStream(new FileInputStream(index))) {
+      CheckedInputStream checkedInputStream = new CheckedInputStream(inputStream, checksum);
+      byte version = ReadWriteIOUtils.readByte(checkedInputStream);
+      long snapshotLength = ReadWriteIOUtils.readLong(checkedInputStream);
+      int segmentNum = ReadWriteIOUtils.readInt(checkedInputStream);
+      List<SegmentIndex> segmentIndexes = new ArrayList<>(segmentNum);
+      for (int i = 0; i < segmentNum; i++) {
+        segmentIndexes.add(
+            new SegmentIndex(
+                ReadWriteIOUtils.readLong(checkedInputStream),
+                ReadWriteIOUtils.readLong(checkedInputStream),
+                ReadWriteIOUtils.readInt(checkedInputStream),
+                ReadWriteIOUtils.readLong(checkedInputStream)));
+      }
+      long expectedChecksum = checksum.getValue();
+      if (version != INDEX_VERSION
+          || ReadWriteIOUtils.readLong(inputStream) != expectedChecksum
+          || snapshotLength != snapshot.length()) {
+        logger.warn(
+            "Ignore invalid mtree snapshot index {}, the snapshot will be loaded sequentially.",
+            index.getAbsolutePath());
+        return null;
+      }
+      return segmentIndexes;
+    } catch (IOException e) {
+      logger.warn(
+          "Failed to read mtree snapshot index {}, the snapshot will be loaded sequentially.",
+          index.getAbsolutePath(),
+          e);
+      return null;
+    }
+  }
+
   private static IMemMNode deserializeFrom(
       InputStream inputStream,
       Consumer<IMeasurementMNode<IMemMNode>> measurementProcess,
@@ -168,11 +414,139 @@ public class MemMTreeSnapshotUtil {
       MemSchemaRegionStatistics regionStatistics)
       throws IOException {
     byte version = ReadWriteIOUtils.readByte(inputStream);
-    return inorderDeserialize(inputStream, measurementProcess, deviceProcess, regionStatistics);
+    return inorderDeserialize(
+        new CountingInputStream(inputStream),
+        Collections.emptyList(),
+        null,
+        measurementProcess,
+        deviceProcess,
+        regionStatistics);
+  }
+
+  private static IMemMNode deserializeInParallel(
+      File snapshot,
+      List<SegmentIndex> segmentIndexes,
+      Consumer<IMeasurementMNode<IMemMNode>> measurementProcess,
+      Consumer<IDeviceMNode<IMemMNode>> deviceProcess,
+      MemSchemaRegionStatistics regionStatistics)
+      throws IOException {
+    // The processes are not required to be thread-safe
+    Object processLock = new Object();
+    Consumer<IMeasurementMNode<IMemMNode>> synchronizedMeasurementProcess =
+        node -> {
+          synchronized (processLock) {
+            measurementProcess.accept(node);
+          }
+        };
+    Consumer<IDeviceMNode<IMemMNode>> synchronizedDeviceProcess =
+        node -> {
+          synchronized (processLock) {
+            deviceProcess.accept(node);
+          }
+        };
+
+    ExecutorService executor =
+        IoTDBThreadPoolFactory.newFixedThreadPool(
+            Math.min(segmentIndexes.size(), SNAPSHOT_PARALLELISM),
+            ThreadName.SCHEMA_REGION_SNAPSHOT.getName());
+    try {
+      List<Future<List<IMemMNode>>> futures = new ArrayList<>(segmentIndexes.size());
+      for (SegmentIndex segmentIndex : segmentIndexes) {
+        futures.add(
+            executor.submit(
+                () ->
+                    deserializeSegment(
+                        snapshot,
+                        segmentIndex,
+                        synchronizedMeasurementProcess,
+                        synchronizedDeviceProcess,
+                        regionStatistics)));
+      }
+
+      // The nodes above the segments are deserialized while the segments are being deserialized
+      List<IMemMNode> segmentParents = new ArrayList<>(segmentIndexes.size());
+      IMemMNode root;
+      try (CountingInputStream inputStream =
+          new CountingInputStream(new BufferedInputStream(new FileInputStream(snapshot)))) {
+        byte version = ReadWriteIOUtils.readByte(inputStream);
+        root =
+            inorderDeserialize(
+                inputStream,
+                segmentIndexes,
+                segmentParents,
+                synchronizedMeasurementProcess,
+                synchronizedDeviceProcess,
+                regionStatistics);
+      }
+      if (segmentParents.size() != segmentIndexes.size()) {
+        throw new IOException(DESERIALIZE_ERROR_INFO);
+      }
+
+      IMemMNode parent;
+      for (int i = 0; i < segmentIndexes.size(); i++) {
+        parent = segmentParents.get(i);
+        for (IMemMNode subtree : futures.get(i).get()) {
+          subtree.setParent(parent);
+          parent.addChild(subtree);
+        }
+      }
+      return root;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted when deserializing MemMTree.", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException(DESERIALIZE_ERROR_INFO, e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static List<IMemMNode> deserializeSegment(
+      File snapshot,
+      SegmentIndex segmentIndex,
+      Consumer<IMeasurementMNode<IMemMNode>> measurementProcess,
+      Consumer<IDeviceMNode<IMemMNode>> deviceProcess,
+      MemSchemaRegionStatistics regionStatistics)
+      throws IOException {
+    CRC32 checksum = new CRC32();
+    try (FileInputStream fileInputStream = new FileInputStream(snapshot)) {
+      fileInputStream.getChannel().position(segmentIndex.offset);
+      CountingInputStream inputStream =
+          new CountingInputStream(
+              new CheckedInputStream(new BufferedInputStream(fileInputStream), checksum));
+      List<IMemMNode> subtrees = new ArrayList<>(segmentIndex.subtreeNum);
+      for (int i = 0; i < segmentIndex.subtreeNum; i++) {
+        subtrees.add(
+            inorderDeserialize(
+                inputStream,
+                Collections.emptyList(),
+                null,
+                measurementProcess,
+                deviceProcess,
+                regionStatistics));
+      }
+      if (inputStream.getCount() != segmentIndex.length
+          || checksum.getValue() != segmentIndex.checksum) {
+        throw new IOException(
+            String.format(
+                "Segment at offset %d of mtree snapshot %s is corrupted.",
+                segmentIndex.offset, snapshot.getAbsolutePath()));
+      }
+      return subtrees;
+    }
   }
 
+  /**
+   * Deserialize a subtree in preorder. The given segments are skipped when they are met, and the
+   * node they belong to is collected into segmentParents.
+   */
   private static IMemMNode inorderDeserialize(
-      InputStream inputStream,
+      CountingInputStream inputStream,
+      List<SegmentIndex> skippedSegments,
+      List<IMemMNode> segmentParents,
       Consumer<IMeasurementMNode<IMemMNode>> measurementProcess,
       Consumer<IDeviceMNode<IMemMNode>> deviceProcess,
       MemSchemaRegionStatistics regionStatistics)
@@ -180,20 +554,31 @@ public class MemMTreeSnapshotUtil {
     MNodeDeserializer deserializer = new MNodeDeserializer();
     Deque<IMemMNode> ancestors = new ArrayDeque<>();
     Deque<Integer> restChildrenNum = new ArrayDeque<>();
-    deserializeMNode(
-        ancestors,
-        restChildrenNum,
-        deserializer,
-        inputStream,
-        measurementProcess,
-        deviceProcess,
-        regionStatistics);
+    IMemMNode root =
+        deserializeMNode(
+            ancestors,
+            restChildrenNum,
+            deserializer,
+            inputStream,
+            measurementProcess,
+            deviceProcess,
+            regionStatistics);
     int childrenNum;
-    IMemMNode root = ancestors.peek();
+    int segmentCursor = 0;
+    SegmentIndex segmentIndex;
     while (!ancestors.isEmpty()) {
       childrenNum = restChildrenNum.pop();
       if (childrenNum == 0) {
         ancestors.pop();
+      } else if (segmentCursor < skippedSegments.size()
+          && inputStream.getCount() == skippedSegments.get(segmentCursor).offset) {
+        segmentIndex = skippedSegments.get(segmentCursor++);
+        if (segmentIndex.subtreeNum > childrenNum) {
+          throw new IOException(DESERIALIZE_ERROR_INFO);
+        }
+        segmentParents.add(ancestors.peek());
+        restChildrenNum.push(childrenNum - segmentIndex.subtreeNum);
+        inputStream.skipFully(segmentIndex.length);
       } else {
         restChildrenNum.push(childrenNum - 1);
         deserializeMNode(
@@ -209,7 +594,7 @@ public class MemMTreeSnapshotUtil {
     return root;
   }
 
-  private static void deserializeMNode(
+  private static IMemMNode deserializeMNode(
       Deque<IMemMNode> ancestors,
       Deque<Integer> restChildrenNum,
       MNodeDeserializer deserializer,
@@ -272,6 +657,181 @@ public class MemMTreeSnapshotUtil {
       ancestors.push(node);
       restChildrenNum.push(childrenNum);
     }
+    return node;
+  }
+
+  private static class SnapshotPlan {
+
+    // The nodes above the segments, which are serialized into the snapshot directly
+    private final Set<IMemMNode> skeletonNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Map<IMemMNode, List<Segment>> segmentsOfParent = new IdentityHashMap<>();
+    private final List<Segment> segments = new ArrayList<>();
+  }
+
+  private static class Segment {
+
+    private final int id;
+    private final List<IMemMNode> subtrees = new ArrayList<>();
+
+    private Segment(int id) {
+      this.id = id;
+    }
+  }
+
+  private static class SegmentIndex {
+
+    private final long offset;
+    private final long length;
+    private final int subtreeNum;
+    private final long checksum;
+
+    private SegmentIndex(long offset, long length, int subtreeNum, long checksum) {
+      this.offset = offset;
+      this.length = length;
+      this.subtreeNum = subtreeNum;
+      this.checksum = checksum;
+    }
+  }
+
+  /**
+   * Write the nodes above the segments in preorder. The segments of a node are appended after its
+   * other children, so that the snapshot keeps the sequential format.
+   */
+  private static class SnapshotWriter {
+
+    private final MemMTreeStore store;
+    private final SnapshotPlan plan;
+    private final List<SegmentIndex> serializedSegments;
+    private final List<File> segmentFiles;
+    private final FileOutputStream fileOutputStream;
+    private final OutputStream outputStream;
+    private final MNodeSerializer serializer = new MNodeSerializer();
+    private final List<SegmentIndex> segmentIndexes = new ArrayList<>();
+
+    private SnapshotWriter(
+        MemMTreeStore store,
+        SnapshotPlan plan,
+        List<SegmentIndex> serializedSegments,
+        List<File> segmentFiles,
+        FileOutputStream fileOutputStream,
+        OutputStream outputStream) {
+      this.store = store;
+      this.plan = plan;
+      this.serializedSegments = serializedSegments;
+      this.segmentFiles = segmentFiles;
+      this.fileOutputStream = fileOutputStream;
+      this.outputStream = outputStream;
+    }
+
+    private void serializeSkeleton(IMemMNode node) throws IOException {
+      if (!node.accept(serializer, outputStream)) {
+        throw new IOException(SERIALIZE_ERROR_INFO);
+      }
+      List<IMemMNode> skeletonChildren = new ArrayList<>();
+      IMNodeIterator<IMemMNode> iterator = store.getChildrenIterator(node);
+      IMemMNode child;
+      while (iterator.hasNext()) {
+        child = iterator.next();
+        if (child.isMeasurement()) {
+          if (!child.accept(serializer, outputStream)) {
+            throw new IOException(SERIALIZE_ERROR_INFO);
+          }
+        } else if (plan.skeletonNodes.contains(child)) {
+          skeletonChildren.add(child);
+        }
+      }
+      for (IMemMNode skeletonChild : skeletonChildren) {
+        serializeSkeleton(skeletonChild);
+      }
+      for (Segment segment : plan.segmentsOfParent.getOrDefault(node, Collections.emptyList())) {
+        appendSegment(segment);
+      }
+    }
+
+    private void appendSegment(Segment segment) throws IOException {
+      outputStream.flush();
+      FileChannel channel = fileOutputStream.getChannel();
+      long offset = channel.position();
+      SegmentIndex serializedSegment = serializedSegments.get(segment.id);
+      try (FileChannel segmentChannel =
+          FileChannel.open(segmentFiles.get(segment.id).toPath(), StandardOpenOption.READ)) {
+        long transferred = 0;
+        long size;
+        while (transferred < serializedSegment.length) {
+          size =
+              segmentChannel.transferTo(
+                  transferred, serializedSegment.length - transferred, channel);
+          if (size <= 0) {
+            throw new IOException(SERIALIZE_ERROR_INFO);
+          }
+          transferred += size;
+        }
+      }
+      segmentIndexes.add(
+          new SegmentIndex(
+              offset,
+              serializedSegment.length,
+              serializedSegment.subtreeNum,
+              serializedSegment.checksum));
+    }
+  }
+
+  private static class CountingInputStream extends FilterInputStream {
+
+    private long count = 0;
+
+    private CountingInputStream(InputStream in) {
+      super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+      int result = super.read();
+      if (result >= 0) {
+        count++;
+      }
+      return result;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int result = super.read(b, off, len);
+      if (result > 0) {
+        count += result;
+      }
+      return result;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      long result = super.skip(n);
+      count += result;
+      return result;
+    }
+
+    @Override
+    public boolean markSupported() {
+      return false;
+    }
+
+    private void skipFully(long n) throws IOException {
+      long rest = n;
+      long skipped;
+      while (rest > 0) {
+        skipped = skip(rest);
+        if (skipped <= 0) {
+          if (read() < 0) {
+            throw new EOFException(DESERIALIZE_ERROR_INFO);
+          }
+          skipped = 1;
+        }
+        rest -= skipped;
+      }
+    }
+
+    private long getCount() {
+      return count;
+    }
   }
 
   private static class MNodeSerializer extends MNodeVisitor<Boolean, OutputStream> {
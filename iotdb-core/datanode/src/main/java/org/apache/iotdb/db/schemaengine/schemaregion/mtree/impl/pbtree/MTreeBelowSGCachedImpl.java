@@ -1295,6 +1295,7 @@ public class MTreeBelowSGCachedImpl {
     if (showDevicesPlan.usingSchemaTemplate()) {
       collector.setSchemaTemplateFilter(showDevicesPlan.getSchemaTemplateId());
     }
+    collector.setStartAfter(showDevicesPlan.getStartAfter());
     ISchemaReader<IDeviceSchemaInfo> reader =
         new ISchemaReader<IDeviceSchemaInfo>() {
 
@@ -1410,9 +1411,13 @@ public class MTreeBelowSGCachedImpl {
         };
 
     collector.setTemplateMap(showTimeSeriesPlan.getRelatedTemplate(), nodeFactory);
+    collector.setStartAfter(showTimeSeriesPlan.getStartAfter());
     ISchemaReader<ITimeSeriesSchemaInfo> reader =
         new TimeseriesReaderWithViewFetch(
-            collector, showTimeSeriesPlan.getSchemaFilter(), showTimeSeriesPlan.needViewDetail());
+            collector,
+            showTimeSeriesPlan.getSchemaFilter(),
+            showTimeSeriesPlan.needViewDetail(),
+            showTimeSeriesPlan.getStartAfter() != null);
     if (showTimeSeriesPlan.getLimit() > 0 || showTimeSeriesPlan.getOffset() > 0) {
       return new SchemaReaderLimitOffsetWrapper<>(
           reader, showTimeSeriesPlan.getLimit(), showTimeSeriesPlan.getOffset());
@@ -143,6 +143,12 @@ public interface ISchemaPage {
 
   void flushPageToStream(OutputStream stream) throws IOException;
 
+  /**
+   * Copy the content of this page into a new buffer, which could be written to disk without holding
+   * the lock of this page. This page is regarded as clean afterwards.
+   */
+  ByteBuffer takeSnapshot();
+
   String inspect() throws SegmentNotFoundException;
 
   int getPageIndex();
@@ -279,6 +279,7 @@ public class SchemaFile implements ISchemaFile {
 
   @Override
   public void sync() throws IOException {
+    pageManager.flushPendingPages();
     updateHeaderBuffer();
     forceChannel();
   }
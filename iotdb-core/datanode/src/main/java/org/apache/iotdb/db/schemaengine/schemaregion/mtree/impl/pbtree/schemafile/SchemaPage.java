@@ -110,6 +110,17 @@ public abstract class SchemaPage implements ISchemaPage {
     dirtyFlag = false;
   }
 
+  @Override
+  public ByteBuffer takeSnapshot() {
+    syncPageBuffer();
+    ByteBuffer snapshotBuffer = ByteBuffer.allocate(this.pageBuffer.capacity());
+    this.pageBuffer.clear();
+    snapshotBuffer.put(this.pageBuffer);
+    snapshotBuffer.clear();
+    dirtyFlag = false;
+    return snapshotBuffer;
+  }
+
   @Override
   public boolean isDirtyPage() {
     return dirtyFlag;
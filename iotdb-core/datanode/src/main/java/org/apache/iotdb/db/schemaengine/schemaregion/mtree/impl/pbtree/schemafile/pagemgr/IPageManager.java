@@ -55,6 +55,9 @@ public interface IPageManager {
 
   void close() throws IOException;
 
+  /** Write all pages flushed by {@link #writeMNode} and {@link #delete} into file. */
+  void flushPendingPages() throws IOException;
+
   int getLastPageIndex();
 
   void inspect(PrintWriter pw) throws IOException, MetadataException;
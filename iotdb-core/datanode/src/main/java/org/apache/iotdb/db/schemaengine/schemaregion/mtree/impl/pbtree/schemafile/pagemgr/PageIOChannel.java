@@ -18,34 +18,62 @@
  */
 package org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.pbtree.schemafile.pagemgr;
 
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
 import org.apache.iotdb.commons.exception.MetadataException;
 import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.pbtree.schemafile.ISchemaPage;
 import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.pbtree.schemafile.SchemaFileConfig;
 import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.pbtree.schemafile.log.SchemaFileLogReader;
 import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.pbtree.schemafile.log.SchemaFileLogWriter;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import static org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.pbtree.schemafile.SchemaFile.getPageAddress;
 
+/**
+ * Page I/O of a pbtree file. Flushes are committed in groups: the snapshots of the dirty pages of
+ * one flush are queued as a unit, and the thread writing to file takes all units queued meanwhile
+ * into one redo log transaction, so that concurrent flushes share the fsync. A unit is never split
+ * across transactions, and a flush returns only after its unit is committed. Queued snapshots serve
+ * page loads until they are on disk.
+ */
 public class PageIOChannel {
+  private static final Logger logger = LoggerFactory.getLogger(PageIOChannel.class);
+
   private final FileChannel channel;
   private final File pmtFile;
-  private FileChannel readChannel;
+  private volatile FileChannel readChannel;
   private final AtomicInteger logCounter;
   private SchemaFileLogWriter logWriter;
 
+  // latest snapshot of pages that have been flushed but not written to file yet, the buffers are
+  //  never modified and shall only be accessed through duplicates
+  private final Map<Integer, ByteBuffer> pendingPages = new ConcurrentHashMap<>();
+  // flushes waiting to be written in the order of snapshots, guarded by itself
+  private final List<FlushUnit> pendingUnits = new ArrayList<>();
+  // only one thread writes pages to file at any time
+  private final Object writeMonitor = new Object();
+
   // flush strategy is dependent on consensus protocol, only check protocol on init
   protected FlushPageStrategy flushDirtyPagesStrategy;
-  protected SinglePageFlushStrategy singlePageFlushStrategy;
 
   PageIOChannel(FileChannel channel, File pmtFile, boolean flushWithLogging, String logPath)
       throws IOException, MetadataException {
@@ -58,25 +86,33 @@ public class PageIOChannel {
       this.logWriter = new SchemaFileLogWriter(logPath);
       logCounter = new AtomicInteger(pageAcc);
       flushDirtyPagesStrategy = this::flushDirtyPagesWithLogging;
-      singlePageFlushStrategy = this::flushSinglePageWithLogging;
     } else {
       // with RATIS enabled, integrity is guaranteed by consensus protocol
       logCounter = new AtomicInteger();
       logWriter = null;
       flushDirtyPagesStrategy = this::flushDirtyPagesWithoutLogging;
-      singlePageFlushStrategy = this::flushSinglePageWithoutLogging;
     }
   }
 
+  /** Pages queued but not written are discarded since the file is to be cleared. */
   public void renewLogWriter() throws IOException {
-    if (logWriter != null) {
-      logWriter = logWriter.renew();
+    synchronized (writeMonitor) {
+      for (FlushUnit unit : drainPendingUnits()) {
+        unit.done = true;
+      }
+      pendingPages.clear();
+      if (logWriter != null) {
+        logWriter = logWriter.renew();
+      }
     }
   }
 
   public void closeLogWriter() throws IOException {
-    if (logWriter != null) {
-      logWriter.close();
+    synchronized (writeMonitor) {
+      throwIfFailed(writePendingUnits());
+      if (logWriter != null) {
+        logWriter.close();
+      }
     }
   }
 
@@ -104,10 +140,30 @@ public class PageIOChannel {
 
   public void loadFromFileToBuffer(ByteBuffer dst, int pageIndex) throws IOException {
     dst.clear();
-    if (!readChannel.isOpen()) {
-      readChannel = FileChannel.open(pmtFile.toPath(), StandardOpenOption.READ);
+    ByteBuffer pendingPage = pendingPages.get(pageIndex);
+    if (pendingPage != null) {
+      // the snapshot is newer than the content on disk
+      ByteBuffer content = pendingPage.duplicate();
+      content.clear();
+      dst.put(content);
+      return;
     }
-    readChannel.read(dst, getPageAddress(pageIndex));
+    getReadChannel().read(dst, getPageAddress(pageIndex));
+  }
+
+  /** Pages may be loaded concurrently, e.g. by prefetching, and the channel closed by interrupt. */
+  private FileChannel getReadChannel() throws IOException {
+    FileChannel channelToRead = readChannel;
+    if (!channelToRead.isOpen()) {
+      synchronized (this) {
+        channelToRead = readChannel;
+        if (!channelToRead.isOpen()) {
+          channelToRead = FileChannel.open(pmtFile.toPath(), StandardOpenOption.READ);
+          readChannel = channelToRead;
+        }
+      }
+    }
+    return channelToRead;
   }
 
   // region Flush Strategy
@@ -116,11 +172,6 @@ public class PageIOChannel {
     void apply(List<ISchemaPage> dirtyPages) throws IOException;
   }
 
-  @FunctionalInterface
-  interface SinglePageFlushStrategy {
-    void apply(ISchemaPage page) throws IOException;
-  }
-
   private void flushDirtyPagesWithLogging(List<ISchemaPage> dirtyPages) throws IOException {
     if (dirtyPages.size() == 0) {
       return;
@@ -144,20 +195,6 @@ public class PageIOChannel {
     logWriter.commit();
   }
 
-  private void flushSinglePageWithLogging(ISchemaPage page) throws IOException {
-    if (logCounter.get() > SchemaFileConfig.SCHEMA_FILE_LOG_SIZE) {
-      logWriter = logWriter.renew();
-      logCounter.set(0);
-    }
-
-    logCounter.addAndGet(1);
-    page.syncPageBuffer();
-    logWriter.write(page);
-    logWriter.prepare();
-    page.flushPageToChannel(channel);
-    logWriter.commit();
-  }
-
   private void flushDirtyPagesWithoutLogging(List<ISchemaPage> dirtyPages) throws IOException {
     for (ISchemaPage page : dirtyPages) {
       page.syncPageBuffer();
@@ -165,20 +202,122 @@ public class PageIOChannel {
     }
   }
 
-  private void flushSinglePageWithoutLogging(ISchemaPage page) throws IOException {
-    page.syncPageBuffer();
-    page.flushPageToChannel(channel);
-  }
-
-  public synchronized void flushMultiPages(SchemaPageContext cxt) throws IOException {
-    flushDirtyPagesStrategy.apply(
+  public void flushMultiPages(SchemaPageContext cxt) throws IOException {
+    flushPages(
         cxt.referredPages.values().stream()
             .filter(ISchemaPage::isDirtyPage)
             .collect(Collectors.toList()));
   }
 
   public void flushSinglePage(ISchemaPage page) throws IOException {
-    singlePageFlushStrategy.apply(page);
+    flushPages(Collections.singletonList(page));
+  }
+
+  /** Write all queued pages to file, invoked before the file is synced or closed. */
+  public void flushPendingPages() throws IOException {
+    synchronized (writeMonitor) {
+      throwIfFailed(writePendingUnits());
+    }
   }
+
+  /** Write the pages in one redo log transaction, possibly along with concurrent flushes. */
+  private void flushPages(Collection<ISchemaPage> pages) throws IOException {
+    if (pages.isEmpty()) {
+      return;
+    }
+    FlushUnit unit = new FlushUnit();
+    synchronized (pendingUnits) {
+      for (ISchemaPage page : pages) {
+        ByteBuffer snapshot = page.takeSnapshot();
+        unit.snapshots.put(page.getPageIndex(), snapshot);
+        pendingPages.put(page.getPageIndex(), snapshot);
+      }
+      pendingUnits.add(unit);
+    }
+    synchronized (writeMonitor) {
+      // the unit may have been written by another flush meanwhile
+      if (!unit.done) {
+        writePendingUnits();
+      }
+      throwIfFailed(unit.failure);
+    }
+  }
+
+  private List<FlushUnit> drainPendingUnits() {
+    synchronized (pendingUnits) {
+      List<FlushUnit> units = new ArrayList<>(pendingUnits);
+      pendingUnits.clear();
+      return units;
+    }
+  }
+
+  /**
+   * Write all queued units in one transaction. Caller shall hold {@link #writeMonitor}.
+   *
+   * @return the failure of writing, null if succeeded
+   */
+  private IOException writePendingUnits() {
+    List<FlushUnit> units = drainPendingUnits();
+    if (units.isEmpty()) {
+      return null;
+    }
+    // a later snapshot of the same page supersedes the former one
+    Map<Integer, ByteBuffer> snapshots = new LinkedHashMap<>();
+    for (FlushUnit unit : units) {
+      snapshots.putAll(unit.snapshots);
+    }
+    IOException failure = null;
+    try {
+      List<ISchemaPage> pages = new ArrayList<>(snapshots.size());
+      for (ByteBuffer snapshot : snapshots.values()) {
+        pages.add(ISchemaPage.loadSchemaPage(snapshot.duplicate()));
+      }
+      flushDirtyPagesStrategy.apply(pages);
+    } catch (IOException e) {
+      failure = e;
+    } catch (MetadataException e) {
+      failure = new IOException(e);
+    }
+    if (failure != null) {
+      logger.warn(
+          "Failed to write {} pages of pbtree file {}.", snapshots.size(), pmtFile, failure);
+    }
+    for (FlushUnit unit : units) {
+      unit.done = true;
+      unit.failure = failure;
+    }
+    for (Map.Entry<Integer, ByteBuffer> snapshot : snapshots.entrySet()) {
+      // a newer snapshot of the same page may have been queued during writing
+      pendingPages.computeIfPresent(
+          snapshot.getKey(), (k, v) -> v == snapshot.getValue() ? null : v);
+    }
+    return failure;
+  }
+
+  private static void throwIfFailed(IOException failure) throws IOException {
+    if (failure != null) {
+      throw new IOException(failure.getMessage(), failure);
+    }
+  }
+
+  static void submitBackgroundTask(Runnable task) {
+    BackgroundExecutorHolder.EXECUTOR.submit(task);
+  }
+
+  private static class BackgroundExecutorHolder {
+    private static final ExecutorService EXECUTOR =
+        IoTDBThreadPoolFactory.newFixedThreadPoolWithDaemonThread(
+            Math.max(2, Runtime.getRuntime().availableProcessors() / 4),
+            ThreadName.PBTREE_PAGE_IO.getName());
+  }
+
+  /** Snapshots of the dirty pages of one flush, which are written in the same transaction. */
+  private static class FlushUnit {
+    private final Map<Integer, ByteBuffer> snapshots = new LinkedHashMap<>();
+    // guarded by writeMonitor
+    private boolean done = false;
+    private IOException failure;
+  }
+
   // endregion
 }
@@ -43,6 +43,7 @@ import java.io.PrintWriter;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -67,6 +68,9 @@ public abstract class PageManager implements IPageManager {
 
   protected final AtomicInteger lastPageIndex;
 
+  // pages being loaded by background prefetching
+  private final Set<Integer> prefetchingPages = ConcurrentHashMap.newKeySet();
+
   private SchemaRegionCachedMetric metric = null;
 
   PageManager(FileChannel channel, File pmtFile, int lastPageIndex, String logPath)
@@ -523,6 +527,11 @@ public abstract class PageManager implements IPageManager {
     pageIOChannel.closeLogWriter();
   }
 
+  @Override
+  public void flushPendingPages() throws IOException {
+    pageIOChannel.flushPendingPages();
+  }
+
   // endregion
 
   // region Page Access Management
@@ -563,6 +572,54 @@ public abstract class PageManager implements IPageManager {
     }
   }
 
+  /**
+   * Load the page into pool in background if it is likely to be read soon, e.g., the page of next
+   * segment during a traversal. Prefetching never evicts any cached page.
+   */
+  protected void prefetchPage(int pageIdx) {
+    if (pageIdx < 0
+        || pageIdx > lastPageIndex.get()
+        || !pagePool.hasVacancy()
+        || pagePool.contains(pageIdx)
+        || !prefetchingPages.add(pageIdx)) {
+      return;
+    }
+
+    PageIOChannel.submitBackgroundTask(
+        () -> {
+          try {
+            // read without the pool lock, which getPageInstance of other threads waits for
+            long removalCount = pagePool.getRemovalCount();
+            if (pagePool.contains(pageIdx) || !pagePool.hasVacancy()) {
+              return;
+            }
+            ByteBuffer newBuf = ByteBuffer.allocate(SchemaFileConfig.PAGE_LENGTH);
+            if (metric != null) {
+              metric.recordLoadPageNum(1);
+            }
+            pageIOChannel.loadFromFileToBuffer(newBuf, pageIdx);
+            ISchemaPage page = ISchemaPage.loadSchemaPage(newBuf);
+
+            // same as getPageInstance, lock to avoid duplicate page instance with same index, and
+            //  discard the page if it may have been loaded, modified and evicted during reading
+            pagePool.lock();
+            try {
+              if (!pagePool.contains(pageIdx)
+                  && pagePool.hasVacancy()
+                  && pagePool.getRemovalCount() == removalCount) {
+                pagePool.put(page);
+              }
+            } finally {
+              pagePool.unlock();
+            }
+          } catch (IOException | MetadataException e) {
+            logger.warn("Failed to prefetch page {} of pbtree file.", pageIdx, e);
+          } finally {
+            prefetchingPages.remove(pageIdx);
+          }
+        });
+  }
+
   private long preAllocateSegment(short size, SchemaPageContext cxt)
       throws IOException, MetadataException {
     ISegmentedPage page = getMinApplSegmentedPageInMem(size, cxt);
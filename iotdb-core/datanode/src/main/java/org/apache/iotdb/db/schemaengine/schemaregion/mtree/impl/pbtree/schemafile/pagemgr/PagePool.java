@@ -24,25 +24,50 @@ import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.pbtree.schemafil
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Collections;
-import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Buffer pool of schema pages with CLOCK (second chance) eviction. Hits only set a reference bit
+ * instead of reordering an LRU list, thus lookups need no lock. Eviction sweeps pages in the order
+ * they entered the pool, skips pinned pages, and spares referenced pages for one more round.
+ */
 public class PagePool {
   private static final Logger logger = LoggerFactory.getLogger(PagePool.class);
+  private final int capacity;
   private final Map<Integer, ISchemaPage> pageInstCache;
   private final Lock cacheLock;
   private final Condition cacheFull;
 
+  // page index in order of the clock hand, removed pages are dropped lazily when swept
+  private final Queue<Integer> clock;
+  // indexes in clock whose page has been removed, the entry is reused if the page is put again
+  private final Set<Integer> removedInClock;
+  // reference bits of cached pages
+  private final Set<Integer> referencedPages;
+  // incremented whenever a page leaves the pool
+  private final AtomicLong removalCount;
+
   private final PageIndexSortBuckets pageIndexBuckets;
 
   PagePool() {
-    this.pageInstCache =
-        Collections.synchronizedMap(new LinkedHashMap<>(SchemaFileConfig.PAGE_CACHE_SIZE, 1, true));
+    this(SchemaFileConfig.PAGE_CACHE_SIZE);
+  }
+
+  PagePool(int capacity) {
+    this.capacity = capacity;
+    this.pageInstCache = new ConcurrentHashMap<>(capacity);
+    this.clock = new ConcurrentLinkedQueue<>();
+    this.removedInClock = ConcurrentHashMap.newKeySet();
+    this.removalCount = new AtomicLong();
+    this.referencedPages = ConcurrentHashMap.newKeySet();
     this.pageIndexBuckets = new PageIndexSortBuckets(SchemaFileConfig.SEG_SIZE_LST, pageInstCache);
 
     this.cacheLock = new ReentrantLock();
@@ -56,27 +81,11 @@ public class PagePool {
   public void cacheGuardian() {
     cacheLock.lock();
     try {
-      while (pageInstCache.size() > SchemaFileConfig.PAGE_CACHE_SIZE) {
+      while (pageInstCache.size() > capacity) {
         try {
-          // try to evict by LRU
-          Iterator<ISchemaPage> iterator = pageInstCache.values().iterator();
-          int pageSizeLimit = SchemaFileConfig.PAGE_CACHE_SIZE, size = pageInstCache.size();
-
-          ISchemaPage p;
-          while (iterator.hasNext()) {
-            p = iterator.next();
-
-            if (size <= pageSizeLimit) {
-              break;
-            }
-
-            if (p.getRefCnt().get() == 0) {
-              iterator.remove();
-              size--;
-            }
-          }
+          sweep();
 
-          if (pageInstCache.size() > SchemaFileConfig.PAGE_CACHE_SIZE) {
+          if (pageInstCache.size() > capacity) {
             // wait until another operation finished and released pages
             cacheFull.await();
           }
@@ -91,8 +100,43 @@ public class PagePool {
     }
   }
 
+  /**
+   * Move the clock hand until the cache fits its capacity or every page has been visited twice.
+   * Caller shall hold the cache lock.
+   */
+  private void sweep() {
+    int budget = 2 * clock.size();
+    Integer index;
+    ISchemaPage page;
+    while (pageInstCache.size() > capacity
+        && budget-- > 0
+        && (index = clock.poll()) != null) {
+      page = pageInstCache.get(index);
+      if (page == null) {
+        if (!removedInClock.remove(index)) {
+          // the entry has been reused by the page put again
+          clock.offer(index);
+        }
+        continue;
+      }
+
+      if (page.getRefCnt().get() > 0 || referencedPages.remove(index)) {
+        // pinned by some thread, or accessed since last visit
+        clock.offer(index);
+        continue;
+      }
+
+      if (pageInstCache.remove(index, page)) {
+        removalCount.incrementAndGet();
+      }
+    }
+  }
+
   public void put(ISchemaPage page) {
-    pageInstCache.put(page.getPageIndex(), page);
+    if (pageInstCache.put(page.getPageIndex(), page) == null
+        && !removedInClock.remove(page.getPageIndex())) {
+      clock.offer(page.getPageIndex());
+    }
   }
 
   public void lock() {
@@ -104,7 +148,29 @@ public class PagePool {
   }
 
   public ISchemaPage get(int index) {
-    return pageInstCache.get(index);
+    ISchemaPage page = pageInstCache.get(index);
+    if (page != null) {
+      referencedPages.add(index);
+    }
+    return page;
+  }
+
+  /** Check existence without marking the page as referenced. */
+  public boolean contains(int index) {
+    return pageInstCache.containsKey(index);
+  }
+
+  /**
+   * A page read from file before the count changed may be older than the content written back by
+   * then, so it shall not be cached.
+   */
+  public long getRemovalCount() {
+    return removalCount.get();
+  }
+
+  /** Whether a page could be loaded without evicting any other. */
+  public boolean hasVacancy() {
+    return pageInstCache.size() < capacity;
   }
 
   public ISchemaPage getNearestFitPage(short expectedSize) {
@@ -112,36 +178,47 @@ public class PagePool {
   }
 
   public void remove(int index) {
-    pageInstCache.remove(index);
+    if (pageInstCache.remove(index) == null) {
+      return;
+    }
+    removalCount.incrementAndGet();
+    referencedPages.remove(index);
+    // removing from the clock costs a linear scan, so removed indexes are dropped in batch
+    removedInClock.add(index);
+    if (removedInClock.size() > capacity) {
+      cacheLock.lock();
+      try {
+        clock.removeIf(removedInClock::remove);
+      } finally {
+        cacheLock.unlock();
+      }
+    }
   }
 
   public void clear() {
     pageInstCache.clear();
+    removalCount.incrementAndGet();
+    referencedPages.clear();
+    clock.clear();
+    removedInClock.clear();
   }
 
   public void appendBucketIndex(SchemaPageContext cxt) {
     cxt.appendBucketIndex(pageIndexBuckets);
   }
 
-  /** release referents and evict likely useless page if necessary */
+  /** release referents and evict pages if necessary */
   protected void releaseReferent(SchemaPageContext cxt) {
     for (ISchemaPage p : cxt.referredPages.values()) {
       p.decrementAndGetRefCnt();
     }
 
-    if (pageInstCache.size() > SchemaFileConfig.PAGE_CACHE_SIZE) {
+    if (pageInstCache.size() > capacity) {
       cacheLock.lock();
       try {
-        for (ISchemaPage p : cxt.referredPages.values()) {
-          // unnecessary to evict the page object in context by 2 case:
-          //  1. it is held by another thread, e.g., RefCnt != 0
-          //  2. it had already been evicted, e.g., pageCache.get(id) != page
-          if (p.getRefCnt().get() == 0 && pageInstCache.get(p.getPageIndex()) == p) {
-            pageInstCache.remove(p.getPageIndex());
-          }
-        }
+        sweep();
 
-        if (pageInstCache.size() <= SchemaFileConfig.PAGE_CACHE_SIZE) {
+        if (pageInstCache.size() <= capacity) {
           cacheFull.signal();
         }
       } finally {
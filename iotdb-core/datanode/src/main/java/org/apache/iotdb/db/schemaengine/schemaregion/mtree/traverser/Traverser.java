@@ -40,7 +40,9 @@ import org.apache.iotdb.db.schemaengine.template.Template;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 
@@ -75,6 +77,11 @@ public abstract class Traverser<R, N extends IMNode<N>> extends AbstractTreeVisi
 
   // Default false means fullPath pattern match
   protected boolean isPrefixMatch = false;
+
+  // If not null, the children are visited in name order and only the nodes after this path are
+  // accepted, so that a paginated traversal can resume from the last result of the previous page
+  private String[] startAfterNodes;
+
   private IDeviceMNode<N> skipTemplateDevice;
   private ReleaseFlushMonitor.RecordNode timeRecorder;
   private final long startTime = System.currentTimeMillis();
@@ -145,7 +152,15 @@ public abstract class Traverser<R, N extends IMNode<N>> extends AbstractTreeVisi
 
   @Override
   protected N getChild(N parent, String childName) throws MetadataException {
-    return getChild(parent, childName, parent == skipTemplateDevice);
+    N child = getChild(parent, childName, parent == skipTemplateDevice);
+    if (child != null && startAfterNodes != null) {
+      String startAfterChildName = getStartAfterChildName(parent);
+      if (startAfterChildName != null && child.getName().compareTo(startAfterChildName) < 0) {
+        releaseNode(child);
+        return null;
+      }
+    }
+    return child;
   }
 
   private N getChild(N parent, String childName, boolean skipTemplateChildren)
@@ -189,9 +204,23 @@ public abstract class Traverser<R, N extends IMNode<N>> extends AbstractTreeVisi
   }
 
   @Override
-  protected Iterator<N> getChildrenIterator(N parent, Iterator<String> childrenName)
-      throws Exception {
+  protected Iterator<N> getChildrenIterator(N parent, Iterator<String> childrenName) {
+    if (startAfterNodes != null) {
+      String startAfterChildName = getStartAfterChildName(parent);
+      List<String> sortedChildrenName = new ArrayList<>();
+      while (childrenName.hasNext()) {
+        String childName = childrenName.next();
+        if (startAfterChildName == null || childName.compareTo(startAfterChildName) >= 0) {
+          sortedChildrenName.add(childName);
+        }
+      }
+      sortedChildrenName.sort(null);
+      childrenName = sortedChildrenName.iterator();
+    }
+    return getNamedChildrenIterator(parent, childrenName);
+  }
 
+  private IMNodeIterator<N> getNamedChildrenIterator(N parent, Iterator<String> childrenName) {
     return new IMNodeIterator<N>() {
       private N next = null;
       private boolean skipTemplateChildren = false;
@@ -238,6 +267,9 @@ public abstract class Traverser<R, N extends IMNode<N>> extends AbstractTreeVisi
 
   @Override
   protected Iterator<N> getChildrenIterator(N parent) throws MetadataException {
+    if (startAfterNodes != null) {
+      return getSortedChildrenIterator(parent);
+    }
     if (parent.isAboveDatabase()) {
       return new MNodeIterator<>(parent.getChildren().values().iterator());
     } else {
@@ -245,6 +277,73 @@ public abstract class Traverser<R, N extends IMNode<N>> extends AbstractTreeVisi
     }
   }
 
+  /**
+   * Get the children in name order, skipping those before the start-after path. Only the names are
+   * ordered, and the children are got by name one by one, thus the pinned nodes of PBTree are
+   * bounded by the depth rather than the fan-out.
+   */
+  private Iterator<N> getSortedChildrenIterator(N parent) throws MetadataException {
+    String startAfterChildName = getStartAfterChildName(parent);
+    Iterator<String> childrenName;
+    if (parent.isAboveDatabase()) {
+      // there are only a few nodes above the databases
+      List<String> sortedChildrenName = new ArrayList<>();
+      for (String childName : parent.getChildren().keySet()) {
+        if (startAfterChildName == null || childName.compareTo(startAfterChildName) >= 0) {
+          sortedChildrenName.add(childName);
+        }
+      }
+      sortedChildrenName.sort(null);
+      childrenName = sortedChildrenName.iterator();
+    } else {
+      childrenName =
+          store.getSortedChildrenName(
+              parent, templateMap, skipPreDeletedSchema, startAfterChildName);
+    }
+    return getNamedChildrenIterator(parent, childrenName);
+  }
+
+  /**
+   * Get the name of the child on the start-after path if the given parent, which should be the
+   * last visited ancestor, is on the path. The children before it are skipped together with their
+   * subtrees. Otherwise, the parent is after the path and return null.
+   */
+  private String getStartAfterChildName(N parent) {
+    int level = getSizeOfAncestor() - 1;
+    if (level < 0
+        || level + 1 >= startAfterNodes.length
+        || getAncestorNodeByLevel(level) != parent) {
+      return null;
+    }
+    for (int i = 0; i <= level; i++) {
+      if (!getAncestorNodeByLevel(i).getName().equals(startAfterNodes[i])) {
+        return null;
+      }
+    }
+    return startAfterNodes[level + 1];
+  }
+
+  /**
+   * Whether the node being checked for acceptance is the start-after path or one of its ancestors.
+   * These nodes are visited for resuming the traversal but precede the path, thus shouldn't be
+   * accepted.
+   */
+  protected boolean isOnStartAfterPath(N node) {
+    if (startAfterNodes == null) {
+      return false;
+    }
+    int level = getSizeOfAncestor();
+    if (level >= startAfterNodes.length || !node.getName().equals(startAfterNodes[level])) {
+      return false;
+    }
+    for (int i = 0; i < level; i++) {
+      if (!getAncestorNodeByLevel(i).getName().equals(startAfterNodes[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   @Override
   protected void releaseNodeIterator(Iterator<N> nodeIterator) {
     if (nodeIterator instanceof IMNodeIterator) {
@@ -274,6 +373,14 @@ public abstract class Traverser<R, N extends IMNode<N>> extends AbstractTreeVisi
     this.skipPreDeletedSchema = skipPreDeletedSchema;
   }
 
+  /**
+   * Visit the children in name order and only accept the nodes after the given path, where a node
+   * precedes its descendants. Null means no order is required.
+   */
+  public void setStartAfter(PartialPath startAfter) {
+    this.startAfterNodes = startAfter == null ? null : startAfter.getNodes();
+  }
+
   @Override
   protected IFAState tryGetNextState(
       N node, IFAState sourceState, Map<String, IFATransition> preciseMatchTransitionMap) {
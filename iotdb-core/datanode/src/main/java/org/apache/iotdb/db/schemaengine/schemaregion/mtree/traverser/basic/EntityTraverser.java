@@ -60,7 +60,7 @@ public abstract class EntityTraverser<R, N extends IMNode<N>> extends Traverser<
 
   @Override
   protected boolean acceptFullMatchedNode(N node) {
-    if (node.isDevice()) {
+    if (node.isDevice() && !isOnStartAfterPath(node)) {
       return (!usingTemplate || schemaTemplateId == node.getAsDeviceMNode().getSchemaTemplateId());
     }
     return false;
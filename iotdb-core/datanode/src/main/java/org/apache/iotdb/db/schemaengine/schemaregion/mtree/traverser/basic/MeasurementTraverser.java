@@ -67,7 +67,7 @@ public abstract class MeasurementTraverser<R, N extends IMNode<N>> extends Trave
 
   @Override
   protected boolean acceptFullMatchedNode(N node) {
-    return node.isMeasurement();
+    return node.isMeasurement() && !isOnStartAfterPath(node);
   }
 
   @Override
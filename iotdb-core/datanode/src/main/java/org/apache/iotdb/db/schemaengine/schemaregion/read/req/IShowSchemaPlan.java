@@ -47,4 +47,12 @@ public interface IShowSchemaPlan extends ISchemaRegionPlan {
   long getOffset();
 
   boolean isPrefixMatch();
+
+  /**
+   * The continuation of a paginated query, which is the path of the last result of the previous
+   * page. If not null, the results are returned in path order, starting right after this path, so
+   * that the next page resumes the traversal without visiting the skipped results again. Use the
+   * path of the root to get the first page.
+   */
+  PartialPath getStartAfter();
 }
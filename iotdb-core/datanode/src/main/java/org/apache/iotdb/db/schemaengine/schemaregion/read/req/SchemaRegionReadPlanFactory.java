@@ -43,6 +43,18 @@ public class SchemaRegionReadPlanFactory {
     return new ShowDevicesPlanImpl(path, limit, offset, isPrefixMatch, -1, schemaFilter, scope);
   }
 
+  public static IShowDevicesPlan getShowDevicesPlan(
+      PartialPath path,
+      long limit,
+      long offset,
+      boolean isPrefixMatch,
+      SchemaFilter schemaFilter,
+      PathPatternTree scope,
+      PartialPath startAfter) {
+    return new ShowDevicesPlanImpl(
+        path, limit, offset, isPrefixMatch, -1, schemaFilter, scope, startAfter);
+  }
+
   public static IShowDevicesPlan getShowDevicesPlan(
       PartialPath path,
       int limit,
@@ -66,6 +78,28 @@ public class SchemaRegionReadPlanFactory {
         path, relatedTemplate, limit, offset, isPrefixMatch, schemaFilter, needViewDetail, scope);
   }
 
+  public static IShowTimeSeriesPlan getShowTimeSeriesPlan(
+      PartialPath path,
+      Map<Integer, Template> relatedTemplate,
+      long limit,
+      long offset,
+      boolean isPrefixMatch,
+      SchemaFilter schemaFilter,
+      boolean needViewDetail,
+      PathPatternTree scope,
+      PartialPath startAfter) {
+    return new ShowTimeSeriesPlanImpl(
+        path,
+        relatedTemplate,
+        limit,
+        offset,
+        isPrefixMatch,
+        schemaFilter,
+        needViewDetail,
+        scope,
+        startAfter);
+  }
+
   public static IShowNodesPlan getShowNodesPlan(PartialPath path, PathPatternTree scope) {
     return new ShowNodesPlanImpl(path, -1, false, scope);
   }
@@ -33,6 +33,7 @@ public abstract class AbstractShowSchemaPlanImpl implements IShowSchemaPlan {
   protected final long limit;
   protected final long offset;
   protected final boolean isPrefixMatch;
+  protected final PartialPath startAfter;
 
   protected AbstractShowSchemaPlanImpl(PartialPath path) {
     this.path = path;
@@ -40,15 +41,27 @@ public abstract class AbstractShowSchemaPlanImpl implements IShowSchemaPlan {
     this.limit = 0;
     this.offset = 0;
     this.isPrefixMatch = false;
+    this.startAfter = null;
   }
 
   AbstractShowSchemaPlanImpl(
       PartialPath path, long limit, long offset, boolean isPrefixMatch, PathPatternTree scope) {
+    this(path, limit, offset, isPrefixMatch, scope, null);
+  }
+
+  AbstractShowSchemaPlanImpl(
+      PartialPath path,
+      long limit,
+      long offset,
+      boolean isPrefixMatch,
+      PathPatternTree scope,
+      PartialPath startAfter) {
     this.path = path;
     this.limit = limit;
     this.offset = offset;
     this.isPrefixMatch = isPrefixMatch;
     this.scope = scope;
+    this.startAfter = startAfter;
   }
 
   @Override
@@ -76,6 +89,11 @@ public abstract class AbstractShowSchemaPlanImpl implements IShowSchemaPlan {
     return isPrefixMatch;
   }
 
+  @Override
+  public PartialPath getStartAfter() {
+    return startAfter;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -88,11 +106,12 @@ public abstract class AbstractShowSchemaPlanImpl implements IShowSchemaPlan {
     return limit == that.limit
         && offset == that.offset
         && isPrefixMatch == that.isPrefixMatch
-        && Objects.equals(path, that.path);
+        && Objects.equals(path, that.path)
+        && Objects.equals(startAfter, that.startAfter);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(path, limit, offset, isPrefixMatch);
+    return Objects.hash(path, limit, offset, isPrefixMatch, startAfter);
   }
 }
@@ -41,7 +41,19 @@ public class ShowDevicesPlanImpl extends AbstractShowSchemaPlanImpl implements I
       int schemaTemplateId,
       SchemaFilter schemaFilter,
       PathPatternTree scope) {
-    super(path, limit, offset, isPrefixMatch, scope);
+    this(path, limit, offset, isPrefixMatch, schemaTemplateId, schemaFilter, scope, null);
+  }
+
+  public ShowDevicesPlanImpl(
+      PartialPath path,
+      long limit,
+      long offset,
+      boolean isPrefixMatch,
+      int schemaTemplateId,
+      SchemaFilter schemaFilter,
+      PathPatternTree scope,
+      PartialPath startAfter) {
+    super(path, limit, offset, isPrefixMatch, scope, startAfter);
     this.schemaTemplateId = schemaTemplateId;
     this.schemaFilter = schemaFilter;
   }
@@ -46,7 +46,29 @@ public class ShowTimeSeriesPlanImpl extends AbstractShowSchemaPlanImpl
       SchemaFilter schemaFilter,
       boolean needViewDetail,
       PathPatternTree scope) {
-    super(path, limit, offset, isPrefixMatch, scope);
+    this(
+        path,
+        relatedTemplate,
+        limit,
+        offset,
+        isPrefixMatch,
+        schemaFilter,
+        needViewDetail,
+        scope,
+        null);
+  }
+
+  public ShowTimeSeriesPlanImpl(
+      PartialPath path,
+      Map<Integer, Template> relatedTemplate,
+      long limit,
+      long offset,
+      boolean isPrefixMatch,
+      SchemaFilter schemaFilter,
+      boolean needViewDetail,
+      PathPatternTree scope,
+      PartialPath startAfter) {
+    super(path, limit, offset, isPrefixMatch, scope, startAfter);
     this.relatedTemplate = relatedTemplate;
     this.schemaFilter = schemaFilter;
     this.needViewDetail = needViewDetail;
@@ -68,6 +68,12 @@ public class TimeseriesReaderWithViewFetch implements ISchemaReader<ITimeSeriesS
    */
   private final boolean needFetch;
 
+  /**
+   * If true, the views are returned in the order of the iterator rather than delayed after the
+   * following normal timeseries, which is required when resuming from the last returned path.
+   */
+  private final boolean keepOrder;
+
   /**
    * If isBlocked is null, it means the next is not fetched yet. If isBlocked.isDone() is false, it
    * means the next is being fetched. If isBlocked.get() is true, it means hasNext, otherwise, it
@@ -83,17 +89,27 @@ public class TimeseriesReaderWithViewFetch implements ISchemaReader<ITimeSeriesS
     this.iterator = iterator;
     this.schemaFilter = schemaFilter;
     this.needFetch = new FilterContainsVisitor().process(schemaFilter, SchemaFilterType.DATA_TYPE);
+    this.keepOrder = false;
   }
 
   public TimeseriesReaderWithViewFetch(
       SchemaIterator<ITimeSeriesSchemaInfo> iterator,
       SchemaFilter schemaFilter,
       boolean needViewDetail) {
+    this(iterator, schemaFilter, needViewDetail, false);
+  }
+
+  public TimeseriesReaderWithViewFetch(
+      SchemaIterator<ITimeSeriesSchemaInfo> iterator,
+      SchemaFilter schemaFilter,
+      boolean needViewDetail,
+      boolean keepOrder) {
     this.iterator = iterator;
     this.schemaFilter = schemaFilter;
     this.needFetch =
         needViewDetail
             || new FilterContainsVisitor().process(schemaFilter, SchemaFilterType.DATA_TYPE);
+    this.keepOrder = keepOrder;
   }
 
   @Override
@@ -146,7 +162,8 @@ public class TimeseriesReaderWithViewFetch implements ISchemaReader<ITimeSeriesS
         } else if (FILTER_VISITOR.process(schemaFilter, temp)) {
           // normal timeseries
           next = temp;
-          res = NOT_BLOCKED_TRUE;
+          // the cached views precede it and should be consumed first
+          res = keepOrder && !cachedViewList.isEmpty() ? asyncGetNext() : NOT_BLOCKED_TRUE;
           break;
         }
       }
@@ -197,7 +214,7 @@ public class TimeseriesReaderWithViewFetch implements ISchemaReader<ITimeSeriesS
     return Futures.submit(
         () -> {
           fetchViewTimeSeriesSchemaInfo();
-          if (consumeView) {
+          if (consumeView || next != null) {
             return true;
           } else {
             // all cache view is no satisfied
@@ -213,6 +230,9 @@ public class TimeseriesReaderWithViewFetch implements ISchemaReader<ITimeSeriesS
                 }
               } else if (FILTER_VISITOR.process(schemaFilter, temp)) {
                 next = temp;
+                if (keepOrder && !cachedViewList.isEmpty()) {
+                  fetchViewTimeSeriesSchemaInfo();
+                }
                 return true;
               }
             }
@@ -0,0 +1,493 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.schemaengine.schemaregion.tag;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Compressed set of non-negative int ids, organized like a roaring bitmap. Ids are partitioned by
+ * their high 16 bits, and the low 16 bits of each partition are stored in a container, which is a
+ * sorted char array when sparse or a 2^16 bit bitmap when dense.
+ *
+ * <p>This class is not thread safe.
+ */
+public class PostingList {
+
+  /** Containers with more values than this are stored as bitmaps. */
+  static final int ARRAY_CONTAINER_MAX_SIZE = 4096;
+
+  private static final int BITMAP_WORD_NUM = 1 << 10;
+
+  private char[] highBits = new char[0];
+  private Container[] containers = new Container[0];
+  private int containerNum = 0;
+
+  /**
+   * @return true if the id is newly added
+   */
+  public boolean add(int id) {
+    char high = (char) (id >>> 16);
+    int index = indexOf(high);
+    if (index < 0) {
+      index = -index - 1;
+      insertContainer(index, high, new ArrayContainer(new char[1], 0));
+    }
+    Container container = containers[index];
+    int oldCardinality = container.cardinality;
+    containers[index] = container.add((char) id);
+    return containers[index].cardinality > oldCardinality;
+  }
+
+  /**
+   * @return true if the id existed and has been removed
+   */
+  public boolean remove(int id) {
+    int index = indexOf((char) (id >>> 16));
+    if (index < 0) {
+      return false;
+    }
+    Container container = containers[index];
+    int oldCardinality = container.cardinality;
+    container = container.remove((char) id);
+    if (container.cardinality == 0) {
+      removeContainer(index);
+    } else {
+      containers[index] = container;
+    }
+    return container.cardinality < oldCardinality;
+  }
+
+  public boolean contains(int id) {
+    int index = indexOf((char) (id >>> 16));
+    return index >= 0 && containers[index].contains((char) id);
+  }
+
+  public int cardinality() {
+    int cardinality = 0;
+    for (int i = 0; i < containerNum; i++) {
+      cardinality += containers[i].cardinality;
+    }
+    return cardinality;
+  }
+
+  public boolean isEmpty() {
+    return containerNum == 0;
+  }
+
+  public PostingList copy() {
+    PostingList result = new PostingList();
+    result.highBits = Arrays.copyOf(highBits, containerNum);
+    result.containers = new Container[containerNum];
+    for (int i = 0; i < containerNum; i++) {
+      result.containers[i] = containers[i].copy();
+    }
+    result.containerNum = containerNum;
+    return result;
+  }
+
+  /** Intersection of this and the other, neither of them is modified. */
+  public PostingList and(PostingList other) {
+    PostingList result = new PostingList();
+    int i = 0;
+    int j = 0;
+    while (i < containerNum && j < other.containerNum) {
+      if (highBits[i] < other.highBits[j]) {
+        i++;
+      } else if (highBits[i] > other.highBits[j]) {
+        j++;
+      } else {
+        Container container = containers[i].and(other.containers[j]);
+        if (container.cardinality > 0) {
+          result.appendContainer(highBits[i], container);
+        }
+        i++;
+        j++;
+      }
+    }
+    return result;
+  }
+
+  /** Union of this and the other, neither of them is modified. */
+  public PostingList or(PostingList other) {
+    PostingList result = new PostingList();
+    int i = 0;
+    int j = 0;
+    while (i < containerNum || j < other.containerNum) {
+      if (j == other.containerNum || (i < containerNum && highBits[i] < other.highBits[j])) {
+        result.appendContainer(highBits[i], containers[i].copy());
+        i++;
+      } else if (i == containerNum || highBits[i] > other.highBits[j]) {
+        result.appendContainer(other.highBits[j], other.containers[j].copy());
+        j++;
+      } else {
+        result.appendContainer(highBits[i], containers[i].or(other.containers[j]));
+        i++;
+        j++;
+      }
+    }
+    return result;
+  }
+
+  /** Ids in this but not in the other, neither of them is modified. */
+  public PostingList andNot(PostingList other) {
+    PostingList result = new PostingList();
+    int j = 0;
+    for (int i = 0; i < containerNum; i++) {
+      while (j < other.containerNum && other.highBits[j] < highBits[i]) {
+        j++;
+      }
+      Container container =
+          j < other.containerNum && other.highBits[j] == highBits[i]
+              ? containers[i].andNot(other.containers[j])
+              : containers[i].copy();
+      if (container.cardinality > 0) {
+        result.appendContainer(highBits[i], container);
+      }
+    }
+    return result;
+  }
+
+  /** Iterate the ids in ascending order. */
+  public PrimitiveIterator.OfInt iterator() {
+    return new PrimitiveIterator.OfInt() {
+      private int containerIndex = 0;
+      private int nextLow = findNext(0);
+
+      private int findNext(int fromLow) {
+        while (containerIndex < containerNum) {
+          if (fromLow <= Character.MAX_VALUE) {
+            int low = containers[containerIndex].nextValue(fromLow);
+            if (low >= 0) {
+              return low;
+            }
+          }
+          containerIndex++;
+          fromLow = 0;
+        }
+        return -1;
+      }
+
+      @Override
+      public boolean hasNext() {
+        return nextLow >= 0;
+      }
+
+      @Override
+      public int nextInt() {
+        if (nextLow < 0) {
+          throw new NoSuchElementException();
+        }
+        int id = (highBits[containerIndex] << 16) | nextLow;
+        nextLow = findNext(nextLow + 1);
+        return id;
+      }
+    };
+  }
+
+  /** Estimated memory occupied by the containers, excluding the object headers. */
+  public long ramBytesUsed() {
+    long size = (long) highBits.length * Character.BYTES;
+    for (int i = 0; i < containerNum; i++) {
+      size += containers[i].ramBytesUsed();
+    }
+    return size;
+  }
+
+  private int indexOf(char high) {
+    return Arrays.binarySearch(highBits, 0, containerNum, high);
+  }
+
+  private void insertContainer(int index, char high, Container container) {
+    if (containerNum == highBits.length) {
+      int newLength = Math.max(4, containerNum + (containerNum >> 1));
+      highBits = Arrays.copyOf(highBits, newLength);
+      containers = Arrays.copyOf(containers, newLength);
+    }
+    System.arraycopy(highBits, index, highBits, index + 1, containerNum - index);
+    System.arraycopy(containers, index, containers, index + 1, containerNum - index);
+    highBits[index] = high;
+    containers[index] = container;
+    containerNum++;
+  }
+
+  private void appendContainer(char high, Container container) {
+    insertContainer(containerNum, high, container);
+  }
+
+  private void removeContainer(int index) {
+    System.arraycopy(highBits, index + 1, highBits, index, containerNum - index - 1);
+    System.arraycopy(containers, index + 1, containers, index, containerNum - index - 1);
+    containerNum--;
+    containers[containerNum] = null;
+  }
+
+  private abstract static class Container {
+
+    protected int cardinality;
+
+    /** @return the container holding the result, may be this or a converted one */
+    abstract Container add(char value);
+
+    /** @return the container holding the result, may be this or a converted one */
+    abstract Container remove(char value);
+
+    abstract boolean contains(char value);
+
+    /** @return the smallest value not smaller than fromValue, or -1 if there's none */
+    abstract int nextValue(int fromValue);
+
+    abstract Container copy();
+
+    abstract long ramBytesUsed();
+
+    abstract long[] toWords();
+
+    Container and(Container other) {
+      if (this instanceof BitmapContainer && other instanceof BitmapContainer) {
+        long[] words = toWords();
+        long[] otherWords = ((BitmapContainer) other).words;
+        for (int i = 0; i < BITMAP_WORD_NUM; i++) {
+          words[i] &= otherWords[i];
+        }
+        return BitmapContainer.of(words);
+      }
+      Container smaller = cardinality <= other.cardinality ? this : other;
+      Container larger = smaller == this ? other : this;
+      char[] values = new char[smaller.cardinality];
+      int size = 0;
+      for (int value = smaller.nextValue(0); value >= 0; value = smaller.nextValue(value + 1)) {
+        if (larger.contains((char) value)) {
+          values[size++] = (char) value;
+        }
+      }
+      return new ArrayContainer(values, size);
+    }
+
+    Container or(Container other) {
+      long[] words = toWords();
+      if (other instanceof BitmapContainer) {
+        long[] otherWords = ((BitmapContainer) other).words;
+        for (int i = 0; i < BITMAP_WORD_NUM; i++) {
+          words[i] |= otherWords[i];
+        }
+      } else {
+        for (int value = other.nextValue(0); value >= 0; value = other.nextValue(value + 1)) {
+          words[value >>> 6] |= 1L << value;
+        }
+      }
+      return BitmapContainer.of(words);
+    }
+
+    Container andNot(Container other) {
+      if (this instanceof ArrayContainer) {
+        char[] values = new char[cardinality];
+        int size = 0;
+        for (int value = nextValue(0); value >= 0; value = nextValue(value + 1)) {
+          if (!other.contains((char) value)) {
+            values[size++] = (char) value;
+          }
+        }
+        return new ArrayContainer(values, size);
+      }
+      long[] words = toWords();
+      if (other instanceof BitmapContainer) {
+        long[] otherWords = ((BitmapContainer) other).words;
+        for (int i = 0; i < BITMAP_WORD_NUM; i++) {
+          words[i] &= ~otherWords[i];
+        }
+      } else {
+        for (int value = other.nextValue(0); value >= 0; value = other.nextValue(value + 1)) {
+          words[value >>> 6] &= ~(1L << value);
+        }
+      }
+      return BitmapContainer.of(words);
+    }
+  }
+
+  private static class ArrayContainer extends Container {
+
+    private char[] values;
+
+    private ArrayContainer(char[] values, int cardinality) {
+      this.values = values;
+      this.cardinality = cardinality;
+    }
+
+    @Override
+    Container add(char value) {
+      int index = Arrays.binarySearch(values, 0, cardinality, value);
+      if (index >= 0) {
+        return this;
+      }
+      if (cardinality == ARRAY_CONTAINER_MAX_SIZE) {
+        return new BitmapContainer(toWords(), cardinality).add(value);
+      }
+      index = -index - 1;
+      if (cardinality == values.length) {
+        int newLength =
+            Math.min(ARRAY_CONTAINER_MAX_SIZE, Math.max(4, cardinality + (cardinality >> 1)));
+        values = Arrays.copyOf(values, newLength);
+      }
+      System.arraycopy(values, index, values, index + 1, cardinality - index);
+      values[index] = value;
+      cardinality++;
+      return this;
+    }
+
+    @Override
+    Container remove(char value) {
+      int index = Arrays.binarySearch(values, 0, cardinality, value);
+      if (index >= 0) {
+        System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+        cardinality--;
+      }
+      return this;
+    }
+
+    @Override
+    boolean contains(char value) {
+      return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+    }
+
+    @Override
+    int nextValue(int fromValue) {
+      if (fromValue > Character.MAX_VALUE) {
+        return -1;
+      }
+      int index = Arrays.binarySearch(values, 0, cardinality, (char) fromValue);
+      if (index < 0) {
+        index = -index - 1;
+      }
+      return index < cardinality ? values[index] : -1;
+    }
+
+    @Override
+    Container copy() {
+      return new ArrayContainer(Arrays.copyOf(values, cardinality), cardinality);
+    }
+
+    @Override
+    long ramBytesUsed() {
+      return (long) values.length * Character.BYTES;
+    }
+
+    @Override
+    long[] toWords() {
+      long[] words = new long[BITMAP_WORD_NUM];
+      for (int i = 0; i < cardinality; i++) {
+        words[values[i] >>> 6] |= 1L << values[i];
+      }
+      return words;
+    }
+  }
+
+  private static class BitmapContainer extends Container {
+
+    private final long[] words;
+
+    private BitmapContainer(long[] words, int cardinality) {
+      this.words = words;
+      this.cardinality = cardinality;
+    }
+
+    /** Build the container of the bitmap, which is converted to array if sparse enough. */
+    private static Container of(long[] words) {
+      int cardinality = 0;
+      for (long word : words) {
+        cardinality += Long.bitCount(word);
+      }
+      if (cardinality > ARRAY_CONTAINER_MAX_SIZE) {
+        return new BitmapContainer(words, cardinality);
+      }
+      char[] values = new char[cardinality];
+      int size = 0;
+      for (int i = 0; i < BITMAP_WORD_NUM; i++) {
+        long word = words[i];
+        while (word != 0) {
+          values[size++] = (char) ((i << 6) + Long.numberOfTrailingZeros(word));
+          word &= word - 1;
+        }
+      }
+      return new ArrayContainer(values, size);
+    }
+
+    @Override
+    Container add(char value) {
+      long mask = 1L << value;
+      if ((words[value >>> 6] & mask) == 0) {
+        words[value >>> 6] |= mask;
+        cardinality++;
+      }
+      return this;
+    }
+
+    @Override
+    Container remove(char value) {
+      long mask = 1L << value;
+      if ((words[value >>> 6] & mask) != 0) {
+        words[value >>> 6] &= ~mask;
+        cardinality--;
+        if (cardinality == ARRAY_CONTAINER_MAX_SIZE) {
+          return of(words);
+        }
+      }
+      return this;
+    }
+
+    @Override
+    boolean contains(char value) {
+      return (words[value >>> 6] & (1L << value)) != 0;
+    }
+
+    @Override
+    int nextValue(int fromValue) {
+      int wordIndex = fromValue >>> 6;
+      if (wordIndex >= BITMAP_WORD_NUM) {
+        return -1;
+      }
+      long word = words[wordIndex] & (-1L << fromValue);
+      while (true) {
+        if (word != 0) {
+          return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+        }
+        if (++wordIndex == BITMAP_WORD_NUM) {
+          return -1;
+        }
+        word = words[wordIndex];
+      }
+    }
+
+    @Override
+    Container copy() {
+      return new BitmapContainer(Arrays.copyOf(words, BITMAP_WORD_NUM), cardinality);
+    }
+
+    @Override
+    long ramBytesUsed() {
+      return (long) BITMAP_WORD_NUM * Long.BYTES;
+    }
+
+    @Override
+    long[] toWords() {
+      return Arrays.copyOf(words, BITMAP_WORD_NUM);
+    }
+  }
+}
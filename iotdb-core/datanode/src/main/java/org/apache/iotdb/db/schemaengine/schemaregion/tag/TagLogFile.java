@@ -85,6 +85,17 @@ public class TagLogFile implements AutoCloseable {
     }
   }
 
+  /**
+   * Every record starts at a multiple of MAX_LENGTH and keeps its first block when rewritten, thus
+   * the index of the first block identifies the record.
+   *
+   * @param position beginning position of the record in tagFile
+   * @return index of the record
+   */
+  public static int getRecordIndex(long position) {
+    return (int) (position / MAX_LENGTH);
+  }
+
   public synchronized void copyTo(File targetFile) throws IOException {
     // flush os buffer
     fileChannel.force(true);
@@ -51,13 +51,14 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import static java.util.stream.Collectors.toList;
 
@@ -74,9 +75,16 @@ public class TagManager {
   private static final CommonConfig COMMON_CONFIG = CommonDescriptor.getInstance().getConfig();
 
   private TagLogFile tagLogFile;
-  // tag key -> tag value -> LeafMNode
-  private final Map<String, Map<String, Set<IMeasurementMNode<?>>>> tagIndex =
-      new ConcurrentHashMap<>();
+
+  /**
+   * tag key -> tag value -> ids of the timeseries. The id of a timeseries is the index of its
+   * record in tagLogFile, which is stable and persisted as the tag offset of the timeseries.
+   */
+  private final Map<String, Map<String, PostingList>> tagIndex = new ConcurrentHashMap<>();
+
+  // id -> timeseries in tagIndex, modified only when holding the lock of TagManager
+  private volatile AtomicReferenceArray<IMeasurementMNode<?>> indexedSeries =
+      new AtomicReferenceArray<>(0);
 
   private final MemSchemaRegionStatistics regionStatistics;
 
@@ -154,29 +162,43 @@ public class TagManager {
     if (tags == null || tags.isEmpty()) {
       return false;
     } else {
-      addIndex(tags, measurementMNode);
+      // the offset may not have been set to the node during recovery
+      int seriesId = TagLogFile.getRecordIndex(offset);
+      for (Map.Entry<String, String> entry : tags.entrySet()) {
+        addIndex(entry.getKey(), entry.getValue(), seriesId, measurementMNode);
+      }
       return true;
     }
   }
 
+  /** The tag offset of the timeseries must have been set before adding index. */
   public void addIndex(String tagKey, String tagValue, IMeasurementMNode<?> measurementMNode) {
-    if (tagKey == null || tagValue == null || measurementMNode == null) {
+    if (measurementMNode == null || measurementMNode.getOffset() < 0) {
+      return;
+    }
+    int seriesId = TagLogFile.getRecordIndex(measurementMNode.getOffset());
+    addIndex(tagKey, tagValue, seriesId, measurementMNode);
+  }
+
+  private void addIndex(
+      String tagKey, String tagValue, int seriesId, IMeasurementMNode<?> measurementMNode) {
+    if (tagKey == null || tagValue == null) {
       return;
     }
 
     int tagIndexOldSize = tagIndex.size();
-    Map<String, Set<IMeasurementMNode<?>>> tagValueMap =
+    Map<String, PostingList> tagValueMap =
         tagIndex.computeIfAbsent(tagKey, k -> new ConcurrentHashMap<>());
     int tagIndexNewSize = tagIndex.size();
 
     int tagValueMapOldSize = tagValueMap.size();
-    Set<IMeasurementMNode<?>> measurementsSet =
-        tagValueMap.computeIfAbsent(tagValue, v -> Collections.synchronizedSet(new HashSet<>()));
+    PostingList postingList = tagValueMap.computeIfAbsent(tagValue, v -> new PostingList());
     int tagValueMapNewSize = tagValueMap.size();
 
-    int measurementsSetOldSize = measurementsSet.size();
-    measurementsSet.add(measurementMNode);
-    int measurementsSetNewSize = measurementsSet.size();
+    boolean isNewPosting;
+    synchronized (postingList) {
+      isNewPosting = postingList.add(seriesId);
+    }
 
     long memorySize = 0;
     if (tagIndexNewSize - tagIndexOldSize == 1) {
@@ -184,13 +206,14 @@ public class TagManager {
       memorySize += RamUsageEstimator.sizeOf(tagKey) + 4;
     }
     if (tagValueMapNewSize - tagValueMapOldSize == 1) {
-      // the last 4 is the memory occupied by the size of measurementsSet
+      // the last 4 is the memory occupied by the size of postingList
       memorySize += RamUsageEstimator.sizeOf(tagValue) + 4;
     }
-    if (measurementsSetNewSize - measurementsSetOldSize == 1) {
-      // 8 is the memory occupied by the length of the IMeasurementMNode
-      memorySize += RamUsageEstimator.NUM_BYTES_OBJECT_REF + 4;
+    if (isNewPosting) {
+      // the id in postingList, which costs at most 4 bytes after compression
+      memorySize += Integer.BYTES;
     }
+    memorySize += registerIndexedSeries(seriesId, measurementMNode);
     requestMemory(memorySize);
   }
 
@@ -203,21 +226,33 @@ public class TagManager {
   }
 
   public void removeIndex(String tagKey, String tagValue, IMeasurementMNode<?> measurementMNode) {
-    if (tagKey == null || tagValue == null || measurementMNode == null) {
+    if (tagKey == null
+        || tagValue == null
+        || measurementMNode == null
+        || measurementMNode.getOffset() < 0) {
+      return;
+    }
+    Map<String, PostingList> tagValueMap = tagIndex.get(tagKey);
+    PostingList postingList = tagValueMap == null ? null : tagValueMap.get(tagValue);
+    if (postingList == null) {
       return;
     }
     // init memory size
     long memorySize = 0;
-    if (tagIndex.get(tagKey).get(tagValue).remove(measurementMNode)) {
-      memorySize += RamUsageEstimator.NUM_BYTES_OBJECT_REF + 4;
+    boolean isEmpty;
+    synchronized (postingList) {
+      if (postingList.remove(TagLogFile.getRecordIndex(measurementMNode.getOffset()))) {
+        memorySize += Integer.BYTES;
+      }
+      isEmpty = postingList.isEmpty();
     }
-    if (tagIndex.get(tagKey).get(tagValue).isEmpty()) {
-      if (tagIndex.get(tagKey).remove(tagValue) != null) {
-        // the last 4 is the memory occupied by the size of IMeasurementMNodeSet
+    if (isEmpty) {
+      if (tagValueMap.remove(tagValue) != null) {
+        // the last 4 is the memory occupied by the size of postingList
         memorySize += RamUsageEstimator.sizeOf(tagValue) + 4;
       }
     }
-    if (tagIndex.get(tagKey).isEmpty()) {
+    if (tagValueMap.isEmpty()) {
       if (tagIndex.remove(tagKey) != null) {
         // the last 4 is the memory occupied by the size of tagValueMap
         memorySize += RamUsageEstimator.sizeOf(tagKey) + 4;
@@ -226,37 +261,88 @@ public class TagManager {
     releaseMemory(memorySize);
   }
 
-  private List<IMeasurementMNode<?>> getMatchedTimeseriesInIndex(TagFilter tagFilter) {
-    if (!tagIndex.containsKey(tagFilter.getKey())) {
-      return Collections.emptyList();
-    }
-    Map<String, Set<IMeasurementMNode<?>>> value2Node = tagIndex.get(tagFilter.getKey());
-    if (value2Node.isEmpty()) {
-      return Collections.emptyList();
+  /**
+   * Remember the node of the timeseries, so that the ids in tagIndex can be resolved.
+   *
+   * @return the memory newly occupied
+   */
+  private synchronized long registerIndexedSeries(
+      int seriesId, IMeasurementMNode<?> measurementMNode) {
+    AtomicReferenceArray<IMeasurementMNode<?>> series = indexedSeries;
+    if (seriesId >= series.length()) {
+      int newLength = Math.max(seriesId + 1, series.length() + (series.length() >> 1));
+      AtomicReferenceArray<IMeasurementMNode<?>> newSeries =
+          new AtomicReferenceArray<>(newLength);
+      for (int i = 0; i < series.length(); i++) {
+        newSeries.lazySet(i, series.get(i));
+      }
+      indexedSeries = newSeries;
+      series = newSeries;
     }
+    // the node of a timeseries may be replaced, e.g. reloaded in PBTree mode
+    return series.getAndSet(seriesId, measurementMNode) == null
+        ? RamUsageEstimator.NUM_BYTES_OBJECT_REF
+        : 0;
+  }
 
-    List<IMeasurementMNode<?>> allMatchedNodes = new ArrayList<>();
+  private synchronized long unregisterIndexedSeries(int seriesId) {
+    AtomicReferenceArray<IMeasurementMNode<?>> series = indexedSeries;
+    return seriesId < series.length() && series.getAndSet(seriesId, null) != null
+        ? RamUsageEstimator.NUM_BYTES_OBJECT_REF
+        : 0;
+  }
+
+  /** Ids of the timeseries matching the tag filter. */
+  private PostingList getMatchedSeriesIds(TagFilter tagFilter) {
+    PostingList result = new PostingList();
+    Map<String, PostingList> value2Ids = tagIndex.get(tagFilter.getKey());
+    if (value2Ids == null || value2Ids.isEmpty()) {
+      return result;
+    }
     if (tagFilter.isContains()) {
-      for (Map.Entry<String, Set<IMeasurementMNode<?>>> entry : value2Node.entrySet()) {
-        if (entry.getKey() == null || entry.getValue() == null) {
-          continue;
-        }
-        String tagValue = entry.getKey();
-        if (tagValue.contains(tagFilter.getValue())) {
-          allMatchedNodes.addAll(entry.getValue());
+      for (Map.Entry<String, PostingList> entry : value2Ids.entrySet()) {
+        if (entry.getKey().contains(tagFilter.getValue())) {
+          synchronized (entry.getValue()) {
+            result = result.or(entry.getValue());
+          }
         }
       }
     } else {
-      for (Map.Entry<String, Set<IMeasurementMNode<?>>> entry : value2Node.entrySet()) {
-        if (entry.getKey() == null || entry.getValue() == null) {
-          continue;
-        }
-        String tagValue = entry.getKey();
-        if (tagFilter.getValue().equals(tagValue)) {
-          allMatchedNodes.addAll(entry.getValue());
+      PostingList postingList = value2Ids.get(tagFilter.getValue());
+      if (postingList != null) {
+        synchronized (postingList) {
+          result = postingList.copy();
         }
       }
     }
+    return result;
+  }
+
+  /**
+   * Get the timeseries matching all the tag filters, by intersecting the posting lists of them.
+   */
+  private List<IMeasurementMNode<?>> getMatchedTimeseriesInIndex(List<SchemaFilter> tagFilters) {
+    PostingList matchedIds = null;
+    for (SchemaFilter tagFilter : tagFilters) {
+      PostingList ids = getMatchedSeriesIds((TagFilter) tagFilter);
+      matchedIds = matchedIds == null ? ids : matchedIds.and(ids);
+      if (matchedIds.isEmpty()) {
+        return Collections.emptyList();
+      }
+    }
+    if (matchedIds == null) {
+      return Collections.emptyList();
+    }
+
+    AtomicReferenceArray<IMeasurementMNode<?>> series = indexedSeries;
+    List<IMeasurementMNode<?>> allMatchedNodes = new ArrayList<>(matchedIds.cardinality());
+    for (PrimitiveIterator.OfInt iterator = matchedIds.iterator(); iterator.hasNext(); ) {
+      int seriesId = iterator.nextInt();
+      IMeasurementMNode<?> node = seriesId < series.length() ? series.get(seriesId) : null;
+      if (node != null) {
+        allMatchedNodes.add(node);
+      }
+    }
     // we just sort them by the alphabetical order
     allMatchedNodes =
         allMatchedNodes.stream()
@@ -266,16 +352,43 @@ public class TagManager {
     return allMatchedNodes;
   }
 
+  /**
+   * Keep the timeseries after the given path and sort them in the same order as the MTree
+   * traversal, which compares the paths node by node.
+   */
+  private List<IMeasurementMNode<?>> getMatchedTimeseriesAfter(
+      List<IMeasurementMNode<?>> matchedNodes, PartialPath startAfter) {
+    String[] startAfterNodes = startAfter.getNodes();
+    return matchedNodes.stream()
+        .map(node -> new Pair<>(node.getPartialPath().getNodes(), node))
+        .filter(pair -> compareNodes(pair.left, startAfterNodes) > 0)
+        .sorted((o1, o2) -> compareNodes(o1.left, o2.left))
+        .map(pair -> pair.right)
+        .collect(toList());
+  }
+
+  private static int compareNodes(String[] nodes, String[] otherNodes) {
+    for (int i = 0; i < nodes.length && i < otherNodes.length; i++) {
+      int res = nodes[i].compareTo(otherNodes[i]);
+      if (res != 0) {
+        return res;
+      }
+    }
+    return Integer.compare(nodes.length, otherNodes.length);
+  }
+
   public ISchemaReader<ITimeSeriesSchemaInfo> getTimeSeriesReaderWithIndex(
       IShowTimeSeriesPlan plan) {
     // schemaFilter must not null
     SchemaFilter schemaFilter = plan.getSchemaFilter();
-    // currently, only one TagFilter is supported
-    // all IMeasurementMNode in allMatchedNodes satisfied TagFilter
-    Iterator<IMeasurementMNode<?>> allMatchedNodes =
+    // all IMeasurementMNode in allMatchedNodes satisfied all the TagFilters connected by AND
+    List<IMeasurementMNode<?>> matchedNodes =
         getMatchedTimeseriesInIndex(
-                (TagFilter) SchemaFilter.extract(schemaFilter, SchemaFilterType.TAGS_FILTER).get(0))
-            .iterator();
+            SchemaFilter.extract(schemaFilter, SchemaFilterType.TAGS_FILTER));
+    if (plan.getStartAfter() != null) {
+      matchedNodes = getMatchedTimeseriesAfter(matchedNodes, plan.getStartAfter());
+    }
+    Iterator<IMeasurementMNode<?>> allMatchedNodes = matchedNodes.iterator();
     PartialPath pathPattern = plan.getPath();
     SchemaIterator<ITimeSeriesSchemaInfo> schemaIterator =
         new SchemaIterator<ITimeSeriesSchemaInfo>() {
@@ -342,7 +455,8 @@ public class TagManager {
           }
         };
     ISchemaReader<ITimeSeriesSchemaInfo> reader =
-        new TimeseriesReaderWithViewFetch(schemaIterator, schemaFilter);
+        new TimeseriesReaderWithViewFetch(
+            schemaIterator, schemaFilter, false, plan.getStartAfter() != null);
     if (plan.getLimit() > 0 || plan.getOffset() > 0) {
       return new SchemaReaderLimitOffsetWrapper<>(reader, plan.getLimit(), plan.getOffset());
     } else {
@@ -388,6 +502,7 @@ public class TagManager {
         }
       }
     }
+    releaseMemory(unregisterIndexedSeries(TagLogFile.getRecordIndex(node.getOffset())));
   }
 
   /**
@@ -574,6 +689,10 @@ public class TagManager {
           }
         }
       }
+      if (pair.left.isEmpty()) {
+        // the timeseries is no longer in tagIndex
+        releaseMemory(unregisterIndexedSeries(TagLogFile.getRecordIndex(leafMNode.getOffset())));
+      }
     }
   }
 
@@ -741,6 +860,7 @@ public class TagManager {
 
   public void clear() throws IOException {
     this.tagIndex.clear();
+    this.indexedSeries = new AtomicReferenceArray<>(0);
     if (tagLogFile != null) {
       tagLogFile.close();
       tagLogFile = null;
@@ -35,6 +35,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -46,6 +47,10 @@ public class Template implements Serializable {
   private boolean isDirectAligned;
   private Map<String, IMeasurementSchema> schemaMap;
 
+  // measurements are only added to a template, thus the cached sorted names are stale only if the
+  // number of measurements has changed
+  private transient volatile String[] sortedMeasurements;
+
   public Template() {
     schemaMap = new ConcurrentHashMap<>();
   }
@@ -102,6 +107,17 @@ public class Template implements Serializable {
     return schemaMap;
   }
 
+  /** Get the measurement names in order, which is the traversal order of the template children. */
+  public String[] getSortedMeasurements() {
+    String[] measurements = sortedMeasurements;
+    if (measurements == null || measurements.length != schemaMap.size()) {
+      measurements = schemaMap.keySet().toArray(new String[0]);
+      Arrays.sort(measurements);
+      sortedMeasurements = measurements;
+    }
+    return measurements;
+  }
+
   public boolean hasSchema(String suffixPath) {
     return schemaMap.containsKey(suffixPath);
   }
@@ -197,6 +213,7 @@ public class Template implements Serializable {
     isDirectAligned = ReadWriteIOUtils.readBool(buffer);
     int schemaSize = ReadWriteIOUtils.readInt(buffer);
     schemaMap = new ConcurrentHashMap<>(schemaSize);
+    sortedMeasurements = null;
     for (int i = 0; i < schemaSize; i++) {
       String schemaName = ReadWriteIOUtils.readString(buffer);
       byte flag = ReadWriteIOUtils.readByte(buffer);
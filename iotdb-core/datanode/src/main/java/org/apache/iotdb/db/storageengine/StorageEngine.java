@@ -64,6 +64,7 @@ import org.apache.iotdb.db.storageengine.dataregion.flush.FlushListener;
 import org.apache.iotdb.db.storageengine.dataregion.flush.TsFileFlushPolicy;
 import org.apache.iotdb.db.storageengine.dataregion.flush.TsFileFlushPolicy.DirectFlushPolicy;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.TsFileProcessor;
+import org.apache.iotdb.db.storageengine.dataregion.migration.MigrationTaskManager;
 import org.apache.iotdb.db.storageengine.dataregion.wal.WALManager;
 import org.apache.iotdb.db.storageengine.dataregion.wal.exception.WALException;
 import org.apache.iotdb.db.storageengine.dataregion.wal.recover.WALRecoverManager;
@@ -304,6 +305,8 @@ public class StorageEngine implements IService {
       throw new StorageEngineFailureException(e);
     }
 
+    // migration tasks must be recovered before data regions load their TsFiles
+    MigrationTaskManager.getInstance().recover();
     asyncRecover();
 
     ttlCheckThread =
@@ -317,6 +320,7 @@ public class StorageEngine implements IService {
     LOGGER.info("start ttl check thread successfully.");
 
     startTimedService();
+    MigrationTaskManager.getInstance().start();
   }
 
   private void checkTTL() {
@@ -385,6 +389,7 @@ public class StorageEngine implements IService {
         CompactionScheduleTaskManager.getInstance().unregisterDataRegion(dataRegion);
       }
     }
+    MigrationTaskManager.getInstance().stop();
     syncCloseAllProcessor();
     ThreadUtils.stopThreadPool(ttlCheckThread, ThreadName.TTL_CHECK);
     ThreadUtils.stopThreadPool(
@@ -405,6 +410,7 @@ public class StorageEngine implements IService {
           CompactionScheduleTaskManager.getInstance().unregisterDataRegion(dataRegion);
         }
       }
+      MigrationTaskManager.getInstance().stop();
       forceCloseAllProcessor();
     } catch (TsFileProcessorException e) {
       throw new ShutdownException(e);
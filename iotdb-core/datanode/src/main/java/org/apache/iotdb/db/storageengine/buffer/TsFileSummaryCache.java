@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.storageengine.buffer;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.summary.TsFileSummary;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Weigher;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.PlainDeviceID;
+import org.apache.tsfile.utils.RamUsageEstimator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * This class is used to cache {@link TsFileSummary} in IoTDB. Its memory is split from the bloom
+ * filter cache when TsFile summary is enabled at startup, see {@link
+ * IoTDBConfig#getAllocateMemoryForTsFileSummaryCache()}. The summaries are cached and loaded per
+ * device of a TsFile. The caching strategy is LRU.
+ */
+@SuppressWarnings("squid:S6548")
+public class TsFileSummaryCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TsFileSummaryCache.class);
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+  private static final long MEMORY_THRESHOLD_IN_TSFILE_SUMMARY_CACHE =
+      CONFIG.getAllocateMemoryForTsFileSummaryCache();
+
+  private final LoadingCache<TsFileSummaryCacheKey, TsFileSummary> lruCache;
+
+  private TsFileSummaryCache() {
+    lruCache =
+        Caffeine.newBuilder()
+            .maximumWeight(MEMORY_THRESHOLD_IN_TSFILE_SUMMARY_CACHE)
+            .weigher(
+                (Weigher<TsFileSummaryCacheKey, TsFileSummary>)
+                    (key, summary) ->
+                        (int)
+                            Math.min(
+                                Integer.MAX_VALUE,
+                                key.getRetainedSizeInBytes() + summary.getRetainedSizeInBytes()))
+            .recordStats()
+            .build(TsFileSummaryCache::load);
+  }
+
+  public static TsFileSummaryCache getInstance() {
+    return TsFileSummaryCacheHolder.INSTANCE;
+  }
+
+  private static TsFileSummary load(TsFileSummaryCacheKey key) {
+    try {
+      return TsFileSummary.deserialize(new File(key.filePath), key.device);
+    } catch (IOException e) {
+      // a broken summary only disables the skipping of this TsFile
+      LOGGER.warn("Failed to read the summary of {}", key.filePath, e);
+      return TsFileSummary.EMPTY;
+    }
+  }
+
+  /**
+   * Get the summary of a device in a sealed TsFile.
+   *
+   * @return {@link TsFileSummary#EMPTY} if the TsFile has no readable summary of the device
+   */
+  public TsFileSummary get(String filePath, IDeviceID device) {
+    return lruCache.get(new TsFileSummaryCacheKey(filePath, device));
+  }
+
+  /** Remove the summaries of all devices in the TsFile. */
+  public void remove(String filePath) {
+    lruCache.asMap().keySet().removeIf(key -> key.filePath.equals(filePath));
+  }
+
+  public double calculateTsFileSummaryHitRatio() {
+    return lruCache.stats().hitRate();
+  }
+
+  /** clear LRUCache. */
+  public void clear() {
+    lruCache.invalidateAll();
+    lruCache.cleanUp();
+  }
+
+  private static class TsFileSummaryCacheKey {
+
+    private static final long INSTANCE_SIZE =
+        RamUsageEstimator.shallowSizeOfInstance(TsFileSummaryCacheKey.class);
+
+    private final String filePath;
+    private final IDeviceID device;
+
+    private TsFileSummaryCacheKey(String filePath, IDeviceID device) {
+      this.filePath = filePath;
+      this.device = device;
+    }
+
+    private long getRetainedSizeInBytes() {
+      return INSTANCE_SIZE
+          + RamUsageEstimator.sizeOf(filePath)
+          + RamUsageEstimator.sizeOf(((PlainDeviceID) device).toStringID());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      TsFileSummaryCacheKey that = (TsFileSummaryCacheKey) o;
+      return filePath.equals(that.filePath) && device.equals(that.device);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(filePath, device);
+    }
+  }
+
+  /** singleton pattern. */
+  private static class TsFileSummaryCacheHolder {
+    private static final TsFileSummaryCache INSTANCE = new TsFileSummaryCache();
+  }
+}
@@ -33,6 +33,7 @@ import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileManager;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResourceStatus;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.generator.TsFileNameGenerator;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.summary.TsFileSummary;
 
 import java.io.File;
 import java.io.IOException;
@@ -228,6 +229,14 @@ public class InsertionCrossSpaceCompactionTask extends AbstractCompactionTask {
           new File(targetTsFile.getPath() + ModificationFile.FILE_SUFFIX).toPath(),
           new File(sourceTsFile.getPath() + ModificationFile.FILE_SUFFIX).toPath());
     }
+    File sourceSummaryFile = TsFileSummary.getSummaryFile(sourceTsFile);
+    if (sourceSummaryFile.exists()) {
+      Files.createLink(
+          TsFileSummary.getSummaryFile(targetTsFile).toPath(), sourceSummaryFile.toPath());
+    } else {
+      // the summary of the source file may still be generated in background
+      targetFile.serializeSummary();
+    }
     targetFile.setProgressIndex(unseqFileToInsert.getMaxProgressIndexAfterClose());
     targetFile.deserialize();
     targetFile.setProgressIndex(unseqFileToInsert.getMaxProgressIndexAfterClose());
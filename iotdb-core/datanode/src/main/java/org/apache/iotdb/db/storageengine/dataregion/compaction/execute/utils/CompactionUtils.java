@@ -100,6 +100,7 @@ public class CompactionUtils {
     // serialize xxx.tsfile.resource
     targetResource.setFile(newFile);
     targetResource.serialize();
+    targetResource.serializeSummary();
     targetResource.closeWithoutSettingStatus();
   }
 
@@ -30,6 +30,8 @@ import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.exe
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.fast.element.PageElement;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.fast.reader.CompactionChunkReader;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.writer.AbstractCompactionWriter;
+import org.apache.iotdb.db.storageengine.dataregion.flush.AdaptiveEncodingSelector;
+import org.apache.iotdb.db.storageengine.dataregion.flush.SeriesValueSampler;
 import org.apache.iotdb.db.storageengine.dataregion.modification.Modification;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 import org.apache.iotdb.db.utils.ModificationUtils;
@@ -45,6 +47,7 @@ import org.apache.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.tsfile.read.TsFileSequenceReader;
 import org.apache.tsfile.read.common.Chunk;
 import org.apache.tsfile.utils.Pair;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
 import org.apache.tsfile.write.schema.MeasurementSchema;
 
 import java.io.IOException;
@@ -203,17 +206,28 @@ public class NonAlignedSeriesCompactionExecutor extends SeriesCompactionExecutor
       // sensors and their schemas under the current device, but since the compaction process is
       // to read a batch of overlapped files each time, which may not contain all the sensors.
       ChunkHeader header = chunkMetadataElement.chunk.getHeader();
-      MeasurementSchema schema =
+      IMeasurementSchema schema =
           new MeasurementSchema(
               header.getMeasurementID(),
               header.getDataType(),
               header.getEncodingType(),
               header.getCompressionType());
+      if (AdaptiveEncodingSelector.isEnabled()) {
+        schema =
+            AdaptiveEncodingSelector.select(
+                schema,
+                SeriesValueSampler.sample(
+                    chunkMetadataElement.chunk, AdaptiveEncodingSelector.getSampleSize()),
+                AdaptiveEncodingSelector.STAGE_COMPACTION);
+      }
       compactionWriter.startMeasurement(Collections.singletonList(schema), subTaskId);
       hasStartMeasurement = true;
-      seriesCompressionType = header.getCompressionType();
-      seriesTSEncoding = header.getEncodingType();
-      chunkMetadataElement.needForceDecoding = false;
+      seriesCompressionType = schema.getCompressor();
+      seriesTSEncoding = schema.getEncodingType();
+      // chunks written in another encoding must be rewritten point by point
+      chunkMetadataElement.needForceDecoding =
+          header.getCompressionType() != seriesCompressionType
+              || header.getEncodingType() != seriesTSEncoding;
     } else {
       ChunkHeader header = chunkMetadataElement.chunk.getHeader();
       chunkMetadataElement.needForceDecoding =
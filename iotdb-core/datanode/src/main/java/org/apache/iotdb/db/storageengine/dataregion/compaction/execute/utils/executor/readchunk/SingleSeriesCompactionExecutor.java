@@ -24,6 +24,8 @@ import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.exception.CompactionLastTimeCheckFailedException;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.CompactionTaskSummary;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.io.CompactionTsFileWriter;
+import org.apache.iotdb.db.storageengine.dataregion.flush.AdaptiveEncodingSelector;
+import org.apache.iotdb.db.storageengine.dataregion.flush.SeriesValueSampler;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 
 import org.apache.tsfile.file.header.ChunkHeader;
@@ -163,7 +165,7 @@ public class SingleSeriesCompactionExecutor {
     targetResource.updateEndTime(device, maxEndTimestamp);
   }
 
-  private void constructChunkWriterFromReadChunk(Chunk chunk) {
+  private void constructChunkWriterFromReadChunk(Chunk chunk) throws IOException {
     ChunkHeader chunkHeader = chunk.getHeader();
     this.schema =
         new MeasurementSchema(
@@ -171,6 +173,15 @@ public class SingleSeriesCompactionExecutor {
             chunkHeader.getDataType(),
             chunkHeader.getEncodingType(),
             chunkHeader.getCompressionType());
+    if (AdaptiveEncodingSelector.isEnabled()) {
+      // only the deserialized chunks are rewritten in the selected encoding, the chunks flushed
+      // directly keep their own
+      this.schema =
+          AdaptiveEncodingSelector.select(
+              schema,
+              SeriesValueSampler.sample(chunk, AdaptiveEncodingSelector.getSampleSize()),
+              AdaptiveEncodingSelector.STAGE_COMPACTION);
+    }
     this.chunkWriter = new ChunkWriterImpl(this.schema);
   }
 
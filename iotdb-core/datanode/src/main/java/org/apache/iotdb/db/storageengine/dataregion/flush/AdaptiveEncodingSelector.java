@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.storageengine.dataregion.flush;
+
+import org.apache.iotdb.commons.service.metric.MetricService;
+import org.apache.iotdb.commons.service.metric.enums.Metric;
+import org.apache.iotdb.commons.service.metric.enums.Tag;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.metrics.utils.MetricLevel;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+
+/**
+ * Chooses the encoding and compressor of a non-aligned chunk from the statistics sampled by {@link
+ * SeriesValueSampler} when {@code enable_adaptive_encoding} is on. Only lossless choices are made,
+ * so float series that users encode with a limited precision keep their schema.
+ */
+public class AdaptiveEncodingSelector {
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  public static final String STAGE_FLUSH = "flush";
+  public static final String STAGE_COMPACTION = "compaction";
+
+  // values repeating their predecessor this often are best run-length encoded
+  private static final double RLE_REPEAT_RATIO = 0.8;
+  // booleans are cheaper in plain encoding when they flip almost every point
+  private static final double BOOLEAN_RLE_REPEAT_RATIO = 0.5;
+  // text with no more distinct values than this ratio is dictionary encoded
+  private static final double DICTIONARY_DISTINCT_RATIO = 0.5;
+  // values this close to random gain little from heavy compressors
+  private static final double HIGH_ENTROPY = 0.9;
+
+  private AdaptiveEncodingSelector() {
+    // util class
+  }
+
+  public static boolean isEnabled() {
+    return CONFIG.isEnableAdaptiveEncoding();
+  }
+
+  public static int getSampleSize() {
+    return CONFIG.getAdaptiveEncodingSampleSize();
+  }
+
+  /**
+   * Choose the schema used to write a chunk and record the decision.
+   *
+   * @param schema the schema the chunk would be written with
+   * @param sampler the statistics sampled from the data of the chunk
+   * @param stage {@link #STAGE_FLUSH} or {@link #STAGE_COMPACTION}
+   * @return the given schema if nothing should change, otherwise a new schema with the same
+   *     measurement id and data type
+   */
+  public static IMeasurementSchema select(
+      IMeasurementSchema schema, SeriesValueSampler sampler, String stage) {
+    if (sampler.getCount() == 0 || isLossyEncoding(schema)) {
+      return schema;
+    }
+    TSEncoding encoding = selectEncoding(schema.getType(), schema.getEncodingType(), sampler);
+    CompressionType compressor = selectCompressor(schema.getCompressor(), sampler);
+    recordSelection(stage, encoding, compressor);
+    if (encoding == schema.getEncodingType() && compressor == schema.getCompressor()) {
+      return schema;
+    }
+    return new MeasurementSchema(
+        schema.getMeasurementId(), schema.getType(), encoding, compressor, schema.getProps());
+  }
+
+  static TSEncoding selectEncoding(
+      TSDataType dataType, TSEncoding current, SeriesValueSampler sampler) {
+    switch (dataType) {
+      case BOOLEAN:
+        return sampler.getRepeatRatio() >= BOOLEAN_RLE_REPEAT_RATIO
+            ? TSEncoding.RLE
+            : TSEncoding.PLAIN;
+      case INT32:
+      case INT64:
+        // TS_2DIFF packs regular deltas into few bits and is never much worse than the others
+        return sampler.getRepeatRatio() >= RLE_REPEAT_RATIO
+                && sampler.getRepeatRatio() > sampler.getDeltaRegularity()
+            ? TSEncoding.RLE
+            : TSEncoding.TS_2DIFF;
+      case FLOAT:
+      case DOUBLE:
+        return TSEncoding.GORILLA;
+      case TEXT:
+        return sampler.getDistinctRatio() <= DICTIONARY_DISTINCT_RATIO
+            ? TSEncoding.DICTIONARY
+            : TSEncoding.PLAIN;
+      default:
+        return current;
+    }
+  }
+
+  static CompressionType selectCompressor(CompressionType current, SeriesValueSampler sampler) {
+    if (current == CompressionType.UNCOMPRESSED || current == CompressionType.LZ4) {
+      return current;
+    }
+    return sampler.getDataType() != TSDataType.TEXT
+            && sampler.getNormalizedEntropy() >= HIGH_ENTROPY
+        ? CompressionType.LZ4
+        : current;
+  }
+
+  /**
+   * FLOAT and DOUBLE values encoded by RLE or TS_2DIFF are rounded to the precision in the props of
+   * the schema, which must not be changed.
+   */
+  private static boolean isLossyEncoding(IMeasurementSchema schema) {
+    TSDataType dataType = schema.getType();
+    TSEncoding encoding = schema.getEncodingType();
+    return (dataType == TSDataType.FLOAT || dataType == TSDataType.DOUBLE)
+        && (encoding == TSEncoding.RLE || encoding == TSEncoding.TS_2DIFF);
+  }
+
+  private static void recordSelection(
+      String stage, TSEncoding encoding, CompressionType compressor) {
+    MetricService.getInstance()
+        .count(
+            1,
+            Metric.ADAPTIVE_ENCODING_SELECTION.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.STAGE.toString(),
+            stage,
+            Tag.TYPE.toString(),
+            encoding.name(),
+            Tag.NAME.toString(),
+            compressor.name());
+  }
+}
@@ -25,6 +25,7 @@ import org.apache.iotdb.commons.service.IService;
 import org.apache.iotdb.commons.service.JMXService;
 import org.apache.iotdb.commons.service.ServiceType;
 import org.apache.iotdb.commons.service.metric.MetricService;
+import org.apache.iotdb.db.storageengine.dataregion.flush.pool.FlushEncodingPoolManager;
 import org.apache.iotdb.db.storageengine.dataregion.flush.pool.FlushSubTaskPoolManager;
 import org.apache.iotdb.db.storageengine.dataregion.flush.pool.FlushTaskPoolManager;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.TsFileProcessor;
@@ -49,6 +50,7 @@ public class FlushManager implements FlushManagerMBean, IService {
   @Override
   public void start() throws StartupException {
     FlushSubTaskPoolManager.getInstance().start();
+    FlushEncodingPoolManager.getInstance().start();
     flushPool.start();
     try {
       JMXService.registerMBean(this, ServiceType.FLUSH_SERVICE.getJmxName());
@@ -61,6 +63,7 @@ public class FlushManager implements FlushManagerMBean, IService {
   @Override
   public void stop() {
     FlushSubTaskPoolManager.getInstance().stop();
+    FlushEncodingPoolManager.getInstance().stop();
     FlushTaskPoolManager.getInstance().stop();
     JMXService.deregisterMBean(ServiceType.FLUSH_SERVICE.getJmxName());
   }
@@ -24,8 +24,10 @@ import org.apache.iotdb.commons.service.metric.enums.Tag;
 import org.apache.iotdb.commons.utils.CommonDateTimeUtils;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.runtime.FlushRunTimeException;
 import org.apache.iotdb.db.service.metrics.WritingMetrics;
 import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
+import org.apache.iotdb.db.storageengine.dataregion.flush.pool.FlushEncodingPoolManager;
 import org.apache.iotdb.db.storageengine.dataregion.flush.pool.FlushSubTaskPoolManager;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.IMemTable;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.IWritableMemChunk;
@@ -44,21 +46,26 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * flush task to flush one memtable using a pipeline model to flush, which is sort memtable ->
- * encoding -> write to disk (io task)
+ * encoding -> write to disk (io task). The chunk groups of different devices are encoded
+ * concurrently by a pool shared by all flush tasks, and written to disk in device order.
  */
 public class MemTableFlushTask {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(MemTableFlushTask.class);
   private static final FlushSubTaskPoolManager SUB_TASK_POOL_MANAGER =
       FlushSubTaskPoolManager.getInstance();
+  private static final FlushEncodingPoolManager ENCODING_POOL_MANAGER =
+      FlushEncodingPoolManager.getInstance();
   private static final WritingMetrics WRITING_METRICS = WritingMetrics.getInstance();
   private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
   /* storage group name -> last time */
@@ -78,7 +85,8 @@ public class MemTableFlushTask {
 
   private IMemTable memTable;
 
-  private volatile long memSerializeTime = 0L;
+  // encoding time summed over the threads of the shared encoding pool
+  private final AtomicLong memSerializeTime = new AtomicLong(0L);
   private volatile long ioTime = 0L;
 
   /**
@@ -117,14 +125,14 @@ public class MemTableFlushTask {
         memTable.getTotalPointsNum(),
         avgSeriesPointsNum);
 
+    // each element of the io task queue may hold the encoded chunks of a whole device
     long estimatedTemporaryMemSize = 0L;
+    int deviceNumber = memTable.getMemTableMap().size();
     if (SystemInfo.getInstance().isEncodingFasterThanIo()) {
       estimatedTemporaryMemSize =
-          memTable.getSeriesNumber() == 0
+          deviceNumber == 0
               ? 0
-              : memTable.memSize()
-                  / memTable.getSeriesNumber()
-                  * config.getIoTaskQueueSizeForFlushing();
+              : memTable.memSize() / deviceNumber * config.getIoTaskQueueSizeForFlushing();
       SystemInfo.getInstance().applyTemporaryMemoryForFlushing(estimatedTemporaryMemSize);
     }
     long start = System.currentTimeMillis();
@@ -172,6 +180,9 @@ public class MemTableFlushTask {
 
     try {
       encodingTaskFuture.get();
+    } catch (CancellationException e) {
+      // the encoding task is cancelled by the io task after an encoding error, which is thrown by
+      // ioTaskFuture.get() below
     } catch (InterruptedException | ExecutionException e) {
       ioTaskFuture.cancel(true);
       if (e instanceof InterruptedException) {
@@ -195,7 +206,7 @@ public class MemTableFlushTask {
     if (estimatedTemporaryMemSize != 0) {
       SystemInfo.getInstance().releaseTemporaryMemoryForFlushing(estimatedTemporaryMemSize);
     }
-    SystemInfo.getInstance().setEncodingFasterThanIo(ioTime >= memSerializeTime);
+    SystemInfo.getInstance().setEncodingFasterThanIo(ioTime >= memSerializeTime.get());
 
     MetricService.getInstance()
         .timer(
@@ -207,7 +218,10 @@ public class MemTableFlushTask {
             "flush");
   }
 
-  /** encoding task (second task of pipeline) */
+  /**
+   * encoding task (second task of pipeline), which hands the series of each device to the shared
+   * encoding pool, and passes the future of the encoded chunks to the io task in device order.
+   */
   private Runnable encodingTask =
       new Runnable() {
 
@@ -218,6 +232,7 @@ public class MemTableFlushTask {
               "Database {} memtable flushing to file {} starts to encoding data.",
               storageGroup,
               writer.getFile().getName());
+          List<IWritableMemChunk> chunkGroup = new ArrayList<>();
           while (true) {
 
             Object task;
@@ -230,6 +245,11 @@ public class MemTableFlushTask {
             }
             if (task instanceof StartFlushGroupIOTask || task instanceof EndChunkGroupIoTask) {
               try {
+                if (task instanceof EndChunkGroupIoTask) {
+                  List<IWritableMemChunk> seriesToEncode = chunkGroup;
+                  chunkGroup = new ArrayList<>();
+                  ioTaskQueue.put(ENCODING_POOL_MANAGER.submit(() -> encode(seriesToEncode)));
+                }
                 ioTaskQueue.put(task);
               } catch (
                   @SuppressWarnings("squid:S2142")
@@ -245,21 +265,7 @@ public class MemTableFlushTask {
             } else if (task instanceof TaskEnd) {
               break;
             } else {
-              long starTime = System.currentTimeMillis();
-              IWritableMemChunk writableMemChunk = (IWritableMemChunk) task;
-              IChunkWriter seriesWriter = writableMemChunk.createIChunkWriter();
-              writableMemChunk.encode(seriesWriter);
-              seriesWriter.sealCurrentPage();
-              seriesWriter.clearPageWriter();
-              try {
-                ioTaskQueue.put(seriesWriter);
-              } catch (InterruptedException e) {
-                LOGGER.error("Put task into ioTaskQueue Interrupted");
-                Thread.currentThread().interrupt();
-              }
-              long subTaskTime = System.currentTimeMillis() - starTime;
-              WRITING_METRICS.recordFlushSubTaskCost(WritingMetrics.ENCODING_TASK, subTaskTime);
-              memSerializeTime += subTaskTime;
+              chunkGroup.add((IWritableMemChunk) task);
             }
           }
           try {
@@ -274,10 +280,26 @@ public class MemTableFlushTask {
                   databaseName ->
                       recordFlushPointsMetricInternal(
                           memTable.getTotalPointsNum(), databaseName, dataRegionId));
-          WRITING_METRICS.recordFlushCost(WritingMetrics.FLUSH_STAGE_ENCODING, memSerializeTime);
         }
       };
 
+  /** Encode the series of one device, which runs in the shared encoding pool. */
+  private List<IChunkWriter> encode(List<IWritableMemChunk> chunkGroup) {
+    List<IChunkWriter> seriesWriters = new ArrayList<>(chunkGroup.size());
+    for (IWritableMemChunk writableMemChunk : chunkGroup) {
+      long starTime = System.currentTimeMillis();
+      IChunkWriter seriesWriter = writableMemChunk.createIChunkWriter();
+      writableMemChunk.encode(seriesWriter);
+      seriesWriter.sealCurrentPage();
+      seriesWriter.clearPageWriter();
+      seriesWriters.add(seriesWriter);
+      long subTaskTime = System.currentTimeMillis() - starTime;
+      WRITING_METRICS.recordFlushSubTaskCost(WritingMetrics.ENCODING_TASK, subTaskTime);
+      memSerializeTime.addAndGet(subTaskTime);
+    }
+    return seriesWriters;
+  }
+
   public static void recordFlushPointsMetricInternal(
       long totalPointsNum, String storageGroupName, String dataRegionId) {
     long currentTime = CommonDateTimeUtils.currentTime();
@@ -308,7 +330,7 @@ public class MemTableFlushTask {
   }
 
   /** io task (third task of pipeline) */
-  @SuppressWarnings("squid:S135")
+  @SuppressWarnings({"squid:S135", "unchecked"})
   private Runnable ioTask =
       () -> {
         LOGGER.debug(
@@ -324,6 +346,21 @@ public class MemTableFlushTask {
             Thread.currentThread().interrupt();
             break;
           }
+          if (ioMessage instanceof Future) {
+            // wait for the encoded chunks outside the io time, in the order devices were submitted
+            try {
+              ioMessage = ((Future<List<IChunkWriter>>) ioMessage).get();
+            } catch (ExecutionException e) {
+              LOGGER.error(
+                  "Database {} memtable {}, encoding task meets error.", storageGroup, memTable, e);
+              abortEncoding();
+              throw new FlushRunTimeException(e);
+            } catch (InterruptedException e) {
+              LOGGER.error("take encoded chunks from ioTaskQueue Interrupted");
+              Thread.currentThread().interrupt();
+              break;
+            }
+          }
           long starTime = System.currentTimeMillis();
           try {
             if (ioMessage instanceof StartFlushGroupIOTask) {
@@ -335,7 +372,9 @@ public class MemTableFlushTask {
               this.writer.setMaxPlanIndex(memTable.getMaxPlanIndex());
               this.writer.endChunkGroup();
             } else {
-              ((IChunkWriter) ioMessage).writeToFileWriter(this.writer);
+              for (IChunkWriter seriesWriter : (List<IChunkWriter>) ioMessage) {
+                seriesWriter.writeToFileWriter(this.writer);
+              }
             }
           } catch (IOException e) {
             LOGGER.error(
@@ -352,9 +391,25 @@ public class MemTableFlushTask {
             storageGroup,
             ioTime);
         WRITING_METRICS.recordFlushTsFileSize(storageGroup, writer.getFile().length());
+        WRITING_METRICS.recordFlushCost(
+            WritingMetrics.FLUSH_STAGE_ENCODING, memSerializeTime.get());
         WRITING_METRICS.recordFlushCost(WritingMetrics.FLUSH_STAGE_IO, ioTime);
       };
 
+  /**
+   * Stop the encoding task and the encoding of the remaining devices after the io task fails, so
+   * that neither of them blocks on the full ioTaskQueue.
+   */
+  private void abortEncoding() {
+    encodingTaskFuture.cancel(true);
+    Object task;
+    while ((task = ioTaskQueue.poll()) != null) {
+      if (task instanceof Future) {
+        ((Future<?>) task).cancel(true);
+      }
+    }
+  }
+
   static class TaskEnd {
 
     TaskEnd() {}
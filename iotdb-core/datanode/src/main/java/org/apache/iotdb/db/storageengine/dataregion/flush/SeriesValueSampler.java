@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.storageengine.dataregion.flush;
+
+import org.apache.iotdb.db.utils.datastructure.TVList;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.TimeValuePair;
+import org.apache.tsfile.read.common.Chunk;
+import org.apache.tsfile.read.reader.IPointReader;
+import org.apache.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.TsPrimitiveType;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Collects the statistics of the first points of a chunk that are used to choose its encoding:
+ * how often a value repeats its predecessor, how often the delta between two values stays the
+ * same, how many distinct values there are and how evenly the values are distributed.
+ */
+public class SeriesValueSampler {
+
+  private final TSDataType dataType;
+  private final int capacity;
+
+  private int count = 0;
+  private int repeatCount = 0;
+  private int regularDeltaCount = 0;
+  private final Map<Object, Integer> frequencies = new HashMap<>();
+
+  private Object previousValue;
+  private long previousLong;
+  private long previousDelta;
+
+  public SeriesValueSampler(TSDataType dataType, int capacity) {
+    this.dataType = dataType;
+    this.capacity = capacity;
+  }
+
+  /** Sample the first points of a sorted {@link TVList}. */
+  public static SeriesValueSampler sample(TVList list, TSDataType dataType, int capacity) {
+    SeriesValueSampler sampler = new SeriesValueSampler(dataType, capacity);
+    int rowCount = list.rowCount();
+    for (int i = 0; i < rowCount && !sampler.isFull(); i++) {
+      switch (dataType) {
+        case BOOLEAN:
+          sampler.sample(list.getBoolean(i));
+          break;
+        case INT32:
+          sampler.sample(list.getInt(i));
+          break;
+        case INT64:
+          sampler.sample(list.getLong(i));
+          break;
+        case FLOAT:
+          sampler.sample(list.getFloat(i));
+          break;
+        case DOUBLE:
+          sampler.sample(list.getDouble(i));
+          break;
+        case TEXT:
+          sampler.sample(list.getBinary(i));
+          break;
+        default:
+          return sampler;
+      }
+    }
+    return sampler;
+  }
+
+  /**
+   * Sample the first points of a non-aligned chunk. The data buffer of the chunk is left untouched.
+   *
+   * @throws IOException if the chunk can not be decoded
+   */
+  public static SeriesValueSampler sample(Chunk chunk, int capacity) throws IOException {
+    SeriesValueSampler sampler = new SeriesValueSampler(chunk.getHeader().getDataType(), capacity);
+    Chunk copy =
+        new Chunk(
+            chunk.getHeader(),
+            chunk.getData().duplicate(),
+            chunk.getDeleteIntervalList(),
+            chunk.getChunkStatistic());
+    ChunkReader chunkReader = new ChunkReader(copy);
+    while (chunkReader.hasNextSatisfiedPage() && !sampler.isFull()) {
+      IPointReader pointReader = chunkReader.nextPageData().getBatchDataIterator();
+      while (pointReader.hasNextTimeValuePair() && !sampler.isFull()) {
+        TimeValuePair timeValuePair = pointReader.nextTimeValuePair();
+        sampler.sample(timeValuePair.getValue());
+      }
+    }
+    return sampler;
+  }
+
+  public void sample(TsPrimitiveType value) {
+    switch (dataType) {
+      case BOOLEAN:
+        sample(value.getBoolean());
+        break;
+      case INT32:
+        sample(value.getInt());
+        break;
+      case INT64:
+        sample(value.getLong());
+        break;
+      case FLOAT:
+        sample(value.getFloat());
+        break;
+      case DOUBLE:
+        sample(value.getDouble());
+        break;
+      case TEXT:
+        sample(value.getBinary());
+        break;
+      default:
+        break;
+    }
+  }
+
+  public void sample(boolean value) {
+    sampleObject(value);
+  }
+
+  public void sample(int value) {
+    sample((long) value);
+  }
+
+  public void sample(long value) {
+    if (count >= 2 && value - previousLong == previousDelta) {
+      regularDeltaCount++;
+    }
+    if (count >= 1) {
+      previousDelta = value - previousLong;
+    }
+    previousLong = value;
+    sampleObject(value);
+  }
+
+  public void sample(float value) {
+    sample((double) value);
+  }
+
+  public void sample(double value) {
+    sampleObject(Double.doubleToLongBits(value));
+  }
+
+  public void sample(Binary value) {
+    sampleObject(value);
+  }
+
+  private void sampleObject(Object value) {
+    if (count >= 1 && value.equals(previousValue)) {
+      repeatCount++;
+    }
+    previousValue = value;
+    frequencies.merge(value, 1, Integer::sum);
+    count++;
+  }
+
+  public boolean isFull() {
+    return count >= capacity;
+  }
+
+  public TSDataType getDataType() {
+    return dataType;
+  }
+
+  public int getCount() {
+    return count;
+  }
+
+  /** The ratio of points whose value equals the value of the previous point. */
+  public double getRepeatRatio() {
+    return count < 2 ? 0 : (double) repeatCount / (count - 1);
+  }
+
+  /** The ratio of points whose delta to the previous point equals the previous delta. */
+  public double getDeltaRegularity() {
+    return count < 3 ? 0 : (double) regularDeltaCount / (count - 2);
+  }
+
+  /** The ratio of distinct values among the sampled points. */
+  public double getDistinctRatio() {
+    return count == 0 ? 0 : (double) frequencies.size() / count;
+  }
+
+  /**
+   * The Shannon entropy of the sampled values divided by its upper bound, which is 0 when all the
+   * values are the same and 1 when all the values are different.
+   */
+  public double getNormalizedEntropy() {
+    if (count < 2) {
+      return 0;
+    }
+    double entropy = 0;
+    for (int frequency : frequencies.values()) {
+      double probability = (double) frequency / count;
+      entropy -= probability * Math.log(probability);
+    }
+    return entropy / Math.log(count);
+  }
+}
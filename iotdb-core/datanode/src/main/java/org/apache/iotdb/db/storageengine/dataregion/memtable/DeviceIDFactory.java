@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.db.storageengine.dataregion.memtable;
 
+import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.path.PartialPath;
 import org.apache.iotdb.commons.utils.TestOnly;
 import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.DataNodeDevicePathCache;
@@ -64,7 +65,8 @@ public class DeviceIDFactory {
    * @return device id of the timeseries
    */
   public IDeviceID getDeviceID(PartialPath devicePath) {
-    return getDeviceIDFunction.apply(devicePath.getFullPath());
+    // The device path is usually interned by DataNodeDevicePathCache, reuse its device id
+    return devicePath.getIDeviceIDAsFullDevice();
   }
 
   /**
@@ -74,7 +76,11 @@ public class DeviceIDFactory {
    * @return device id of the timeseries
    */
   public IDeviceID getDeviceID(String devicePath) {
-    return getDeviceIDFunction.apply(DataNodeDevicePathCache.getInstance().getDeviceId(devicePath));
+    try {
+      return getDeviceID(DataNodeDevicePathCache.getInstance().getPartialPath(devicePath));
+    } catch (IllegalPathException e) {
+      return getDeviceIDFunction.apply(devicePath);
+    }
   }
 
   /** reset id method */
@@ -1547,6 +1547,7 @@ public class TsFileProcessor {
     }
     writer.endFile();
     tsFileResource.serialize();
+    tsFileResource.serializeSummary();
     if (logger.isDebugEnabled()) {
       logger.debug("Ended file {}", tsFileResource);
     }
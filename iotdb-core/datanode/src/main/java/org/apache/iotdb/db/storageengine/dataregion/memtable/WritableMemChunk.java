@@ -20,7 +20,9 @@ package org.apache.iotdb.db.storageengine.dataregion.memtable;
 
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.storageengine.dataregion.flush.AdaptiveEncodingSelector;
 import org.apache.iotdb.db.storageengine.dataregion.flush.CompressionRatio;
+import org.apache.iotdb.db.storageengine.dataregion.flush.SeriesValueSampler;
 import org.apache.iotdb.db.storageengine.dataregion.wal.buffer.IWALByteBufferView;
 import org.apache.iotdb.db.utils.MemUtils;
 import org.apache.iotdb.db.utils.datastructure.TVList;
@@ -286,6 +288,14 @@ public class WritableMemChunk implements IWritableMemChunk {
 
   @Override
   public IChunkWriter createIChunkWriter() {
+    if (AdaptiveEncodingSelector.isEnabled()) {
+      // the list has been sorted before encoding, so the sample follows the time order
+      SeriesValueSampler sampler =
+          SeriesValueSampler.sample(
+              list, schema.getType(), AdaptiveEncodingSelector.getSampleSize());
+      return new ChunkWriterImpl(
+          AdaptiveEncodingSelector.select(schema, sampler, AdaptiveEncodingSelector.STAGE_FLUSH));
+    }
     return new ChunkWriterImpl(schema);
   }
 
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.storageengine.dataregion.migration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+/** Parse the log written by {@link MigrationLogger}. */
+public class MigrationLogAnalyzer {
+
+  private File source;
+  private File target;
+  private boolean switched = false;
+
+  public MigrationLogAnalyzer(File logFile) throws IOException {
+    List<String> lines = Files.readAllLines(logFile.toPath(), StandardCharsets.UTF_8);
+    if (lines.size() >= 2) {
+      source = new File(lines.get(0));
+      target = new File(lines.get(1));
+    }
+    if (lines.size() >= 3) {
+      switched = MigrationLogger.SWITCHED_FLAG.equals(lines.get(2));
+    }
+  }
+
+  /** Whether the source and target files are both recorded in the log. */
+  public boolean isComplete() {
+    return source != null && target != null;
+  }
+
+  public File getSource() {
+    return source;
+  }
+
+  public File getTarget() {
+    return target;
+  }
+
+  public boolean isSwitched() {
+    return switched;
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.storageengine.dataregion.migration;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Log of one migration task. The first two lines are the absolute paths of the source and the
+ * target TsFile, and the {@link #SWITCHED_FLAG} line is appended once the TsFileResource points to
+ * the target file. Each line is synced to disk before the corresponding step goes on, so that an
+ * interrupted task can be rolled back or finished when the DataNode restarts.
+ */
+public class MigrationLogger implements AutoCloseable {
+  public static final String MIGRATION_LOG_SUFFIX = ".migration";
+  public static final String SWITCHED_FLAG = "SWITCHED";
+
+  private final File logFile;
+  private final FileOutputStream fos;
+  private final BufferedOutputStream os;
+
+  public MigrationLogger(File logFile) throws IOException {
+    this.logFile = logFile;
+    if (!logFile.getParentFile().exists() && !logFile.getParentFile().mkdirs()) {
+      throw new IOException("Cannot create parent folder for " + logFile.getAbsolutePath());
+    }
+    fos = new FileOutputStream(logFile);
+    os = new BufferedOutputStream(fos);
+  }
+
+  public void logSourceAndTarget(File source, File target) throws IOException {
+    writeLine(source.getAbsolutePath());
+    writeLine(target.getAbsolutePath());
+  }
+
+  public void logSwitched() throws IOException {
+    writeLine(SWITCHED_FLAG);
+  }
+
+  private void writeLine(String line) throws IOException {
+    os.write(line.getBytes(StandardCharsets.UTF_8));
+    os.write("\n".getBytes(StandardCharsets.UTF_8));
+    os.flush();
+    fos.getFD().sync();
+  }
+
+  @Override
+  public void close() throws IOException {
+    os.close();
+  }
+
+  /** Close the log and delete it, which means the task has completely finished or rolled back. */
+  public void closeAndDelete() throws IOException {
+    close();
+    Files.deleteIfExists(logFile.toPath());
+  }
+}
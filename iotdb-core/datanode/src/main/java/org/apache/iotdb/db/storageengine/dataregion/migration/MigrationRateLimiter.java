@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.storageengine.dataregion.migration;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+
+import com.google.common.util.concurrent.AtomicDouble;
+import com.google.common.util.concurrent.RateLimiter;
+
+/** Limits the disk throughput of migrating TsFiles between tiers. */
+public class MigrationRateLimiter {
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  private final AtomicDouble throughputBytesPerSecond =
+      new AtomicDouble(CONFIG.getTierMigrationThroughputBytesPerSecond());
+  private final RateLimiter migrationRateLimiter;
+
+  private MigrationRateLimiter() {
+    final double throughputBytesPerSecondLimit = throughputBytesPerSecond.get();
+    migrationRateLimiter =
+        // if throughput <= 0, disable rate limiting
+        throughputBytesPerSecondLimit <= 0
+            ? RateLimiter.create(Double.MAX_VALUE)
+            : RateLimiter.create(throughputBytesPerSecondLimit);
+  }
+
+  public void acquire(long bytes) {
+    if (throughputBytesPerSecond.get() != CONFIG.getTierMigrationThroughputBytesPerSecond()) {
+      final double newThroughputBytesPerSecond = CONFIG.getTierMigrationThroughputBytesPerSecond();
+      throughputBytesPerSecond.set(newThroughputBytesPerSecond);
+      migrationRateLimiter.setRate(
+          // if throughput <= 0, disable rate limiting
+          newThroughputBytesPerSecond <= 0 ? Double.MAX_VALUE : newThroughputBytesPerSecond);
+    }
+
+    while (bytes > 0) {
+      if (bytes > Integer.MAX_VALUE) {
+        migrationRateLimiter.acquire(Integer.MAX_VALUE);
+        bytes -= Integer.MAX_VALUE;
+      } else {
+        migrationRateLimiter.acquire((int) bytes);
+        return;
+      }
+    }
+  }
+
+  //////////////////////////// Singleton ////////////////////////////
+
+  private static class MigrationRateLimiterHolder {
+
+    private static final MigrationRateLimiter INSTANCE = new MigrationRateLimiter();
+
+    private MigrationRateLimiterHolder() {
+      // Prevent instantiation
+    }
+  }
+
+  public static MigrationRateLimiter getInstance() {
+    return MigrationRateLimiterHolder.INSTANCE;
+  }
+}
@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.storageengine.dataregion.migration;
+
+import org.apache.iotdb.db.exception.DiskSpaceInsufficientException;
+import org.apache.iotdb.db.storageengine.buffer.TsFileSummaryCache;
+import org.apache.iotdb.db.storageengine.dataregion.modification.ModificationFile;
+import org.apache.iotdb.db.storageengine.dataregion.read.control.FileReaderManager;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResourceStatus;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.summary.TsFileSummary;
+import org.apache.iotdb.db.storageengine.rescon.disk.TierManager;
+import org.apache.iotdb.db.storageengine.rescon.memory.TsFileResourceManager;
+
+import org.apache.tsfile.utils.FSUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Move one sealed TsFile, together with its .resource and .mods file, to the next tier.
+ *
+ * <p>The TsFile is claimed by setting its status to {@link
+ * TsFileResourceStatus#COMPACTION_CANDIDATE}, so that compaction will not select it while it is
+ * being copied. The data are copied without holding any lock, then the TsFileResource is switched
+ * to the target file under its write lock, which waits for the running queries on this file and
+ * blocks the deletions writing the .mods file. The source files are removed at last.
+ */
+public class MigrationTask implements Runnable {
+  private static final Logger LOGGER = LoggerFactory.getLogger(MigrationTask.class);
+
+  private static final int COPY_BUFFER_SIZE = 1024 * 1024;
+
+  private final TsFileResource tsFileResource;
+  private final File logDir;
+  private final Runnable finishCallback;
+
+  public MigrationTask(TsFileResource tsFileResource, File logDir, Runnable finishCallback) {
+    this.tsFileResource = tsFileResource;
+    this.logDir = logDir;
+    this.finishCallback = finishCallback;
+  }
+
+  @Override
+  public void run() {
+    try {
+      if (!tsFileResource.setStatus(TsFileResourceStatus.COMPACTION_CANDIDATE)) {
+        // the file is selected by compaction or deleted
+        return;
+      }
+      try {
+        migrate();
+      } finally {
+        tsFileResource.setStatus(TsFileResourceStatus.NORMAL);
+      }
+    } catch (Exception e) {
+      LOGGER.error("[Migration] Failed to migrate {} to the next tier", tsFileResource, e);
+    } finally {
+      finishCallback.run();
+    }
+  }
+
+  private void migrate() throws IOException, DiskSpaceInsufficientException {
+    File source = tsFileResource.getTsFile();
+    int targetTierLevel = tsFileResource.getTierLevel() + 1;
+    String targetFolder =
+        TierManager.getInstance().getNextFolderForTsFile(targetTierLevel, tsFileResource.isSeq());
+    if (!FSUtils.isLocal(targetFolder)) {
+      LOGGER.warn(
+          "[Migration] Tier {} is not on local disk, {} will not be migrated",
+          targetTierLevel,
+          source);
+      return;
+    }
+    File target = getTargetFile(targetFolder, source);
+    if (!target.getParentFile().exists() && !target.getParentFile().mkdirs()) {
+      throw new IOException("Cannot create folder " + target.getParentFile());
+    }
+
+    long startTime = System.currentTimeMillis();
+    File logFile = new File(logDir, source.getName() + MigrationLogger.MIGRATION_LOG_SUFFIX);
+    try (MigrationLogger logger = new MigrationLogger(logFile)) {
+      logger.logSourceAndTarget(source, target);
+      boolean switched;
+      try {
+        copyWithRateLimit(source, target);
+        copyWithRateLimit(resourceFileOf(source), resourceFileOf(target));
+        File sourceSummaryFile = TsFileSummary.getSummaryFile(source);
+        if (sourceSummaryFile.exists()) {
+          copyWithRateLimit(sourceSummaryFile, TsFileSummary.getSummaryFile(target));
+        }
+        switched = switchToTarget(source, target, logger);
+      } catch (IOException e) {
+        deleteMigratedFiles(target);
+        logger.closeAndDelete();
+        throw e;
+      }
+      if (!switched) {
+        deleteMigratedFiles(target);
+        logger.closeAndDelete();
+        return;
+      }
+      deleteMigratedFiles(source);
+      logger.closeAndDelete();
+    }
+    LOGGER.info(
+        "[Migration] {} is migrated to {} in tier {}, time cost {} ms",
+        source,
+        target,
+        targetTierLevel,
+        System.currentTimeMillis() - startTime);
+  }
+
+  private boolean switchToTarget(File source, File target, MigrationLogger logger)
+      throws IOException {
+    tsFileResource.writeLock();
+    try {
+      if (tsFileResource.isDeleted()) {
+        // the file is removed by ttl or deletion during copying
+        return false;
+      }
+      // the .mods file is copied under the write lock because deletions keep appending it
+      File sourceModFile = modFileOf(source);
+      if (sourceModFile.exists()) {
+        copyWithRateLimit(sourceModFile, modFileOf(target));
+      }
+      tsFileResource.resetModFile();
+      logger.logSwitched();
+
+      TsFileResourceManager.getInstance().changeTsFile(tsFileResource, target);
+      tsFileResource.increaseTierLevel();
+      try {
+        FileReaderManager.getInstance().closeFileAndRemoveReader(source.getPath());
+      } catch (IOException e) {
+        LOGGER.warn("[Migration] Failed to close the reader of {}", source, e);
+      }
+      return true;
+    } finally {
+      tsFileResource.writeUnlock();
+    }
+  }
+
+  /** Keep the relative path {database}/{dataRegionId}/{timePartition}/{fileName} of the source. */
+  static File getTargetFile(String targetFolder, File source) {
+    File timePartitionDir = source.getParentFile();
+    File dataRegionDir = timePartitionDir.getParentFile();
+    File databaseDir = dataRegionDir.getParentFile();
+    return new File(
+        targetFolder
+            + File.separator
+            + databaseDir.getName()
+            + File.separator
+            + dataRegionDir.getName()
+            + File.separator
+            + timePartitionDir.getName()
+            + File.separator
+            + source.getName());
+  }
+
+  static File resourceFileOf(File tsFile) {
+    return new File(tsFile.getPath() + TsFileResource.RESOURCE_SUFFIX);
+  }
+
+  static File modFileOf(File tsFile) {
+    return new File(tsFile.getPath() + ModificationFile.FILE_SUFFIX);
+  }
+
+  /** Delete the TsFile, .resource, .mods and .summary file, used for both rollback and cleanup. */
+  static void deleteMigratedFiles(File tsFile) throws IOException {
+    Files.deleteIfExists(tsFile.toPath());
+    Files.deleteIfExists(resourceFileOf(tsFile).toPath());
+    Files.deleteIfExists(modFileOf(tsFile).toPath());
+    Files.deleteIfExists(TsFileSummary.getSummaryFile(tsFile).toPath());
+    TsFileSummaryCache.getInstance().remove(tsFile.getPath());
+  }
+
+  private static void copyWithRateLimit(File source, File target) throws IOException {
+    try (FileChannel in = FileChannel.open(source.toPath(), StandardOpenOption.READ);
+        FileChannel out =
+            FileChannel.open(
+                target.toPath(),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+      ByteBuffer buffer = ByteBuffer.allocate(COPY_BUFFER_SIZE);
+      while (in.read(buffer) > 0) {
+        buffer.flip();
+        MigrationRateLimiter.getInstance().acquire(buffer.remaining());
+        while (buffer.hasRemaining()) {
+          out.write(buffer);
+        }
+        buffer.clear();
+      }
+      out.force(true);
+    }
+  }
+}
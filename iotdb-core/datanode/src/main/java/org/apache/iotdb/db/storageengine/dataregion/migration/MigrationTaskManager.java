@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.storageengine.dataregion.migration;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.commons.concurrent.threadpool.ScheduledExecutorUtil;
+import org.apache.iotdb.commons.conf.CommonDescriptor;
+import org.apache.iotdb.commons.utils.CommonDateTimeUtils;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.storageengine.StorageEngine;
+import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileManager;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.rescon.disk.TierManager;
+import org.apache.iotdb.db.utils.ThreadUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically migrate sealed TsFiles from one tier to the next tier. A TsFile is migrated when
+ * its data are older than the ttl of its tier, or when the usable space of its tier is lower than
+ * {@link IoTDBConfig#getTierMigrationUsableSpaceThreshold()}, in which case the oldest TsFiles are
+ * migrated first.
+ */
+public class MigrationTaskManager {
+  private static final Logger LOGGER = LoggerFactory.getLogger(MigrationTaskManager.class);
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  public static final String MIGRATION_LOG_FOLDER_NAME = "tier_migration";
+
+  private final File logDir =
+      new File(CONFIG.getSystemDir() + File.separator + MIGRATION_LOG_FOLDER_NAME);
+
+  /**
+   * Paths of the TsFiles submitted but not finished, to avoid migrating one file twice. Paths are
+   * used instead of TsFileResources because the hash code of a TsFileResource changes after it is
+   * migrated.
+   */
+  private final Set<String> migratingFiles = ConcurrentHashMap.newKeySet();
+
+  private ScheduledExecutorService migrationScheduleThread;
+  private ExecutorService migrationWorkers;
+
+  private MigrationTaskManager() {}
+
+  public synchronized void start() {
+    migrationWorkers =
+        IoTDBThreadPoolFactory.newFixedThreadPool(
+            Math.max(1, CONFIG.getTierMigrationThreadCount()),
+            ThreadName.TIER_MIGRATION_WORKER.getName());
+    migrationScheduleThread =
+        IoTDBThreadPoolFactory.newSingleThreadScheduledExecutor(
+            ThreadName.TIER_MIGRATION_SCHEDULE.getName());
+    ScheduledExecutorUtil.safelyScheduleAtFixedRate(
+        migrationScheduleThread,
+        this::selectAndSubmitTasks,
+        CONFIG.getTierMigrationCheckIntervalInMs(),
+        CONFIG.getTierMigrationCheckIntervalInMs(),
+        TimeUnit.MILLISECONDS);
+    LOGGER.info("start tier migration thread successfully.");
+  }
+
+  public synchronized void stop() {
+    ThreadUtils.stopThreadPool(migrationScheduleThread, ThreadName.TIER_MIGRATION_SCHEDULE);
+    ThreadUtils.stopThreadPool(migrationWorkers, ThreadName.TIER_MIGRATION_WORKER);
+    migrationScheduleThread = null;
+    migrationWorkers = null;
+    migratingFiles.clear();
+  }
+
+  /**
+   * Finish or roll back the migration tasks interrupted by the last shutdown. It must be invoked
+   * before the data regions are recovered, otherwise both the source and the target file of one
+   * task may be loaded.
+   */
+  public void recover() {
+    File[] logFiles =
+        logDir.listFiles((dir, name) -> name.endsWith(MigrationLogger.MIGRATION_LOG_SUFFIX));
+    if (logFiles == null) {
+      return;
+    }
+    for (File logFile : logFiles) {
+      try {
+        MigrationLogAnalyzer analyzer = new MigrationLogAnalyzer(logFile);
+        if (analyzer.isComplete()) {
+          if (analyzer.isSwitched()) {
+            // the target file is complete, finish the task by removing the source file
+            MigrationTask.deleteMigratedFiles(analyzer.getSource());
+          } else {
+            // the target file may be incomplete, roll back the task
+            MigrationTask.deleteMigratedFiles(analyzer.getTarget());
+          }
+        }
+        Files.deleteIfExists(logFile.toPath());
+        LOGGER.info("[Migration] Recover migration task from {}", logFile);
+      } catch (IOException e) {
+        LOGGER.error("[Migration] Failed to recover migration task from {}", logFile, e);
+      }
+    }
+  }
+
+  /** Select the TsFiles to migrate in all data regions, invoked periodically. */
+  public void selectAndSubmitTasks() {
+    TierManager tierManager = TierManager.getInstance();
+    int tiersNum = tierManager.getTiersNum();
+    if (tiersNum <= 1 || migrationWorkers == null) {
+      return;
+    }
+
+    // the files on the last tier have nowhere to go
+    List<List<TsFileResource>> tierFiles = new ArrayList<>();
+    for (int i = 0; i < tiersNum - 1; ++i) {
+      tierFiles.add(new ArrayList<>());
+    }
+    for (DataRegion dataRegion : StorageEngine.getInstance().getAllDataRegions()) {
+      if (dataRegion == null) {
+        continue;
+      }
+      TsFileManager tsFileManager = dataRegion.getTsFileManager();
+      for (boolean sequence : new boolean[] {true, false}) {
+        for (TsFileResource resource : tsFileManager.getTsFileList(sequence)) {
+          if (resource.isClosed()
+              && !resource.isDeleted()
+              && resource.getTierLevel() < tiersNum - 1
+              && !migratingFiles.contains(resource.getTsFilePath())) {
+            tierFiles.get(resource.getTierLevel()).add(resource);
+          }
+        }
+      }
+    }
+
+    long[] tierTotalSpace = tierManager.getTierDiskTotalSpace();
+    long[] tierUsableSpace = tierManager.getTierDiskUsableSpace();
+    for (int tierLevel = 0; tierLevel < tiersNum - 1; ++tierLevel) {
+      List<TsFileResource> files = tierFiles.get(tierLevel);
+      // migrate the files with the oldest data first
+      files.sort(Comparator.comparingLong(TsFileResource::getFileEndTime));
+      long ttlLowerBound = getTTLLowerBound(tierLevel);
+      long bytesToFree = getBytesToFree(tierTotalSpace[tierLevel], tierUsableSpace[tierLevel]);
+      for (TsFileResource resource : files) {
+        if (resource.getFileEndTime() < ttlLowerBound || bytesToFree > 0) {
+          submit(resource);
+          bytesToFree -= resource.getTsFileSize();
+        } else {
+          // the rest files are newer
+          break;
+        }
+      }
+    }
+  }
+
+  private long getTTLLowerBound(int tierLevel) {
+    long[] tierTTL = CONFIG.getTierTTLInMs();
+    if (tierLevel >= tierTTL.length || tierTTL[tierLevel] == Long.MAX_VALUE) {
+      return Long.MIN_VALUE;
+    }
+    return CommonDateTimeUtils.currentTime()
+        - CommonDateTimeUtils.convertMilliTimeWithPrecision(
+            tierTTL[tierLevel], CommonDescriptor.getInstance().getConfig().getTimestampPrecision());
+  }
+
+  private long getBytesToFree(long totalSpace, long usableSpace) {
+    double threshold = CONFIG.getTierMigrationUsableSpaceThreshold();
+    if (threshold <= 0 || totalSpace <= 0 || totalSpace == Long.MAX_VALUE) {
+      return 0;
+    }
+    return (long) (totalSpace * threshold) - usableSpace;
+  }
+
+  private void submit(TsFileResource resource) {
+    String path = resource.getTsFilePath();
+    if (!migratingFiles.add(path)) {
+      return;
+    }
+    try {
+      migrationWorkers.submit(
+          new MigrationTask(resource, logDir, () -> migratingFiles.remove(path)));
+    } catch (Exception e) {
+      migratingFiles.remove(path);
+      LOGGER.warn("[Migration] Failed to submit migration task of {}", resource, e);
+    }
+  }
+
+  public static MigrationTaskManager getInstance() {
+    return MigrationTaskManagerHolder.INSTANCE;
+  }
+
+  private static class MigrationTaskManagerHolder {
+
+    private static final MigrationTaskManager INSTANCE = new MigrationTaskManager();
+
+    private MigrationTaskManagerHolder() {
+      // Prevent instantiation
+    }
+  }
+}
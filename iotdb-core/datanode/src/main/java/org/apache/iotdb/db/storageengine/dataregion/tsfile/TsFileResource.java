@@ -29,11 +29,13 @@ import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.PartitionViolationException;
 import org.apache.iotdb.db.schemaengine.schemaregion.utils.ResourceByPathUtils;
+import org.apache.iotdb.db.storageengine.buffer.TsFileSummaryCache;
 import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.ReadOnlyMemChunk;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.TsFileProcessor;
 import org.apache.iotdb.db.storageengine.dataregion.modification.ModificationFile;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.generator.TsFileNameGenerator;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.summary.TsFileSummary;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.DeviceTimeIndex;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.FileTimeIndex;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.ITimeIndex;
@@ -229,6 +231,20 @@ public class TsFileResource {
     fsFactory.moveFile(src, dest);
   }
 
+  /**
+   * Write the value summary of the sealed TsFile in background if it is enabled, see {@link
+   * TsFileSummary#generateInBackground(File, Runnable)}.
+   */
+  public void serializeSummary() {
+    if (!CONFIG.isEnableTsFileSummary()) {
+      return;
+    }
+    File tsFile = file;
+    // the devices queried before the summary is written are cached without summaries
+    TsFileSummary.generateInBackground(
+        tsFile, () -> TsFileSummaryCache.getInstance().remove(tsFile.getPath()));
+  }
+
   private void serializeTo(BufferedOutputStream outputStream) throws IOException {
     ReadWriteIOUtils.write(VERSION_NUMBER, outputStream);
     timeIndex.serialize(outputStream);
@@ -562,6 +578,13 @@ public class TsFileResource {
       LOGGER.error("ModificationFile {} cannot be deleted: {}", file, e.getMessage());
       return false;
     }
+    TsFileSummaryCache.getInstance().remove(file.getPath());
+    try {
+      fsFactory.deleteIfExists(TsFileSummary.getSummaryFile(file));
+    } catch (IOException e) {
+      LOGGER.error("Summary of TsFile {} cannot be deleted: {}", file, e.getMessage());
+      return false;
+    }
     return true;
   }
 
@@ -0,0 +1,361 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.storageengine.dataregion.tsfile.summary;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import org.apache.tsfile.common.constant.TsFileConstant;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.IMetadata;
+import org.apache.tsfile.file.metadata.PlainDeviceID;
+import org.apache.tsfile.file.metadata.TimeseriesMetadata;
+import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.read.filter.basic.Filter;
+import org.apache.tsfile.utils.RamUsageEstimator;
+import org.apache.tsfile.utils.ReadWriteIOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * The value statistics of every series in a sealed TsFile. It is kept in a small file next to the
+ * TsFile, so that a query with value filters can tell that no point of a series in the TsFile
+ * satisfies them without reading the metadata of the TsFile.
+ *
+ * <p>The file holds the statistics of each device in a separate block, followed by an index of the
+ * blocks and the offset of the index, so that the statistics of one device are read without
+ * deserializing the others.
+ */
+public class TsFileSummary {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TsFileSummary.class);
+
+  public static final String SUMMARY_SUFFIX = ".summary";
+
+  /** Returned when a TsFile has no summary, with which no TsFile can be skipped. */
+  public static final TsFileSummary EMPTY = new TsFileSummary(Collections.emptyMap());
+
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(TsFileSummary.class);
+
+  // device -> measurement -> statistics, the time column of aligned devices has an empty id
+  private final Map<IDeviceID, Map<String, Statistics<? extends Serializable>>> statisticsMap;
+
+  private TsFileSummary(Map<IDeviceID, Map<String, Statistics<? extends Serializable>>> map) {
+    this.statisticsMap = map;
+  }
+
+  /**
+   * Collect the statistics of all series from the metadata of a sealed TsFile.
+   *
+   * @throws IOException if the metadata can not be read
+   */
+  public static TsFileSummary generate(TsFileSequenceReader reader) throws IOException {
+    Map<IDeviceID, Map<String, Statistics<? extends Serializable>>> map = new HashMap<>();
+    for (Map.Entry<IDeviceID, List<TimeseriesMetadata>> entry :
+        reader.getAllTimeseriesMetadata(false).entrySet()) {
+      Map<String, Statistics<? extends Serializable>> measurementMap = new HashMap<>();
+      for (TimeseriesMetadata timeseriesMetadata : entry.getValue()) {
+        measurementMap.put(
+            timeseriesMetadata.getMeasurementId(), timeseriesMetadata.getStatistics());
+      }
+      map.put(entry.getKey(), measurementMap);
+    }
+    return new TsFileSummary(map);
+  }
+
+  /**
+   * Generate the summary of a sealed TsFile and write it next to the TsFile.
+   *
+   * @throws IOException if the TsFile can not be read or the summary can not be written
+   */
+  public static void generateAndSerialize(File tsFile) throws IOException {
+    TsFileSummary summary;
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(tsFile.getAbsolutePath())) {
+      summary = generate(reader);
+    }
+    File tmpFile = new File(tsFile.getPath() + SUMMARY_SUFFIX + TsFileResource.TEMP_SUFFIX);
+    try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(tmpFile))) {
+      summary.serialize(outputStream);
+    }
+    Files.move(
+        tmpFile.toPath(), getSummaryFile(tsFile).toPath(), StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  /**
+   * Generate the summary of a sealed TsFile and write it next to the TsFile in background, so that
+   * sealing the TsFile does not wait for reading its metadata again. Until then, queries just do
+   * not skip the TsFile by its summary. A failure is logged instead of thrown.
+   *
+   * @param onGenerated invoked after the summary is written
+   */
+  public static void generateInBackground(File tsFile, Runnable onGenerated) {
+    GenerationExecutorHolder.EXECUTOR.submit(
+        () -> {
+          try {
+            if (!tsFile.exists()) {
+              return;
+            }
+            generateAndSerialize(tsFile);
+            if (!tsFile.exists()) {
+              // the TsFile has been removed or moved meanwhile, along with its former summary
+              Files.deleteIfExists(getSummaryFile(tsFile).toPath());
+              return;
+            }
+            onGenerated.run();
+          } catch (IOException e) {
+            LOGGER.warn("Failed to generate the summary of TsFile {}", tsFile, e);
+          }
+        });
+  }
+
+  /**
+   * Read the summary of a device in a TsFile.
+   *
+   * @return {@link #EMPTY} if the TsFile has no summary or the device is unknown to the summary
+   * @throws IOException if the summary can not be read
+   */
+  public static TsFileSummary deserialize(File tsFile, IDeviceID device) throws IOException {
+    File summaryFile = getSummaryFile(tsFile);
+    if (!summaryFile.exists()) {
+      return EMPTY;
+    }
+    String deviceId = ((PlainDeviceID) device).toStringID();
+    try (RandomAccessFile input = new RandomAccessFile(summaryFile, "r")) {
+      long indexEnd = input.length() - Long.BYTES;
+      input.seek(indexEnd);
+      long indexOffset = input.readLong();
+      if (indexOffset < 0 || indexOffset > indexEnd) {
+        throw new IOException("Broken summary file " + summaryFile);
+      }
+      InputStream indexStream = readFully(input, indexOffset, indexEnd - indexOffset);
+      int deviceNum = ReadWriteIOUtils.readInt(indexStream);
+      for (int i = 0; i < deviceNum; i++) {
+        String id = ReadWriteIOUtils.readString(indexStream);
+        long offset = ReadWriteIOUtils.readLong(indexStream);
+        int size = ReadWriteIOUtils.readInt(indexStream);
+        if (id.equals(deviceId)) {
+          Map<IDeviceID, Map<String, Statistics<? extends Serializable>>> map = new HashMap<>();
+          map.put(device, deserializeDevice(readFully(input, offset, size)));
+          return new TsFileSummary(map);
+        }
+      }
+    }
+    return EMPTY;
+  }
+
+  private static InputStream readFully(RandomAccessFile input, long offset, long size)
+      throws IOException {
+    byte[] bytes = new byte[(int) size];
+    input.seek(offset);
+    input.readFully(bytes);
+    return new ByteArrayInputStream(bytes);
+  }
+
+  public static File getSummaryFile(File tsFile) {
+    return new File(tsFile.getPath() + SUMMARY_SUFFIX);
+  }
+
+  public void serialize(OutputStream outputStream) throws IOException {
+    List<String> deviceIds = new ArrayList<>(statisticsMap.size());
+    List<Integer> sizes = new ArrayList<>(statisticsMap.size());
+    ByteArrayOutputStream deviceStream = new ByteArrayOutputStream();
+    long offset = 0;
+    for (Map.Entry<IDeviceID, Map<String, Statistics<? extends Serializable>>> deviceEntry :
+        statisticsMap.entrySet()) {
+      deviceStream.reset();
+      serializeDevice(deviceEntry.getValue(), deviceStream);
+      deviceStream.writeTo(outputStream);
+      deviceIds.add(((PlainDeviceID) deviceEntry.getKey()).toStringID());
+      sizes.add(deviceStream.size());
+    }
+    ReadWriteIOUtils.write(deviceIds.size(), outputStream);
+    for (int i = 0; i < deviceIds.size(); i++) {
+      ReadWriteIOUtils.write(deviceIds.get(i), outputStream);
+      ReadWriteIOUtils.write(offset, outputStream);
+      ReadWriteIOUtils.write(sizes.get(i), outputStream);
+      offset += sizes.get(i);
+    }
+    // the index starts right after all the device blocks
+    ReadWriteIOUtils.write(offset, outputStream);
+  }
+
+  private static void serializeDevice(
+      Map<String, Statistics<? extends Serializable>> measurementMap, OutputStream outputStream)
+      throws IOException {
+    ReadWriteIOUtils.write(measurementMap.size(), outputStream);
+    for (Map.Entry<String, Statistics<? extends Serializable>> entry : measurementMap.entrySet()) {
+      ReadWriteIOUtils.write(entry.getKey(), outputStream);
+      ReadWriteIOUtils.write(entry.getValue().getType().serialize(), outputStream);
+      entry.getValue().serialize(outputStream);
+    }
+  }
+
+  private static Map<String, Statistics<? extends Serializable>> deserializeDevice(
+      InputStream inputStream) throws IOException {
+    int measurementNum = ReadWriteIOUtils.readInt(inputStream);
+    Map<String, Statistics<? extends Serializable>> measurementMap = new HashMap<>();
+    for (int j = 0; j < measurementNum; j++) {
+      String measurement = ReadWriteIOUtils.readString(inputStream);
+      TSDataType dataType = TSDataType.deserialize(ReadWriteIOUtils.readByte(inputStream));
+      measurementMap.put(measurement, Statistics.deserialize(inputStream, dataType));
+    }
+    return measurementMap;
+  }
+
+  /**
+   * Whether no point of the given series in the TsFile can satisfy the filter. Note that the points
+   * of a TsFile may override the points of other TsFiles with the same timestamps, so the caller
+   * must make sure that the TsFile does not overlap with others before skipping it.
+   *
+   * @param measurements the measurement of a non-aligned series, or the value measurements of an
+   *     aligned device in the order the filter refers to them
+   * @param dataTypes the data types of the measurements expected by the query, statistics of
+   *     another type, which may be left by deleting and recreating the series, are not used
+   */
+  public boolean canSkip(
+      IDeviceID device,
+      List<String> measurements,
+      List<TSDataType> dataTypes,
+      boolean isAligned,
+      Filter filter) {
+    Map<String, Statistics<? extends Serializable>> measurementMap = statisticsMap.get(device);
+    if (measurementMap == null) {
+      // unknown to the summary, let the metadata decide
+      return false;
+    }
+    if (!isAligned) {
+      Statistics<? extends Serializable> statistics = measurementMap.get(measurements.get(0));
+      if (statistics == null) {
+        // the series has no point in this TsFile
+        return true;
+      }
+      return statistics.getType() == dataTypes.get(0)
+          && filter.canSkip(new SummaryMetadata(statistics, null));
+    }
+    Statistics<? extends Serializable> timeStatistics =
+        measurementMap.get(TsFileConstant.TIME_COLUMN_ID);
+    if (timeStatistics == null) {
+      return false;
+    }
+    List<Statistics<? extends Serializable>> valueStatisticsList =
+        new ArrayList<>(measurements.size());
+    for (int i = 0; i < measurements.size(); i++) {
+      Statistics<? extends Serializable> valueStatistics = measurementMap.get(measurements.get(i));
+      if (valueStatistics != null && valueStatistics.getType() != dataTypes.get(i)) {
+        return false;
+      }
+      valueStatisticsList.add(valueStatistics);
+    }
+    return filter.canSkip(new SummaryMetadata(timeStatistics, valueStatisticsList));
+  }
+
+  public boolean isEmpty() {
+    return statisticsMap.isEmpty();
+  }
+
+  public long getRetainedSizeInBytes() {
+    long size = INSTANCE_SIZE;
+    for (Map.Entry<IDeviceID, Map<String, Statistics<? extends Serializable>>> deviceEntry :
+        statisticsMap.entrySet()) {
+      size += RamUsageEstimator.HASHTABLE_RAM_BYTES_PER_ENTRY;
+      size += RamUsageEstimator.sizeOf(((PlainDeviceID) deviceEntry.getKey()).toStringID());
+      for (Map.Entry<String, Statistics<? extends Serializable>> entry :
+          deviceEntry.getValue().entrySet()) {
+        size += RamUsageEstimator.HASHTABLE_RAM_BYTES_PER_ENTRY;
+        size += RamUsageEstimator.sizeOf(entry.getKey());
+        size += entry.getValue().getRetainedSizeInBytes();
+      }
+    }
+    return size;
+  }
+
+  private static class GenerationExecutorHolder {
+    private static final ExecutorService EXECUTOR =
+        IoTDBThreadPoolFactory.newFixedThreadPoolWithDaemonThread(
+            1, ThreadName.TSFILE_SUMMARY.getName());
+  }
+
+  /** Exposes the statistics of a summary to {@link Filter#canSkip(IMetadata)}. */
+  private static class SummaryMetadata implements IMetadata {
+
+    private final Statistics<? extends Serializable> timeStatistics;
+
+    // null for non-aligned series, whose time statistics are also the value statistics
+    private final List<Statistics<? extends Serializable>> valueStatisticsList;
+
+    private SummaryMetadata(
+        Statistics<? extends Serializable> timeStatistics,
+        List<Statistics<? extends Serializable>> valueStatisticsList) {
+      this.timeStatistics = timeStatistics;
+      this.valueStatisticsList = valueStatisticsList;
+    }
+
+    @Override
+    public Statistics<? extends Serializable> getStatistics() {
+      return timeStatistics;
+    }
+
+    @Override
+    public Statistics<? extends Serializable> getTimeStatistics() {
+      return timeStatistics;
+    }
+
+    @Override
+    public Optional<Statistics<? extends Serializable>> getMeasurementStatistics(
+        int measurementIndex) {
+      if (valueStatisticsList == null) {
+        return Optional.of(timeStatistics);
+      }
+      return Optional.ofNullable(valueStatisticsList.get(measurementIndex));
+    }
+
+    @Override
+    public boolean hasNullValue(int measurementIndex) {
+      if (valueStatisticsList == null) {
+        return false;
+      }
+      Statistics<? extends Serializable> statistics = valueStatisticsList.get(measurementIndex);
+      return statistics == null || statistics.getCount() < timeStatistics.getCount();
+    }
+  }
+}
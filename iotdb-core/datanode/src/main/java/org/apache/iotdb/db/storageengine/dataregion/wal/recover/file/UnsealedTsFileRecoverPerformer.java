@@ -264,6 +264,7 @@ public class UnsealedTsFileRecoverPerformer extends AbstractTsFileRecoverPerform
         // currently, we close this file anyway
         writer.endFile();
         tsFileResource.serialize();
+        tsFileResource.serializeSummary();
       } catch (IOException | ExecutionException e) {
         throw new WALRecoverException(e);
       } catch (InterruptedException e) {
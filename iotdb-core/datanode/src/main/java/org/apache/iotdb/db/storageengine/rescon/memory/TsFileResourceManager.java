@@ -27,6 +27,7 @@ import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.TimeIndexLe
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.util.TreeSet;
 
 public class TsFileResourceManager {
@@ -82,6 +83,19 @@ public class TsFileResourceManager {
     }
   }
 
+  /**
+   * Change the file of the TsFileResource, e.g., when it is migrated to another tier. The file path
+   * decides the order of TsFileResources with the same priority in priorityQueue, so the resource
+   * is removed before the change and added back after it.
+   */
+  public synchronized void changeTsFile(TsFileResource tsFileResource, File tsFile) {
+    boolean registered = sealedTsFileResources.remove(tsFileResource);
+    tsFileResource.setFile(tsFile);
+    if (registered) {
+      sealedTsFileResources.add(tsFileResource);
+    }
+  }
+
   /** once degradation is triggered, the total memory for timeIndex should reduce */
   private void releaseTimeIndexMemCost(long memCost) {
     totalTimeIndexMemCost -= memCost;
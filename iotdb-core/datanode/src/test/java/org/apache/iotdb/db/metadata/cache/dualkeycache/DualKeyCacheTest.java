@@ -34,6 +34,7 @@ import org.apache.tsfile.read.TimeValuePair;
 import org.apache.tsfile.utils.TsPrimitiveType;
 import org.apache.tsfile.write.schema.MeasurementSchema;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
@@ -53,7 +54,7 @@ public class DualKeyCacheTest {
 
   @Parameterized.Parameters
   public static List<String> getTestModes() {
-    return Arrays.asList("FIFO", "LRU");
+    return Arrays.asList("FIFO", "LRU", "TINY_LFU");
   }
 
   @Test
@@ -133,6 +134,39 @@ public class DualKeyCacheTest {
     Assert.assertEquals(6, dualKeyCache.stats().hitCount());
   }
 
+  @Test
+  public void testFrequentEntriesSurviveScan() {
+    Assume.assumeTrue(DualKeyCachePolicy.TINY_LFU.name().equals(policy));
+    IDualKeyCache<String, String, String> dualKeyCache =
+        new DualKeyCacheBuilder<String, String, String>()
+            .cacheEvictionPolicy(DualKeyCachePolicy.valueOf(policy))
+            .memoryCapacity(2000)
+            .firstKeySizeComputer(this::computeStringSize)
+            .secondKeySizeComputer(this::computeStringSize)
+            .valueSizeComputer(this::computeStringSize)
+            .build();
+
+    String[] hotDevices = new String[] {"root.db.h1", "root.db.h2", "root.db.h3"};
+    for (String device : hotDevices) {
+      dualKeyCache.put(device, "s1", device);
+    }
+    for (int i = 0; i < 10; i++) {
+      for (String device : hotDevices) {
+        Assert.assertEquals(device, dualKeyCache.get(device, "s1"));
+      }
+    }
+
+    // each device is only seen once, like a scan over the whole database
+    for (int i = 0; i < 200; i++) {
+      dualKeyCache.put("root.db.d" + i, "s1", "v");
+    }
+
+    for (String device : hotDevices) {
+      Assert.assertEquals(device, dualKeyCache.get(device, "s1"));
+    }
+    Assert.assertTrue(dualKeyCache.stats().memoryUsage() <= 2000);
+  }
+
   private int computeStringSize(String string) {
     return 8 + 8 + 4 + 2 * string.length();
   }
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.metadata.container;
+
+import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.mem.mnode.IMemMNode;
+import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.mem.mnode.container.MemMNodeContainer;
+import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.mem.mnode.impl.BasicInternalMNode;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * MNode children container benchmark. Compare the heap occupation and lookup time of
+ * MemMNodeContainer with ConcurrentHashMap for the typical fan-out of devices.
+ */
+public class MemMNodeContainerBenchmark {
+
+  private static int numOfContainer = 100000;
+  private static int[] numOfChildren = {1, 4, 16, 64, 1024};
+  private static int numOfLookup = 10;
+
+  public static void main(String[] args) {
+    for (int children : numOfChildren) {
+      int containers = Math.max(1, numOfContainer / children);
+      String[] names = new String[children];
+      IMemMNode[] nodes = new IMemMNode[children];
+      for (int i = 0; i < children; i++) {
+        names[i] = "s" + i;
+        nodes[i] = new BasicInternalMNode(null, names[i]);
+      }
+      bench("ConcurrentHashMap", ConcurrentHashMap::new, containers, names, nodes);
+      bench("MemMNodeContainer", MemMNodeContainer::new, containers, names, nodes);
+    }
+  }
+
+  private static void bench(
+      String type,
+      Supplier<Map<String, IMemMNode>> supplier,
+      int containers,
+      String[] names,
+      IMemMNode[] nodes) {
+    Map<?, ?>[] maps = new Map[containers];
+    long memoryBefore = usedMemory();
+    for (int i = 0; i < containers; i++) {
+      Map<String, IMemMNode> map = supplier.get();
+      for (int j = 0; j < names.length; j++) {
+        map.putIfAbsent(names[j], nodes[j]);
+      }
+      maps[i] = map;
+    }
+    long memoryAfter = usedMemory();
+
+    long startTime = System.nanoTime();
+    long found = 0;
+    for (int k = 0; k < numOfLookup; k++) {
+      for (Map<?, ?> map : maps) {
+        for (String name : names) {
+          if (map.get(name) != null) {
+            found++;
+          }
+        }
+      }
+    }
+    long endTime = System.nanoTime();
+
+    System.out.println(
+        String.format(
+            "%s, num of children: %d, "
+                + "bytes per child: %.1f, "
+                + "ns per lookup: %.1f. ",
+            type,
+            names.length,
+            (double) (memoryAfter - memoryBefore) / ((long) containers * names.length),
+            (double) (endTime - startTime) / found));
+  }
+
+  private static long usedMemory() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
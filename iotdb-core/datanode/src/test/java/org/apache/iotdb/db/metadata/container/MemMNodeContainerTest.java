@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.metadata.container;
+
+import org.apache.iotdb.commons.schema.node.utils.IMNodeFactory;
+import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.mem.mnode.IMemMNode;
+import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.mem.mnode.container.MemMNodeContainer;
+import org.apache.iotdb.db.schemaengine.schemaregion.mtree.loader.MNodeFactoryLoader;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MemMNodeContainerTest {
+
+  private final IMNodeFactory<IMemMNode> nodeFactory =
+      MNodeFactoryLoader.getInstance().getMemMNodeIMNodeFactory();
+
+  @Test
+  public void testSortedAndHashedLayout() {
+    MemMNodeContainer container = new MemMNodeContainer();
+    assertTrue(container.isEmpty());
+
+    // grow from the sorted layout to the hashed layout
+    for (int i = 0; i < 100; i++) {
+      String name = "s" + i;
+      IMemMNode node = nodeFactory.createInternalMNode(null, name);
+      assertNull(container.putIfAbsent(name, node));
+      assertSame(node, container.putIfAbsent(name, nodeFactory.createInternalMNode(null, name)));
+      assertEquals(i + 1, container.size());
+      for (int j = 0; j <= i; j++) {
+        assertEquals("s" + j, container.get("s" + j).getName());
+      }
+      assertNull(container.get("t" + i));
+    }
+
+    IMemMNode replaced = nodeFactory.createInternalMNode(null, "s50");
+    assertEquals("s50", container.put("s50", replaced).getName());
+    assertSame(replaced, container.get("s50"));
+
+    // shrink from the hashed layout back to the sorted layout
+    for (int i = 99; i >= 0; i--) {
+      assertEquals("s" + i, container.remove("s" + i).getName());
+      assertNull(container.remove("s" + i));
+      assertFalse(container.containsKey("s" + i));
+      assertEquals(i, container.size());
+      for (int j = 0; j < i; j++) {
+        assertTrue(container.containsKey("s" + j));
+      }
+    }
+    assertTrue(container.isEmpty());
+  }
+
+  @Test
+  public void testRandomOperations() {
+    MemMNodeContainer container = new MemMNodeContainer();
+    Map<String, IMemMNode> expected = new HashMap<>();
+    Random random = new Random(0);
+    for (int i = 0; i < 100000; i++) {
+      // alternate between many children and few children to exercise both layouts
+      String name = "s" + random.nextInt(i % 20000 < 10000 ? 500 : 20);
+      switch (random.nextInt(3)) {
+        case 0:
+          IMemMNode node = nodeFactory.createInternalMNode(null, name);
+          assertSame(expected.put(name, node), container.put(name, node));
+          break;
+        case 1:
+          assertSame(expected.remove(name), container.remove(name));
+          break;
+        default:
+          assertSame(expected.get(name), container.get(name));
+      }
+      assertEquals(expected.size(), container.size());
+    }
+    assertEquals(expected, new HashMap<>(container));
+  }
+
+  @Test
+  public void testIterator() {
+    MemMNodeContainer container = new MemMNodeContainer();
+    for (int i = 0; i < 50; i++) {
+      container.put("s" + i, nodeFactory.createInternalMNode(null, "s" + i));
+    }
+    Iterator<IMemMNode> iterator = container.values().iterator();
+    int count = 0;
+    while (iterator.hasNext()) {
+      IMemMNode node = iterator.next();
+      // modification during iteration is allowed
+      container.remove(node.getName());
+      count++;
+    }
+    assertEquals(50, count);
+    assertTrue(container.isEmpty());
+
+    for (int i = 0; i < 10; i++) {
+      container.put("s" + i, nodeFactory.createInternalMNode(null, "s" + i));
+    }
+    iterator = container.values().iterator();
+    while (iterator.hasNext()) {
+      iterator.next();
+      iterator.remove();
+    }
+    assertTrue(container.isEmpty());
+  }
+
+  @Test
+  public void testSortedNames() {
+    MemMNodeContainer container = new MemMNodeContainer();
+    List<String> expected = new ArrayList<>();
+    // both the sorted layout and the hashed layout
+    for (int size : new int[] {10, 100}) {
+      for (int i = expected.size(); i < size; i++) {
+        container.put("s" + i, nodeFactory.createInternalMNode(null, "s" + i));
+        expected.add("s" + i);
+      }
+      Collections.sort(expected);
+      assertEquals(expected, Lists.newArrayList(container.getSortedNames(null)));
+      assertEquals(
+          expected.subList(expected.indexOf("s5"), expected.size()),
+          Lists.newArrayList(container.getSortedNames("s5")));
+      // start from the next one if absent
+      assertEquals(
+          expected.subList(expected.indexOf("s5"), expected.size()),
+          Lists.newArrayList(container.getSortedNames("s4x")));
+      assertFalse(container.getSortedNames("t").hasNext());
+    }
+
+    // the sorted names of the hashed layout are rebuilt after the children change
+    container.remove("s5");
+    expected.remove("s5");
+    container.put("s500", nodeFactory.createInternalMNode(null, "s500"));
+    expected.add("s500");
+    Collections.sort(expected);
+    assertEquals(expected, Lists.newArrayList(container.getSortedNames(null)));
+  }
+
+  @Test
+  public void testConcurrentRead() throws InterruptedException {
+    MemMNodeContainer container = new MemMNodeContainer();
+    for (int i = 0; i < 100; i++) {
+      container.put("s" + i, nodeFactory.createInternalMNode(null, "s" + i));
+    }
+    AtomicReference<Throwable> error = new AtomicReference<>();
+    Thread writer =
+        new Thread(
+            () -> {
+              Random random = new Random(0);
+              for (int i = 0; i < 200000; i++) {
+                String name = "t" + random.nextInt(200);
+                if (random.nextBoolean()) {
+                  container.put(name, nodeFactory.createInternalMNode(null, name));
+                } else {
+                  container.remove(name);
+                }
+              }
+            });
+    Thread reader =
+        new Thread(
+            () -> {
+              try {
+                while (writer.isAlive()) {
+                  for (int i = 0; i < 100; i++) {
+                    assertEquals("s" + i, container.get("s" + i).getName());
+                  }
+                }
+              } catch (Throwable e) {
+                error.set(e);
+              }
+            });
+    writer.start();
+    reader.start();
+    writer.join();
+    reader.join();
+    assertNull(error.get());
+  }
+}
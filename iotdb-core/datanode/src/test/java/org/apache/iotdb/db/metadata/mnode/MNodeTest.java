@@ -18,13 +18,24 @@
  */
 package org.apache.iotdb.db.metadata.mnode;
 
+import org.apache.iotdb.commons.schema.node.common.DeviceMNodeWrapper;
+import org.apache.iotdb.commons.schema.node.info.IDeviceInfo;
+import org.apache.iotdb.commons.schema.node.role.IDeviceMNode;
+import org.apache.iotdb.commons.schema.node.role.IMeasurementMNode;
 import org.apache.iotdb.commons.schema.node.utils.IMNodeFactory;
 import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.mem.mnode.IMemMNode;
+import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.mem.mnode.impl.BasicInternalMNode;
+import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.mem.mnode.info.SharedDeviceInfo;
 import org.apache.iotdb.db.schemaengine.schemaregion.mtree.loader.MNodeFactoryLoader;
 
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.write.schema.MeasurementSchema;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class MNodeTest {
 
@@ -57,4 +68,72 @@ public class MNodeTest {
             .addChild(nodeFactory.createInternalMNode(null, "temperature"));
     assertEquals("root.sg1.aa.bb.cc.dd.device11.temperature", temperatureNode.getFullPath());
   }
+
+  @Test
+  public void testSharedDeviceInfo() {
+    IDeviceMNode<IMemMNode> device1 = nodeFactory.createDeviceMNode(null, "d1");
+    IDeviceMNode<IMemMNode> device2 = nodeFactory.createDeviceMNode(null, "d2");
+    device1.setSchemaTemplateId(1);
+    device1.setUseTemplate(true);
+    device1.setAligned(true);
+    device2.setSchemaTemplateId(1);
+    device2.setUseTemplate(true);
+    device2.setAligned(true);
+    assertTrue(peekDeviceInfo(device1) instanceof SharedDeviceInfo);
+    assertSame(peekDeviceInfo(device1), peekDeviceInfo(device2));
+
+    device1.preDeactivateTemplate();
+    assertTrue(device1.isPreDeactivateTemplate());
+    assertFalse(device2.isPreDeactivateTemplate());
+    assertEquals(1, device1.getSchemaTemplateId());
+    device1.rollbackPreDeactivateTemplate();
+    assertSame(peekDeviceInfo(device1), peekDeviceInfo(device2));
+
+    // device with alias children keeps its own info
+    IMeasurementMNode<IMemMNode> measurement =
+        nodeFactory.createMeasurementMNode(
+            device1, "s1", new MeasurementSchema("s1", TSDataType.INT32), "alias");
+    device1.addChild(measurement.getAsMNode());
+    assertTrue(device1.addAlias("alias", measurement));
+    assertFalse(peekDeviceInfo(device1) instanceof SharedDeviceInfo);
+    assertSame(measurement.getAsMNode(), device1.getChild("alias"));
+    assertTrue(device1.isAligned());
+
+    device1.deleteAliasChild("alias");
+    assertSame(peekDeviceInfo(device1), peekDeviceInfo(device2));
+  }
+
+  @Test
+  public void testModifySharedDeviceInfo() {
+    IDeviceMNode<IMemMNode> device1 = nodeFactory.createDeviceMNode(null, "d1");
+    IDeviceMNode<IMemMNode> device2 = nodeFactory.createDeviceMNode(null, "d2");
+    device1.setAligned(true);
+    device2.setAligned(true);
+    assertSame(peekDeviceInfo(device1), peekDeviceInfo(device2));
+
+    // the info got from the node is copied from the shared one before being modified
+    IDeviceInfo<IMemMNode> deviceInfo = device1.getDeviceInfo();
+    assertFalse(deviceInfo instanceof SharedDeviceInfo);
+    deviceInfo.setUseTemplate(true);
+    assertTrue(device1.isUseTemplate());
+    assertFalse(device2.isUseTemplate());
+    assertTrue(peekDeviceInfo(device2) instanceof SharedDeviceInfo);
+
+    // so is the device view of node-commons
+    IDeviceMNode<IMemMNode> device3 = nodeFactory.createDeviceMNode(null, "d3");
+    device3.setAligned(true);
+    assertSame(peekDeviceInfo(device2), peekDeviceInfo(device3));
+    IDeviceMNode<IMemMNode> commonDevice3 =
+        new DeviceMNodeWrapper<>((BasicInternalMNode) device3.getAsInternalMNode());
+    commonDevice3.setSchemaTemplateId(1);
+    commonDevice3.setAligned(false);
+    assertEquals(1, device3.getSchemaTemplateId());
+    assertFalse(device3.isAligned());
+    assertEquals(-1, device2.getSchemaTemplateId());
+    assertTrue(device2.isAligned());
+  }
+
+  private static IDeviceInfo<IMemMNode> peekDeviceInfo(IDeviceMNode<IMemMNode> device) {
+    return ((BasicInternalMNode) device.getAsInternalMNode()).peekDeviceInfo();
+  }
 }
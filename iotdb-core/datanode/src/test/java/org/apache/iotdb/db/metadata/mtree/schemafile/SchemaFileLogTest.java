@@ -119,6 +119,8 @@ public class SchemaFileLogTest {
       res.next();
     }
 
+    // pages are written behind, make sure they are on disk before corrupting one of them
+    sf.sync();
     try {
       Class schemaFileClass = SchemaFile.class;
       Field channelField = schemaFileClass.getDeclaredField("channel");
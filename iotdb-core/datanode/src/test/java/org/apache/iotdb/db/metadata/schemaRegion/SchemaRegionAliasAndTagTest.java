@@ -22,6 +22,7 @@ package org.apache.iotdb.db.metadata.schemaRegion;
 import org.apache.iotdb.commons.exception.MetadataException;
 import org.apache.iotdb.commons.path.PartialPath;
 import org.apache.iotdb.commons.path.PathPatternTree;
+import org.apache.iotdb.commons.schema.filter.SchemaFilterFactory;
 import org.apache.iotdb.db.schemaengine.schemaregion.ISchemaRegion;
 import org.apache.iotdb.db.schemaengine.schemaregion.read.resp.info.ITimeSeriesSchemaInfo;
 
@@ -235,6 +236,45 @@ public class SchemaRegionAliasAndTagTest extends AbstractSchemaRegionTest {
         });
   }
 
+  @Test
+  public void testShowTimeseriesWithMultipleTagFilters() throws Exception {
+    prepareTimeseries();
+    PartialPath pattern = new PartialPath("root.**");
+    List<ITimeSeriesSchemaInfo> result =
+        SchemaRegionTestUtil.showTimeseries(
+            schemaRegion,
+            pattern,
+            Collections.emptyMap(),
+            0,
+            0,
+            false,
+            SchemaFilterFactory.and(
+                SchemaFilterFactory.createTagFilter("tag1", "t1", false),
+                SchemaFilterFactory.createTagFilter("tag2", "t2", false)),
+            false);
+    Assert.assertEquals(1, result.size());
+    Assert.assertEquals("root.sg.wf01.wt01.v1.s2", result.get(0).getFullPath());
+
+    result = SchemaRegionTestUtil.showTimeseries(schemaRegion, pattern, false, "tag1", "t1");
+    Set<String> fullPaths = new HashSet<>();
+    result.forEach(info -> fullPaths.add(info.getFullPath()));
+    Assert.assertEquals(
+        new HashSet<>(Arrays.asList("root.sg.wf01.wt01.v1.s2", "root.sg.wf01.aligned_device2.s1")),
+        fullPaths);
+
+    result = SchemaRegionTestUtil.showTimeseries(schemaRegion, pattern, true, "tag2", "t");
+    fullPaths.clear();
+    result.forEach(info -> fullPaths.add(info.getFullPath()));
+    Assert.assertEquals(
+        new HashSet<>(Arrays.asList("root.sg.wf01.wt01.v1.s2", "root.sg.wf01.aligned_device2.s2")),
+        fullPaths);
+
+    SchemaRegionTestUtil.deleteTimeSeries(schemaRegion, new PartialPath("root.sg.wf01.wt01.v1.s2"));
+    result = SchemaRegionTestUtil.showTimeseries(schemaRegion, pattern, false, "tag1", "t1");
+    Assert.assertEquals(1, result.size());
+    Assert.assertEquals("root.sg.wf01.aligned_device2.s1", result.get(0).getFullPath());
+  }
+
   @Test
   public void testUpsertAliasAndTagsAndAttributes() {
     try {
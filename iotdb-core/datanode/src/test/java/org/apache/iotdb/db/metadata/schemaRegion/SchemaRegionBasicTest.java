@@ -30,10 +30,13 @@ import org.apache.iotdb.db.exception.metadata.MeasurementAlreadyExistException;
 import org.apache.iotdb.db.exception.metadata.PathAlreadyExistException;
 import org.apache.iotdb.db.queryengine.common.schematree.ClusterSchemaTree;
 import org.apache.iotdb.db.schemaengine.schemaregion.ISchemaRegion;
+import org.apache.iotdb.db.schemaengine.schemaregion.read.req.SchemaRegionReadPlanFactory;
 import org.apache.iotdb.db.schemaengine.schemaregion.read.resp.info.IDeviceSchemaInfo;
+import org.apache.iotdb.db.schemaengine.schemaregion.read.resp.info.ISchemaInfo;
 import org.apache.iotdb.db.schemaengine.schemaregion.read.resp.info.ITimeSeriesSchemaInfo;
 import org.apache.iotdb.db.schemaengine.schemaregion.read.resp.info.impl.ShowDevicesResult;
 import org.apache.iotdb.db.schemaengine.schemaregion.read.resp.info.impl.ShowNodesResult;
+import org.apache.iotdb.db.schemaengine.schemaregion.read.resp.reader.ISchemaReader;
 import org.apache.iotdb.db.schemaengine.schemaregion.write.req.SchemaRegionWritePlanFactory;
 
 import org.apache.commons.lang3.StringUtils;
@@ -44,6 +47,7 @@ import org.junit.Assert;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -556,6 +560,68 @@ public class SchemaRegionBasicTest extends AbstractSchemaRegionTest {
     Assert.assertEquals(1, getDevicesNum(schemaRegion, new PartialPath("root.laptop.d1.*"), true));
   }
 
+  @Test
+  public void testCountBySubtreeCounter() throws Exception {
+    ISchemaRegion schemaRegion = getSchemaRegion("root.laptop", 0);
+
+    SchemaRegionTestUtil.createSimpleTimeseriesByList(
+        schemaRegion,
+        Arrays.asList(
+            "root.laptop.d0",
+            "root.laptop.d1.s1",
+            "root.laptop.d1.s2.t1",
+            "root.laptop.d1.s3",
+            "root.laptop.d2.s1",
+            "root.laptop.d2.s2",
+            "root.laptop.g1.d3.s1",
+            "root.laptop.g1.d4.s1"));
+    List<String> patterns =
+        Arrays.asList(
+            "root.laptop.d1.**",
+            "root.laptop.*.**",
+            "root.laptop.d*.**",
+            "root.laptop.d1.s2.**",
+            "root.laptop.d1.s1.**",
+            "root.*.g1.**",
+            "root.laptop.g1.*.**",
+            "root.laptop.d3.**",
+            "root.other.d1.**");
+    checkCountBySubtreeCounter(schemaRegion, patterns);
+
+    // not supported patterns
+    Assert.assertEquals(
+        -1, schemaRegion.countTimeSeriesBySubtreeCounter(new PartialPath("root.laptop.**")));
+    Assert.assertEquals(
+        -1, schemaRegion.countTimeSeriesBySubtreeCounter(new PartialPath("root.**.d1.**")));
+    Assert.assertEquals(
+        -1, schemaRegion.countDevicesBySubtreeCounter(new PartialPath("root.laptop.d1.*")));
+
+    SchemaRegionTestUtil.deleteTimeSeries(schemaRegion, new PartialPath("root.laptop.d1.s2.t1"));
+    SchemaRegionTestUtil.deleteTimeSeries(schemaRegion, new PartialPath("root.laptop.g1.**"));
+    SchemaRegionTestUtil.createSimpleTimeseriesByList(
+        schemaRegion, Arrays.asList("root.laptop.d2.s3", "root.laptop.d2.v.s1"));
+    checkCountBySubtreeCounter(schemaRegion, patterns);
+  }
+
+  private void checkCountBySubtreeCounter(ISchemaRegion schemaRegion, List<String> patterns)
+      throws Exception {
+    for (String pattern : patterns) {
+      PartialPath pathPattern = new PartialPath(pattern);
+      long seriesCount = schemaRegion.countTimeSeriesBySubtreeCounter(pathPattern);
+      long deviceCount = schemaRegion.countDevicesBySubtreeCounter(pathPattern);
+      if (testParams.getSchemaEngineMode().equals("Memory")) {
+        Assert.assertEquals(
+            pattern,
+            getAllTimeseriesCount(schemaRegion, pathPattern, Collections.emptyMap(), false),
+            seriesCount);
+        Assert.assertEquals(pattern, getDevicesNum(schemaRegion, pathPattern, false), deviceCount);
+      } else {
+        Assert.assertEquals(-1, seriesCount);
+        Assert.assertEquals(-1, deviceCount);
+      }
+    }
+  }
+
   @Test
   public void testGetNodesListInGivenLevel() throws Exception {
     ISchemaRegion schemaRegion = getSchemaRegion("root.laptop", 0);
@@ -959,6 +1025,94 @@ public class SchemaRegionBasicTest extends AbstractSchemaRegionTest {
     Assert.assertEquals(expectedPathList, actualPathList);
   }
 
+  @Test
+  public void testShowByPage() throws Exception {
+    ISchemaRegion schemaRegion = getSchemaRegion("root.laptop", 0);
+
+    List<String> timeseries =
+        new ArrayList<>(
+            Arrays.asList(
+                "root.laptop.d0",
+                "root.laptop.d1.s1",
+                "root.laptop.d1.s2.t1",
+                "root.laptop.d1.s3",
+                "root.laptop.g1.d3.s1"));
+    // more children than the sorted layout of the children container
+    for (int i = 0; i < 20; i++) {
+      timeseries.add(String.format("root.laptop.d2.s%02d", i));
+    }
+    SchemaRegionTestUtil.createSimpleTimeseriesByList(schemaRegion, timeseries);
+    Collections.sort(timeseries);
+    List<String> devices =
+        Arrays.asList(
+            "root.laptop",
+            "root.laptop.d1",
+            "root.laptop.d1.s2",
+            "root.laptop.d2",
+            "root.laptop.g1.d3");
+
+    PartialPath pathPattern = new PartialPath("root.**");
+    for (int limit : new int[] {1, 3, 100}) {
+      Assert.assertEquals(timeseries, showByPage(schemaRegion, pathPattern, limit, false));
+      Assert.assertEquals(devices, showByPage(schemaRegion, pathPattern, limit, true));
+    }
+    Assert.assertEquals(
+        Arrays.asList("root.laptop.d2.s18", "root.laptop.d2.s19", "root.laptop.g1.d3.s1"),
+        showPage(schemaRegion, pathPattern, 100, new PartialPath("root.laptop.d2.s17"), false));
+    Assert.assertEquals(
+        Arrays.asList("root.laptop.d1.s2", "root.laptop.d2"),
+        showPage(
+            schemaRegion,
+            new PartialPath("root.laptop.**"),
+            2,
+            new PartialPath("root.laptop.d1"),
+            true));
+
+    // resume after a deleted path
+    SchemaRegionTestUtil.deleteTimeSeries(schemaRegion, new PartialPath("root.laptop.d1.s3"));
+    Assert.assertEquals(
+        Arrays.asList("root.laptop.d2.s00", "root.laptop.d2.s01"),
+        showPage(schemaRegion, pathPattern, 2, new PartialPath("root.laptop.d1.s3"), false));
+  }
+
+  private List<String> showByPage(
+      ISchemaRegion schemaRegion, PartialPath pathPattern, int limit, boolean isDevice)
+      throws Exception {
+    List<String> result = new ArrayList<>();
+    PartialPath startAfter = new PartialPath("root");
+    while (true) {
+      List<String> page = showPage(schemaRegion, pathPattern, limit, startAfter, isDevice);
+      result.addAll(page);
+      if (page.size() < limit) {
+        return result;
+      }
+      startAfter = new PartialPath(page.get(page.size() - 1));
+    }
+  }
+
+  private List<String> showPage(
+      ISchemaRegion schemaRegion,
+      PartialPath pathPattern,
+      int limit,
+      PartialPath startAfter,
+      boolean isDevice)
+      throws Exception {
+    List<String> result = new ArrayList<>();
+    try (ISchemaReader<? extends ISchemaInfo> reader =
+        isDevice
+            ? schemaRegion.getDeviceReader(
+                SchemaRegionReadPlanFactory.getShowDevicesPlan(
+                    pathPattern, limit, 0, false, null, ALL_MATCH_SCOPE, startAfter))
+            : schemaRegion.getTimeSeriesReader(
+                SchemaRegionReadPlanFactory.getShowTimeSeriesPlan(
+                    pathPattern, null, limit, 0, false, null, false, ALL_MATCH_SCOPE, startAfter))) {
+      while (reader.hasNext()) {
+        result.add(reader.next().getFullPath());
+      }
+    }
+    return result;
+  }
+
   @Test
   public void testGetMatchedDevicesWithSpecialPattern() throws Exception {
     ISchemaRegion schemaRegion = getSchemaRegion("root.test", 0);
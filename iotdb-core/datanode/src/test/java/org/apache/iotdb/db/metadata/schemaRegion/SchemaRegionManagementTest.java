@@ -23,6 +23,7 @@ import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.file.SystemFileFactory;
 import org.apache.iotdb.commons.path.PartialPath;
 import org.apache.iotdb.commons.schema.SchemaConstant;
+import org.apache.iotdb.commons.utils.FileUtils;
 import org.apache.iotdb.consensus.ConsensusFactory;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
@@ -190,6 +191,89 @@ public class SchemaRegionManagementTest extends AbstractSchemaRegionTest {
     }
   }
 
+  @Test
+  public void testParallelSnapshot() throws Exception {
+    String schemaRegionConsensusProtocolClass = config.getSchemaRegionConsensusProtocolClass();
+    config.setSchemaRegionConsensusProtocolClass(ConsensusFactory.RATIS_CONSENSUS);
+    try {
+      ISchemaRegion schemaRegion = getSchemaRegion("root.sg", 0);
+
+      Map<String, String> tags = new HashMap<>();
+      tags.put("tag-key", "tag-value");
+      schemaRegion.createTimeseries(
+          SchemaRegionWritePlanFactory.getCreateTimeSeriesPlan(
+              new PartialPath("root.sg.a0.s0"),
+              TSDataType.INT32,
+              TSEncoding.PLAIN,
+              CompressionType.UNCOMPRESSED,
+              null,
+              null,
+              null,
+              null),
+          -1);
+      for (int i = 0; i < 4; i++) {
+        for (int j = 0; j < 10; j++) {
+          for (int k = 0; k < 3; k++) {
+            schemaRegion.createTimeseries(
+                SchemaRegionWritePlanFactory.getCreateTimeSeriesPlan(
+                    new PartialPath("root.sg.a" + i + ".d" + j + ".s" + k),
+                    TSDataType.INT32,
+                    TSEncoding.PLAIN,
+                    CompressionType.UNCOMPRESSED,
+                    null,
+                    k == 0 ? tags : null,
+                    null,
+                    k == 1 ? "alias" + k : null),
+                -1);
+          }
+        }
+      }
+
+      File snapshotDir = new File(config.getSchemaDir() + File.separator + "snapshot");
+      snapshotDir.mkdir();
+      Assert.assertTrue(schemaRegion.createSnapshot(snapshotDir));
+      if (testParams.getSchemaEngineMode().equals("Memory")) {
+        Assert.assertTrue(
+            SystemFileFactory.INSTANCE
+                .getFile(snapshotDir, SchemaConstant.MTREE_SNAPSHOT_INDEX)
+                .exists());
+      }
+
+      simulateRestart();
+      ISchemaRegion newSchemaRegion = getSchemaRegion("root.sg", 0);
+      newSchemaRegion.loadSnapshot(snapshotDir);
+      checkParallelSnapshot(newSchemaRegion);
+
+      // The snapshot is still loadable sequentially without the index
+      FileUtils.deleteFileIfExist(
+          SystemFileFactory.INSTANCE.getFile(snapshotDir, SchemaConstant.MTREE_SNAPSHOT_INDEX));
+      simulateRestart();
+      newSchemaRegion = getSchemaRegion("root.sg", 0);
+      newSchemaRegion.loadSnapshot(snapshotDir);
+      checkParallelSnapshot(newSchemaRegion);
+    } finally {
+      config.setSchemaRegionConsensusProtocolClass(schemaRegionConsensusProtocolClass);
+    }
+  }
+
+  private void checkParallelSnapshot(ISchemaRegion schemaRegion) throws Exception {
+    Assert.assertEquals(
+        121,
+        SchemaRegionTestUtil.getAllTimeseriesCount(
+            schemaRegion, new PartialPath("root.sg.**"), Collections.emptyMap(), false));
+    Assert.assertEquals(
+        41, SchemaRegionTestUtil.getDevicesNum(schemaRegion, new PartialPath("root.sg.**"), false));
+    Assert.assertEquals(
+        40,
+        SchemaRegionTestUtil.showTimeseries(
+                schemaRegion, new PartialPath("root.sg.**"), false, "tag-key", "tag-value")
+            .size());
+    Assert.assertEquals(
+        4,
+        SchemaRegionTestUtil.getAllTimeseriesCount(
+            schemaRegion, new PartialPath("root.sg.*.d3.alias1"), Collections.emptyMap(), false));
+  }
+
   @Test
   @Ignore
   public void testSnapshotPerformance() throws Exception {
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.metadata.tag;
+
+import org.apache.iotdb.db.schemaengine.schemaregion.tag.PostingList;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.TreeSet;
+
+public class PostingListTest {
+
+  // containers with more values than this are stored as bitmaps
+  private static final int ARRAY_CONTAINER_MAX_SIZE = 4096;
+
+  @Test
+  public void testArrayToBitmap() {
+    PostingList postingList = new PostingList();
+    TreeSet<Integer> expected = new TreeSet<>();
+    for (int i = 0; i < ARRAY_CONTAINER_MAX_SIZE; i++) {
+      Assert.assertTrue(postingList.add(i * 2));
+      expected.add(i * 2);
+    }
+    Assert.assertFalse(postingList.add(0));
+    Assert.assertEquals(ARRAY_CONTAINER_MAX_SIZE, postingList.cardinality());
+    long arrayBytes = postingList.ramBytesUsed();
+
+    // the container is converted to bitmap by the value exceeding the max size of array
+    Assert.assertTrue(postingList.add(1));
+    expected.add(1);
+    Assert.assertEquals(ARRAY_CONTAINER_MAX_SIZE + 1, postingList.cardinality());
+    Assert.assertTrue(postingList.contains(1));
+    Assert.assertTrue(postingList.contains(ARRAY_CONTAINER_MAX_SIZE * 2 - 2));
+    Assert.assertFalse(postingList.contains(3));
+    assertIds(expected, postingList);
+
+    // and converted back to array once it is small enough
+    Assert.assertTrue(postingList.remove(1));
+    Assert.assertFalse(postingList.remove(1));
+    expected.remove(1);
+    Assert.assertEquals(ARRAY_CONTAINER_MAX_SIZE, postingList.cardinality());
+    Assert.assertEquals(arrayBytes, postingList.ramBytesUsed());
+    assertIds(expected, postingList);
+
+    for (int id : expected) {
+      Assert.assertTrue(postingList.remove(id));
+    }
+    Assert.assertTrue(postingList.isEmpty());
+    Assert.assertFalse(postingList.iterator().hasNext());
+  }
+
+  @Test
+  public void testSetOperations() {
+    PostingList sparse = new PostingList();
+    PostingList dense = new PostingList();
+    TreeSet<Integer> sparseIds = new TreeSet<>();
+    TreeSet<Integer> denseIds = new TreeSet<>();
+    // ids across several containers, the dense ones are bitmaps in the first two
+    for (int i = 0; i < 3 * 65536; i += 31) {
+      sparse.add(i);
+      sparseIds.add(i);
+    }
+    for (int i = 0; i < 2 * 65536; i += 3) {
+      dense.add(i);
+      denseIds.add(i);
+    }
+    dense.add(5 * 65536);
+    denseIds.add(5 * 65536);
+
+    TreeSet<Integer> and = new TreeSet<>(sparseIds);
+    and.retainAll(denseIds);
+    assertIds(and, sparse.and(dense));
+    assertIds(and, dense.and(sparse));
+
+    TreeSet<Integer> or = new TreeSet<>(sparseIds);
+    or.addAll(denseIds);
+    assertIds(or, sparse.or(dense));
+    assertIds(or, dense.or(sparse));
+
+    TreeSet<Integer> sparseAndNotDense = new TreeSet<>(sparseIds);
+    sparseAndNotDense.removeAll(denseIds);
+    assertIds(sparseAndNotDense, sparse.andNot(dense));
+    TreeSet<Integer> denseAndNotSparse = new TreeSet<>(denseIds);
+    denseAndNotSparse.removeAll(sparseIds);
+    assertIds(denseAndNotSparse, dense.andNot(sparse));
+
+    // the operands are not modified
+    assertIds(sparseIds, sparse);
+    assertIds(denseIds, dense);
+    Assert.assertTrue(sparse.andNot(sparse).isEmpty());
+    assertIds(denseIds, dense.copy());
+  }
+
+  @Test
+  public void testIterator() {
+    PostingList postingList = new PostingList();
+    Assert.assertFalse(postingList.iterator().hasNext());
+
+    // the boundaries of the containers and the largest id
+    int[] ids = {0, 65535, 65536, 131071, 1 << 20, Integer.MAX_VALUE};
+    for (int i = ids.length - 1; i >= 0; i--) {
+      postingList.add(ids[i]);
+    }
+    PrimitiveIterator.OfInt iterator = postingList.iterator();
+    for (int id : ids) {
+      Assert.assertTrue(iterator.hasNext());
+      Assert.assertEquals(id, iterator.nextInt());
+    }
+    Assert.assertFalse(iterator.hasNext());
+    try {
+      iterator.nextInt();
+      Assert.fail();
+    } catch (NoSuchElementException e) {
+      // expected
+    }
+  }
+
+  private void assertIds(TreeSet<Integer> expected, PostingList postingList) {
+    List<Integer> actual = new ArrayList<>();
+    postingList.iterator().forEachRemaining((int id) -> actual.add(id));
+    Assert.assertEquals(new ArrayList<>(expected), actual);
+    Assert.assertEquals(expected.size(), postingList.cardinality());
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.queryengine.execution.executor;
+
+import org.apache.iotdb.common.rpc.thrift.TSStatus;
+import org.apache.iotdb.commons.consensus.ConsensusGroupId;
+import org.apache.iotdb.commons.consensus.DataRegionId;
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertRowNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertRowsNode;
+import org.apache.iotdb.rpc.RpcUtils;
+import org.apache.iotdb.rpc.TSStatusCode;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class InsertRowCoalescerTest {
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+  private static final int BATCH_SIZE = 4;
+
+  private final ConsensusGroupId regionId = new DataRegionId(1);
+  private long originWindow;
+  private int originMaxBatchSize;
+  private ExecutorService pool;
+
+  @Before
+  public void setUp() {
+    originWindow = CONFIG.getInsertRowCoalescingWindowInUs();
+    originMaxBatchSize = CONFIG.getInsertRowCoalescingMaxBatchSize();
+    // long enough that only a full batch is executed
+    CONFIG.setInsertRowCoalescingWindowInUs(60_000_000L);
+    CONFIG.setInsertRowCoalescingMaxBatchSize(BATCH_SIZE);
+    pool = Executors.newFixedThreadPool(BATCH_SIZE);
+  }
+
+  @After
+  public void tearDown() {
+    CONFIG.setInsertRowCoalescingWindowInUs(originWindow);
+    CONFIG.setInsertRowCoalescingMaxBatchSize(originMaxBatchSize);
+    pool.shutdownNow();
+  }
+
+  @Test
+  public void testCoalesceConcurrentRows() throws Exception {
+    List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    List<RegionExecutionResult> results =
+        insertConcurrently(
+            rows -> {
+              batchSizes.add(rows.getInsertRowNodeList().size());
+              RegionExecutionResult result = new RegionExecutionResult();
+              result.setAccepted(true);
+              return result;
+            });
+
+    assertEquals(1, batchSizes.size());
+    assertEquals(BATCH_SIZE, (int) batchSizes.get(0));
+    for (RegionExecutionResult result : results) {
+      assertTrue(result.isAccepted());
+    }
+  }
+
+  @Test
+  public void testPartialFailure() throws Exception {
+    List<InsertRowNode> failedRows = new CopyOnWriteArrayList<>();
+    List<RegionExecutionResult> results =
+        insertConcurrently(
+            rows -> {
+              TSStatus status = RpcUtils.getStatus(TSStatusCode.WRITE_PROCESS_ERROR);
+              rows.getResults().put(1, status);
+              failedRows.add(rows.getInsertRowNodeList().get(1));
+              RegionExecutionResult result = new RegionExecutionResult();
+              result.setAccepted(false);
+              result.setStatus(status);
+              return result;
+            });
+
+    int failedCount = 0;
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      if (!results.get(i).isAccepted()) {
+        failedCount++;
+        assertEquals(i, failedRows.get(0).getTime());
+      }
+    }
+    assertEquals(1, failedCount);
+  }
+
+  @Test
+  public void testDisabled() {
+    CONFIG.setInsertRowCoalescingWindowInUs(0);
+    assertFalse(InsertRowCoalescer.getInstance().isEnabled());
+  }
+
+  private List<RegionExecutionResult> insertConcurrently(
+      Function<InsertRowsNode, RegionExecutionResult> batchExecutor) throws Exception {
+    List<Future<RegionExecutionResult>> futures = new ArrayList<>();
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      InsertRowNode row = getInsertRowNode(i);
+      futures.add(
+          pool.submit(
+              () ->
+                  InsertRowCoalescer.getInstance()
+                      .insert(
+                          regionId,
+                          row,
+                          r -> {
+                            throw new IllegalStateException("a single row is not expected");
+                          },
+                          batchExecutor)));
+    }
+    List<RegionExecutionResult> results = new ArrayList<>();
+    for (Future<RegionExecutionResult> future : futures) {
+      results.add(future.get());
+    }
+    return results;
+  }
+
+  private InsertRowNode getInsertRowNode(long time) throws IllegalPathException {
+    return new InsertRowNode(
+        new PlanNodeId(String.valueOf(time)),
+        new PartialPath("root.isp.d1"),
+        false,
+        new String[] {"s1"},
+        new TSDataType[] {TSDataType.INT64},
+        time,
+        new Object[] {time},
+        false);
+  }
+}
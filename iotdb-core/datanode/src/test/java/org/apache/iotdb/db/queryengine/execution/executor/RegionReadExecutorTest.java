@@ -37,6 +37,7 @@ import org.mockito.Mockito;
 import static org.apache.iotdb.db.queryengine.common.QueryId.MOCK_QUERY_ID;
 import static org.apache.iotdb.db.queryengine.execution.executor.RegionReadExecutor.ERROR_MSG_FORMAT;
 import static org.apache.iotdb.db.queryengine.execution.executor.RegionReadExecutor.RESPONSE_NULL_ERROR_MSG;
+import static org.apache.iotdb.db.queryengine.execution.executor.RegionReadExecutor.STALE_REPLICA_MSG_FORMAT;
 import static org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceState.RUNNING;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -186,6 +187,44 @@ public class RegionReadExecutorTest {
     assertEquals(String.format(ERROR_MSG_FORMAT, "Unknown"), res.getMessage());
   }
 
+  @Test
+  public void testStaleReplica() throws ConsensusException {
+    ConsensusGroupId dataRegionGroupId = new DataRegionId(1);
+    FragmentInstanceId fragmentInstanceId =
+        new FragmentInstanceId(new PlanFragmentId(MOCK_QUERY_ID, 0), "0");
+    FragmentInstance fragmentInstance = Mockito.mock(FragmentInstance.class);
+    Mockito.when(fragmentInstance.getId()).thenReturn(fragmentInstanceId);
+    Mockito.when(fragmentInstance.getMaxStalenessInMs()).thenReturn(1000L);
+
+    IConsensus dataRegionConsensus = Mockito.mock(IConsensus.class);
+    IConsensus schemaRegionConsensus = Mockito.mock(IConsensus.class);
+    FragmentInstanceManager fragmentInstanceManager = Mockito.mock(FragmentInstanceManager.class);
+
+    RegionReadExecutor executor =
+        new RegionReadExecutor(dataRegionConsensus, schemaRegionConsensus, fragmentInstanceManager);
+
+    FragmentInstanceInfo fragmentInstanceInfo = Mockito.mock(FragmentInstanceInfo.class);
+    Mockito.when(fragmentInstanceInfo.getState()).thenReturn(RUNNING);
+    Mockito.when(dataRegionConsensus.read(dataRegionGroupId, fragmentInstance))
+        .thenReturn(fragmentInstanceInfo);
+
+    // fresh enough
+    Mockito.when(dataRegionConsensus.getReadStalenessInMs(dataRegionGroupId)).thenReturn(500L);
+    RegionExecutionResult res = executor.execute(dataRegionGroupId, fragmentInstance);
+    assertTrue(res.isAccepted());
+    assertFalse(res.isStaleReplica());
+
+    // too stale, so the query should retry on other replicas
+    Mockito.when(dataRegionConsensus.getReadStalenessInMs(dataRegionGroupId)).thenReturn(1500L);
+    res = executor.execute(dataRegionGroupId, fragmentInstance);
+    assertFalse(res.isAccepted());
+    assertTrue(res.isNeedRetry());
+    assertTrue(res.isStaleReplica());
+    assertEquals(
+        String.format(STALE_REPLICA_MSG_FORMAT, dataRegionGroupId, 1500L, 1000L), res.getMessage());
+    Mockito.verify(dataRegionConsensus, Mockito.times(1)).read(dataRegionGroupId, fragmentInstance);
+  }
+
   @Test
   public void testVirtualDataRegion() {
     // successfully
@@ -76,6 +76,7 @@ public class SchemaCountOperatorTest {
       operatorContext.setDriverContext(
           new SchemaDriverContext(fragmentInstanceContext, schemaRegion, 0));
       ISchemaSource<ISchemaInfo> schemaSource = Mockito.mock(ISchemaSource.class);
+      Mockito.when(schemaSource.countBySubtreeCounter(schemaRegion)).thenReturn(-1L);
 
       List<ISchemaInfo> schemaInfoList = new ArrayList<>(10);
       for (int i = 0; i < 10; i++) {
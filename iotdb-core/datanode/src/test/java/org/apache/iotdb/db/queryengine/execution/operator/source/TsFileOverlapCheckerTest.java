@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source;
+
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResourceStatus;
+
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.PlainDeviceID;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+
+public class TsFileOverlapCheckerTest {
+
+  private static final IDeviceID DEVICE = new PlainDeviceID("root.sg.d1");
+
+  @Test
+  public void testOverlapsWithOthers() {
+    TsFileResource seq1 = newResource("1-1-0-0.tsfile", 1, 10, true);
+    TsFileResource seq2 = newResource("2-2-0-0.tsfile", 20, 30, true);
+    TsFileResource seq3 = newResource("3-3-0-0.tsfile", 40, 50, true);
+    TsFileResource unseq1 = newResource("4-4-0-0.tsfile", 12, 15, true);
+    TsFileResource unseq2 = newResource("5-5-0-0.tsfile", 25, 26, true);
+    TsFileResource unseq3 = newResource("6-6-0-0.tsfile", 60, 70, true);
+    TsFileResource unseq4 = newResource("7-7-0-0.tsfile", 65, 80, true);
+    // unsealed, so it may contain any time later than its start time
+    TsFileResource unseq5 = newResource("8-8-0-0.tsfile", 100, 100, false);
+
+    TsFileOverlapChecker checker =
+        new TsFileOverlapChecker(
+            DEVICE,
+            Arrays.asList(seq1, seq2, seq3),
+            Arrays.asList(unseq1, unseq2, unseq3, unseq4, unseq5));
+
+    Assert.assertFalse(checker.overlapsWithOthers(seq1, true));
+    Assert.assertTrue(checker.overlapsWithOthers(seq2, true));
+    Assert.assertFalse(checker.overlapsWithOthers(seq3, true));
+    Assert.assertFalse(checker.overlapsWithOthers(unseq1, false));
+    Assert.assertTrue(checker.overlapsWithOthers(unseq2, false));
+    Assert.assertTrue(checker.overlapsWithOthers(unseq3, false));
+    Assert.assertTrue(checker.overlapsWithOthers(unseq4, false));
+  }
+
+  @Test
+  public void testUnsealedFile() {
+    TsFileResource seq = newResource("1-1-0-0.tsfile", 200, 300, true);
+    TsFileResource unseq = newResource("2-2-0-0.tsfile", 100, 100, false);
+
+    TsFileOverlapChecker checker =
+        new TsFileOverlapChecker(DEVICE, Arrays.asList(seq), Arrays.asList(unseq));
+    Assert.assertTrue(checker.overlapsWithOthers(seq, true));
+  }
+
+  private static TsFileResource newResource(
+      String name, long startTime, long endTime, boolean closed) {
+    TsFileResource resource = new TsFileResource(new File(name));
+    resource.updateStartTime(DEVICE, startTime);
+    if (closed) {
+      resource.updateEndTime(DEVICE, endTime);
+      resource.setStatusForTest(TsFileResourceStatus.NORMAL);
+    }
+    return resource;
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.analyze.cache;
+
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupType;
+import org.apache.iotdb.db.queryengine.plan.analyze.cache.partition.CompactDataPartitionTable;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CompactDataPartitionTableTest {
+
+  private static final long INTERVAL = 100;
+
+  private static List<TConsensusGroupId> regionIds(int id) {
+    return Collections.singletonList(new TConsensusGroupId(TConsensusGroupType.DataRegion, id));
+  }
+
+  @Test
+  public void testMergeAndSplitTimeSlots() {
+    CompactDataPartitionTable table = new CompactDataPartitionTable(10, INTERVAL);
+    assertFalse(table.containsSeriesSlot(3));
+
+    // Put the time slots out of order, they should be merged into one range
+    for (long startTime : new long[] {200, 0, 400, 100, 300}) {
+      table.put(3, startTime, regionIds(1));
+    }
+    assertTrue(table.containsSeriesSlot(3));
+    long mergedSize = table.ramBytesUsed();
+    for (long startTime = 0; startTime <= 400; startTime += INTERVAL) {
+      assertEquals(regionIds(1), table.get(3, startTime));
+    }
+    assertNull(table.get(3, -100));
+    assertNull(table.get(3, 500));
+    assertNull(table.get(4, 0));
+
+    // Assign a time slot in the middle of the range to another region, the range should be split
+    table.put(3, 200, regionIds(2));
+    assertEquals(regionIds(1), table.get(3, 100));
+    assertEquals(regionIds(2), table.get(3, 200));
+    assertEquals(regionIds(1), table.get(3, 300));
+    assertTrue(table.ramBytesUsed() > mergedSize);
+
+    // Assign it back, the ranges should be merged again
+    table.put(3, 200, regionIds(1));
+    for (long startTime = 0; startTime <= 400; startTime += INTERVAL) {
+      assertEquals(regionIds(1), table.get(3, startTime));
+    }
+
+    // A gap between time slots should keep the ranges apart
+    table.put(3, 600, regionIds(1));
+    assertNull(table.get(3, 500));
+    assertEquals(regionIds(1), table.get(3, 600));
+    table.put(3, 500, regionIds(1));
+    assertEquals(regionIds(1), table.get(3, 500));
+  }
+}
@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.analyze.schema;
+
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.path.MeasurementPath;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.exception.query.QueryTimeoutRuntimeException;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.metedata.write.MeasurementGroup;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.utils.Pair;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+public class AutoCreateTimeSeriesBatcherTest {
+
+  private static final long TIME_OUT = 60_000L;
+
+  // The executions of the batcher, the one creating blockedDevice waits until released
+  private final List<Execution> executions = Collections.synchronizedList(new ArrayList<>());
+  private final CountDownLatch blockedExecutionEntered = new CountDownLatch(1);
+  private final CountDownLatch blockedExecutionReleased = new CountDownLatch(1);
+  private PartialPath blockedDevice;
+  // The creation of this device always fails
+  private PartialPath badDevice;
+
+  private AutoCreateTimeSeriesBatcher batcher;
+
+  @Before
+  public void setUp() throws IllegalPathException {
+    blockedDevice = new PartialPath("root.db.blocked");
+    badDevice = new PartialPath("root.db.bad");
+    batcher =
+        new AutoCreateTimeSeriesBatcher(
+            (devices, context, timeOut) -> {
+              executions.add(new Execution(devices, timeOut));
+              if (devices.containsKey(blockedDevice)) {
+                blockedExecutionEntered.countDown();
+                try {
+                  blockedExecutionReleased.await();
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                }
+              }
+              if (devices.containsKey(badDevice)) {
+                throw new RuntimeException("Failed to create " + badDevice);
+              }
+              return Collections.emptyList();
+            });
+  }
+
+  @After
+  public void tearDown() {
+    blockedExecutionReleased.countDown();
+  }
+
+  @Test
+  public void testMergeConcurrentRequests() throws Exception {
+    FutureTask<List<MeasurementPath>> blocked = startBlockedCreation("root.db");
+    FutureTask<List<MeasurementPath>> first =
+        startWaitingCreation(
+            devices("root.db.d1", "s1", TSDataType.INT32), "root.db", TIME_OUT / 2);
+    Map<PartialPath, Pair<Boolean, MeasurementGroup>> secondDevices =
+        devices("root.db.d1", "s1", TSDataType.DOUBLE);
+    secondDevices.putAll(devices("root.db.d2", "s1", TSDataType.INT32));
+    FutureTask<List<MeasurementPath>> second =
+        startWaitingCreation(secondDevices, "root.db", TIME_OUT);
+
+    blockedExecutionReleased.countDown();
+    Assert.assertTrue(blocked.get(10, TimeUnit.SECONDS).isEmpty());
+    Assert.assertTrue(first.get(10, TimeUnit.SECONDS).isEmpty());
+    // The measurement is created with the schema of the first request in the batch
+    List<MeasurementPath> alreadyExisting = second.get(10, TimeUnit.SECONDS);
+    Assert.assertEquals(1, alreadyExisting.size());
+    Assert.assertEquals("root.db.d1.s1", alreadyExisting.get(0).getFullPath());
+    Assert.assertEquals(TSDataType.INT32, alreadyExisting.get(0).getSeriesType());
+
+    // The waiting requests are created together, before the earliest deadline of them
+    Assert.assertEquals(2, executions.size());
+    Execution merged = executions.get(1);
+    Assert.assertEquals(2, merged.devices.size());
+    Assert.assertEquals(
+        Collections.singletonList(TSDataType.INT32),
+        merged.devices.get(new PartialPath("root.db.d1")).right.getDataTypes());
+    Assert.assertTrue(merged.timeOut > 0 && merged.timeOut <= TIME_OUT / 2);
+  }
+
+  @Test
+  public void testRetryFailedBatchOneByOne() throws Exception {
+    FutureTask<List<MeasurementPath>> blocked = startBlockedCreation("root.db");
+    FutureTask<List<MeasurementPath>> good =
+        startWaitingCreation(devices("root.db.d1", "s1", TSDataType.INT32), "root.db", TIME_OUT);
+    FutureTask<List<MeasurementPath>> bad =
+        startWaitingCreation(devices("root.db.bad", "s1", TSDataType.INT32), "root.db", TIME_OUT);
+
+    blockedExecutionReleased.countDown();
+    Assert.assertTrue(blocked.get(10, TimeUnit.SECONDS).isEmpty());
+    Assert.assertTrue(good.get(10, TimeUnit.SECONDS).isEmpty());
+    try {
+      bad.get(10, TimeUnit.SECONDS);
+      Assert.fail("The failure should be reported to the request causing it");
+    } catch (ExecutionException e) {
+      Assert.assertEquals("Failed to create root.db.bad", e.getCause().getMessage());
+    }
+    // The blocked one, the merged one, and the retry of each request
+    Assert.assertEquals(4, executions.size());
+  }
+
+  @Test
+  public void testBatchPerDatabase() throws Exception {
+    FutureTask<List<MeasurementPath>> blocked = startBlockedCreation("root.db");
+
+    // The creation in another database needn't wait for the executing batch
+    FutureTask<List<MeasurementPath>> other =
+        startCreation(devices("root.other.d1", "s1", TSDataType.INT32), "root.other", TIME_OUT);
+    Assert.assertTrue(other.get(10, TimeUnit.SECONDS).isEmpty());
+    Assert.assertFalse(blocked.isDone());
+
+    blockedExecutionReleased.countDown();
+    Assert.assertTrue(blocked.get(10, TimeUnit.SECONDS).isEmpty());
+    Assert.assertEquals(2, executions.size());
+  }
+
+  @Test
+  public void testTimeoutWhileWaiting() throws Exception {
+    FutureTask<List<MeasurementPath>> blocked = startBlockedCreation("root.db");
+    FutureTask<List<MeasurementPath>> waiting =
+        startCreation(devices("root.db.d1", "s1", TSDataType.INT32), "root.db", 100);
+    try {
+      waiting.get(10, TimeUnit.SECONDS);
+      Assert.fail("The request should time out while waiting for the executing batch");
+    } catch (ExecutionException e) {
+      Assert.assertTrue(e.getCause() instanceof QueryTimeoutRuntimeException);
+    }
+
+    blockedExecutionReleased.countDown();
+    Assert.assertTrue(blocked.get(10, TimeUnit.SECONDS).isEmpty());
+    // The timed out request is not executed
+    Assert.assertEquals(1, executions.size());
+  }
+
+  private FutureTask<List<MeasurementPath>> startBlockedCreation(String database)
+      throws InterruptedException {
+    FutureTask<List<MeasurementPath>> task =
+        startCreation(
+            Collections.singletonMap(
+                blockedDevice, new Pair<>(false, measurementGroup("s1", TSDataType.INT32))),
+            database,
+            TIME_OUT);
+    Assert.assertTrue(blockedExecutionEntered.await(10, TimeUnit.SECONDS));
+    return task;
+  }
+
+  // Start a creation and wait until it is queued behind the executing batch
+  private FutureTask<List<MeasurementPath>> startWaitingCreation(
+      Map<PartialPath, Pair<Boolean, MeasurementGroup>> devices, String database, long timeOut)
+      throws InterruptedException {
+    FutureTask<List<MeasurementPath>> task =
+        new FutureTask<>(() -> create(devices, database, timeOut));
+    Thread thread = new Thread(task);
+    thread.start();
+    long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+    while (thread.getState() != Thread.State.TIMED_WAITING) {
+      Assert.assertTrue(System.currentTimeMillis() < deadline);
+      TimeUnit.MILLISECONDS.sleep(10);
+    }
+    return task;
+  }
+
+  private FutureTask<List<MeasurementPath>> startCreation(
+      Map<PartialPath, Pair<Boolean, MeasurementGroup>> devices, String database, long timeOut) {
+    FutureTask<List<MeasurementPath>> task =
+        new FutureTask<>(() -> create(devices, database, timeOut));
+    new Thread(task).start();
+    return task;
+  }
+
+  private List<MeasurementPath> create(
+      Map<PartialPath, Pair<Boolean, MeasurementGroup>> devices, String database, long timeOut) {
+    return batcher.createTimeSeries(devices, Collections.singleton(database), null, timeOut);
+  }
+
+  private static Map<PartialPath, Pair<Boolean, MeasurementGroup>> devices(
+      String device, String measurement, TSDataType dataType) throws IllegalPathException {
+    Map<PartialPath, Pair<Boolean, MeasurementGroup>> devices = new HashMap<>();
+    devices.put(
+        new PartialPath(device), new Pair<>(false, measurementGroup(measurement, dataType)));
+    return devices;
+  }
+
+  private static MeasurementGroup measurementGroup(String measurement, TSDataType dataType) {
+    MeasurementGroup measurementGroup = new MeasurementGroup();
+    measurementGroup.addMeasurement(
+        measurement, dataType, TSEncoding.PLAIN, CompressionType.UNCOMPRESSED);
+    return measurementGroup;
+  }
+
+  private static class Execution {
+
+    private final Map<PartialPath, Pair<Boolean, MeasurementGroup>> devices;
+    private final long timeOut;
+
+    private Execution(Map<PartialPath, Pair<Boolean, MeasurementGroup>> devices, long timeOut) {
+      this.devices = devices;
+      this.timeOut = timeOut;
+    }
+  }
+}
@@ -83,6 +83,7 @@ public class FragmentInstanceSerdeTest {
             new TConsensusGroupId(TConsensusGroupType.DataRegion, 1),
             ImmutableList.of(dataNodeLocation));
     fragmentInstance.setExecutorAndHost(new StorageExecutor(regionReplicaSet));
+    fragmentInstance.setMaxStalenessInMs(1000);
     ByteBuffer byteBuffer = fragmentInstance.serializeToByteBuffer();
     FragmentInstance deserializeFragmentInstance = FragmentInstance.deserializeFrom(byteBuffer);
     assertNull(deserializeFragmentInstance.getExecutorType());
@@ -90,14 +91,17 @@ public class FragmentInstanceSerdeTest {
     // from original object before comparison.
     deserializeFragmentInstance.setExecutorType(fragmentInstance.getExecutorType());
     assertEquals(deserializeFragmentInstance, fragmentInstance);
+    assertEquals(1000, deserializeFragmentInstance.getMaxStalenessInMs());
 
     // test FI with QueryExecutor
     fragmentInstance.setExecutorAndHost(new QueryExecutor(dataNodeLocation));
+    fragmentInstance.setMaxStalenessInMs(-1);
     byteBuffer = fragmentInstance.serializeToByteBuffer();
     deserializeFragmentInstance = FragmentInstance.deserializeFrom(byteBuffer);
     assertNull(deserializeFragmentInstance.getExecutorType());
     deserializeFragmentInstance.setExecutorType(fragmentInstance.getExecutorType());
     assertEquals(deserializeFragmentInstance, fragmentInstance);
+    assertEquals(-1, deserializeFragmentInstance.getMaxStalenessInMs());
   }
 
   @Test
@@ -25,6 +25,7 @@ import org.apache.iotdb.commons.path.PartialPath;
 import org.apache.iotdb.commons.schema.filter.SchemaFilterType;
 import org.apache.iotdb.commons.schema.filter.impl.PathContainsFilter;
 import org.apache.iotdb.commons.schema.filter.impl.TagFilter;
+import org.apache.iotdb.db.exception.sql.SemanticException;
 import org.apache.iotdb.db.queryengine.plan.expression.Expression;
 import org.apache.iotdb.db.queryengine.plan.expression.leaf.TimeSeriesOperand;
 import org.apache.iotdb.db.queryengine.plan.parser.StatementGenerator;
@@ -648,6 +649,67 @@ public class SchemaQueryLogicalPlannerTest {
     }
   }
 
+  @Test
+  public void testShowTimeSeriesAfterPath() {
+    String sql = "SHOW TIMESERIES root.ln.** AFTER root.ln.wf01.wt01.status limit 20 offset 10";
+    try {
+      LimitNode limitNode = (LimitNode) parseSQLToPlanNode(sql);
+      OffsetNode offsetNode = (OffsetNode) limitNode.getChild();
+      SchemaQueryMergeNode metaMergeNode = (SchemaQueryMergeNode) offsetNode.getChild();
+      Assert.assertTrue(metaMergeNode.isOrderByPath());
+      TimeSeriesSchemaScanNode showTimeSeriesNode =
+          (TimeSeriesSchemaScanNode) metaMergeNode.getChildren().get(0);
+      Assert.assertEquals(
+          new PartialPath("root.ln.wf01.wt01.status"), showTimeSeriesNode.getStartAfter());
+      Assert.assertEquals(30, showTimeSeriesNode.getLimit());
+
+      // test serialize and deserialize
+      ByteBuffer byteBuffer = ByteBuffer.allocate(1024);
+      showTimeSeriesNode.serialize(byteBuffer);
+      byteBuffer.flip();
+      TimeSeriesSchemaScanNode showTimeSeriesNode2 =
+          (TimeSeriesSchemaScanNode) PlanNodeType.deserialize(byteBuffer);
+      Assert.assertEquals(
+          new PartialPath("root.ln.wf01.wt01.status"), showTimeSeriesNode2.getStartAfter());
+    } catch (Exception e) {
+      e.printStackTrace();
+      fail();
+    }
+
+    try {
+      parseSQLToPlanNode("SHOW LATEST TIMESERIES root.ln.** AFTER root.ln.wf01.wt01.status");
+      fail();
+    } catch (SemanticException e) {
+      Assert.assertTrue(e.getMessage().contains("AFTER"));
+    }
+  }
+
+  @Test
+  public void testShowDevicesAfterPath() {
+    String sql = "SHOW DEVICES root.ln.** AFTER root.ln.wf01.wt01 limit 20 offset 10";
+    try {
+      LimitNode limitNode = (LimitNode) parseSQLToPlanNode(sql);
+      OffsetNode offsetNode = (OffsetNode) limitNode.getChild();
+      SchemaQueryMergeNode metaMergeNode = (SchemaQueryMergeNode) offsetNode.getChild();
+      Assert.assertTrue(metaMergeNode.isOrderByPath());
+      DevicesSchemaScanNode showDevicesNode =
+          (DevicesSchemaScanNode) metaMergeNode.getChildren().get(0);
+      Assert.assertEquals(new PartialPath("root.ln.wf01.wt01"), showDevicesNode.getStartAfter());
+      Assert.assertEquals(30, showDevicesNode.getLimit());
+
+      // test serialize and deserialize
+      ByteBuffer byteBuffer = ByteBuffer.allocate(1024);
+      showDevicesNode.serialize(byteBuffer);
+      byteBuffer.flip();
+      DevicesSchemaScanNode showDevicesNode2 =
+          (DevicesSchemaScanNode) PlanNodeType.deserialize(byteBuffer);
+      Assert.assertEquals(new PartialPath("root.ln.wf01.wt01"), showDevicesNode2.getStartAfter());
+    } catch (Exception e) {
+      e.printStackTrace();
+      fail();
+    }
+  }
+
   @Test
   public void testCountNodes() {
     String sql = "COUNT NODES root.ln LEVEL=1";
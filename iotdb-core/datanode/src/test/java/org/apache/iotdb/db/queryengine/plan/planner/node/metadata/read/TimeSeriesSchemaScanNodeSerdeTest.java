@@ -83,4 +83,33 @@ public class TimeSeriesSchemaScanNodeSerdeTest {
     LimitNode limitNode1 = (LimitNode) PlanNodeDeserializeHelper.deserialize(byteBuffer);
     Assert.assertEquals(limitNode, limitNode1);
   }
+
+  @Test
+  public void testSerializeAndDeserializeWithStartAfter() throws IllegalPathException {
+    SchemaQueryMergeNode schemaMergeNode =
+        new SchemaQueryMergeNode(new PlanNodeId("schemaMerge"), false, true);
+    TimeSeriesSchemaScanNode timeSeriesSchemaScanNode =
+        new TimeSeriesSchemaScanNode(
+            new PlanNodeId("timeSeriesSchemaScan"),
+            new PartialPath("root.sg.**"),
+            null,
+            10,
+            0,
+            false,
+            false,
+            Collections.emptyMap(),
+            SchemaConstant.ALL_MATCH_SCOPE,
+            new PartialPath("root.sg.device0.sensor"));
+    schemaMergeNode.addChild(timeSeriesSchemaScanNode);
+    ByteBuffer byteBuffer = ByteBuffer.allocate(1024);
+    schemaMergeNode.serialize(byteBuffer);
+    byteBuffer.flip();
+    SchemaQueryMergeNode schemaMergeNode1 =
+        (SchemaQueryMergeNode) PlanNodeDeserializeHelper.deserialize(byteBuffer);
+    Assert.assertEquals(schemaMergeNode, schemaMergeNode1);
+    Assert.assertTrue(schemaMergeNode1.isOrderByPath());
+    Assert.assertEquals(
+        new PartialPath("root.sg.device0.sensor"),
+        ((TimeSeriesSchemaScanNode) schemaMergeNode1.getChildren().get(0)).getStartAfter());
+  }
 }
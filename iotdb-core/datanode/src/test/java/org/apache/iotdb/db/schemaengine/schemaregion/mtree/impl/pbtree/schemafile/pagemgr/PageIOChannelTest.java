@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.pbtree.schemafile.pagemgr;
+
+import org.apache.iotdb.commons.exception.MetadataException;
+import org.apache.iotdb.commons.utils.FileUtils;
+import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.pbtree.schemafile.ISchemaPage;
+import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.pbtree.schemafile.ISegmentedPage;
+import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.pbtree.schemafile.SchemaFile;
+import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.pbtree.schemafile.SchemaFileConfig;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class PageIOChannelTest {
+
+  private File tmpDir;
+  private File pmtFile;
+  private String logPath;
+  private FileChannel channel;
+
+  @Before
+  public void setUp() throws IOException {
+    tmpDir = Files.createTempDirectory("pageIOChannel").toFile();
+    pmtFile = new File(tmpDir, "test.pmt");
+    logPath = new File(tmpDir, "test.log").getPath();
+    channel =
+        FileChannel.open(
+            pmtFile.toPath(),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    channel.close();
+    FileUtils.deleteFileOrDirectory(tmpDir);
+  }
+
+  @Test
+  public void testFlush() throws IOException, MetadataException {
+    PageIOChannel pageIOChannel = new PageIOChannel(channel, pmtFile, true, logPath);
+    ISegmentedPage page = newPage(1);
+
+    // the flushed page is on disk once the flush returns
+    page.allocNewSegment(SchemaFileConfig.SEG_SIZE_LST[0]);
+    ByteBuffer firstContent = page.takeSnapshot();
+    page.setDirtyFlag();
+    pageIOChannel.flushSinglePage(page);
+    Assert.assertEquals(firstContent, readFromFile(1));
+    Assert.assertEquals(firstContent, load(pageIOChannel, 1));
+
+    page.allocNewSegment(SchemaFileConfig.SEG_SIZE_LST[0]);
+    ByteBuffer secondContent = page.takeSnapshot();
+    Assert.assertNotEquals(firstContent, secondContent);
+    page.setDirtyFlag();
+    pageIOChannel.flushSinglePage(page);
+    Assert.assertEquals(secondContent, readFromFile(1));
+
+    // only dirty pages of the context are flushed
+    SchemaPageContext cxt = new SchemaPageContext();
+    List<ByteBuffer> contents = new ArrayList<>();
+    for (int i = 2; i < 5; i++) {
+      ISegmentedPage otherPage = newPage(i);
+      otherPage.allocNewSegment(SchemaFileConfig.SEG_SIZE_LST[i - 2]);
+      contents.add(otherPage.takeSnapshot());
+      cxt.markDirty(otherPage);
+    }
+    ISegmentedPage cleanPage = newPage(5);
+    cleanPage.allocNewSegment(SchemaFileConfig.SEG_SIZE_LST[0]);
+    cleanPage.takeSnapshot();
+    cxt.refer(cleanPage);
+    pageIOChannel.flushMultiPages(cxt);
+
+    Assert.assertEquals(secondContent, readFromFile(1));
+    for (int i = 2; i < 5; i++) {
+      Assert.assertEquals(contents.get(i - 2), readFromFile(i));
+    }
+    Assert.assertNotEquals(cleanPage.takeSnapshot(), readFromFile(5));
+    pageIOChannel.closeLogWriter();
+  }
+
+  @Test
+  public void testConcurrentFlush() throws Exception {
+    PageIOChannel pageIOChannel = new PageIOChannel(channel, pmtFile, true, logPath);
+    int threadNum = 4;
+    int pagesPerThread = 3;
+    List<ByteBuffer> contents = new ArrayList<>();
+    List<SchemaPageContext> contexts = new ArrayList<>();
+    for (int t = 0; t < threadNum; t++) {
+      SchemaPageContext cxt = new SchemaPageContext();
+      for (int i = 0; i < pagesPerThread; i++) {
+        ISegmentedPage page = newPage(t * pagesPerThread + i);
+        page.allocNewSegment(SchemaFileConfig.SEG_SIZE_LST[i]);
+        contents.add(page.takeSnapshot());
+        cxt.markDirty(page);
+      }
+      contexts.add(cxt);
+    }
+
+    // every flush returns after its pages are committed, whichever thread writes them
+    ExecutorService executor = Executors.newFixedThreadPool(threadNum);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (SchemaPageContext cxt : contexts) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  pageIOChannel.flushMultiPages(cxt);
+                  return null;
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    for (int i = 0; i < contents.size(); i++) {
+      Assert.assertEquals(contents.get(i), readFromFile(i));
+    }
+    pageIOChannel.closeLogWriter();
+  }
+
+  @Test
+  public void testPrefetch() throws Exception {
+    List<ByteBuffer> contents = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      ISegmentedPage page = newPage(i);
+      page.allocNewSegment(SchemaFileConfig.SEG_SIZE_LST[i]);
+      page.syncPageBuffer();
+      page.flushPageToChannel(channel);
+      contents.add(page.takeSnapshot());
+    }
+    BTreePageManager pageManager = new BTreePageManager(channel, pmtFile, 3, logPath);
+    try {
+      Assert.assertFalse(pageManager.pagePool.contains(2));
+      pageManager.prefetchPage(2);
+      long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+      while (!pageManager.pagePool.contains(2)) {
+        Assert.assertTrue(System.currentTimeMillis() < deadline);
+        TimeUnit.MILLISECONDS.sleep(10);
+      }
+
+      // the prefetched page is the one returned to readers
+      ISchemaPage prefetchedPage = pageManager.pagePool.get(2);
+      Assert.assertSame(prefetchedPage, pageManager.getPageInstance(2, new SchemaPageContext()));
+      Assert.assertEquals(contents.get(2), prefetchedPage.takeSnapshot());
+
+      // pages out of the file are not prefetched
+      pageManager.prefetchPage(4);
+      TimeUnit.MILLISECONDS.sleep(100);
+      Assert.assertFalse(pageManager.pagePool.contains(4));
+    } finally {
+      pageManager.close();
+    }
+  }
+
+  private static ISegmentedPage newPage(int index) {
+    return ISchemaPage.initSegmentedPage(ByteBuffer.allocate(SchemaFileConfig.PAGE_LENGTH), index);
+  }
+
+  private static ByteBuffer load(PageIOChannel pageIOChannel, int index) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(SchemaFileConfig.PAGE_LENGTH);
+    pageIOChannel.loadFromFileToBuffer(buffer, index);
+    buffer.flip();
+    return buffer;
+  }
+
+  private ByteBuffer readFromFile(int index) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(SchemaFileConfig.PAGE_LENGTH);
+    channel.read(buffer, SchemaFile.getPageAddress(index));
+    buffer.flip();
+    return buffer;
+  }
+}
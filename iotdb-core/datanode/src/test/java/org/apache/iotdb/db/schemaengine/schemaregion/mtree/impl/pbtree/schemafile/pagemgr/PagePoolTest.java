@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.pbtree.schemafile.pagemgr;
+
+import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.pbtree.schemafile.ISchemaPage;
+import org.apache.iotdb.db.schemaengine.schemaregion.mtree.impl.pbtree.schemafile.SchemaFileConfig;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class PagePoolTest {
+
+  private static final int CAPACITY = 4;
+
+  @Test
+  public void testClockEviction() {
+    PagePool pagePool = new PagePool(CAPACITY);
+    for (int i = 0; i < CAPACITY; i++) {
+      pagePool.put(newPage(i));
+    }
+    Assert.assertFalse(pagePool.hasVacancy());
+
+    // page 0 is referenced and page 1 is pinned, so page 2 is the first to be evicted
+    Assert.assertNotNull(pagePool.get(0));
+    ISchemaPage pinnedPage = pagePool.get(1);
+    pinnedPage.incrementAndGetRefCnt();
+    pagePool.put(newPage(4));
+    pagePool.releaseReferent(new SchemaPageContext());
+    assertPages(pagePool, 0, 1, 3, 4);
+
+    // pages are evicted in the order they entered the pool
+    pagePool.put(newPage(5));
+    pagePool.releaseReferent(new SchemaPageContext());
+    assertPages(pagePool, 0, 1, 4, 5);
+    pagePool.put(newPage(6));
+    pagePool.releaseReferent(new SchemaPageContext());
+    assertPages(pagePool, 0, 1, 5, 6);
+
+    // page 0 has used up its second chance, while page 1 is still pinned
+    pagePool.put(newPage(7));
+    pagePool.releaseReferent(new SchemaPageContext());
+    assertPages(pagePool, 1, 5, 6, 7);
+
+    // referenced pages are spared for one round only
+    pagePool.put(newPage(8));
+    for (int i = 5; i <= 8; i++) {
+      pagePool.get(i);
+    }
+    pagePool.releaseReferent(new SchemaPageContext());
+    assertPages(pagePool, 1, 6, 7, 8);
+    pinnedPage.decrementAndGetRefCnt();
+  }
+
+  @Test
+  public void testRemove() {
+    PagePool pagePool = new PagePool(CAPACITY);
+    for (int i = 0; i < CAPACITY; i++) {
+      pagePool.put(newPage(i));
+    }
+    long removalCount = pagePool.getRemovalCount();
+    pagePool.remove(1);
+    pagePool.remove(1);
+    Assert.assertEquals(removalCount + 1, pagePool.getRemovalCount());
+    Assert.assertTrue(pagePool.hasVacancy());
+
+    // the page put again keeps the position of the removed one
+    pagePool.put(newPage(1));
+    pagePool.put(newPage(4));
+    pagePool.releaseReferent(new SchemaPageContext());
+    assertPages(pagePool, 1, 2, 3, 4);
+    pagePool.put(newPage(5));
+    pagePool.releaseReferent(new SchemaPageContext());
+    assertPages(pagePool, 2, 3, 4, 5);
+
+    // removed pages exceeding the capacity are dropped from the clock at once
+    for (int i = 6; i < 6 + 2 * CAPACITY; i++) {
+      pagePool.put(newPage(i));
+      pagePool.remove(i);
+    }
+    pagePool.put(newPage(6));
+    pagePool.releaseReferent(new SchemaPageContext());
+    assertPages(pagePool, 3, 4, 5, 6);
+
+    pagePool.clear();
+    Assert.assertTrue(pagePool.hasVacancy());
+    Assert.assertNull(pagePool.get(3));
+  }
+
+  private static ISchemaPage newPage(int index) {
+    return ISchemaPage.initSegmentedPage(ByteBuffer.allocate(SchemaFileConfig.PAGE_LENGTH), index);
+  }
+
+  private static void assertPages(PagePool pagePool, int... indexes) {
+    for (int index : indexes) {
+      Assert.assertTrue("page " + index + " shall be cached", pagePool.contains(index));
+    }
+    Assert.assertFalse(pagePool.hasVacancy());
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.storageengine.dataregion.flush;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class AdaptiveEncodingSelectorTest {
+
+  @Test
+  public void testSelectIntegerEncoding() {
+    IMeasurementSchema schema =
+        new MeasurementSchema("s1", TSDataType.INT64, TSEncoding.PLAIN, CompressionType.LZ4);
+
+    // a counter with a regular step
+    SeriesValueSampler sampler = new SeriesValueSampler(TSDataType.INT64, 100);
+    for (long i = 0; i < 100; i++) {
+      sampler.sample(i * 10);
+    }
+    assertEquals(1, sampler.getDeltaRegularity(), 0.0001);
+    assertEquals(
+        TSEncoding.TS_2DIFF,
+        AdaptiveEncodingSelector.select(schema, sampler, AdaptiveEncodingSelector.STAGE_FLUSH)
+            .getEncodingType());
+
+    // a status code which rarely changes
+    sampler = new SeriesValueSampler(TSDataType.INT64, 100);
+    for (long i = 0; i < 100; i++) {
+      sampler.sample(i / 20 % 2 == 0 ? 200L : 500L);
+    }
+    assertEquals(
+        TSEncoding.RLE,
+        AdaptiveEncodingSelector.select(schema, sampler, AdaptiveEncodingSelector.STAGE_FLUSH)
+            .getEncodingType());
+  }
+
+  @Test
+  public void testSelectTextEncoding() {
+    IMeasurementSchema schema =
+        new MeasurementSchema("s1", TSDataType.TEXT, TSEncoding.PLAIN, CompressionType.LZ4);
+    SeriesValueSampler sampler = new SeriesValueSampler(TSDataType.TEXT, 100);
+    for (int i = 0; i < 100; i++) {
+      sampler.sample(new Binary("state" + i % 3, TSFileConfig.STRING_CHARSET));
+    }
+    assertEquals(0.03, sampler.getDistinctRatio(), 0.0001);
+    assertEquals(
+        TSEncoding.DICTIONARY,
+        AdaptiveEncodingSelector.select(schema, sampler, AdaptiveEncodingSelector.STAGE_FLUSH)
+            .getEncodingType());
+  }
+
+  @Test
+  public void testSelectCompressor() {
+    IMeasurementSchema schema =
+        new MeasurementSchema("s1", TSDataType.DOUBLE, TSEncoding.GORILLA, CompressionType.ZSTD);
+    Random random = new Random(0);
+    SeriesValueSampler sampler = new SeriesValueSampler(TSDataType.DOUBLE, 1000);
+    while (!sampler.isFull()) {
+      sampler.sample(random.nextDouble());
+    }
+    IMeasurementSchema selected =
+        AdaptiveEncodingSelector.select(schema, sampler, AdaptiveEncodingSelector.STAGE_COMPACTION);
+    assertEquals(TSEncoding.GORILLA, selected.getEncodingType());
+    assertEquals(CompressionType.LZ4, selected.getCompressor());
+
+    sampler = new SeriesValueSampler(TSDataType.DOUBLE, 1000);
+    while (!sampler.isFull()) {
+      sampler.sample(random.nextInt(4) * 0.5);
+    }
+    assertSame(
+        schema,
+        AdaptiveEncodingSelector.select(
+            schema, sampler, AdaptiveEncodingSelector.STAGE_COMPACTION));
+  }
+
+  @Test
+  public void testKeepLossyFloatEncoding() {
+    IMeasurementSchema schema =
+        new MeasurementSchema("s1", TSDataType.FLOAT, TSEncoding.TS_2DIFF, CompressionType.ZSTD);
+    SeriesValueSampler sampler = new SeriesValueSampler(TSDataType.FLOAT, 100);
+    for (int i = 0; i < 100; i++) {
+      sampler.sample(i * 0.1f);
+    }
+    assertSame(
+        schema,
+        AdaptiveEncodingSelector.select(schema, sampler, AdaptiveEncodingSelector.STAGE_FLUSH));
+  }
+}
@@ -20,6 +20,7 @@ package org.apache.iotdb.db.storageengine.dataregion.memtable;
 
 import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.db.exception.WriteProcessException;
+import org.apache.iotdb.db.exception.runtime.FlushRunTimeException;
 import org.apache.iotdb.db.storageengine.dataregion.flush.MemTableFlushTask;
 import org.apache.iotdb.db.utils.EnvironmentUtils;
 import org.apache.iotdb.db.utils.constant.TestConstant;
@@ -27,15 +28,19 @@ import org.apache.iotdb.db.utils.constant.TestConstant;
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.file.metadata.ChunkMetadata;
 import org.apache.tsfile.fileSystem.FSFactoryProducer;
+import org.apache.tsfile.write.chunk.IChunkWriter;
 import org.apache.tsfile.write.writer.RestorableTsFileIOWriter;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.Mockito;
 
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class MemTableFlushTaskTest {
 
@@ -105,6 +110,36 @@ public class MemTableFlushTaskTest {
     assertEquals(endTime - startTime + 1, chunkMetaData.getNumOfPoints());
   }
 
+  @Test
+  public void testFlushMemTableWithEncodingError() throws IllegalPathException {
+    MemTableTestUtils.produceData(
+        memTable,
+        startTime,
+        endTime,
+        MemTableTestUtils.deviceId0,
+        MemTableTestUtils.measurementId0,
+        MemTableTestUtils.dataType0);
+    Map<String, IWritableMemChunk> memChunkMap =
+        memTable.getMemTableMap().get(MemTableTestUtils.deviceId0).getMemChunkMap();
+    IWritableMemChunk memChunk = Mockito.spy(memChunkMap.get(MemTableTestUtils.measurementId0));
+    Mockito.doThrow(new IllegalStateException("encoding error"))
+        .when(memChunk)
+        .encode(Mockito.any(IChunkWriter.class));
+    memChunkMap.put(MemTableTestUtils.measurementId0, memChunk);
+
+    MemTableFlushTask memTableFlushTask =
+        new MemTableFlushTask(memTable, writer, storageGroup, dataRegionId);
+    try {
+      memTableFlushTask.syncFlushMemTable();
+      fail("the encoding error should fail the flush");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof FlushRunTimeException);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      fail(e.getMessage());
+    }
+  }
+
   @Test
   public void testFlushVectorMemTable()
       throws ExecutionException, InterruptedException, IllegalPathException, WriteProcessException {
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.migration;
+
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.commons.utils.FileUtils;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.storageengine.dataregion.modification.Deletion;
+import org.apache.iotdb.db.storageengine.dataregion.modification.ModificationFile;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResourceStatus;
+import org.apache.iotdb.db.storageengine.rescon.disk.TierManager;
+import org.apache.iotdb.db.storageengine.rescon.memory.TsFileResourceManager;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+
+import org.apache.tsfile.file.metadata.PlainDeviceID;
+import org.apache.tsfile.utils.TsFileGeneratorUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import static org.apache.tsfile.common.constant.TsFileConstant.PATH_SEPARATOR;
+
+public class MigrationTaskTest {
+  private final String[][] testDataDirs =
+      new String[][] {{"target/data/tier0"}, {"target/data/tier1"}};
+  private final String testSgName = "root.testsg";
+  private final File logDir = new File("target" + File.separator + "migration");
+
+  private String[][] originDataDirs;
+
+  @Before
+  public void setUp() throws Exception {
+    EnvironmentUtils.envSetUp();
+    originDataDirs = IoTDBDescriptor.getInstance().getConfig().getTierDataDirs();
+    IoTDBDescriptor.getInstance().getConfig().setTierDataDirs(testDataDirs);
+    TierManager.getInstance().resetFolders();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    IoTDBDescriptor.getInstance().getConfig().setTierDataDirs(originDataDirs);
+    TierManager.getInstance().resetFolders();
+    FileUtils.recursivelyDeleteFolder("target" + File.separator + "data");
+    FileUtils.recursivelyDeleteFolder(logDir.getPath());
+    EnvironmentUtils.cleanEnv();
+  }
+
+  private TsFileResource writeTsFile() throws Exception {
+    String filePath =
+        TierManager.getInstance().getNextFolderForTsFile(0, true)
+            + File.separator
+            + testSgName
+            + File.separator
+            + "0"
+            + File.separator
+            + "0"
+            + File.separator
+            + "1-1-0-0.tsfile";
+    File file = new File(filePath);
+    Assert.assertTrue(file.getParentFile().exists() || file.getParentFile().mkdirs());
+    TsFileGeneratorUtils.generateMixTsFile(filePath, 5, 5, 10, 0, 100, 10, 10);
+    TsFileResource resource = new TsFileResource(file);
+    for (int i = 0; i < 5; i++) {
+      resource.updateStartTime(new PlainDeviceID(testSgName + PATH_SEPARATOR + "d" + i), 0);
+      resource.updateEndTime(new PlainDeviceID(testSgName + PATH_SEPARATOR + "d" + i), 100);
+    }
+    resource.setStatusForTest(TsFileResourceStatus.NORMAL);
+    resource.serialize();
+    try (ModificationFile modFile = resource.getModFile()) {
+      modFile.write(new Deletion(new PartialPath(testSgName + ".d0.s0"), Long.MAX_VALUE, 0, 10));
+    }
+    return resource;
+  }
+
+  @Test
+  public void testMigrateToNextTier() throws Exception {
+    TsFileResource resource = writeTsFile();
+    File source = resource.getTsFile();
+    Assert.assertEquals(0, resource.getTierLevel());
+
+    new MigrationTask(resource, logDir, () -> {}).run();
+
+    File target = resource.getTsFile();
+    Assert.assertEquals(1, resource.getTierLevel());
+    Assert.assertEquals(1, TierManager.getInstance().getFileTierLevel(target));
+    Assert.assertEquals(TsFileResourceStatus.NORMAL, resource.getStatus());
+    Assert.assertTrue(target.exists());
+    Assert.assertTrue(MigrationTask.resourceFileOf(target).exists());
+    Assert.assertTrue(MigrationTask.modFileOf(target).exists());
+    Assert.assertEquals(1, resource.getModFile().getModifications().size());
+    Assert.assertFalse(source.exists());
+    Assert.assertFalse(MigrationTask.resourceFileOf(source).exists());
+    Assert.assertFalse(MigrationTask.modFileOf(source).exists());
+    File[] logs = logDir.listFiles();
+    Assert.assertTrue(logs == null || logs.length == 0);
+  }
+
+  @Test
+  public void testRemoveMigratedResource() throws Exception {
+    TsFileResourceManager manager = TsFileResourceManager.getInstance();
+    manager.clear();
+    TsFileResource resource = writeTsFile();
+    manager.registerSealedTsFileResource(resource);
+    Assert.assertEquals(1, manager.getPriorityQueueSize());
+
+    new MigrationTask(resource, logDir, () -> {}).run();
+    Assert.assertEquals(1, resource.getTierLevel());
+    Assert.assertEquals(1, manager.getPriorityQueueSize());
+
+    manager.removeTsFileResource(resource);
+    Assert.assertEquals(0, manager.getPriorityQueueSize());
+    Assert.assertEquals(0, manager.getTotalTimeIndexMemCost());
+  }
+
+  @Test
+  public void testSkipFileSelectedByCompaction() throws Exception {
+    TsFileResource resource = writeTsFile();
+    File source = resource.getTsFile();
+    Assert.assertTrue(resource.setStatus(TsFileResourceStatus.COMPACTION_CANDIDATE));
+
+    new MigrationTask(resource, logDir, () -> {}).run();
+
+    Assert.assertEquals(source, resource.getTsFile());
+    Assert.assertEquals(0, resource.getTierLevel());
+    Assert.assertTrue(source.exists());
+  }
+
+  @Test
+  public void testRecoverMigrationLog() throws Exception {
+    // a task interrupted before switching is rolled back
+    TsFileResource resource = writeTsFile();
+    File source = resource.getTsFile();
+    String targetFolder = TierManager.getInstance().getNextFolderForTsFile(1, true);
+    File target = MigrationTask.getTargetFile(targetFolder, source);
+    Assert.assertTrue(target.getParentFile().mkdirs());
+    Assert.assertTrue(target.createNewFile());
+    File migrationLogDir =
+        new File(
+            IoTDBDescriptor.getInstance().getConfig().getSystemDir(),
+            MigrationTaskManager.MIGRATION_LOG_FOLDER_NAME);
+    try (MigrationLogger logger =
+        new MigrationLogger(
+            new File(migrationLogDir, source.getName() + MigrationLogger.MIGRATION_LOG_SUFFIX))) {
+      logger.logSourceAndTarget(source, target);
+    }
+    MigrationTaskManager.getInstance().recover();
+    Assert.assertTrue(source.exists());
+    Assert.assertFalse(target.exists());
+
+    // a task interrupted after switching is finished
+    Files.copy(source.toPath(), target.toPath());
+    try (MigrationLogger logger =
+        new MigrationLogger(
+            new File(migrationLogDir, source.getName() + MigrationLogger.MIGRATION_LOG_SUFFIX))) {
+      logger.logSourceAndTarget(source, target);
+      logger.logSwitched();
+    }
+    MigrationTaskManager.getInstance().recover();
+    Assert.assertFalse(source.exists());
+    Assert.assertTrue(target.exists());
+    File[] logs = migrationLogDir.listFiles();
+    Assert.assertTrue(logs == null || logs.length == 0);
+  }
+}
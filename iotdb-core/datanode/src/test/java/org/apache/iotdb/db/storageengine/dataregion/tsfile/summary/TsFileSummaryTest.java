@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.storageengine.dataregion.tsfile.summary;
+
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.generator.TsFileNameGenerator;
+import org.apache.iotdb.db.utils.constant.TestConstant;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.exception.write.WriteProcessException;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.PlainDeviceID;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.read.common.Path;
+import org.apache.tsfile.read.filter.factory.ValueFilterApi;
+import org.apache.tsfile.write.TsFileWriter;
+import org.apache.tsfile.write.record.TSRecord;
+import org.apache.tsfile.write.record.datapoint.IntDataPoint;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+public class TsFileSummaryTest {
+
+  private static final String DEVICE_NAME = "root.sg.d1";
+  private static final IDeviceID DEVICE = new PlainDeviceID(DEVICE_NAME);
+  private static final String OTHER_DEVICE_NAME = "root.sg.d2";
+  private static final IDeviceID OTHER_DEVICE = new PlainDeviceID(OTHER_DEVICE_NAME);
+
+  private static final List<TSDataType> INT32 = Collections.singletonList(TSDataType.INT32);
+
+  private final File file =
+      new File(
+          TsFileNameGenerator.generateNewTsFilePath(TestConstant.BASE_OUTPUT_PATH, 1, 1, 1, 1));
+
+  @Before
+  public void setUp() throws IOException, WriteProcessException {
+    if (!file.getParentFile().exists()) {
+      Assert.assertTrue(file.getParentFile().mkdirs());
+    }
+    try (TsFileWriter writer = new TsFileWriter(file)) {
+      writer.registerTimeseries(
+          new Path(DEVICE_NAME), new MeasurementSchema("s1", TSDataType.INT32, TSEncoding.RLE));
+      writer.registerTimeseries(
+          new Path(OTHER_DEVICE_NAME),
+          new MeasurementSchema("s1", TSDataType.INT32, TSEncoding.RLE));
+      for (int i = 1; i <= 10; i++) {
+        writer.write(new TSRecord(i, DEVICE_NAME).addTuple(new IntDataPoint("s1", i)));
+        writer.write(new TSRecord(i, OTHER_DEVICE_NAME).addTuple(new IntDataPoint("s1", i + 10)));
+      }
+    }
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    FileUtils.deleteQuietly(file);
+    FileUtils.deleteQuietly(TsFileSummary.getSummaryFile(file));
+  }
+
+  @Test
+  public void testSerializeAndSkip() throws IOException {
+    TsFileSummary.generateAndSerialize(file);
+    Assert.assertTrue(TsFileSummary.getSummaryFile(file).exists());
+    TsFileSummary summary = TsFileSummary.deserialize(file, DEVICE);
+    Assert.assertFalse(summary.isEmpty());
+
+    Assert.assertTrue(
+        summary.canSkip(
+            DEVICE, Collections.singletonList("s1"), INT32, false, ValueFilterApi.gt(0, 10)));
+    Assert.assertFalse(
+        summary.canSkip(
+            DEVICE, Collections.singletonList("s1"), INT32, false, ValueFilterApi.gt(0, 5)));
+    // the series has no point in the file
+    Assert.assertTrue(
+        summary.canSkip(
+            DEVICE, Collections.singletonList("s2"), INT32, false, ValueFilterApi.gt(0, 5)));
+    // the series has been recreated with another type
+    Assert.assertFalse(
+        summary.canSkip(
+            DEVICE,
+            Collections.singletonList("s1"),
+            Collections.singletonList(TSDataType.DOUBLE),
+            false,
+            ValueFilterApi.gt(0, 10.0)));
+    // only the statistics of the requested device are loaded
+    Assert.assertFalse(
+        summary.canSkip(
+            OTHER_DEVICE, Collections.singletonList("s1"), INT32, false, ValueFilterApi.gt(0, 10)));
+
+    TsFileSummary otherSummary = TsFileSummary.deserialize(file, OTHER_DEVICE);
+    Assert.assertFalse(
+        otherSummary.canSkip(
+            OTHER_DEVICE, Collections.singletonList("s1"), INT32, false, ValueFilterApi.gt(0, 10)));
+    Assert.assertTrue(
+        otherSummary.canSkip(
+            OTHER_DEVICE, Collections.singletonList("s1"), INT32, false, ValueFilterApi.gt(0, 20)));
+
+    // the device is unknown to the summary
+    Assert.assertTrue(TsFileSummary.deserialize(file, new PlainDeviceID("root.sg.d3")).isEmpty());
+  }
+
+  @Test
+  public void testMissingSummary() throws IOException {
+    TsFileSummary summary = TsFileSummary.deserialize(file, DEVICE);
+    Assert.assertTrue(summary.isEmpty());
+    Assert.assertFalse(
+        summary.canSkip(
+            DEVICE, Collections.singletonList("s1"), INT32, false, ValueFilterApi.gt(0, 10)));
+  }
+}
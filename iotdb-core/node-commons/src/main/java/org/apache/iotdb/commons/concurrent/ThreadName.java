@@ -59,16 +59,20 @@ public enum ThreadName {
   // -------------------------- Flush --------------------------
   FLUSH("Flush"),
   FLUSH_SUB_TASK("Flush-SubTask"),
+  FLUSH_ENCODING("Flush-Encoding"),
   FLUSH_TASK_SUBMIT("FlushTask-Submit-Pool"),
   TIMED_FLUSH_SEQ_MEMTABLE("Timed-Flush-Seq-Memtable"),
   TIMED_FLUSH_UNSEQ_MEMTABLE("Timed-Flush-Unseq-Memtable"),
+  TSFILE_SUMMARY("TsFile-Summary"),
   // -------------------------- SchemaEngine --------------------------
   SCHEMA_REGION_RELEASE_PROCESSOR("SchemaRegion-Release-Task-Processor"),
   SCHEMA_REGION_RECOVER_TASK("SchemaRegion-Recover-Task"),
   SCHEMA_FORCE_MLOG("SchemaEngine-TimedForceMLog-Thread"),
+  SCHEMA_REGION_SNAPSHOT("SchemaRegion-Snapshot"),
   PBTREE_RELEASE_MONITOR("PBTree-Release-Task-Monitor"),
   PBTREE_FLUSH_MONITOR("PBTree-Flush-Monitor"),
   PBTREE_WORKER_POOL("PBTree-Worker-Pool"),
+  PBTREE_PAGE_IO("PBTree-Page-IO"),
   // -------------------------- ClientService --------------------------
   CLIENT_RPC_SERVICE("ClientRPC-Service"),
   CLIENT_RPC_PROCESSOR("ClientRPC-Processor"),
@@ -90,8 +94,10 @@ public enum ThreadName {
   CONFIG_NODE_LOAD_PUBLISHER("Cluster-LoadStatistics-Publisher"),
   // -------------------------- ConfigNode-RegionManagement --------------------------
   CONFIG_NODE_REGION_MAINTAINER("IoTDB-Region-Maintainer"),
+  CONFIG_NODE_DATA_PARTITION_PRE_CREATOR("IoTDB-DataPartition-PreCreator"),
   // -------------------------- ConfigNode-Recover --------------------------
   CONFIG_NODE_RECOVER("ConfigNode-Manager-Recovery"),
+  CONFIG_NODE_SNAPSHOT("ConfigNode-Snapshot"),
   // -------------------------- ConfigNode-Procedure ------------------------
   // TODO: Use Thread Pool to manage the procedure thread @Potato
   CONFIG_NODE_PROCEDURE_WORKER("ProcedureWorkerGroup"),
@@ -104,6 +110,8 @@ public enum ThreadName {
   IOT_CONSENSUS_RPC_PROCESSOR("IoTConsensusRPC-Processor"),
   ASYNC_DATANODE_IOT_CONSENSUS_CLIENT_POOL("AsyncDataNodeIoTConsensusServiceClientPool"),
   LOG_DISPATCHER("LogDispatcher"),
+  SHARED_LOG_DISPATCHER("SharedLogDispatcher"),
+  IOT_CONSENSUS_SNAPSHOT_TRANSMISSION("IoTConsensusSnapshotTransmission"),
   IOT_CONSENSUS_BACKGROUND_TASK_EXECUTOR("IoTConsensusBackgroundTaskExecutor"),
   // -------------------------- Ratis --------------------------
   // NOTICE: The thread name of ratis cannot be edited here!
@@ -169,6 +177,8 @@ public enum ThreadName {
   // -------------------------- Other --------------------------
   TTL_CHECK("TTL-CHECK"),
   SETTLE("Settle"),
+  TIER_MIGRATION_SCHEDULE("Tier-Migration-Schedule"),
+  TIER_MIGRATION_WORKER("Tier-Migration-Worker"),
   INFLUXDB_RPC_SERVICE("InfluxdbRPC-Service"),
   INFLUXDB_RPC_PROCESSOR("InfluxdbRPC-Processor"),
   STORAGE_ENGINE_CACHED_POOL("StorageEngine"),
@@ -216,9 +226,11 @@ public enum ThreadName {
           Arrays.asList(
               FLUSH,
               FLUSH_SUB_TASK,
+              FLUSH_ENCODING,
               FLUSH_TASK_SUBMIT,
               TIMED_FLUSH_SEQ_MEMTABLE,
-              TIMED_FLUSH_UNSEQ_MEMTABLE));
+              TIMED_FLUSH_UNSEQ_MEMTABLE,
+              TSFILE_SUMMARY));
   private static final Set<ThreadName> schemaEngineThreadNames =
       new HashSet<>(
           Arrays.asList(
@@ -226,8 +238,10 @@ public enum ThreadName {
               SCHEMA_REGION_RECOVER_TASK,
               PBTREE_RELEASE_MONITOR,
               SCHEMA_FORCE_MLOG,
+              SCHEMA_REGION_SNAPSHOT,
               PBTREE_FLUSH_MONITOR,
-              PBTREE_WORKER_POOL));
+              PBTREE_WORKER_POOL,
+              PBTREE_PAGE_IO));
 
   private static final Set<ThreadName> clientServiceThreadNames =
       new HashSet<>(Arrays.asList(CLIENT_RPC_SERVICE, CLIENT_RPC_PROCESSOR));
@@ -239,6 +253,8 @@ public enum ThreadName {
               IOT_CONSENSUS_RPC_PROCESSOR,
               ASYNC_DATANODE_IOT_CONSENSUS_CLIENT_POOL,
               LOG_DISPATCHER,
+              SHARED_LOG_DISPATCHER,
+              IOT_CONSENSUS_SNAPSHOT_TRANSMISSION,
               IOT_CONSENSUS_BACKGROUND_TASK_EXECUTOR));
 
   private static final Set<ThreadName> ratisThreadNames =
@@ -318,10 +334,11 @@ public enum ThreadName {
       new HashSet<>(Arrays.asList(CONFIG_NODE_LOAD_STATISTIC, CONFIG_NODE_LOAD_PUBLISHER));
 
   private static final Set<ThreadName> configNodeRegionManagementThreadNames =
-      new HashSet<>(Arrays.asList(CONFIG_NODE_REGION_MAINTAINER));
+      new HashSet<>(
+          Arrays.asList(CONFIG_NODE_REGION_MAINTAINER, CONFIG_NODE_DATA_PARTITION_PRE_CREATOR));
 
   private static final Set<ThreadName> configNodeRecoverThreadNames =
-      new HashSet<>(Arrays.asList(CONFIG_NODE_RECOVER));
+      new HashSet<>(Arrays.asList(CONFIG_NODE_RECOVER, CONFIG_NODE_SNAPSHOT));
 
   private static final Set<ThreadName> configNodeProcedureThreadNames =
       new HashSet<>(
@@ -345,6 +362,8 @@ public enum ThreadName {
           Arrays.asList(
               TTL_CHECK,
               SETTLE,
+              TIER_MIGRATION_SCHEDULE,
+              TIER_MIGRATION_WORKER,
               INFLUXDB_RPC_SERVICE,
               INFLUXDB_RPC_PROCESSOR,
               STORAGE_ENGINE_CACHED_POOL,
@@ -59,6 +59,11 @@ public class PartialPath extends Path implements Comparable<Path>, Cloneable {
 
   protected String[] nodes;
 
+  // Cached since device paths are interned and reused through the whole write process, reset
+  // whenever the nodes are changed
+  private int hash;
+  private IDeviceID fullDeviceID;
+
   public PartialPath() {}
 
   public PartialPath(IDeviceID device) throws IllegalPathException {
@@ -178,6 +183,8 @@ public class PartialPath extends Path implements Comparable<Path>, Cloneable {
     this.nodes = Arrays.copyOf(nodes, nodes.length + otherNodes.length);
     System.arraycopy(otherNodes, 0, nodes, len, otherNodes.length);
     fullPath = String.join(TsFileConstant.PATH_SEPARATOR, nodes);
+    hash = 0;
+    fullDeviceID = null;
   }
 
   /**
@@ -694,10 +701,17 @@ public class PartialPath extends Path implements Comparable<Path>, Cloneable {
 
   @Override
   public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
     if (!(obj instanceof PartialPath)) {
       return false;
     }
-    String[] otherNodes = ((PartialPath) obj).getNodes();
+    PartialPath other = (PartialPath) obj;
+    if (hash != 0 && other.hash != 0 && hash != other.hash) {
+      return false;
+    }
+    String[] otherNodes = other.getNodes();
     if (this.nodes.length != otherNodes.length) {
       return false;
     } else {
@@ -717,13 +731,29 @@ public class PartialPath extends Path implements Comparable<Path>, Cloneable {
 
   @Override
   public int hashCode() {
-    int h = 0;
-    for (String node : nodes) {
-      h += 31 * h + node.hashCode();
+    int h = hash;
+    if (h == 0) {
+      for (String node : nodes) {
+        h += 31 * h + node.hashCode();
+      }
+      hash = h;
     }
     return h;
   }
 
+  /**
+   * Get the {@link IDeviceID} of the device represented by this whole path, which is different
+   * from {@link #getIDeviceID()} returning the device of a timeseries path.
+   */
+  public IDeviceID getIDeviceIDAsFullDevice() {
+    IDeviceID deviceID = fullDeviceID;
+    if (deviceID == null) {
+      deviceID = new PlainDeviceID(getFullPath());
+      fullDeviceID = deviceID;
+    }
+    return deviceID;
+  }
+
   @Override
   public String getMeasurement() {
     return nodes[nodes.length - 1];
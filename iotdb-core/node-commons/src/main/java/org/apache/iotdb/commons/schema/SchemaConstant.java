@@ -56,6 +56,8 @@ public class SchemaConstant {
   public static final String TAG_LOG_SNAPSHOT_TMP = "tlog.txt.snapshot.tmp";
   public static final String MTREE_SNAPSHOT = "mtree.snapshot";
   public static final String MTREE_SNAPSHOT_TMP = "mtree.snapshot.tmp";
+  public static final String MTREE_SNAPSHOT_INDEX = "mtree.snapshot.index";
+  public static final String MTREE_SNAPSHOT_INDEX_TMP = "mtree.snapshot.index.tmp";
   public static final String SYSTEM_DATABASE = "root.__system";
   public static final String[] ALL_RESULT_NODES = new String[] {"root", "**"};
   public static final PartialPath ALL_MATCH_PATTERN = new PartialPath(ALL_RESULT_NODES);
@@ -79,6 +79,7 @@ public enum Metric {
   ACTIVE_MEMTABLE_COUNT("active_memtable_count"),
   ACTIVE_TIME_PARTITION_COUNT("active_time_partition_count"),
   MEMTABLE_LIVE_DURATION("memtable_live_duration"),
+  ADAPTIVE_ENCODING_SELECTION("adaptive_encoding_selection"),
 
   // compaction related
   DATA_WRITTEN("data_written"),
@@ -20,6 +20,7 @@ package org.apache.iotdb.commons.path;
 
 import org.apache.iotdb.commons.exception.IllegalPathException;
 
+import org.apache.tsfile.file.metadata.PlainDeviceID;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -752,6 +753,29 @@ public class PartialPathTest {
         });
   }
 
+  @Test
+  public void testCachedHashCodeAndDeviceID() throws IllegalPathException {
+    PartialPath path = new PartialPath("root.sg.d1");
+    PartialPath samePath = new PartialPath("root.sg.d1");
+    Assert.assertEquals(path.hashCode(), samePath.hashCode());
+    Assert.assertEquals(path, samePath);
+    Assert.assertNotEquals(path, new PartialPath("root.sg.d2"));
+
+    Assert.assertEquals(
+        "root.sg.d1", ((PlainDeviceID) path.getIDeviceIDAsFullDevice()).toStringID());
+    Assert.assertSame(path.getIDeviceIDAsFullDevice(), path.getIDeviceIDAsFullDevice());
+    Assert.assertEquals(path.getIDeviceIDAsFullDevice(), samePath.getIDeviceIDAsFullDevice());
+
+    // the cached values are reset once the nodes are changed
+    int hashCode = path.hashCode();
+    path.concatPath(new String[] {"d2"});
+    Assert.assertEquals(new PartialPath("root.sg.d1.d2").hashCode(), path.hashCode());
+    Assert.assertNotEquals(hashCode, path.hashCode());
+    Assert.assertEquals(new PartialPath("root.sg.d1.d2"), path);
+    Assert.assertEquals(
+        "root.sg.d1.d2", ((PlainDeviceID) path.getIDeviceIDAsFullDevice()).toStringID());
+  }
+
   private void checkIntersect(PartialPath pattern, PartialPath prefix, Set<PartialPath> expected) {
     List<PartialPath> actual = pattern.intersectWithPrefixPattern(prefix);
     for (PartialPath path : actual) {
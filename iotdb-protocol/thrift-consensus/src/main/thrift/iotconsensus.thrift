@@ -33,6 +33,12 @@ struct TSyncLogEntriesReq {
   1: required i32 peerId
   2: required common.TConsensusGroupId consensusGroupId
   3: required list<TLogEntry> logEntries
+  # compression type of the data of all logEntries, absent if they are not compressed
+  4: optional i8 compressionType
+  # searchIndex of the source peer when sending, the receiver has caught up with the source peer
+  # once it applies the logs up to it. Empty logEntries with it are a heartbeat of an idle source
+  # peer, which means all the logs up to it are already applied by the receiver
+  5: optional i64 leaderSearchIndex
 }
 
 struct TSyncLogEntriesRes {
@@ -82,6 +88,10 @@ struct TSendSnapshotFragmentReq {
   3: required string filePath
   4: required i64 chunkLength
   5: required binary fileChunk
+  # position of fileChunk in the file, absent means appending fileChunk to the file
+  6: optional i64 offset
+  # CRC32 checksum of the whole file, only set in the last fragment of the file
+  7: optional i64 fileChecksum
 }
 
 struct TWaitSyncLogCompleteReq {
@@ -130,6 +130,10 @@ struct TSExecuteStatementReq {
   6: optional bool enableRedirectQuery;
 
   7: optional bool jdbcQuery;
+
+  // The query may read data regions from any replica at most this stale in ms, instead of the
+  // leader. Absent or negative means reading from the leader.
+  8: optional i64 maxStalenessInMs;
 }
 
 struct TSExecuteBatchStatementReq{
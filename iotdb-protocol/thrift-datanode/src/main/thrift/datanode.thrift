@@ -135,6 +135,8 @@ struct TSendFragmentInstanceResp {
   1: required bool accepted
   2: optional string message
   3: optional bool needRetry
+  # the replica is too stale for the read with bounded staleness, so read another replica
+  4: optional bool staleReplica
 }
 
 struct TSendSinglePlanNodeReq {
@@ -271,6 +273,9 @@ struct TDataNodeHeartbeatReq {
   9: optional i64 deviceQuotaRemain
   10: optional TDataNodeActivation activation
   11: optional set<common.TEndPoint> configNodeEndPoints
+  // the version of the Region states that the ConfigNode holds for this DataNode, if it holds
+  // any. When it matches, the DataNode only reports the changed Region states
+  12: optional i64 regionStateVersion
 }
 
 struct TDataNodeActivation {
@@ -294,6 +299,14 @@ struct TDataNodeHeartbeatResp {
   11: optional string activateStatus
   12: optional set<common.TEndPoint> confirmedConfigNodeEndPoints
   13: optional map<common.TConsensusGroupId, i64> consensusLogicalTimeMap
+  // the version of the reported Region states
+  14: optional i64 regionStateVersion
+  // set if judgedLeaders and consensusLogicalTimeMap only contain the Regions changed since this
+  // version, in which case removedRegionIds contains the Regions no longer on this DataNode
+  15: optional i64 baseRegionStateVersion
+  16: optional list<common.TConsensusGroupId> removedRegionIds
+  // the total number of points written to each local DataRegion, sampled along with loadSample
+  17: optional map<common.TConsensusGroupId, i64> regionWrittenPointsMap
 }
 
 struct TPipeHeartbeatReq {